@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Aggregation of content bytes into single array.
+ * <p>
+ * If content size is known, bytes are copied to the array of exactly this size as soon as
+ * they are received. Otherwise received buffers are collected as is and copied to the array
+ * of their total size on completion. Either way every byte is copied only once and
+ * the array is not bigger than the content. Publisher should not modify buffers
+ * after they are emitted.
+ * </p>
+ * @since 1.15
+ */
+public final class Aggregation {
+
+    /**
+     * Max length of array.
+     */
+    private static final long MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * Content to aggregate.
+     */
+    private final Content content;
+
+    /**
+     * Ctor.
+     * @param content Content to aggregate
+     */
+    public Aggregation(final Content content) {
+        this.content = content;
+    }
+
+    /**
+     * Aggregates all bytes of content.
+     * @return Single array of content bytes
+     */
+    public Single<byte[]> bytes() {
+        return Flowable.fromPublisher(this.content).collect(
+            () -> new Chunks(this.content.size()),
+            Chunks::add
+        ).map(Chunks::bytes);
+    }
+
+    /**
+     * Chunks of content bytes.
+     * @since 1.15
+     */
+    private static final class Chunks {
+
+        /**
+         * Array of expected content size, null if size is unknown or was exceeded.
+         */
+        private byte[] exact;
+
+        /**
+         * Amount of bytes received.
+         */
+        private long total;
+
+        /**
+         * Received buffers, used if array of expected size is null.
+         */
+        private final List<ByteBuffer> parts;
+
+        /**
+         * Ctor.
+         * @param size Expected content size, if known
+         */
+        Chunks(final Optional<Long> size) {
+            if (size.isPresent() && size.get() >= 0 && size.get() <= Aggregation.MAX_LENGTH) {
+                this.exact = new byte[size.get().intValue()];
+            }
+            this.parts = new ArrayList<>(0);
+        }
+
+        /**
+         * Adds buffer.
+         * @param buf Buffer
+         */
+        void add(final ByteBuffer buf) {
+            final int len = buf.remaining();
+            if (this.exact != null && this.total + len <= this.exact.length) {
+                buf.duplicate().get(this.exact, (int) this.total, len);
+            } else {
+                if (this.exact != null) {
+                    this.parts.add(ByteBuffer.wrap(this.exact, 0, (int) this.total));
+                    this.exact = null;
+                }
+                this.parts.add(buf.duplicate());
+            }
+            this.total += len;
+        }
+
+        /**
+         * All received bytes.
+         * @return Array of bytes
+         */
+        byte[] bytes() {
+            final byte[] res;
+            if (this.exact == null) {
+                if (this.total > Aggregation.MAX_LENGTH) {
+                    throw new ArtipieIOException(
+                        String.format("Content is too large to aggregate: %d", this.total)
+                    );
+                }
+                res = new byte[(int) this.total];
+                int pos = 0;
+                for (final ByteBuffer part : this.parts) {
+                    final int len = part.remaining();
+                    part.get(res, pos, len);
+                    pos += len;
+                }
+            } else if (this.total == this.exact.length) {
+                res = this.exact;
+            } else {
+                res = Arrays.copyOf(this.exact, (int) this.total);
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cqfn.rio.file.File;
+
+/**
+ * Broadcast of content to several consumers.
+ * <p>
+ * Origin content is subscribed once, when all expected consumers subscribed to
+ * {@link #content()}, and every buffer is passed to each of them. Buffers are kept
+ * in bounded shared queue and are requested from origin as fast as the slowest
+ * consumer requests them. Consumers receive own duplicates of buffers, so they
+ * can consume them independently.
+ * </p>
+ * <p>
+ * If spill file is provided, all bytes are also written to this file while they are
+ * passed to consumers, and {@link #replay()} content reads them from the file after origin
+ * is completed, e.g. for consumers which come later. Spill file is owned by the caller.
+ * </p>
+ * @since 1.15
+ */
+public final class Broadcast {
+
+    /**
+     * Origin content.
+     */
+    private final Content origin;
+
+    /**
+     * Amount of consumers.
+     */
+    private final int consumers;
+
+    /**
+     * Spill file, if enabled.
+     */
+    private final Optional<Path> spill;
+
+    /**
+     * Shared flow of origin buffers.
+     */
+    private final Flowable<ByteBuffer> shared;
+
+    /**
+     * Amount of subscriptions to {@link #content()}.
+     */
+    private final AtomicInteger subscriptions;
+
+    /**
+     * Whether spill file writing was started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Completion of spill file writing.
+     */
+    private final CompletableFuture<Void> spilled;
+
+    /**
+     * Broadcast without spill file.
+     * @param origin Origin content
+     * @param consumers Amount of consumers
+     */
+    public Broadcast(final Content origin, final int consumers) {
+        this(origin, consumers, Optional.empty());
+    }
+
+    /**
+     * Broadcast with spill file.
+     * @param origin Origin content
+     * @param consumers Amount of consumers
+     * @param spill Spill file
+     */
+    public Broadcast(final Content origin, final int consumers, final Path spill) {
+        this(origin, consumers, Optional.of(spill));
+    }
+
+    /**
+     * Primary ctor.
+     * @param origin Origin content
+     * @param consumers Amount of consumers
+     * @param spill Spill file, if enabled
+     */
+    private Broadcast(final Content origin, final int consumers, final Optional<Path> spill) {
+        this.origin = origin;
+        this.consumers = consumers;
+        this.spill = spill;
+        int parties = consumers;
+        if (spill.isPresent()) {
+            parties += 1;
+        }
+        this.shared = Flowable.fromPublisher(origin).publish().autoConnect(parties);
+        this.subscriptions = new AtomicInteger();
+        this.started = new AtomicBoolean();
+        this.spilled = new CompletableFuture<>();
+    }
+
+    /**
+     * Content for one of consumers.
+     * <p>
+     * Origin is subscribed when all consumers subscribed, subscriptions above
+     * amount of consumers fail.
+     * </p>
+     * @return Content
+     */
+    public Content content() {
+        return new Content.From(
+            this.origin.size(),
+            subscriber -> {
+                final int num = this.subscriptions.incrementAndGet();
+                if (num > this.consumers) {
+                    Flowable.<ByteBuffer>error(
+                        new ArtipieIOException(
+                            String.format(
+                                "Broadcast has only %d consumers, failed on #%d subscription",
+                                this.consumers, num
+                            )
+                        )
+                    ).subscribe(subscriber);
+                } else {
+                    this.start();
+                    this.shared.map(ByteBuffer::duplicate).subscribe(subscriber);
+                }
+            }
+        );
+    }
+
+    /**
+     * Content replayed from spill file.
+     * <p>
+     * It is published after origin is completed and written to spill file,
+     * and may be subscribed many times. It fails if spill file is not provided.
+     * </p>
+     * @return Content
+     */
+    public Content replay() {
+        return new Content.From(
+            this.origin.size(),
+            Flowable.defer(
+                () -> {
+                    final Flowable<ByteBuffer> res;
+                    if (this.spill.isPresent()) {
+                        this.start();
+                        final Path path = this.spill.get();
+                        res = CompletableInterop.fromFuture(this.spilled).andThen(
+                            Flowable.defer(() -> new File(path).content())
+                        );
+                    } else {
+                        res = Flowable.error(
+                            new ArtipieIOException("Broadcast has no spill file to replay")
+                        );
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Starts writing spill file, if it is enabled and was not started yet.
+     */
+    private void start() {
+        if (this.spill.isPresent() && this.started.compareAndSet(false, true)) {
+            new File(this.spill.get()).write(
+                this.shared.map(ByteBuffer::duplicate),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            ).whenComplete(
+                (nothing, err) -> {
+                    if (err == null) {
+                        this.spilled.complete(null);
+                    } else {
+                        this.spilled.completeExceptionally(err);
+                    }
+                }
+            );
+        }
+    }
+}
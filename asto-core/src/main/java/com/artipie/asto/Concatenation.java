@@ -4,14 +4,16 @@
  */
 package com.artipie.asto;
 
-import io.reactivex.Flowable;
 import io.reactivex.Single;
 import java.nio.ByteBuffer;
 import org.reactivestreams.Publisher;
 
 /**
  * Concatenation of {@link ByteBuffer} instances.
- *
+ * <p>
+ * Buffers are aggregated by {@link Aggregation}, so the result buffer
+ * has exactly the capacity of all bytes.
+ * </p>
  * @since 0.17
  */
 public class Concatenation {
@@ -36,24 +38,12 @@ public class Concatenation {
      * @return Single buffer.
      */
     public Single<ByteBuffer> single() {
-        return Flowable.fromPublisher(this.source).reduce(
-            ByteBuffer.allocate(0),
-            (left, right) -> {
-                right.mark();
-                final ByteBuffer result;
-                if (left.capacity() - left.limit() >= right.limit()) {
-                    left.position(left.limit());
-                    left.limit(left.limit() + right.limit());
-                    result = left.put(right);
-                } else {
-                    result = ByteBuffer.allocate(
-                        2 * Math.max(left.capacity(), right.capacity())
-                    ).put(left).put(right);
-                }
-                right.reset();
-                result.flip();
-                return result;
-            }
-        );
+        final Content content;
+        if (this.source instanceof Content) {
+            content = (Content) this.source;
+        } else {
+            content = new Content.From(this.source);
+        }
+        return new Aggregation(content).bytes().map(ByteBuffer::wrap);
     }
 }
@@ -6,6 +6,7 @@ package com.artipie.asto;
 
 import com.artipie.asto.rx.RxStorageWrapper;
 import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import java.util.Collection;
 import java.util.HashSet;
@@ -13,9 +14,15 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 
 /**
  * Storage synchronization.
+ * <p>
+ * If both storages are backed by the same storage, for instance they are
+ * sub storages of one storage, values are copied by {@link Storage#copy(Key, Key)}
+ * of that storage without reading them.
+ * </p>
  * @since 0.19
  */
 public class Copy {
@@ -80,10 +87,44 @@ public class Copy {
             .map(lst -> lst.stream().filter(this.predicate).collect(Collectors.toList()))
             .flatMapObservable(Observable::fromIterable)
             .flatMapCompletable(
-                key -> rxsrc.value(key).flatMapCompletable(content -> rxdst.save(key, content))
+                key -> {
+                    final ImmutablePair<Storage, Key> src = Copy.locate(this.from, key);
+                    final ImmutablePair<Storage, Key> dst = Copy.locate(dest, key);
+                    final Completable res;
+                    if (!src.getLeft().equals(dst.getLeft())) {
+                        res = rxsrc.value(key).flatMapCompletable(
+                            content -> rxdst.save(key, content)
+                        );
+                    } else if (src.getRight().string().equals(dst.getRight().string())) {
+                        res = Completable.complete();
+                    } else {
+                        res = Completable.defer(
+                            () -> CompletableInterop.fromFuture(
+                                src.getLeft().copy(src.getRight(), dst.getRight())
+                            )
+                        );
+                    }
+                    return res;
+                }
             )
             .to(CompletableInterop.await())
             .thenApply(ignore -> (Void) null)
             .toCompletableFuture();
     }
+
+    /**
+     * Locates value in backing storage.
+     * @param storage Storage
+     * @param key Key in storage
+     * @return Backing storage and key of value in it
+     */
+    private static ImmutablePair<Storage, Key> locate(final Storage storage, final Key key) {
+        final ImmutablePair<Storage, Key> res;
+        if (storage instanceof SubStorage) {
+            res = ((SubStorage) storage).locate(key);
+        } else {
+            res = ImmutablePair.of(storage, key);
+        }
+        return res;
+    }
 }
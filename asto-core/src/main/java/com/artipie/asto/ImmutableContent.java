@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Content of bytes which are already in memory.
+ * <p>
+ * Bytes are not copied: subscribers receive read-only views of the backing buffer,
+ * so the backing array or buffer must not be modified after the content is created.
+ * Consumers which need all bytes at once, like {@link com.artipie.asto.ext.PublisherAs},
+ * read them by {@link #buffer()} without subscription and concatenation.
+ * </p>
+ * @since 1.15
+ */
+public final class ImmutableContent implements Content {
+
+    /**
+     * Read-only backing buffer.
+     */
+    private final ByteBuffer buf;
+
+    /**
+     * Whether content was consumed, absent if content can be consumed many times.
+     */
+    private final Optional<AtomicBoolean> consumed;
+
+    /**
+     * Content of byte array, array is not copied.
+     * @param bytes Bytes
+     */
+    public ImmutableContent(final byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Content of remaining bytes of buffer, buffer is not copied.
+     * @param buffer Buffer
+     */
+    public ImmutableContent(final ByteBuffer buffer) {
+        this(buffer.slice().asReadOnlyBuffer(), Optional.empty());
+    }
+
+    /**
+     * Primary ctor.
+     * @param buf Read-only backing buffer
+     * @param consumed Whether content was consumed, absent if it can be consumed many times
+     */
+    private ImmutableContent(final ByteBuffer buf, final Optional<AtomicBoolean> consumed) {
+        this.buf = buf;
+        this.consumed = consumed;
+    }
+
+    /**
+     * The same content which can be consumed only once,
+     * like {@link Content.OneTime}.
+     * @return One time content
+     */
+    public ImmutableContent oneTime() {
+        return new ImmutableContent(this.buf, Optional.of(new AtomicBoolean()));
+    }
+
+    /**
+     * All bytes of content.
+     * @return Read-only view of the backing buffer
+     * @throws ArtipieIOException If one time content was already consumed
+     */
+    public ByteBuffer buffer() {
+        if (this.consumed.isPresent() && this.consumed.get().getAndSet(true)) {
+            throw new ArtipieIOException("The content could not be consumed more than once");
+        }
+        return this.buf.duplicate();
+    }
+
+    @Override
+    public Optional<Long> size() {
+        return Optional.of((long) this.buf.remaining());
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        Flowable.defer(
+            () -> {
+                final Flowable<ByteBuffer> res;
+                final ByteBuffer all = this.buffer();
+                if (all.hasRemaining()) {
+                    res = Flowable.just(all);
+                } else {
+                    res = Flowable.empty();
+                }
+                return res;
+            }
+        ).subscribe(subscriber);
+    }
+}
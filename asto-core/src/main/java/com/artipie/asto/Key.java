@@ -5,14 +5,13 @@
 package com.artipie.asto;
 
 import com.artipie.ArtipieException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Storage key.
@@ -105,6 +104,11 @@ public interface Key {
 
     /**
      * Key from something.
+     * <p>
+     * Key is immutable: parts are split once by constructor, key string is validated
+     * and joined on first access and then cached as well as hash code. Parent key shares
+     * parts of this key, so it's cheap to walk up the keys hierarchy.
+     * </p>
      * @since 0.6
      */
     final class From implements Key {
@@ -114,12 +118,22 @@ public interface Key {
          */
         private final List<String> parts;
 
+        /**
+         * Key string, null if it was not validated and joined yet.
+         */
+        private String str;
+
+        /**
+         * Hash code, zero if it was not computed yet.
+         */
+        private int hash;
+
         /**
          * Ctor.
          * @param parts Parts delimited by `/` symbol
          */
         public From(final String parts) {
-            this(parts.split(Key.DELIMITER));
+            this(From.split(parts), From.valid(parts));
         }
 
         /**
@@ -137,10 +151,8 @@ public interface Key {
          */
         public From(final Key first, final Key second) {
             this(
-                Stream.concat(
-                    new From(first).parts.stream(),
-                    new From(second).parts.stream()
-                ).collect(Collectors.toList())
+                From.concat(From.partsOf(first), From.partsOf(second)),
+                From.join(first, second)
             );
         }
 
@@ -150,40 +162,43 @@ public interface Key {
          * @param parts Parts
          */
         public From(final Key base, final String... parts) {
-            this(
-                Stream.concat(
-                    new From(base.string()).parts.stream(),
-                    Arrays.stream(parts)
-                ).collect(Collectors.toList())
-            );
+            this(From.concat(From.partsOf(base), Arrays.asList(parts)));
         }
 
         /**
          * Ctor.
          * @param parts Parts
          */
-        @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
         public From(final List<String> parts) {
-            if (parts.size() == 1 && parts.get(0).isEmpty()) {
-                this.parts = Collections.emptyList();
-            } else {
-                this.parts = parts.stream()
-                    .flatMap(part -> Arrays.stream(part.split("/")))
-                    .collect(Collectors.toList());
-            }
+            this(From.normalized(parts), null);
+        }
+
+        /**
+         * Primary ctor.
+         * @param parts Parts split by delimiter
+         * @param str Key string if it's known to be valid, null otherwise
+         */
+        private From(final List<String> parts, final String str) {
+            this.parts = parts;
+            this.str = str;
         }
 
         @Override
         public String string() {
-            for (final String part : this.parts) {
-                if (part.isEmpty()) {
-                    throw new ArtipieException("Empty parts are not allowed");
-                }
-                if (part.contains(Key.DELIMITER)) {
-                    throw new ArtipieException(String.format("Invalid part: '%s'", part));
+            String res = this.str;
+            if (res == null) {
+                for (final String part : this.parts) {
+                    if (part.isEmpty()) {
+                        throw new ArtipieException("Empty parts are not allowed");
+                    }
+                    if (part.contains(Key.DELIMITER)) {
+                        throw new ArtipieException(String.format("Invalid part: '%s'", part));
+                    }
                 }
+                res = String.join(Key.DELIMITER, this.parts);
+                this.str = res;
             }
-            return String.join(Key.DELIMITER, this.parts);
+            return res;
         }
 
         @Override
@@ -192,8 +207,15 @@ public interface Key {
             if (this.parts.isEmpty()) {
                 parent = Optional.empty();
             } else {
+                final String cached = this.str;
+                final String pstr;
+                if (cached == null) {
+                    pstr = null;
+                } else {
+                    pstr = cached.substring(0, Math.max(0, cached.lastIndexOf(Key.DELIMITER)));
+                }
                 parent = Optional.of(
-                    new Key.From(this.parts.subList(0, this.parts.size() - 1))
+                    new Key.From(this.parts.subList(0, this.parts.size() - 1), pstr)
                 );
             }
             return parent;
@@ -201,30 +223,138 @@ public interface Key {
 
         @Override
         public List<String> parts() {
-            return Collections.unmodifiableList(this.parts);
+            return this.parts;
         }
 
         @Override
         public boolean equals(final Object another) {
+            final boolean res;
             if (this == another) {
-                return true;
-            }
-            if (another == null || getClass() != another.getClass()) {
-                return false;
+                res = true;
+            } else if (another == null || this.getClass() != another.getClass()) {
+                res = false;
+            } else {
+                final From from = (From) another;
+                res = this.hashCode() == from.hashCode() && this.parts.equals(from.parts);
             }
-            final From from = (From) another;
-            return Objects.equals(this.parts, from.parts);
+            return res;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(this.parts);
+            int res = this.hash;
+            if (res == 0) {
+                res = Objects.hash(this.parts);
+                this.hash = res;
+            }
+            return res;
         }
 
         @Override
         public String toString() {
             return this.string();
         }
-    }
 
+        /**
+         * Splits parts into single parts by delimiter.
+         * @param parts Parts
+         * @return Unmodifiable list of parts
+         */
+        private static List<String> normalized(final List<String> parts) {
+            final List<String> res;
+            if (parts.size() == 1 && parts.get(0).isEmpty()) {
+                res = Collections.emptyList();
+            } else {
+                final List<String> list = new ArrayList<>(parts.size());
+                for (final String part : parts) {
+                    if (part.contains(Key.DELIMITER)) {
+                        list.addAll(Arrays.asList(part.split(Key.DELIMITER)));
+                    } else {
+                        list.add(part);
+                    }
+                }
+                res = Collections.unmodifiableList(list);
+            }
+            return res;
+        }
+
+        /**
+         * Splits key string into parts.
+         * @param str Key string
+         * @return Unmodifiable list of parts
+         */
+        private static List<String> split(final String str) {
+            return From.normalized(Arrays.asList(str.split(Key.DELIMITER)));
+        }
+
+        /**
+         * Checks that key string is valid as is.
+         * @param str Key string
+         * @return The string if it has no empty parts, null otherwise
+         */
+        private static String valid(final String str) {
+            final String res;
+            if (str.isEmpty()
+                || !str.startsWith(Key.DELIMITER)
+                && !str.endsWith(Key.DELIMITER)
+                && !str.contains("//")) {
+                res = str;
+            } else {
+                res = null;
+            }
+            return res;
+        }
+
+        /**
+         * Parts of key.
+         * @param key Key
+         * @return Parts of key split by delimiter
+         */
+        private static List<String> partsOf(final Key key) {
+            final List<String> res;
+            if (key instanceof From) {
+                res = ((From) key).parts;
+            } else {
+                res = From.split(key.string());
+            }
+            return res;
+        }
+
+        /**
+         * Joins string of two keys.
+         * @param first First key
+         * @param second Second key
+         * @return Key string if both keys are valid {@link From} keys, null otherwise
+         */
+        private static String join(final Key first, final Key second) {
+            final String res;
+            if (first instanceof From && second instanceof From) {
+                final String head = first.string();
+                final String tail = second.string();
+                if (head.isEmpty()) {
+                    res = tail;
+                } else if (tail.isEmpty()) {
+                    res = head;
+                } else {
+                    res = String.join(Key.DELIMITER, head, tail);
+                }
+            } else {
+                res = null;
+            }
+            return res;
+        }
+
+        /**
+         * Concatenates parts.
+         * @param first First parts
+         * @param second Second parts
+         * @return Unmodifiable list of parts
+         */
+        private static List<String> concat(final List<String> first, final List<String> second) {
+            final List<String> res = new ArrayList<>(first.size() + second.size());
+            res.addAll(first);
+            res.addAll(second);
+            return Collections.unmodifiableList(res);
+        }
+    }
 }
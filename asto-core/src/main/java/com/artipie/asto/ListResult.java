@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeSet;
+
+/**
+ * Result of hierarchical listing: keys of the level and common prefixes of deeper keys.
+ * @since 1.15
+ */
+public interface ListResult {
+
+    /**
+     * Empty listing result.
+     */
+    ListResult EMPTY = new ListResult.Simple(Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * Keys of values on the listed level.
+     * @return Keys sorted by key strings
+     */
+    Collection<Key> files();
+
+    /**
+     * Common prefixes of keys below the listed level.
+     * @return Prefixes sorted by key strings
+     */
+    Collection<Key> directories();
+
+    /**
+     * Simple listing result.
+     * @since 1.15
+     */
+    final class Simple implements ListResult {
+
+        /**
+         * Keys of values.
+         */
+        private final Collection<Key> fls;
+
+        /**
+         * Common prefixes.
+         */
+        private final Collection<Key> dirs;
+
+        /**
+         * Ctor.
+         * @param files Keys of values
+         * @param directories Common prefixes
+         */
+        public Simple(final Collection<Key> files, final Collection<Key> directories) {
+            this.fls = files;
+            this.dirs = directories;
+        }
+
+        @Override
+        public Collection<Key> files() {
+            return Collections.unmodifiableCollection(this.fls);
+        }
+
+        @Override
+        public Collection<Key> directories() {
+            return Collections.unmodifiableCollection(this.dirs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("files: %s, directories: %s", this.fls, this.dirs);
+        }
+    }
+
+    /**
+     * Listing result collapsed from the full list of keys.
+     * @since 1.15
+     */
+    final class Collapsed implements ListResult {
+
+        /**
+         * Listed prefix.
+         */
+        private final Key prefix;
+
+        /**
+         * Keys delimiter.
+         */
+        private final String delimiter;
+
+        /**
+         * All keys with prefix.
+         */
+        private final Collection<Key> keys;
+
+        /**
+         * Ctor.
+         * @param prefix Listed prefix
+         * @param delimiter Keys delimiter
+         * @param keys All keys with prefix
+         */
+        public Collapsed(final Key prefix, final String delimiter, final Collection<Key> keys) {
+            this.prefix = prefix;
+            this.delimiter = delimiter;
+            this.keys = keys;
+        }
+
+        @Override
+        public Collection<Key> files() {
+            final Collection<Key> res = new TreeSet<>(Key.CMP_STRING);
+            final String root = this.root();
+            for (final Key key : this.keys) {
+                final String str = key.string();
+                if (str.startsWith(root)
+                    && str.indexOf(this.delimiter, root.length()) < 0) {
+                    res.add(key);
+                }
+            }
+            return res;
+        }
+
+        @Override
+        public Collection<Key> directories() {
+            final Collection<Key> res = new TreeSet<>(Key.CMP_STRING);
+            final String root = this.root();
+            for (final Key key : this.keys) {
+                final String str = key.string();
+                if (str.startsWith(root)) {
+                    final int pos = str.indexOf(this.delimiter, root.length());
+                    if (pos >= 0) {
+                        res.add(new Key.From(str.substring(0, pos)));
+                    }
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Prefix of keys on the listed level.
+         * @return Prefix string followed by delimiter, empty for root
+         */
+        private String root() {
+            final String res;
+            if (this.prefix.string().isEmpty()) {
+                res = "";
+            } else {
+                res = String.join("", this.prefix.string(), this.delimiter);
+            }
+            return res;
+        }
+    }
+}
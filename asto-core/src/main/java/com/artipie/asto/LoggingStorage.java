@@ -4,12 +4,15 @@
  */
 package com.artipie.asto;
 
+import io.reactivex.Flowable;
 import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.reactivestreams.Publisher;
 
 /**
  * Storage that logs performed operations.
@@ -77,6 +80,42 @@ public final class LoggingStorage implements Storage {
         );
     }
 
+    @Override
+    public Publisher<Key> list(final Key prefix, final Key after, final int limit) {
+        return Flowable.fromPublisher(this.storage.list(prefix, after, limit)).doOnComplete(
+            () -> this.log(
+                "List '%s' after '%s' by %d: completed", prefix.string(), after.string(), limit
+            )
+        );
+    }
+
+    @Override
+    public Publisher<Map.Entry<Key, Meta>> listMetadata(
+        final Key prefix, final Key after, final int limit
+    ) {
+        return Flowable.fromPublisher(this.storage.listMetadata(prefix, after, limit))
+            .doOnComplete(
+                () -> this.log(
+                    "List metadata '%s' after '%s' by %d: completed",
+                    prefix.string(), after.string(), limit
+                )
+            );
+    }
+
+    @Override
+    public CompletableFuture<ListResult> list(final Key prefix, final String delimiter) {
+        return this.storage.list(prefix, delimiter).thenApply(
+            result -> {
+                this.log(
+                    "List '%s' by '%s': %s files, %s directories",
+                    prefix.string(), delimiter,
+                    result.files().size(), result.directories().size()
+                );
+                return result;
+            }
+        );
+    }
+
     @Override
     public CompletableFuture<Void> save(final Key key, final Content content) {
         return this.storage.save(key, content).thenApply(
@@ -87,6 +126,28 @@ public final class LoggingStorage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        return this.storage.saveIfAbsent(key, content).thenApply(
+            result -> {
+                this.log("Save if absent '%s': %s", key.string(), result);
+                return result;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        return this.storage.saveIfMatch(key, content, version).thenApply(
+            result -> {
+                this.log("Save if match '%s' '%s': %s", key.string(), version, result);
+                return result;
+            }
+        );
+    }
+
     @Override
     public CompletableFuture<Void> move(final Key source, final Key destination) {
         return this.storage.move(source, destination).thenApply(
@@ -97,6 +158,16 @@ public final class LoggingStorage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        return this.storage.copy(source, destination).thenApply(
+            result -> {
+                this.log("Copy '%s' '%s'", source.string(), destination.string());
+                return result;
+            }
+        );
+    }
+
     // @checkstyle MissingDeprecatedCheck (5 lines)
     @Override
     @Deprecated
@@ -119,6 +190,16 @@ public final class LoggingStorage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        return this.storage.value(key, range).thenApply(
+            result -> {
+                this.log("Value '%s' [%s]: %s", key.string(), range, result.size());
+                return result;
+            }
+        );
+    }
+
     @Override
     public CompletableFuture<Void> delete(final Key key) {
         return this.storage.delete(key).thenApply(
@@ -162,6 +243,16 @@ public final class LoggingStorage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Map<Key, Meta>> metadata(final Collection<Key> keys) {
+        return this.storage.metadata(keys).thenApply(
+            result -> {
+                this.log("Metadata of %d keys: %s", keys.size(), result.size());
+                return result;
+            }
+        );
+    }
+
     /**
      * Log message.
      *
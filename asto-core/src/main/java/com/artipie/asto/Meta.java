@@ -4,6 +4,7 @@
  */
 package com.artipie.asto;
 
+import com.artipie.asto.ext.Digests;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
@@ -12,15 +13,41 @@ import java.util.function.Function;
 
 /**
  * Storage content metadata.
+ * <p>
+ * Common metadata is available by typed accessors, e.g. {@link #size()}, implementations
+ * provide them directly from storage attributes, without building raw metadata map
+ * and parsing strings. Any metadata is available by read operators from raw metadata map,
+ * e.g. {@link #OP_SIZE}, typed accessors read it by default.
+ * </p>
  * @since 1.9
  */
 public interface Meta {
 
+    /**
+     * Size of the value when it is unknown.
+     */
+    long UNKNOWN_SIZE = -1L;
+
     /**
      * Operator for MD5 hash.
      */
     OpRWSimple<String> OP_MD5 = new OpRWSimple<>("md5", Function.identity());
 
+    /**
+     * Operator for SHA-1 hash.
+     */
+    OpRWSimple<String> OP_SHA1 = new OpRWSimple<>("sha1", Function.identity());
+
+    /**
+     * Operator for SHA-256 hash.
+     */
+    OpRWSimple<String> OP_SHA256 = new OpRWSimple<>("sha256", Function.identity());
+
+    /**
+     * Operator for SHA-512 hash.
+     */
+    OpRWSimple<String> OP_SHA512 = new OpRWSimple<>("sha512", Function.identity());
+
     /**
      * Operator for size.
      */
@@ -41,6 +68,15 @@ public interface Meta {
      */
     OpRWSimple<Instant> OP_ACCESSED_AT = new OpRWSimple<>("accessed-at", Instant::parse);
 
+    /**
+     * Operator for version of the value.
+     * <p>
+     * Version is an opaque string which changes when the value is replaced,
+     * it's used as expected version of {@link Storage#saveIfMatch(Key, Content, String)}.
+     * </p>
+     */
+    OpRWSimple<String> OP_VERSION = new OpRWSimple<>("version", Function.identity());
+
     /**
      * Empty metadata.
      */
@@ -59,6 +95,39 @@ public interface Meta {
      */
     <T> T read(Meta.ReadOperator<T> opr);
 
+    /**
+     * Size of the value.
+     * @return Size in bytes, or {@link #UNKNOWN_SIZE} if it is unknown
+     */
+    default long size() {
+        return this.read(Meta.OP_SIZE).map(Long::longValue).orElse(Meta.UNKNOWN_SIZE);
+    }
+
+    /**
+     * Time of the last value update.
+     * @return Update time, empty if unknown
+     */
+    default Optional<Instant> updatedAt() {
+        return this.read(Meta.OP_UPDATED_AT).map(Function.<Instant>identity());
+    }
+
+    /**
+     * Version of the value, see {@link #OP_VERSION}.
+     * @return Version, empty if unknown
+     */
+    default Optional<String> version() {
+        return this.read(Meta.OP_VERSION).map(Function.<String>identity());
+    }
+
+    /**
+     * Hex digest of the value, e.g. {@link #OP_SHA256} for {@link Digests#SHA256}.
+     * @param digest Digest algorithm
+     * @return Hex digest, empty if it is not available
+     */
+    default Optional<String> digest(final Digests digest) {
+        return this.read(digest.operator()).map(Function.<String>identity());
+    }
+
     /**
      * Metadata read operator.
      * @param <T> Result type
@@ -30,8 +30,10 @@ public final class MetaCommon {
      * @return Size
      */
     public long size() {
-        return this.meta.read(Meta.OP_SIZE).orElseThrow(
-            () -> new ArtipieException("SIZE couldn't be read")
-        ).longValue();
+        final long size = this.meta.size();
+        if (size == Meta.UNKNOWN_SIZE) {
+            throw new ArtipieException("SIZE couldn't be read");
+        }
+        return size;
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import java.util.Optional;
+
+/**
+ * Range of bytes of storage value.
+ * <p>
+ * Range starts at offset and spans the specified amount of bytes or, if length
+ * is not specified, up to the end of the value. Range is clipped by actual value size
+ * when applied, so range which starts after the end of the value is empty.
+ * </p>
+ * @since 1.15
+ */
+public final class Range {
+
+    /**
+     * Range covering the whole value.
+     */
+    public static final Range FULL = new Range(0L);
+
+    /**
+     * Offset of the first byte.
+     */
+    private final long start;
+
+    /**
+     * Amount of bytes, if limited.
+     */
+    private final Optional<Long> count;
+
+    /**
+     * Range from offset up to the end of the value.
+     * @param offset Offset of the first byte
+     */
+    public Range(final long offset) {
+        this(offset, Optional.empty());
+    }
+
+    /**
+     * Range of specified length.
+     * @param offset Offset of the first byte
+     * @param length Amount of bytes, should be positive
+     */
+    public Range(final long offset, final long length) {
+        this(offset, Optional.of(length));
+    }
+
+    /**
+     * Ctor.
+     * @param offset Offset of the first byte
+     * @param length Amount of bytes, if limited
+     */
+    private Range(final long offset, final Optional<Long> length) {
+        if (offset < 0) {
+            throw new IllegalArgumentException(
+                String.format("Range offset should not be negative: %d", offset)
+            );
+        }
+        if (length.isPresent() && length.get() <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Range length should be positive: %d", length.get())
+            );
+        }
+        this.start = offset;
+        this.count = length;
+    }
+
+    /**
+     * Offset of the first byte.
+     * @return Offset
+     */
+    public long offset() {
+        return this.start;
+    }
+
+    /**
+     * Amount of bytes, empty if range spans up to the end of the value.
+     * @return Length if limited
+     */
+    public Optional<Long> length() {
+        return this.count;
+    }
+
+    /**
+     * Offset of the byte next to the last one in range for value of specified size.
+     * @param size Value size
+     * @return Exclusive end offset, not greater than size
+     */
+    public long end(final long size) {
+        final long end;
+        if (this.count.isPresent() && size - this.start > this.count.get()) {
+            end = this.start + this.count.get();
+        } else {
+            end = size;
+        }
+        return end;
+    }
+
+    /**
+     * Amount of bytes this range covers in value of specified size.
+     * @param size Value size
+     * @return Amount of bytes in range, zero if range starts after the end of value
+     */
+    public long size(final long size) {
+        return Math.max(0L, this.end(size) - this.start);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        final boolean res;
+        if (this == other) {
+            res = true;
+        } else if (other == null || this.getClass() != other.getClass()) {
+            res = false;
+        } else {
+            final Range that = (Range) other;
+            res = this.start == that.start && this.count.equals(that.count);
+        }
+        return res;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.start) * 31 + this.count.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d-%s", this.start, this.count.map(len -> String.valueOf(this.start + len - 1))
+                .orElse("")
+        );
+    }
+}
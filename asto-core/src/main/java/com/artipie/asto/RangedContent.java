@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Content limited by {@link Range}.
+ * <p>
+ * Skips origin bytes before range start and cancels origin subscription as soon
+ * as range end is reached. Emitted buffers are views of origin buffers, bytes are not copied.
+ * It's a generic fallback for storages without native support of ranged reads.
+ * </p>
+ * @since 1.15
+ */
+public final class RangedContent implements Content {
+
+    /**
+     * Origin content.
+     */
+    private final Content origin;
+
+    /**
+     * Range to read.
+     */
+    private final Range range;
+
+    /**
+     * Range of byte array, array is not copied and exposed as read-only buffer.
+     * @param bytes Bytes
+     * @param range Range to read
+     */
+    public RangedContent(final byte[] bytes, final Range range) {
+        this(
+            new Content.From(
+                bytes.length, Flowable.just(ByteBuffer.wrap(bytes).asReadOnlyBuffer())
+            ),
+            range
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin content
+     * @param range Range to read
+     */
+    public RangedContent(final Content origin, final Range range) {
+        this.origin = origin;
+        this.range = range;
+    }
+
+    @Override
+    public Optional<Long> size() {
+        return this.origin.size().map(this.range::size);
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        final long start = this.range.offset();
+        final long end = this.range.end(Long.MAX_VALUE);
+        Flowable.defer(
+            () -> {
+                final AtomicLong pos = new AtomicLong();
+                return Flowable.fromPublisher(this.origin)
+                    .map(
+                        buf -> {
+                            final int rem = buf.remaining();
+                            final long first = pos.getAndAdd(rem);
+                            final int from = (int) Math.min(rem, Math.max(0L, start - first));
+                            final int till = (int) Math.max(from, Math.min(rem, end - first));
+                            final ByteBuffer part = buf.duplicate();
+                            part.limit(buf.position() + till);
+                            part.position(buf.position() + from);
+                            return part.slice();
+                        }
+                    )
+                    .takeUntil(part -> pos.get() >= end)
+                    .filter(ByteBuffer::hasRemaining);
+            }
+        ).subscribe(subscriber);
+    }
+}
@@ -6,10 +6,18 @@ package com.artipie.asto;
 
 import com.artipie.ArtipieException;
 import com.artipie.asto.fs.FileStorage;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
 
 /**
  * The storage.
@@ -40,6 +48,81 @@ public interface Storage {
      */
     CompletableFuture<Collection<Key>> list(Key prefix);
 
+    /**
+     * Lists keys that start with this prefix lazily, in ascending order of key strings.
+     * <p>
+     * Keys are emitted as soon as they are fetched, so the listing is never held in memory
+     * as a whole. Listing starts after the specified key, which allows to continue it from
+     * the last received key. Default implementation filters the result of {@link #list(Key)},
+     * storages should override it to fetch keys page by page.
+     * </p>
+     *
+     * @param prefix The prefix.
+     * @param after Key to list keys after, {@link Key#ROOT} to list from the start.
+     * @param limit Max amount of keys to list.
+     * @return Publisher of relative keys.
+     */
+    default Publisher<Key> list(final Key prefix, final Key after, final int limit) {
+        return Flowable.defer(
+            () -> SingleInterop.fromFuture(this.list(prefix)).flattenAsFlowable(
+                keys -> keys.stream()
+                    .filter(key -> key.string().compareTo(after.string()) > 0)
+                    .sorted(Key.CMP_STRING)
+                    .collect(Collectors.toList())
+            )
+        ).take(limit);
+    }
+
+    /**
+     * Lists keys that start with this prefix lazily together with their metadata.
+     * <p>
+     * Keys are listed like {@link #list(Key, Key, int)}. Storages which receive size,
+     * modification time or version of values with the listing should override it to build
+     * metadata from listing data, default implementation requests metadata of listed keys,
+     * several keys at once, keeping the order of keys.
+     * </p>
+     *
+     * @param prefix The prefix.
+     * @param after Key to list keys after, {@link Key#ROOT} to list from the start.
+     * @param limit Max amount of keys to list.
+     * @return Publisher of relative keys with metadata.
+     */
+    default Publisher<Map.Entry<Key, Meta>> listMetadata(
+        final Key prefix, final Key after, final int limit
+    ) {
+        return Flowable.fromPublisher(this.list(prefix, after, limit)).concatMapEager(
+            key -> SingleInterop.fromFuture(
+                this.metadata(key).thenApply(
+                    meta -> (Map.Entry<Key, Meta>) new AbstractMap.SimpleImmutableEntry<Key, Meta>(
+                        key, meta
+                    )
+                )
+            ).toFlowable(),
+            // @checkstyle MagicNumberCheck (1 line)
+            16,
+            1
+        );
+    }
+
+    /**
+     * Lists one level of keys that start with this prefix.
+     * <p>
+     * Unlike {@link #list(Key)}, keys below the level are not listed, but collapsed to
+     * their common prefixes up to the next delimiter, like directories in file system.
+     * Default implementation collapses the result of {@link #list(Key)}, storages should
+     * override it to read only the requested level.
+     * </p>
+     *
+     * @param prefix The prefix.
+     * @param delimiter Delimiter of key parts, usually {@link Key#DELIMITER}.
+     * @return Keys of the level and common prefixes of deeper keys.
+     */
+    default CompletableFuture<ListResult> list(final Key prefix, final String delimiter) {
+        return this.list(prefix).thenApply(
+            keys -> new ListResult.Collapsed(prefix, delimiter, keys)
+        );
+    }
+
     /**
      * Saves the bytes to the specified key.
      *
@@ -49,6 +132,81 @@ public interface Storage {
      */
     CompletableFuture<Void> save(Key key, Content content);
 
+    /**
+     * Saves the bytes to the specified key only if the key has no value yet.
+     * <p>
+     * Default implementation checks and saves the value under {@link #exclusively(Key, Function)}
+     * lock, storages with conditional writes should override it to save the value
+     * atomically by single request.
+     * </p>
+     *
+     * @param key The key
+     * @param content Bytes to save
+     * @return True if value was saved, false if the key already has a value.
+     */
+    default CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        return this.exclusively(
+            key,
+            sto -> sto.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Boolean> res;
+                    if (exists) {
+                        res = CompletableFuture.completedFuture(false);
+                    } else {
+                        res = sto.save(key, content).thenApply(nothing -> true);
+                    }
+                    return res;
+                }
+            )
+        ).toCompletableFuture();
+    }
+
+    /**
+     * Saves the bytes to the specified key only if current version of the value matches.
+     * <p>
+     * Version of the value is read from its metadata by {@link Meta#OP_VERSION}, so
+     * read-modify-write cycle can be done with optimistic concurrency: read value and its
+     * version, then save new value if version was not changed, otherwise start again.
+     * Default implementation checks and saves the value under {@link #exclusively(Key, Function)}
+     * lock, storages with conditional writes should override it.
+     * </p>
+     *
+     * @param key The key
+     * @param content Bytes to save
+     * @param version Expected version of current value
+     * @return True if value was saved, false if value is absent or has another version.
+     */
+    default CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        return this.exclusively(
+            key,
+            sto -> sto.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Boolean> res;
+                    if (exists) {
+                        res = sto.metadata(key).thenApply(
+                            meta -> meta.version().map(version::equals).orElse(false)
+                        );
+                    } else {
+                        res = CompletableFuture.completedFuture(false);
+                    }
+                    return res;
+                }
+            ).thenCompose(
+                matches -> {
+                    final CompletionStage<Boolean> res;
+                    if (matches) {
+                        res = sto.save(key, content).thenApply(nothing -> true);
+                    } else {
+                        res = CompletableFuture.completedFuture(false);
+                    }
+                    return res;
+                }
+            )
+        ).toCompletableFuture();
+    }
+
     /**
      * Moves value from one location to another.
      *
@@ -58,6 +216,21 @@ public interface Storage {
      */
     CompletableFuture<Void> move(Key source, Key destination);
 
+    /**
+     * Copies value from one location to another.
+     * <p>
+     * Default implementation reads the value and saves it to the destination,
+     * storages should override it to copy value without transferring its bytes.
+     * </p>
+     *
+     * @param source Source key.
+     * @param destination Destination key.
+     * @return Completion or error signal.
+     */
+    default CompletableFuture<Void> copy(final Key source, final Key destination) {
+        return this.value(source).thenCompose(content -> this.save(destination, content));
+    }
+
     /**
      * Get value size.
      *
@@ -68,11 +241,15 @@ public interface Storage {
     @Deprecated
     default CompletableFuture<Long> size(final Key key) {
         return this.metadata(key).thenApply(
-            meta -> meta.read(Meta.OP_SIZE).orElseThrow(
-                () -> new ArtipieException(
-                    String.format("SIZE could't be read for %s key", key.string())
-                )
-            )
+            meta -> {
+                final long size = meta.size();
+                if (size == Meta.UNKNOWN_SIZE) {
+                    throw new ArtipieException(
+                        String.format("SIZE could't be read for %s key", key.string())
+                    );
+                }
+                return size;
+            }
         );
     }
 
@@ -83,6 +260,33 @@ public interface Storage {
      */
     CompletableFuture<? extends Meta> metadata(Key key);
 
+    /**
+     * Get metadata of several values.
+     * <p>
+     * Fails if any of values does not exist. Default implementation requests metadata
+     * of several keys at once, storages which fetch metadata of many keys by single
+     * request should override it.
+     * </p>
+     * @param keys Content keys
+     * @return Future with metadata by key, in the order of keys
+     */
+    default CompletableFuture<Map<Key, Meta>> metadata(final Collection<Key> keys) {
+        return Flowable.fromIterable(keys).concatMapEager(
+            key -> SingleInterop.fromFuture(
+                this.metadata(key).thenApply(
+                    meta -> (Map.Entry<Key, Meta>) new AbstractMap.SimpleImmutableEntry<Key, Meta>(
+                        key, meta
+                    )
+                )
+            ).toFlowable(),
+            // @checkstyle MagicNumberCheck (1 line)
+            16,
+            1
+        ).<Map<Key, Meta>>collect(
+            LinkedHashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue())
+        ).to(SingleInterop.get()).toCompletableFuture();
+    }
+
     /**
      * Obtain bytes by key.
      *
@@ -91,6 +295,22 @@ public interface Storage {
      */
     CompletableFuture<Content> value(Key key);
 
+    /**
+     * Obtain range of bytes by key.
+     * <p>
+     * Range is clipped by value size, so range which starts after the end of the value
+     * produces empty content. Default implementation reads value from the beginning and skips
+     * bytes before range start, storages with random access to values should override it.
+     * </p>
+     *
+     * @param key The key
+     * @param range Range of bytes
+     * @return Bytes of the range.
+     */
+    default CompletableFuture<Content> value(final Key key, final Range range) {
+        return this.value(key).thenApply(content -> new RangedContent(content, range));
+    }
+
     /**
      * Removes value from storage. Fails if value does not exist.
      *
@@ -101,21 +321,25 @@ public interface Storage {
 
     /**
      * Removes all items with key prefix.
+     * <p>
+     * Default implementation lists keys and removes them one by one, several keys at once.
+     * Storages with bulk removal should override it.
+     * </p>
      *
-     * @implNote It is important that keys are deleted sequentially.
      * @param prefix Key prefix.
      * @return Completion or error signal.
      */
     default CompletableFuture<Void> deleteAll(final Key prefix) {
-        return this.list(prefix).thenCompose(
-            keys -> {
-                CompletableFuture<Void> res = CompletableFuture.allOf();
-                for (final Key key : keys) {
-                    res = res.thenCompose(noth -> this.delete(key));
-                }
-                return res;
-            }
-        );
+        return SingleInterop.fromFuture(this.list(prefix))
+            .flattenAsFlowable(keys -> keys)
+            .flatMapCompletable(
+                key -> CompletableInterop.fromFuture(this.delete(key)),
+                false,
+                // @checkstyle MagicNumberCheck (1 line)
+                16
+            ).to(CompletableInterop.await())
+            .<Void>thenApply(ignored -> null)
+            .toCompletableFuture();
     }
 
     /**
@@ -162,16 +386,50 @@ public interface Storage {
             return this.delegate.list(prefix);
         }
 
+        @Override
+        public Publisher<Key> list(final Key prefix, final Key after, final int limit) {
+            return this.delegate.list(prefix, after, limit);
+        }
+
+        @Override
+        public Publisher<Map.Entry<Key, Meta>> listMetadata(
+            final Key prefix, final Key after, final int limit
+        ) {
+            return this.delegate.listMetadata(prefix, after, limit);
+        }
+
+        @Override
+        public CompletableFuture<ListResult> list(final Key prefix, final String delimiter) {
+            return this.delegate.list(prefix, delimiter);
+        }
+
         @Override
         public CompletableFuture<Void> save(final Key key, final Content content) {
             return this.delegate.save(key, content);
         }
 
+        @Override
+        public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+            return this.delegate.saveIfAbsent(key, content);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> saveIfMatch(
+            final Key key, final Content content, final String version
+        ) {
+            return this.delegate.saveIfMatch(key, content, version);
+        }
+
         @Override
         public CompletableFuture<Void> move(final Key source, final Key destination) {
             return this.delegate.move(source, destination);
         }
 
+        @Override
+        public CompletableFuture<Void> copy(final Key source, final Key destination) {
+            return this.delegate.copy(source, destination);
+        }
+
         @Override
         public CompletableFuture<Long> size(final Key key) {
             return this.delegate.size(key);
@@ -182,6 +440,11 @@ public interface Storage {
             return this.delegate.value(key);
         }
 
+        @Override
+        public CompletableFuture<Content> value(final Key key, final Range range) {
+            return this.delegate.value(key, range);
+        }
+
         @Override
         public CompletableFuture<Void> delete(final Key key) {
             return this.delegate.delete(key);
@@ -204,5 +467,10 @@ public interface Storage {
         public CompletableFuture<? extends Meta> metadata(final Key key) {
             return this.delegate.metadata(key);
         }
+
+        @Override
+        public CompletableFuture<Map<Key, Meta>> metadata(final Collection<Key> keys) {
+            return this.delegate.metadata(keys);
+        }
     }
 }
@@ -6,12 +6,18 @@ package com.artipie.asto;
 
 import com.artipie.asto.ext.CompletableFutureSupport;
 import com.artipie.asto.lock.storage.StorageLock;
+import io.reactivex.Flowable;
+import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.reactivestreams.Publisher;
 
 /**
  * Sub storage is a storage in storage.
@@ -57,6 +63,44 @@ public final class SubStorage implements Storage {
         );
     }
 
+    @Override
+    public Publisher<Key> list(final Key filter, final Key after, final int limit) {
+        final Pattern ptn = Pattern.compile(String.format("^%s/", this.prefix.string()));
+        return Flowable.fromPublisher(
+            this.origin.list(
+                new PrefixedKed(this.prefix, filter), new PrefixedKed(this.prefix, after), limit
+            )
+        ).map(key -> new Key.From(ptn.matcher(key.string()).replaceFirst("")));
+    }
+
+    @Override
+    public Publisher<Map.Entry<Key, Meta>> listMetadata(
+        final Key filter, final Key after, final int limit
+    ) {
+        final Pattern ptn = Pattern.compile(String.format("^%s/", this.prefix.string()));
+        return Flowable.fromPublisher(
+            this.origin.listMetadata(
+                new PrefixedKed(this.prefix, filter), new PrefixedKed(this.prefix, after), limit
+            )
+        ).map(
+            entry -> new AbstractMap.SimpleImmutableEntry<>(
+                new Key.From(ptn.matcher(entry.getKey().string()).replaceFirst("")),
+                entry.getValue()
+            )
+        );
+    }
+
+    @Override
+    public CompletableFuture<ListResult> list(final Key filter, final String delimiter) {
+        final Pattern ptn = Pattern.compile(String.format("^%s/", this.prefix.string()));
+        final Function<Collection<Key>, Collection<Key>> strip = keys -> keys.stream()
+            .map(key -> new Key.From(ptn.matcher(key.string()).replaceFirst("")))
+            .collect(Collectors.toList());
+        return this.origin.list(new PrefixedKed(this.prefix, filter), delimiter).thenApply(
+            res -> new ListResult.Simple(strip.apply(res.files()), strip.apply(res.directories()))
+        );
+    }
+
     @Override
     public CompletableFuture<Void> save(final Key key, final Content content) {
         final CompletableFuture<Void> res;
@@ -70,6 +114,34 @@ public final class SubStorage implements Storage {
         return res;
     }
 
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        final CompletableFuture<Boolean> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else {
+            res = this.origin.saveIfAbsent(new PrefixedKed(this.prefix, key), content);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        final CompletableFuture<Boolean> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else {
+            res = this.origin.saveIfMatch(new PrefixedKed(this.prefix, key), content, version);
+        }
+        return res;
+    }
+
     @Override
     public CompletableFuture<Void> move(final Key source, final Key destination) {
         return this.origin.move(
@@ -78,6 +150,14 @@ public final class SubStorage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        return this.origin.copy(
+            new PrefixedKed(this.prefix, source),
+            new PrefixedKed(this.prefix, destination)
+        );
+    }
+
     // @checkstyle MissingDeprecatedCheck (5 lines)
     @Override
     @Deprecated
@@ -90,16 +170,43 @@ public final class SubStorage implements Storage {
         return this.origin.metadata(new PrefixedKed(this.prefix, key));
     }
 
+    @Override
+    public CompletableFuture<Map<Key, Meta>> metadata(final Collection<Key> keys) {
+        final Map<String, Key> prefixed = new LinkedHashMap<>();
+        for (final Key key : keys) {
+            prefixed.put(new PrefixedKed(this.prefix, key).string(), key);
+        }
+        return this.origin.metadata(
+            prefixed.keySet().stream().map(Key.From::new).collect(Collectors.toList())
+        ).thenApply(
+            metas -> {
+                final Map<Key, Meta> res = new LinkedHashMap<>();
+                metas.forEach((key, meta) -> res.put(prefixed.get(key.string()), meta));
+                return res;
+            }
+        );
+    }
+
     @Override
     public CompletableFuture<Content> value(final Key key) {
         return this.origin.value(new PrefixedKed(this.prefix, key));
     }
 
+    @Override
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        return this.origin.value(new PrefixedKed(this.prefix, key), range);
+    }
+
     @Override
     public CompletableFuture<Void> delete(final Key key) {
         return this.origin.delete(new PrefixedKed(this.prefix, key));
     }
 
+    @Override
+    public CompletableFuture<Void> deleteAll(final Key filter) {
+        return this.origin.deleteAll(new PrefixedKed(this.prefix, filter));
+    }
+
     @Override
     public <T> CompletionStage<T> exclusively(
         final Key key,
@@ -108,6 +215,22 @@ public final class SubStorage implements Storage {
         return new UnderLockOperation<>(new StorageLock(this, key), operation).perform(this);
     }
 
+    /**
+     * Locates value in origin storage, nested sub storages are unwrapped.
+     * @param key Key in this storage
+     * @return Origin storage and key of value in it
+     */
+    ImmutablePair<Storage, Key> locate(final Key key) {
+        final Key prefixed = new PrefixedKed(this.prefix, key);
+        final ImmutablePair<Storage, Key> res;
+        if (this.origin instanceof SubStorage) {
+            res = ((SubStorage) this.origin).locate(prefixed);
+        } else {
+            res = ImmutablePair.of(this.origin, prefixed);
+        }
+        return res;
+    }
+
     /**
      * Key with prefix.
      * @since 0.21
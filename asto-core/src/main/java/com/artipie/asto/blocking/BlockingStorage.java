@@ -4,11 +4,10 @@
  */
 package com.artipie.asto.blocking;
 
-import com.artipie.asto.Concatenation;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
-import com.artipie.asto.Remaining;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
 import java.util.Collection;
 
 /**
@@ -73,6 +72,16 @@ public class BlockingStorage {
         this.storage.move(source, destination).join();
     }
 
+    /**
+     * Copies value from one location to another.
+     *
+     * @param source Source key.
+     * @param destination Destination key.
+     */
+    public void copy(final Key source, final Key destination) {
+        this.storage.copy(source, destination).join();
+    }
+
     /**
      * Get value size.
      *
@@ -92,12 +101,9 @@ public class BlockingStorage {
      * @return Value associated with the key
      */
     public byte[] value(final Key key) {
-        return new Remaining(
-            this.storage.value(key).thenApplyAsync(
-                pub -> new Concatenation(pub).single().blockingGet()
-            ).join(),
-            true
-        ).bytes();
+        return this.storage.value(key)
+            .thenCompose(content -> new PublisherAs(content).bytes())
+            .toCompletableFuture().join();
     }
 
     /**
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counters of {@link CachedStorage}.
+ * @since 1.15
+ */
+public final class CacheStats {
+
+    /**
+     * Hits by kind of request.
+     */
+    private final Map<Kind, LongAdder> hits;
+
+    /**
+     * Misses by kind of request.
+     */
+    private final Map<Kind, LongAdder> misses;
+
+    /**
+     * Ctor.
+     */
+    public CacheStats() {
+        this.hits = new EnumMap<>(Kind.class);
+        this.misses = new EnumMap<>(Kind.class);
+        for (final Kind kind : Kind.values()) {
+            this.hits.put(kind, new LongAdder());
+            this.misses.put(kind, new LongAdder());
+        }
+    }
+
+    /**
+     * Number of requests answered from cache.
+     * @param kind Kind of request
+     * @return Number of hits
+     */
+    public long hits(final Kind kind) {
+        return this.hits.get(kind).sum();
+    }
+
+    /**
+     * Number of requests passed to origin storage.
+     * @param kind Kind of request
+     * @return Number of misses
+     */
+    public long misses(final Kind kind) {
+        return this.misses.get(kind).sum();
+    }
+
+    /**
+     * Ratio of hits to all requests.
+     * @param kind Kind of request
+     * @return Hit rate from 0 to 1, 0 if there were no requests
+     */
+    public double hitRate(final Kind kind) {
+        final long hit = this.hits(kind);
+        final long total = hit + this.misses(kind);
+        final double res;
+        if (total == 0) {
+            res = 0;
+        } else {
+            res = (double) hit / total;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder res = new StringBuilder(0);
+        for (final Kind kind : Kind.values()) {
+            if (res.length() > 0) {
+                res.append(", ");
+            }
+            res.append(
+                String.format(
+                    "%s: %d hits, %d misses",
+                    kind.name().toLowerCase(Locale.US), this.hits(kind), this.misses(kind)
+                )
+            );
+        }
+        return res.toString();
+    }
+
+    /**
+     * Counts hit.
+     * @param kind Kind of request
+     */
+    void hit(final Kind kind) {
+        this.hits.get(kind).increment();
+    }
+
+    /**
+     * Counts miss.
+     * @param kind Kind of request
+     */
+    void miss(final Kind kind) {
+        this.misses.get(kind).increment();
+    }
+
+    /**
+     * Kind of cached request.
+     * @since 1.15
+     */
+    public enum Kind {
+
+        /**
+         * Value requests.
+         */
+        VALUE,
+
+        /**
+         * Metadata requests.
+         */
+        METADATA,
+
+        /**
+         * Value existence requests.
+         */
+        EXISTS
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.ImmutableContent;
+import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Range;
+import com.artipie.asto.RangedContent;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Storage decorator which keeps hot values, metadata and existence of values in memory.
+ * <p>
+ * Values of known size up to the threshold are read from origin storage at once and
+ * cached, larger values are passed as is. Metadata and both positive and negative
+ * answers of {@code exists} are cached too. Caches are bounded and evict entries by
+ * W-TinyLFU policy, see {@link TinyLfu}. Saves, moves, copies and deletes through the
+ * decorator invalidate cached entries of their keys, values of the same keys read
+ * concurrently with them are not cached. Writes are tracked by stamps of key stripes,
+ * so a write doesn't prevent caching of concurrent reads of unrelated keys. Metadata is
+ * cached as a detached copy of its fields, so it doesn't hold value bytes or other state
+ * of origin metadata. Changes made to origin storage bypassing the decorator are not seen
+ * until the entries are evicted.
+ * </p>
+ * @since 1.15
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class CachedStorage extends Storage.Wrap {
+
+    /**
+     * Number of stripes of write stamps, power of two.
+     */
+    private static final int STRIPES = 1024;
+
+    /**
+     * Origin storage.
+     */
+    private final Storage origin;
+
+    /**
+     * Max size of cached value.
+     */
+    private final long threshold;
+
+    /**
+     * Cached values.
+     */
+    private final TinyLfu<String, byte[]> values;
+
+    /**
+     * Cached metadata.
+     */
+    private final TinyLfu<String, Meta> metas;
+
+    /**
+     * Cached existence of values.
+     */
+    private final TinyLfu<String, Boolean> existence;
+
+    /**
+     * Counters of writes by key stripes, values read concurrently with writes
+     * of keys of the same stripe are not cached.
+     */
+    private final AtomicLongArray stamps;
+
+    /**
+     * Statistics.
+     */
+    private final CacheStats stats;
+
+    /**
+     * Cache of up to 64MB of values of 64KB and smaller and 10000 metadata
+     * and existence entries.
+     * @param origin Origin storage
+     */
+    public CachedStorage(final Storage origin) {
+        // @checkstyle MagicNumberCheck (1 line)
+        this(origin, 64L * 1024 * 1024, 64L * 1024, 10_000);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin storage
+     * @param capacity Max amount of bytes in cached values
+     * @param threshold Max size of cached value
+     * @param entries Max number of cached metadata and existence entries
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CachedStorage(final Storage origin, final long capacity, final long threshold,
+        final int entries) {
+        super(origin);
+        this.origin = origin;
+        this.threshold = threshold;
+        this.values = new TinyLfu<>(
+            capacity, capacity / Math.max(1L, threshold) + entries, bytes -> bytes.length
+        );
+        this.metas = new TinyLfu<>(entries, entries, meta -> 1L);
+        this.existence = new TinyLfu<>(entries, entries, exists -> 1L);
+        this.stamps = new AtomicLongArray(CachedStorage.STRIPES);
+        this.stats = new CacheStats();
+    }
+
+    /**
+     * Hit and miss statistics.
+     * @return Statistics
+     */
+    public CacheStats stats() {
+        return this.stats;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(final Key key) {
+        final String str = key.string();
+        final Optional<Boolean> cached = this.existence.get(str);
+        final CompletableFuture<Boolean> res;
+        if (cached.isPresent()) {
+            this.stats.hit(CacheStats.Kind.EXISTS);
+            res = CompletableFuture.completedFuture(cached.get());
+        } else {
+            this.stats.miss(CacheStats.Kind.EXISTS);
+            final long epoch = this.stamp(str);
+            res = this.origin.exists(key).thenApply(
+                exists -> {
+                    this.cache(this.existence, epoch, str, exists);
+                    return exists;
+                }
+            );
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<? extends Meta> metadata(final Key key) {
+        final String str = key.string();
+        final Optional<Meta> cached = this.metas.get(str);
+        final CompletableFuture<Meta> res;
+        if (cached.isPresent()) {
+            this.stats.hit(CacheStats.Kind.METADATA);
+            res = CompletableFuture.completedFuture(cached.get());
+        } else {
+            this.stats.miss(CacheStats.Kind.METADATA);
+            final long epoch = this.stamp(str);
+            res = this.origin.metadata(key).<Meta>thenApply(
+                meta -> {
+                    this.cache(this.metas, epoch, str, new Detached(meta));
+                    this.cache(this.existence, epoch, str, true);
+                    return meta;
+                }
+            ).whenComplete((meta, err) -> this.absent(epoch, str, err));
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        final String str = key.string();
+        final Optional<byte[]> cached = this.values.get(str);
+        final CompletableFuture<Content> res;
+        if (cached.isPresent()) {
+            this.stats.hit(CacheStats.Kind.VALUE);
+            res = CompletableFuture.completedFuture(new ImmutableContent(cached.get()).oneTime());
+        } else {
+            this.stats.miss(CacheStats.Kind.VALUE);
+            final long epoch = this.stamp(str);
+            res = this.origin.value(key).thenCompose(
+                content -> {
+                    final CompletionStage<Content> loaded;
+                    if (content.size().orElse(Long.MAX_VALUE) <= this.threshold) {
+                        loaded = new PublisherAs(content).bytes().thenApply(
+                            bytes -> {
+                                this.cache(this.values, epoch, str, bytes);
+                                this.cache(this.existence, epoch, str, true);
+                                return new ImmutableContent(bytes).oneTime();
+                            }
+                        );
+                    } else {
+                        loaded = CompletableFuture.completedFuture(content);
+                    }
+                    return loaded;
+                }
+            ).whenComplete((content, err) -> this.absent(epoch, str, err));
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        final Optional<byte[]> cached = this.values.get(key.string());
+        final CompletableFuture<Content> res;
+        if (cached.isPresent()) {
+            this.stats.hit(CacheStats.Kind.VALUE);
+            res = CompletableFuture.completedFuture(
+                new Content.OneTime(new RangedContent(cached.get(), range))
+            );
+        } else {
+            this.stats.miss(CacheStats.Kind.VALUE);
+            res = this.origin.value(key, range);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        return this.origin.save(key, content)
+            .whenComplete((nothing, err) -> this.invalidate(key));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        return this.origin.saveIfAbsent(key, content)
+            .whenComplete((saved, err) -> this.invalidate(key));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        return this.origin.saveIfMatch(key, content, version)
+            .whenComplete((saved, err) -> this.invalidate(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        return this.origin.move(source, destination).whenComplete(
+            (nothing, err) -> {
+                this.invalidate(source);
+                this.invalidate(destination);
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        return this.origin.copy(source, destination)
+            .whenComplete((nothing, err) -> this.invalidate(destination));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        return this.origin.delete(key).whenComplete((nothing, err) -> this.invalidate(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAll(final Key prefix) {
+        return this.origin.deleteAll(prefix).whenComplete(
+            (nothing, err) -> {
+                final String str = prefix.string();
+                for (int idx = 0; idx < CachedStorage.STRIPES; idx += 1) {
+                    this.stamps.incrementAndGet(idx);
+                }
+                this.values.invalidate(key -> key.startsWith(str));
+                this.metas.invalidate(key -> key.startsWith(str));
+                this.existence.invalidate(key -> key.startsWith(str));
+            }
+        );
+    }
+
+    @Override
+    public <T> CompletionStage<T> exclusively(
+        final Key key,
+        final Function<Storage, CompletionStage<T>> operation
+    ) {
+        return this.origin.exclusively(key, sto -> operation.apply(this));
+    }
+
+    /**
+     * Removes cached entries of the key.
+     * @param key Key
+     */
+    private void invalidate(final Key key) {
+        final String str = key.string();
+        this.stamps.incrementAndGet(CachedStorage.stripe(str));
+        this.values.invalidate(str);
+        this.metas.invalidate(str);
+        this.existence.invalidate(str);
+    }
+
+    /**
+     * Caches absence of value if request failed because it's not found.
+     * @param epoch Write stamp of the key when the request started
+     * @param key Key string
+     * @param err Request error, null if request succeeded
+     */
+    private void absent(final long epoch, final String key, final Throwable err) {
+        Throwable cause = err;
+        if (cause instanceof CompletionException) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof ValueNotFoundException) {
+            this.cache(this.existence, epoch, key, false);
+        }
+    }
+
+    /**
+     * Caches entry if there were no writes of the key stripe since the request started.
+     * <p>
+     * Writes invalidate entries after they increment the stamp, so the entry of
+     * concurrent request is either not cached or invalidated.
+     * </p>
+     * @param cache Cache
+     * @param epoch Write stamp of the key when the request started
+     * @param key Key string
+     * @param value Value
+     * @param <V> Value type
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private <V> void cache(final TinyLfu<String, V> cache, final long epoch, final String key,
+        final V value) {
+        synchronized (cache) {
+            if (this.stamp(key) == epoch) {
+                cache.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Write stamp of the key.
+     * @param key Key string
+     * @return Counter of writes of the key stripe
+     */
+    private long stamp(final String key) {
+        return this.stamps.get(CachedStorage.stripe(key));
+    }
+
+    /**
+     * Stripe of write stamps of the key.
+     * @param key Key string
+     * @return Stripe index
+     */
+    private static int stripe(final String key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (CachedStorage.STRIPES - 1);
+    }
+
+    /**
+     * Metadata detached from origin metadata, it keeps copy of raw metadata and
+     * typed fields only.
+     * @since 1.15
+     */
+    private static final class Detached implements Meta {
+
+        /**
+         * Raw metadata.
+         */
+        private final Map<String, String> raw;
+
+        /**
+         * Size of value.
+         */
+        private final long length;
+
+        /**
+         * Time of value update.
+         */
+        private final Optional<Instant> updated;
+
+        /**
+         * Version of value.
+         */
+        private final Optional<String> ver;
+
+        /**
+         * Hex digests of value by algorithm.
+         */
+        private final Map<Digests, Optional<String>> digests;
+
+        /**
+         * Ctor.
+         * @param origin Origin metadata
+         */
+        Detached(final Meta origin) {
+            this.raw = Collections.unmodifiableMap(
+                origin.read(raw -> new HashMap<String, String>(raw))
+            );
+            this.length = origin.size();
+            this.updated = origin.updatedAt();
+            this.ver = origin.version();
+            this.digests = new EnumMap<>(Digests.class);
+            for (final Digests digest : Digests.values()) {
+                this.digests.put(digest, origin.digest(digest));
+            }
+        }
+
+        @Override
+        public <T> T read(final ReadOperator<T> opr) {
+            return opr.take(this.raw);
+        }
+
+        @Override
+        public long size() {
+            return this.length;
+        }
+
+        @Override
+        public Optional<Instant> updatedAt() {
+            return this.updated;
+        }
+
+        @Override
+        public Optional<String> version() {
+            return this.ver;
+        }
+
+        @Override
+        public Optional<String> digest(final Digests digest) {
+            return this.digests.get(digest);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+/**
+ * Approximate frequency of keys, count-min sketch of 4-bit counters.
+ * <p>
+ * Each key has a counter in each of four rows, its frequency is the least of them.
+ * Counters are halved when the number of increments reaches ten times the width
+ * of the sketch, so frequencies decay and keys which were popular long ago don't
+ * stay popular forever. Not thread safe.
+ * </p>
+ * @since 1.15
+ */
+final class FrequencySketch {
+
+    /**
+     * Seeds of row hashes.
+     */
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+
+    /**
+     * Max value of counter.
+     */
+    private static final int MAX = 15;
+
+    /**
+     * Counters of all rows.
+     */
+    private final byte[] table;
+
+    /**
+     * Mask of counter index in row, row width is power of two.
+     */
+    private final int mask;
+
+    /**
+     * Number of increments which halves the counters.
+     */
+    private final int sample;
+
+    /**
+     * Number of increments since counters were halved.
+     */
+    private int additions;
+
+    /**
+     * Ctor.
+     * @param entries Expected number of keys
+     */
+    FrequencySketch(final long entries) {
+        // @checkstyle MagicNumberCheck (1 line)
+        final int size = (int) Math.min(Math.max(entries, 8L), 1L << 24);
+        final int width = Integer.highestOneBit(size * 2 - 1);
+        this.table = new byte[width * FrequencySketch.SEEDS.length];
+        this.mask = width - 1;
+        // @checkstyle MagicNumberCheck (1 line)
+        this.sample = width * 10;
+    }
+
+    /**
+     * Increments frequency of key.
+     * @param key Key
+     */
+    void increment(final Object key) {
+        final int hash = key.hashCode();
+        for (int row = 0; row < FrequencySketch.SEEDS.length; row += 1) {
+            final int idx = this.index(hash, row);
+            if (this.table[idx] < FrequencySketch.MAX) {
+                this.table[idx] += 1;
+            }
+        }
+        this.additions += 1;
+        if (this.additions >= this.sample) {
+            this.reset();
+        }
+    }
+
+    /**
+     * Frequency of key.
+     * @param key Key
+     * @return Approximate number of recent increments, up to 15
+     */
+    int frequency(final Object key) {
+        final int hash = key.hashCode();
+        int res = FrequencySketch.MAX;
+        for (int row = 0; row < FrequencySketch.SEEDS.length; row += 1) {
+            res = Math.min(res, this.table[this.index(hash, row)]);
+        }
+        return res;
+    }
+
+    /**
+     * Index of key counter.
+     * @param hash Key hash
+     * @param row Row
+     * @return Index in table
+     */
+    private int index(final int hash, final int row) {
+        long mixed = (hash + FrequencySketch.SEEDS[row]) * FrequencySketch.SEEDS[row];
+        // @checkstyle MagicNumberCheck (1 line)
+        mixed += mixed >>> 32;
+        return row * (this.mask + 1) + ((int) mixed & this.mask);
+    }
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+        for (int idx = 0; idx < this.table.length; idx += 1) {
+            this.table[idx] = (byte) (this.table[idx] >> 1);
+        }
+        this.additions /= 2;
+    }
+}
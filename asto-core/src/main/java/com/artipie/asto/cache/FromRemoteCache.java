@@ -5,46 +5,210 @@
 package com.artipie.asto.cache;
 
 import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Broadcast;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.jcabi.log.Logger;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
  * This cache implementation loads all the items from remote and caches it to storage. Content
  * is loaded from cache only if remote failed to return requested item.
+ * <p>
+ * By default remote content is saved to storage first and then read from storage.
+ * In streaming mode remote content is returned at once and is saved to storage while
+ * the caller reads it, see {@link Broadcast}. The value is saved only if remote content
+ * is read completely both by the caller and by storage; if the caller cancels reading,
+ * saving fails, and if saving fails, the caller reads remote content anyway. If the caller
+ * doesn't start reading within the timeout, its share of remote content is drained, so
+ * saving doesn't wait for the caller, and the caller reads saved content when it starts.
+ * </p>
+ * <p>
+ * Concurrent loads of the same content are coalesced: one of them loads content from
+ * remote and saves it, others wait until it is saved and read it from storage. If remote
+ * failed, they load content from storage, if saving failed, they load content by
+ * themselves. Waiting is not limited by default. If it is limited and saving is not
+ * completed in time, the load is abandoned and waiting loads are coalesced again:
+ * one of them loads content from remote, others wait for it.
+ * </p>
  * @since 0.30
  */
 public final class FromRemoteCache implements Cache {
 
+    /**
+     * Default timeout of waiting for the caller to start reading streamed content.
+     */
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
     /**
      * Back-end storage.
      */
     private final Storage storage;
 
+    /**
+     * Whether remote content is streamed to the caller while it is saved.
+     */
+    private final boolean streaming;
+
+    /**
+     * Timeout of waiting for the caller to start reading streamed content.
+     */
+    private final Duration timeout;
+
+    /**
+     * Max time of waiting for concurrent load of the same content, empty if not limited.
+     */
+    private final Optional<Duration> wait;
+
+    /**
+     * Loads from remote in progress, by key strings, result is true if content was saved
+     * and false if remote failed.
+     */
+    private final SingleFlight<String, Boolean> flights;
+
     /**
      * New remote cache.
      * @param storage Back-end storage for cache
      */
     public FromRemoteCache(final Storage storage) {
+        this(storage, false);
+    }
+
+    /**
+     * New remote cache.
+     * @param storage Back-end storage for cache
+     * @param streaming Whether remote content is streamed to the caller while it is saved
+     */
+    public FromRemoteCache(final Storage storage, final boolean streaming) {
+        this(storage, streaming, FromRemoteCache.TIMEOUT);
+    }
+
+    /**
+     * New remote cache.
+     * @param storage Back-end storage for cache
+     * @param streaming Whether remote content is streamed to the caller while it is saved
+     * @param timeout Timeout of waiting for the caller to start reading streamed content
+     */
+    public FromRemoteCache(final Storage storage, final boolean streaming,
+        final Duration timeout) {
+        this(storage, streaming, timeout, Optional.empty());
+    }
+
+    /**
+     * New remote cache.
+     * @param storage Back-end storage for cache
+     * @param streaming Whether remote content is streamed to the caller while it is saved
+     * @param timeout Timeout of waiting for the caller to start reading streamed content
+     * @param wait Max time of waiting for concurrent load of the same content
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public FromRemoteCache(final Storage storage, final boolean streaming,
+        final Duration timeout, final Duration wait) {
+        this(storage, streaming, timeout, Optional.of(wait));
+    }
+
+    /**
+     * Primary ctor.
+     * @param storage Back-end storage for cache
+     * @param streaming Whether remote content is streamed to the caller while it is saved
+     * @param timeout Timeout of waiting for the caller to start reading streamed content
+     * @param wait Max time of waiting for concurrent load of the same content,
+     *  empty if not limited
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private FromRemoteCache(final Storage storage, final boolean streaming,
+        final Duration timeout, final Optional<Duration> wait) {
         this.storage = storage;
+        this.streaming = streaming;
+        this.timeout = timeout;
+        this.wait = wait;
+        this.flights = new SingleFlight<>();
     }
 
     @Override
     public CompletionStage<Optional<? extends Content>> load(
         final Key key, final Remote remote, final CacheControl control
     ) {
+        final CompletableFuture<CompletionStage<Optional<? extends Content>>> own =
+            new CompletableFuture<>();
+        final CompletableFuture<Boolean> flight = this.flights.run(
+            key.string(),
+            () -> {
+                final CompletableFuture<Boolean> saved = new CompletableFuture<>();
+                own.complete(this.fetch(key, remote, control, saved));
+                return this.bounded(saved);
+            }
+        );
+        final CompletionStage<Optional<? extends Content>> res;
+        if (own.isDone()) {
+            res = own.join();
+        } else {
+            res = flight.handle(
+                (saved, throwable) -> {
+                    final CompletionStage<Optional<? extends Content>> loaded;
+                    if (throwable == null && saved) {
+                        loaded = this.storage.value(key).thenApply(Optional::of);
+                    } else if (throwable == null) {
+                        loaded = new FromStorageCache(this.storage).load(
+                            key,
+                            new Remote.Failed(
+                                new ArtipieIOException("Failed to load content from remote")
+                            ),
+                            control
+                        );
+                    } else if (throwable.getCause() instanceof TimeoutException) {
+                        loaded = this.load(key, remote, control);
+                    } else {
+                        loaded = this.fetch(key, remote, control, new CompletableFuture<>());
+                    }
+                    return loaded;
+                }
+            ).thenCompose(Function.identity());
+        }
+        return res;
+    }
+
+    /**
+     * Loads content from remote and saves it to storage, or loads it from storage
+     * if remote failed.
+     * @param key Key
+     * @param remote Remote
+     * @param control Cache control
+     * @param saved Completed with true when content is saved, with false if remote failed
+     * @return Content
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Optional<? extends Content>> fetch(final Key key,
+        final Remote remote, final CacheControl control, final CompletableFuture<Boolean> saved) {
         return remote.get().handle(
             (content, throwable) -> {
                 final CompletionStage<Optional<? extends Content>> res;
-                if (throwable == null && content.isPresent()) {
+                if (throwable == null && content.isPresent() && this.streaming) {
+                    res = CompletableFuture.completedFuture(
+                        Optional.of(this.fill(key, content.get(), saved))
+                    );
+                } else if (throwable == null && content.isPresent()) {
                     res = this.storage.save(
                         key, new Content.From(content.get().size(), content.get())
-                    ).thenCompose(nothing -> this.storage.value(key))
+                    ).whenComplete((nothing, err) -> FromRemoteCache.complete(saved, err))
+                        .thenCompose(nothing -> this.storage.value(key))
                         .thenApply(Optional::of);
                 } else {
+                    saved.complete(false);
                     final Throwable error;
                     if (throwable == null) {
                         error = new ArtipieIOException("Failed to load content from remote");
@@ -58,4 +222,141 @@ public final class FromRemoteCache implements Cache {
             }
         ).thenCompose(Function.identity());
     }
+
+    /**
+     * Saves remote content to storage while the caller reads it.
+     * <p>
+     * The caller share of remote content is claimed either by the caller or, after
+     * the timeout, by the drainer, so saving progresses if the caller never reads.
+     * The caller which comes after the drainer reads saved content.
+     * </p>
+     * @param key Key
+     * @param remote Remote content
+     * @param saved Completed when content is saved
+     * @return Content for the caller
+     */
+    private Content fill(final Key key, final Content remote,
+        final CompletableFuture<Boolean> saved) {
+        final Broadcast cast = new Broadcast(remote, 2);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        this.storage.save(
+            key,
+            new Content.From(
+                remote.size(),
+                Flowable.fromPublisher(cast.content())
+                    .doOnNext(buf -> FromRemoteCache.check(cancelled))
+                    .concatWith(
+                        Flowable.<ByteBuffer>empty()
+                            .doOnComplete(() -> FromRemoteCache.check(cancelled))
+                    )
+            )
+        ).whenComplete(
+            (nothing, err) -> {
+                if (err != null) {
+                    Logger.warn(
+                        this, "Failed to save remote content %s to cache: %[exception]s",
+                        key.string(), err
+                    );
+                    Flowable.fromPublisher(cast.content())
+                        .ignoreElements().onErrorComplete().subscribe();
+                }
+                FromRemoteCache.complete(saved, err);
+            }
+        );
+        final AtomicBoolean claimed = new AtomicBoolean();
+        final Disposable drainer = Completable.timer(
+            this.timeout.toMillis(), TimeUnit.MILLISECONDS
+        ).subscribe(
+            () -> {
+                if (claimed.compareAndSet(false, true)) {
+                    Flowable.fromPublisher(cast.content())
+                        .ignoreElements().onErrorComplete().subscribe();
+                }
+            }
+        );
+        return new Content.From(
+            remote.size(),
+            Flowable.defer(
+                () -> {
+                    final Flowable<ByteBuffer> res;
+                    if (claimed.compareAndSet(false, true)) {
+                        drainer.dispose();
+                        res = Flowable.fromPublisher(cast.content())
+                            .doOnCancel(() -> cancelled.set(true));
+                    } else {
+                        res = CompletableInterop.fromFuture(saved).andThen(
+                            Flowable.defer(
+                                () -> SingleInterop.fromFuture(this.storage.value(key))
+                                    .flatMapPublisher(content -> content)
+                            )
+                        );
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Result of load for concurrent loads, it fails if it is not completed within max time
+     * of waiting, so the load is abandoned.
+     * @param saved Load result
+     * @return Bounded result
+     */
+    private CompletableFuture<Boolean> bounded(final CompletableFuture<Boolean> saved) {
+        return this.wait.map(limit -> FromRemoteCache.bounded(saved, limit)).orElse(saved);
+    }
+
+    /**
+     * Result which fails if it is not completed within the time limit.
+     * @param flight Result
+     * @param limit Time limit
+     * @return Bounded result
+     */
+    private static CompletableFuture<Boolean> bounded(final CompletableFuture<Boolean> flight,
+        final Duration limit) {
+        final CompletableFuture<Boolean> res = new CompletableFuture<>();
+        final Disposable timer = Completable.timer(
+            limit.toMillis(), TimeUnit.MILLISECONDS
+        ).subscribe(
+            () -> res.completeExceptionally(
+                new TimeoutException("Concurrent load of remote content is not completed")
+            )
+        );
+        flight.whenComplete(
+            (saved, err) -> {
+                timer.dispose();
+                if (err == null) {
+                    res.complete(saved);
+                } else {
+                    res.completeExceptionally(err);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Completes save result.
+     * @param saved Save result
+     * @param err Save error, null if content was saved
+     */
+    private static void complete(final CompletableFuture<Boolean> saved, final Throwable err) {
+        if (err == null) {
+            saved.complete(true);
+        } else {
+            saved.completeExceptionally(err);
+        }
+    }
+
+    /**
+     * Fails saving if the caller cancelled reading.
+     * @param cancelled Whether the caller cancelled reading
+     * @throws ArtipieIOException If reading was cancelled
+     */
+    private static void check(final AtomicBoolean cancelled) {
+        if (cancelled.get()) {
+            throw new ArtipieIOException("Reading of remote content was cancelled");
+        }
+    }
 }
@@ -12,12 +12,17 @@ import com.jcabi.log.Logger;
 import hu.akarnokd.rxjava2.interop.SingleInterop;
 import io.reactivex.Single;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 /**
  * Cache implementation that tries to obtain items from storage cache,
  * validates it and returns if valid. If item is not present in storage or is not valid,
  * it is loaded from remote.
+ * <p>
+ * Concurrent loads of the same item from remote are coalesced: one of them loads the
+ * item from remote and saves it to storage, others wait for it and read saved item.
+ * </p>
  * @since 0.24
  */
 public final class FromStorageCache implements Cache {
@@ -27,12 +32,19 @@ public final class FromStorageCache implements Cache {
      */
     private final Storage storage;
 
+    /**
+     * Loads from remote in progress, by key strings, result is true if item was saved
+     * and false if remote has no item.
+     */
+    private final SingleFlight<String, Boolean> flights;
+
     /**
      * New storage cache.
      * @param storage Back-end storage for cache
      */
     public FromStorageCache(final Storage storage) {
         this.storage = storage;
+        this.flights = new SingleFlight<>();
     }
 
     @Override
@@ -53,13 +65,11 @@ public final class FromStorageCache implements Cache {
             .doOnError(err -> Logger.warn(this, "Failed to read cached item: %[exception]s", err))
             .onErrorComplete()
             .switchIfEmpty(
-                SingleInterop.fromFuture(remote.get()).flatMap(
-                    content -> {
+                Single.defer(() -> SingleInterop.fromFuture(this.fill(key, remote))).flatMap(
+                    saved -> {
                         final Single<Optional<? extends Content>> res;
-                        if (content.isPresent()) {
-                            res = rxsto.save(
-                                key, new Content.From(content.get().size(), content.get())
-                            ).andThen(rxsto.value(key)).map(Optional::of);
+                        if (saved) {
+                            res = rxsto.value(key).map(Optional::of);
                         } else {
                             res = Single.fromCallable(Optional::empty);
                         }
@@ -68,4 +78,29 @@ public final class FromStorageCache implements Cache {
                 )
             ).to(SingleInterop.get());
     }
+
+    /**
+     * Loads item from remote and saves it to storage, or joins such load in progress.
+     * @param key Item key
+     * @param remote Remote
+     * @return True if item was saved, false if remote has no item
+     */
+    private CompletionStage<Boolean> fill(final Key key, final Remote remote) {
+        return this.flights.run(
+            key.string(),
+            () -> remote.get().thenCompose(
+                content -> {
+                    final CompletionStage<Boolean> res;
+                    if (content.isPresent()) {
+                        res = this.storage.save(
+                            key, new Content.From(content.get().size(), content.get())
+                        ).thenApply(nothing -> true);
+                    } else {
+                        res = CompletableFuture.completedFuture(false);
+                    }
+                    return res;
+                }
+            )
+        );
+    }
 }
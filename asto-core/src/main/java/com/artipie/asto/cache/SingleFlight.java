@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls of the same key into one call.
+ * <p>
+ * The first caller of the key starts the action, callers which come while the action
+ * is in progress get its result instead of starting their own action. The key is
+ * released when the action completes, so the next caller starts it again.
+ * </p>
+ * @param <K> Key type
+ * @param <V> Result type
+ * @since 1.15
+ */
+public final class SingleFlight<K, V> {
+
+    /**
+     * Actions in progress by keys.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> flights;
+
+    /**
+     * Ctor.
+     */
+    public SingleFlight() {
+        this.flights = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Runs the action or joins the action of the key in progress.
+     * Completed action is not joined even if its key is not released yet.
+     * @param key Key
+     * @param action Action, it is called in the calling thread if there is no action in progress
+     * @return Result of the action
+     */
+    public CompletableFuture<V> run(
+        final K key, final Supplier<? extends CompletionStage<V>> action
+    ) {
+        final CompletableFuture<V> fresh = new CompletableFuture<>();
+        CompletableFuture<V> prev = this.flights.putIfAbsent(key, fresh);
+        while (prev != null && prev.isDone()) {
+            if (this.flights.replace(key, prev, fresh)) {
+                prev = null;
+            } else {
+                prev = this.flights.putIfAbsent(key, fresh);
+            }
+        }
+        final CompletableFuture<V> res;
+        if (prev == null) {
+            fresh.whenComplete((val, err) -> this.flights.remove(key, fresh));
+            try {
+                action.get().whenComplete(
+                    (val, err) -> {
+                        if (err == null) {
+                            fresh.complete(val);
+                        } else {
+                            fresh.completeExceptionally(err);
+                        }
+                    }
+                );
+            } catch (final RuntimeException ex) {
+                fresh.completeExceptionally(ex);
+            }
+            res = fresh;
+        } else {
+            res = prev;
+        }
+        return res.thenApply(Function.identity());
+    }
+
+    /**
+     * Number of actions in progress.
+     * @return Number of keys
+     */
+    public int size() {
+        return this.flights.size();
+    }
+}
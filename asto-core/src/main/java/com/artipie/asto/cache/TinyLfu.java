@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-memory cache with W-TinyLFU eviction.
+ * <p>
+ * New entries are put into small LRU window, one percent of capacity. Entries evicted
+ * from the window are admitted to the main LRU region only if they are used more often
+ * than the entries they would evict from it, frequencies are estimated by
+ * {@link FrequencySketch} of all requested keys. So one-off requests don't flush popular
+ * entries out of the cache, and new entries which are used often get into it.
+ * Capacity bounds the total weight of entries. Thread safe.
+ * </p>
+ * @param <K> Key type
+ * @param <V> Value type
+ * @since 1.15
+ */
+final class TinyLfu<K, V> {
+
+    /**
+     * Max weight of main region.
+     */
+    private final long capacity;
+
+    /**
+     * Max weight of window.
+     */
+    private final long limit;
+
+    /**
+     * Weight of value.
+     */
+    private final ToLongFunction<V> weigher;
+
+    /**
+     * Frequencies of keys.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Window entries in access order.
+     */
+    private final Map<K, V> window;
+
+    /**
+     * Main entries in access order.
+     */
+    private final Map<K, V> main;
+
+    /**
+     * Weight of window entries.
+     */
+    private long wsize;
+
+    /**
+     * Weight of main entries.
+     */
+    private long msize;
+
+    /**
+     * Ctor.
+     * @param capacity Max total weight of entries
+     * @param entries Expected number of entries
+     * @param weigher Weight of value
+     */
+    TinyLfu(final long capacity, final long entries, final ToLongFunction<V> weigher) {
+        // @checkstyle MagicNumberCheck (1 line)
+        this.limit = Math.max(1L, capacity / 100);
+        this.capacity = Math.max(0L, capacity - this.limit);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(entries);
+        // @checkstyle MagicNumberCheck (2 lines)
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.main = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Cached value, the request is counted in key frequency.
+     * @param key Key
+     * @return Value, empty if it's not cached
+     */
+    synchronized Optional<V> get(final K key) {
+        this.sketch.increment(key);
+        V res = this.window.get(key);
+        if (res == null) {
+            res = this.main.get(key);
+        }
+        return Optional.ofNullable(res);
+    }
+
+    /**
+     * Puts value into cache, it may evict other values or be rejected by admission.
+     * @param key Key
+     * @param value Value
+     */
+    synchronized void put(final K key, final V value) {
+        this.remove(key);
+        final long weight = this.weigher.applyAsLong(value);
+        this.window.put(key, value);
+        this.wsize += weight;
+        while (this.wsize > this.limit && !this.window.isEmpty()) {
+            final Iterator<Map.Entry<K, V>> eldest = this.window.entrySet().iterator();
+            final Map.Entry<K, V> candidate = eldest.next();
+            eldest.remove();
+            this.wsize -= this.weigher.applyAsLong(candidate.getValue());
+            this.admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Removes value.
+     * @param key Key
+     */
+    synchronized void invalidate(final K key) {
+        this.remove(key);
+    }
+
+    /**
+     * Removes values of matching keys.
+     * @param keys Keys to remove
+     */
+    synchronized void invalidate(final Predicate<K> keys) {
+        this.wsize -= this.removeAll(this.window, keys);
+        this.msize -= this.removeAll(this.main, keys);
+    }
+
+    /**
+     * Total weight of cached values.
+     * @return Weight
+     */
+    synchronized long weight() {
+        return this.wsize + this.msize;
+    }
+
+    /**
+     * Admits entry evicted from window to main region if it's used more often
+     * than the main entries it would evict. Admission is decided before any main
+     * entry is evicted, so rejected entry doesn't shrink main region.
+     * @param key Key
+     * @param value Value
+     */
+    private void admit(final K key, final V value) {
+        final long weight = this.weigher.applyAsLong(value);
+        boolean admit = weight <= this.capacity;
+        final int freq = this.sketch.frequency(key);
+        int count = 0;
+        long freed = 0;
+        final Iterator<Map.Entry<K, V>> victims = this.main.entrySet().iterator();
+        while (admit && this.msize - freed + weight > this.capacity) {
+            final Map.Entry<K, V> victim = victims.next();
+            if (freq > this.sketch.frequency(victim.getKey())) {
+                count += 1;
+                freed += this.weigher.applyAsLong(victim.getValue());
+            } else {
+                admit = false;
+            }
+        }
+        if (admit) {
+            final Iterator<Map.Entry<K, V>> evicted = this.main.entrySet().iterator();
+            for (int idx = 0; idx < count; idx += 1) {
+                evicted.next();
+                evicted.remove();
+            }
+            this.msize -= freed;
+            this.main.put(key, value);
+            this.msize += weight;
+        }
+    }
+
+    /**
+     * Removes entry of key from window or main region.
+     * @param key Key
+     */
+    private void remove(final K key) {
+        final V win = this.window.remove(key);
+        if (win != null) {
+            this.wsize -= this.weigher.applyAsLong(win);
+        }
+        final V prime = this.main.remove(key);
+        if (prime != null) {
+            this.msize -= this.weigher.applyAsLong(prime);
+        }
+    }
+
+    /**
+     * Removes entries of matching keys from map.
+     * @param map Map
+     * @param keys Keys to remove
+     * @return Weight of removed entries
+     */
+    private long removeAll(final Map<K, V> map, final Predicate<K> keys) {
+        long res = 0;
+        final Iterator<Map.Entry<K, V>> iter = map.entrySet().iterator();
+        while (iter.hasNext()) {
+            final Map.Entry<K, V> entry = iter.next();
+            if (keys.test(entry.getKey())) {
+                res += this.weigher.applyAsLong(entry.getValue());
+                iter.remove();
+            }
+        }
+        return res;
+    }
+}
@@ -5,36 +5,142 @@
 package com.artipie.asto.etcd;
 
 import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
+import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.KeyValue;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.codec.binary.Hex;
 
 /**
  * Metadata from Etcd key value.
+ * <p>
+ * Digests are computed when the value is saved and are stored in companion key value,
+ * written by the same transaction, see {@link #encode(byte[], Collection)}. Companion
+ * of other revision than the value is stale, digests are computed from value bytes then.
+ * Metadata is built once, typed accessors return built fields.
+ * </p>
  * @since 1.9
  */
 final class EtcdMeta implements Meta {
 
     /**
-     * Key value.
+     * Raw metadata.
      */
-    private final KeyValue kvs;
+    private final Map<String, String> raw;
+
+    /**
+     * Size of value.
+     */
+    private final long length;
+
+    /**
+     * Time of value update.
+     */
+    private final Optional<Instant> updated;
+
+    /**
+     * Version of value.
+     */
+    private final Optional<String> ver;
+
+    /**
+     * Hex digests of value by algorithm.
+     */
+    private final Map<Digests, Optional<String>> digests;
 
     /**
      * New metadata.
      * @param kvs Key value
+     * @param stored Companion key value with digests
+     * @param digests Digests of value to provide
      */
-    EtcdMeta(final KeyValue kvs) {
-        this.kvs = kvs;
+    EtcdMeta(final KeyValue kvs, final Optional<KeyValue> stored,
+        final Collection<Digests> digests) {
+        final Map<String, String> companion = stored
+            .filter(kv -> kv.getModRevision() == kvs.getModRevision())
+            .map(kv -> EtcdMeta.parse(kv.getValue().toString(StandardCharsets.UTF_8)))
+            .orElseGet(HashMap::new);
+        final Map<String, String> meta = new HashMap<>();
+        this.digests = new EnumMap<>(Digests.class);
+        for (final Digests digest : digests) {
+            final String hex = digest.operator().take(companion).map(String::valueOf)
+                .orElseGet(
+                    () -> Hex.encodeHexString(digest.get().digest(kvs.getValue().getBytes()))
+                );
+            digest.operator().put(meta, hex);
+            this.digests.put(digest, Optional.of(hex));
+        }
+        this.length = kvs.getValue().size();
+        this.updated = Optional.of(Instant.ofEpochMilli(kvs.getModRevision()));
+        this.ver = Optional.of(String.valueOf(kvs.getModRevision()));
+        Meta.OP_SIZE.put(meta, this.length);
+        Meta.OP_CREATED_AT.put(meta, Instant.ofEpochMilli(kvs.getCreateRevision()));
+        Meta.OP_UPDATED_AT.put(meta, this.updated.get());
+        Meta.OP_VERSION.put(meta, this.ver.get());
+        this.raw = Collections.unmodifiableMap(meta);
     }
 
     @Override
     public <T> T read(final ReadOperator<T> opr) {
+        return opr.take(this.raw);
+    }
+
+    @Override
+    public long size() {
+        return this.length;
+    }
+
+    @Override
+    public Optional<Instant> updatedAt() {
+        return this.updated;
+    }
+
+    @Override
+    public Optional<String> version() {
+        return this.ver;
+    }
+
+    @Override
+    public Optional<String> digest(final Digests digest) {
+        return this.digests.getOrDefault(digest, Optional.empty());
+    }
+
+    /**
+     * Companion value with digests of value bytes, lines {@code name=hex}.
+     * @param bytes Value bytes
+     * @param digests Digests to store
+     * @return Companion value
+     */
+    static ByteSequence encode(final byte[] bytes, final Collection<Digests> digests) {
+        final StringBuilder lines = new StringBuilder(0);
+        for (final Digests digest : digests) {
+            final Map<String, String> raw = new HashMap<>();
+            digest.operator().put(raw, Hex.encodeHexString(digest.get().digest(bytes)));
+            raw.forEach((name, hex) -> lines.append(name).append('=').append(hex).append('\n'));
+        }
+        return ByteSequence.from(lines.toString(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses companion value lines.
+     * @param lines Lines {@code name=hex}
+     * @return Raw metadata
+     */
+    private static Map<String, String> parse(final String lines) {
         final Map<String, String> raw = new HashMap<>();
-        Meta.OP_SIZE.put(raw, Long.valueOf(this.kvs.getValue().size()));
-        Meta.OP_CREATED_AT.put(raw, Instant.ofEpochMilli(this.kvs.getCreateRevision()));
-        Meta.OP_UPDATED_AT.put(raw, Instant.ofEpochMilli(this.kvs.getModRevision()));
-        return opr.take(raw);
+        for (final String line : lines.split("\n")) {
+            final int pos = line.indexOf('=');
+            if (pos > 0) {
+                raw.put(line.substring(0, pos), line.substring(pos + 1));
+            }
+        }
+        return raw;
     }
 }
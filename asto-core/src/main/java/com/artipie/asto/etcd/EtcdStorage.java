@@ -7,27 +7,43 @@ package com.artipie.asto.etcd;
 
 import com.artipie.asto.ArtipieIOException;
 import com.artipie.asto.Content;
+import com.artipie.asto.ImmutableContent;
 import com.artipie.asto.Key;
 import com.artipie.asto.Meta;
 import com.artipie.asto.Storage;
 import com.artipie.asto.UnderLockOperation;
 import com.artipie.asto.ValueNotFoundException;
 import com.artipie.asto.ext.CompletableFutureSupport;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.lock.storage.StorageLock;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.kv.DeleteResponse;
 import io.etcd.jetcd.kv.GetResponse;
+import io.etcd.jetcd.kv.TxnResponse;
+import io.etcd.jetcd.op.Cmp;
+import io.etcd.jetcd.op.CmpTarget;
+import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.options.DeleteOption;
 import io.etcd.jetcd.options.GetOption;
 import io.etcd.jetcd.options.GetOption.SortOrder;
+import io.etcd.jetcd.options.OptionsUtil;
+import io.etcd.jetcd.options.PutOption;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
 
 /**
  * Etcd based storage.
@@ -55,17 +71,47 @@ public final class EtcdStorage implements Storage {
     private static final ByteSequence ETCD_ROOT_KEY =
         ByteSequence.from("\0", StandardCharsets.UTF_8);
 
+    /**
+     * Max amount of keys to fetch by one request on listing.
+     */
+    private static final int PAGE = 1000;
+
+    /**
+     * Suffix of companion key of value digests, it can't occur in storage keys.
+     */
+    private static final String DIGESTS = "\0digests";
+
     /**
      * Etcd client.
      */
     private final Client client;
 
+    /**
+     * Digests available as metadata.
+     */
+    private final Collection<Digests> digests;
+
     /**
      * Ctor.
      * @param client Etcd client
      */
     public EtcdStorage(final Client client) {
+        this(client, Collections.emptySet());
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Digests of values are available as metadata, e.g. {@link Meta#OP_SHA256}.
+     * They are computed once when the value is saved and are stored in companion key
+     * next to the value key, by the same transaction.
+     * </p>
+     * @param client Etcd client
+     * @param digests Digests available as metadata
+     */
+    public EtcdStorage(final Client client, final Collection<Digests> digests) {
         this.client = client;
+        this.digests = digests;
     }
 
     @Override
@@ -101,12 +147,30 @@ public final class EtcdStorage implements Storage {
         return future.thenApply(
             rsp -> rsp.getKvs().stream()
                 .map(kv -> new String(kv.getKey().getBytes(), StandardCharsets.UTF_8))
+                .filter(EtcdStorage::visible)
                 .map(str -> new Key.From(str))
                 .distinct()
                 .collect(Collectors.toList())
         );
     }
 
+    @Override
+    public Publisher<Key> list(final Key prefix, final Key after, final int limit) {
+        final ByteSequence end;
+        final ByteSequence from;
+        if (prefix.equals(Key.ROOT)) {
+            end = EtcdStorage.ETCD_ROOT_KEY;
+        } else {
+            end = OptionsUtil.prefixEndOf(keyToSeq(prefix));
+        }
+        if (after.string().compareTo(prefix.string()) < 0) {
+            from = keyToSeq(prefix);
+        } else {
+            from = EtcdStorage.next(after.string());
+        }
+        return this.page(from, end, limit);
+    }
+
     @Override
     @SuppressWarnings("PMD.OnlyOneReturn")
     public CompletableFuture<Void> save(final Key key, final Content content) {
@@ -119,11 +183,31 @@ public final class EtcdStorage implements Storage {
             ).get();
         }
         return new PublisherAs(content).bytes()
-            .thenApply(ByteSequence::from)
-            .thenCompose(data -> this.client.getKVClient().put(keyToSeq(key), data))
+            .thenCompose(
+                bytes -> this.client.getKVClient().txn().Then(this.puts(key, bytes)).commit()
+            )
             .thenApply(ignore -> (Void) null).toCompletableFuture();
     }
 
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        return this.put(key, content, CmpTarget.version(0));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        final long revision = EtcdStorage.revision(version);
+        final CompletableFuture<Boolean> res;
+        if (revision > 0) {
+            res = this.put(key, content, CmpTarget.modRevision(revision));
+        } else {
+            res = CompletableFuture.completedFuture(false);
+        }
+        return res;
+    }
+
     @Override
     public CompletableFuture<Void> move(final Key source, final Key destination) {
         return this.value(source)
@@ -133,15 +217,18 @@ public final class EtcdStorage implements Storage {
 
     @Override
     public CompletableFuture<? extends Meta> metadata(final Key key) {
-        return this.client.getKVClient().get(keyToSeq(key)).thenApply(
-            rsp -> rsp.getKvs().stream().max(
-                Comparator.comparingLong(KeyValue::getVersion)
-            )
+        final ByteSequence seq = keyToSeq(key);
+        final ByteSequence companion = EtcdStorage.companion(key);
+        return this.client.getKVClient().get(
+            seq, GetOption.newBuilder().withRange(EtcdStorage.rangeEnd(key)).build()
         ).thenApply(
-            kv -> kv.orElseThrow(
-                () -> new ValueNotFoundException(key)
+            rsp -> new EtcdMeta(
+                rsp.getKvs().stream().filter(kv -> kv.getKey().equals(seq)).findFirst()
+                    .orElseThrow(() -> new ValueNotFoundException(key)),
+                rsp.getKvs().stream().filter(kv -> kv.getKey().equals(companion)).findFirst(),
+                this.digests
             )
-        ).thenApply(kv -> new EtcdMeta(kv));
+        );
     }
 
     @Override
@@ -155,15 +242,16 @@ public final class EtcdStorage implements Storage {
                 () -> new ValueNotFoundException(key)
             ).getValue().getBytes()
         ).thenApply(
-            bytes -> new Content.OneTime(
-                new Content.From(bytes)
-            )
+            bytes -> new ImmutableContent(bytes).oneTime()
         );
     }
 
     @Override
     public CompletableFuture<Void> delete(final Key key) {
-        return this.client.getKVClient().delete(keyToSeq(key)).thenAccept(
+        return this.client.getKVClient().delete(
+            keyToSeq(key),
+            DeleteOption.newBuilder().withRange(EtcdStorage.rangeEnd(key)).build()
+        ).thenAccept(
             rsp -> {
                 if (rsp.getDeleted() == 0) {
                     throw new ValueNotFoundException(key);
@@ -172,12 +260,98 @@ public final class EtcdStorage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> deleteAll(final Key prefix) {
+        final CompletableFuture<DeleteResponse> future;
+        if (prefix.equals(Key.ROOT)) {
+            future = this.client.getKVClient().delete(
+                EtcdStorage.ETCD_ROOT_KEY,
+                DeleteOption.newBuilder().withRange(EtcdStorage.ETCD_ROOT_KEY).build()
+            );
+        } else {
+            future = this.client.getKVClient().delete(
+                keyToSeq(prefix),
+                DeleteOption.newBuilder().isPrefix(true).build()
+            );
+        }
+        return future.thenAccept(rsp -> { });
+    }
+
     @Override
     public <T> CompletionStage<T> exclusively(final Key key,
         final Function<Storage, CompletionStage<T>> operation) {
         return new UnderLockOperation<>(new StorageLock(this, key), operation).perform(this);
     }
 
+    /**
+     * Puts value by transaction if key compares equal to the target.
+     * @param key Key
+     * @param content Content
+     * @param target Target to compare key with
+     * @return True if transaction succeeded and value was put
+     */
+    @SuppressWarnings("PMD.OnlyOneReturn")
+    private CompletableFuture<Boolean> put(
+        final Key key, final Content content, final CmpTarget<?> target
+    ) {
+        final long size = content.size().orElse(0L);
+        if (size < 0 || size > EtcdStorage.MAX_SIZE) {
+            return new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException(
+                    String.format("Content size must be in range (0;%d)", EtcdStorage.MAX_SIZE)
+                )
+            ).get();
+        }
+        final ByteSequence seq = keyToSeq(key);
+        return new PublisherAs(content).bytes()
+            .thenCompose(
+                bytes -> this.client.getKVClient().txn()
+                    .If(new Cmp(seq, Cmp.Op.EQUAL, target))
+                    .Then(this.puts(key, bytes))
+                    .commit()
+            )
+            .thenApply(TxnResponse::isSucceeded)
+            .toCompletableFuture();
+    }
+
+    /**
+     * Operations to put value and companion value with its digests.
+     * @param key Key
+     * @param bytes Value bytes
+     * @return Put operations
+     */
+    private Op[] puts(final Key key, final byte[] bytes) {
+        final Op[] res;
+        final Op value = Op.put(keyToSeq(key), ByteSequence.from(bytes), PutOption.DEFAULT);
+        if (this.digests.isEmpty()) {
+            res = new Op[] {value};
+        } else {
+            res = new Op[] {
+                value,
+                Op.put(
+                    EtcdStorage.companion(key), EtcdMeta.encode(bytes, this.digests),
+                    PutOption.DEFAULT
+                ),
+            };
+        }
+        return res;
+    }
+
+    /**
+     * Parses mod revision from version string.
+     * @param version Version string
+     * @return Revision, zero if version is not a revision
+     */
+    private static long revision(final String version) {
+        long res;
+        try {
+            res = Long.parseLong(version);
+        } catch (final NumberFormatException ignored) {
+            res = 0;
+        }
+        return res;
+    }
+
     /**
      * Convert asto key to ectd bytes.
      * @param key Asto key
@@ -186,4 +360,87 @@ public final class EtcdStorage implements Storage {
     private static ByteSequence keyToSeq(final Key key) {
         return ByteSequence.from(key.string(), StandardCharsets.UTF_8);
     }
+
+    /**
+     * Companion key of value digests.
+     * @param key Asto key
+     * @return Etcd byte sequence
+     */
+    private static ByteSequence companion(final Key key) {
+        return ByteSequence.from(
+            String.join("", key.string(), EtcdStorage.DIGESTS), StandardCharsets.UTF_8
+        );
+    }
+
+    /**
+     * End of range of the key and its companion keys, exclusive.
+     * @param key Asto key
+     * @return Etcd byte sequence
+     */
+    private static ByteSequence rangeEnd(final Key key) {
+        return ByteSequence.from(String.join("", key.string(), "\1"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether etcd key is a storage key, not a companion key.
+     * @param key Etcd key string
+     * @return True if it is a storage key
+     */
+    private static boolean visible(final String key) {
+        return key.indexOf('\0') < 0;
+    }
+
+    /**
+     * Fetches page of keys, then the next one if there are more keys in range.
+     * Each page is requested on subscription.
+     * @param from First key of range, inclusive
+     * @param end Last key of range, exclusive
+     * @param limit Max amount of keys to fetch
+     * @return Keys of range
+     */
+    private Flowable<Key> page(final ByteSequence from, final ByteSequence end,
+        final int limit) {
+        return Single.defer(
+            () -> SingleInterop.fromFuture(
+                this.client.getKVClient().get(
+                    from,
+                    GetOption.newBuilder()
+                        .withKeysOnly(true)
+                        .withSortOrder(SortOrder.ASCEND)
+                        .withRange(end)
+                        .withLimit(Math.min(limit, EtcdStorage.PAGE))
+                        .build()
+                )
+            )
+        ).flatMapPublisher(
+            rsp -> {
+                final List<KeyValue> kvs = rsp.getKvs();
+                final List<Key> found = kvs.stream()
+                    .map(kv -> kv.getKey().toString(StandardCharsets.UTF_8))
+                    .filter(EtcdStorage::visible)
+                    .map(Key.From::new)
+                    .collect(Collectors.toList());
+                Flowable<Key> keys = Flowable.fromIterable(found);
+                if (rsp.isMore() && !kvs.isEmpty() && found.size() < limit) {
+                    final String last = kvs.get(kvs.size() - 1).getKey()
+                        .toString(StandardCharsets.UTF_8);
+                    keys = keys.concatWith(
+                        Flowable.defer(
+                            () -> this.page(EtcdStorage.next(last), end, limit - found.size())
+                        )
+                    );
+                }
+                return keys;
+            }
+        );
+    }
+
+    /**
+     * Smallest etcd key which is greater than the specified one.
+     * @param key Key string
+     * @return Etcd key
+     */
+    private static ByteSequence next(final String key) {
+        return ByteSequence.from(String.join("", key, "\0"), StandardCharsets.UTF_8);
+    }
 }
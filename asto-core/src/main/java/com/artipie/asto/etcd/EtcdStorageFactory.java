@@ -5,6 +5,7 @@
 package com.artipie.asto.etcd;
 
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.factory.ArtipieStorageFactory;
 import com.artipie.asto.factory.StorageConfig;
 import com.artipie.asto.factory.StorageFactory;
@@ -30,6 +31,6 @@ public final class EtcdStorageFactory implements StorageFactory {
         if (sto != null) {
             builder.connectTimeout(Duration.ofMillis(Integer.parseInt(sto)));
         }
-        return new EtcdStorage(builder.build());
+        return new EtcdStorage(builder.build(), new Digests.FromConfig(cfg).get());
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.ext;
+
+import com.artipie.asto.Content;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Several digests of specified {@link Content}, computed by one pass over the content.
+ * <p>
+ * Unlike {@link ContentDigest}, all algorithms are updated by each buffer,
+ * so content is read once. With executor, large buffers are digested by all
+ * algorithms in parallel.
+ * </p>
+ * @since 1.15
+ */
+public final class ContentDigests {
+
+    /**
+     * Default min size of buffer to digest it in parallel.
+     */
+    private static final int THRESHOLD = 64 * 1024;
+
+    /**
+     * Content.
+     */
+    private final Content content;
+
+    /**
+     * Digest algorithms.
+     */
+    private final Collection<Digests> algorithms;
+
+    /**
+     * Executor for parallel digests.
+     */
+    private final Optional<Executor> executor;
+
+    /**
+     * Min size of buffer to digest it in parallel.
+     */
+    private final int threshold;
+
+    /**
+     * Digests of content, computed sequentially.
+     * @param content Content
+     * @param algorithms Digest algorithms
+     */
+    public ContentDigests(final Content content, final Collection<Digests> algorithms) {
+        this(content, algorithms, Optional.empty(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Digests of content, buffers of 64KB and larger are digested in parallel.
+     * @param content Content
+     * @param algorithms Digest algorithms
+     * @param executor Executor for parallel digests
+     */
+    public ContentDigests(final Content content, final Collection<Digests> algorithms,
+        final Executor executor) {
+        this(content, algorithms, executor, ContentDigests.THRESHOLD);
+    }
+
+    /**
+     * Digests of content, large buffers are digested in parallel.
+     * @param content Content
+     * @param algorithms Digest algorithms
+     * @param executor Executor for parallel digests
+     * @param threshold Min size of buffer to digest it in parallel
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public ContentDigests(final Content content, final Collection<Digests> algorithms,
+        final Executor executor, final int threshold) {
+        this(content, algorithms, Optional.of(executor), threshold);
+    }
+
+    /**
+     * Primary ctor.
+     * @param content Content
+     * @param algorithms Digest algorithms
+     * @param executor Executor for parallel digests, if enabled
+     * @param threshold Min size of buffer to digest it in parallel
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private ContentDigests(final Content content, final Collection<Digests> algorithms,
+        final Optional<Executor> executor, final int threshold) {
+        this.content = content;
+        this.algorithms = algorithms;
+        this.executor = executor;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Digests of content, content buffers are not modified.
+     * @return Digests by algorithm
+     */
+    public CompletionStage<Map<Digests, Value>> digests() {
+        return Flowable.fromPublisher(this.content).reduceWith(
+            () -> new MultiDigest(this.algorithms, this.executor, this.threshold),
+            (digest, buf) -> {
+                digest.update(buf);
+                return digest;
+            }
+        ).map(
+            digest -> {
+                final Map<Digests, Value> res = new EnumMap<>(Digests.class);
+                digest.digest().forEach((alg, bytes) -> res.put(alg, new Value(bytes)));
+                return res;
+            }
+        ).to(SingleInterop.get());
+    }
+
+    /**
+     * Digest value.
+     * @since 1.15
+     */
+    public static final class Value {
+
+        /**
+         * Digest bytes.
+         */
+        private final byte[] digest;
+
+        /**
+         * Ctor.
+         * @param digest Digest bytes
+         */
+        public Value(final byte[] digest) {
+            this.digest = digest.clone();
+        }
+
+        /**
+         * Digest bytes.
+         * @return Bytes
+         */
+        public byte[] bytes() {
+            return this.digest.clone();
+        }
+
+        /**
+         * Digest as lowercase hex string.
+         * @return Hex string
+         */
+        public String hex() {
+            return Hex.encodeHexString(this.digest);
+        }
+
+        /**
+         * Digest as base64 string, e.g. for {@code Content-MD5} header.
+         * @return Base64 string
+         */
+        public String base64() {
+            return Base64.getEncoder().encodeToString(this.digest);
+        }
+
+        @Override
+        public String toString() {
+            return this.hex();
+        }
+    }
+}
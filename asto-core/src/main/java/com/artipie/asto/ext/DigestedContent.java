@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.ext;
+
+import com.artipie.asto.Content;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.binary.Hex;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Content which computes digests of its bytes while they are consumed.
+ * <p>
+ * Storages use it to compute digests inline while content is saved, without reading
+ * the value again: {@link #digests()} is completed when content is consumed completely,
+ * i.e. when it is completed or when all bytes of known size were consumed and the consumer
+ * cancelled the subscription. Buffers are not modified.
+ * </p>
+ * @since 1.15
+ */
+public final class DigestedContent implements Content {
+
+    /**
+     * Origin content.
+     */
+    private final Content origin;
+
+    /**
+     * Digest algorithms.
+     */
+    private final Collection<Digests> algorithms;
+
+    /**
+     * Hex digests of consumed content.
+     */
+    private final CompletableFuture<Map<Digests, String>> result;
+
+    /**
+     * Ctor.
+     * @param origin Origin content
+     * @param algorithms Digest algorithms
+     */
+    public DigestedContent(final Content origin, final Collection<Digests> algorithms) {
+        this.origin = origin;
+        this.algorithms = algorithms;
+        this.result = new CompletableFuture<>();
+    }
+
+    @Override
+    public Optional<Long> size() {
+        return this.origin.size();
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        Flowable.defer(
+            () -> {
+                final MultiDigest digests = new MultiDigest(this.algorithms);
+                final AtomicLong consumed = new AtomicLong();
+                return Flowable.fromPublisher(this.origin).doOnNext(
+                    buf -> {
+                        consumed.addAndGet(buf.remaining());
+                        digests.update(buf);
+                    }
+                ).doOnComplete(
+                    () -> this.complete(digests)
+                ).doOnCancel(
+                    () -> {
+                        if (this.origin.size().filter(size -> size == consumed.get()).isPresent()) {
+                            this.complete(digests);
+                        }
+                    }
+                );
+            }
+        ).subscribe(subscriber);
+    }
+
+    /**
+     * Hex digests of content, completed when content is consumed completely.
+     * @return Digests by algorithm
+     */
+    public CompletionStage<Map<Digests, String>> digests() {
+        return this.result;
+    }
+
+    /**
+     * Hex digests of content as raw metadata, with keys of
+     * {@link Digests#operator()} metadata operators.
+     * @return Raw metadata
+     */
+    public CompletionStage<Map<String, String>> meta() {
+        return this.result.thenApply(
+            digests -> {
+                final Map<String, String> raw = new HashMap<>();
+                digests.forEach((alg, hex) -> alg.operator().put(raw, hex));
+                return raw;
+            }
+        );
+    }
+
+    /**
+     * Completes hex digests of consumed content.
+     * @param digests Digests of consumed content
+     */
+    private void complete(final MultiDigest digests) {
+        final Map<Digests, String> hex = new EnumMap<>(Digests.class);
+        digests.digest().forEach((alg, bytes) -> hex.put(alg, Hex.encodeHexString(bytes)));
+        this.result.complete(hex);
+    }
+}
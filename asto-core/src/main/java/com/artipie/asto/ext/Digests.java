@@ -4,9 +4,14 @@
  */
 package com.artipie.asto.ext;
 
+import com.artipie.asto.Meta;
+import com.artipie.asto.factory.StorageConfig;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -17,19 +22,27 @@ public enum Digests implements Supplier<MessageDigest> {
     /**
      * Common digest algorithms.
      */
-    SHA256("SHA-256"), SHA1("SHA-1"), MD5("MD5"), SHA512("SHA-512");
+    SHA256("SHA-256", Meta.OP_SHA256), SHA1("SHA-1", Meta.OP_SHA1), MD5("MD5", Meta.OP_MD5),
+    SHA512("SHA-512", Meta.OP_SHA512);
 
     /**
      * Digest name.
      */
     private final String name;
 
+    /**
+     * Metadata operator for hex of the digest.
+     */
+    private final Meta.OpRWSimple<String> opr;
+
     /**
      * New digest for name.
      * @param name Digest name
+     * @param opr Metadata operator for hex of the digest
      */
-    Digests(final String name) {
+    Digests(final String name, final Meta.OpRWSimple<String> opr) {
         this.name = name;
+        this.opr = opr;
     }
 
     @Override
@@ -41,6 +54,14 @@ public enum Digests implements Supplier<MessageDigest> {
         }
     }
 
+    /**
+     * Metadata operator for hex of the digest, e.g. {@link Meta#OP_SHA256}.
+     * @return Operator
+     */
+    public Meta.OpRWSimple<String> operator() {
+        return this.opr;
+    }
+
     /**
      * Digest enum item from string digest algorithm, case insensitive.
      * @since 0.24
@@ -67,6 +88,7 @@ public enum Digests implements Supplier<MessageDigest> {
         public Digests get() {
             return Stream.of(Digests.values()).filter(
                 digest -> digest.name.equalsIgnoreCase(this.from)
+                    || digest.name().equalsIgnoreCase(this.from)
             ).findFirst().orElseThrow(
                 () -> new IllegalArgumentException(
                     String.format("Unsupported digest algorithm %s", this.from)
@@ -74,4 +96,53 @@ public enum Digests implements Supplier<MessageDigest> {
             );
         }
     }
+
+    /**
+     * Digests enum items from storage config sequence of algorithm names,
+     * e.g. {@code digests: [sha-256, md5]}.
+     * @since 1.15
+     */
+    public static final class FromConfig implements Supplier<Set<Digests>> {
+
+        /**
+         * Storage config.
+         */
+        private final StorageConfig cfg;
+
+        /**
+         * Config sequence key.
+         */
+        private final String key;
+
+        /**
+         * Ctor.
+         * @param cfg Storage config
+         */
+        public FromConfig(final StorageConfig cfg) {
+            this(cfg, "digests");
+        }
+
+        /**
+         * Ctor.
+         * @param cfg Storage config
+         * @param key Config sequence key
+         */
+        public FromConfig(final StorageConfig cfg, final String key) {
+            this.cfg = cfg;
+            this.key = key;
+        }
+
+        @Override
+        public Set<Digests> get() {
+            final Set<Digests> res;
+            if (this.cfg.string(this.key) == null) {
+                res = EnumSet.noneOf(Digests.class);
+            } else {
+                res = this.cfg.sequence(this.key).stream()
+                    .map(name -> new FromString(name).get())
+                    .collect(Collectors.toCollection(() -> EnumSet.noneOf(Digests.class)));
+            }
+            return res;
+        }
+    }
 }
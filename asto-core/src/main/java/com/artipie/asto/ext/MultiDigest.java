@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.ext;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Several message digests updated by the same buffers.
+ * <p>
+ * Each buffer is passed to all digests, so content is read once for all algorithms.
+ * If executor is provided, buffers of at least threshold size are digested by
+ * all algorithms in parallel: one of them on the calling thread, others on the executor.
+ * Update returns when all digests are updated, so buffers order is kept.
+ * Not thread safe, buffers should be passed sequentially.
+ * </p>
+ * @since 1.15
+ */
+final class MultiDigest {
+
+    /**
+     * Message digests.
+     */
+    private final Map<Digests, MessageDigest> digests;
+
+    /**
+     * Executor for parallel digests.
+     */
+    private final Optional<Executor> executor;
+
+    /**
+     * Min size of buffer to digest it in parallel.
+     */
+    private final int threshold;
+
+    /**
+     * Sequential digests.
+     * @param algorithms Digest algorithms
+     */
+    MultiDigest(final Collection<Digests> algorithms) {
+        this(algorithms, Optional.empty(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ctor.
+     * @param algorithms Digest algorithms
+     * @param executor Executor for parallel digests
+     * @param threshold Min size of buffer to digest it in parallel
+     */
+    MultiDigest(final Collection<Digests> algorithms, final Optional<Executor> executor,
+        final int threshold) {
+        this.digests = new EnumMap<>(Digests.class);
+        for (final Digests alg : algorithms) {
+            this.digests.put(alg, alg.get());
+        }
+        this.executor = executor;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Updates all digests by remaining bytes of the buffer, buffer position is not changed.
+     * @param buf Buffer
+     */
+    void update(final ByteBuffer buf) {
+        if (this.executor.isPresent() && this.digests.size() > 1
+            && buf.remaining() >= this.threshold) {
+            final List<CompletableFuture<Void>> updates = new ArrayList<>(this.digests.size());
+            final Iterator<MessageDigest> iter = this.digests.values().iterator();
+            final MessageDigest local = iter.next();
+            while (iter.hasNext()) {
+                final MessageDigest digest = iter.next();
+                updates.add(
+                    CompletableFuture.runAsync(
+                        () -> digest.update(buf.duplicate()), this.executor.get()
+                    )
+                );
+            }
+            local.update(buf.duplicate());
+            CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0])).join();
+        } else {
+            for (final MessageDigest digest : this.digests.values()) {
+                digest.update(buf.duplicate());
+            }
+        }
+    }
+
+    /**
+     * Completes digests.
+     * @return Digest bytes by algorithm
+     */
+    Map<Digests, byte[]> digest() {
+        final Map<Digests, byte[]> res = new EnumMap<>(Digests.class);
+        for (final Map.Entry<Digests, MessageDigest> ent : this.digests.entrySet()) {
+            res.put(ent.getKey(), ent.getValue().digest());
+        }
+        return res;
+    }
+}
@@ -4,20 +4,24 @@
  */
 package com.artipie.asto.ext;
 
-import com.artipie.asto.Concatenation;
+import com.artipie.asto.Aggregation;
 import com.artipie.asto.Content;
+import com.artipie.asto.ImmutableContent;
 import com.artipie.asto.Remaining;
 import hu.akarnokd.rxjava2.interop.SingleInterop;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import org.reactivestreams.Publisher;
 
 /**
  * Read bytes from content to memory.
  * Using this class keep in mind that it reads ByteBuffer from publisher into memory and is not
- * suitable for large content.
+ * suitable for large content. Content which is already in memory as {@link ImmutableContent}
+ * is read without concatenation, other content is aggregated by {@link Aggregation}
+ * with single copy of bytes.
  * @since 0.24
  */
 public final class PublisherAs {
@@ -48,11 +52,13 @@ public final class PublisherAs {
      * @return Byte array as CompletionStage
      */
     public CompletionStage<byte[]> bytes() {
-        return new Concatenation(this.content)
-            .single()
-            .map(buf -> new Remaining(buf, true))
-            .map(Remaining::bytes)
-            .to(SingleInterop.get());
+        final CompletionStage<byte[]> res;
+        if (this.content instanceof ImmutableContent) {
+            res = this.immutable().thenApply(buf -> new Remaining(buf).bytes());
+        } else {
+            res = new Aggregation(this.content).bytes().to(SingleInterop.get());
+        }
+        return res;
     }
 
     /**
@@ -61,7 +67,13 @@ public final class PublisherAs {
      * @return String as CompletionStage
      */
     public CompletionStage<String> string(final Charset charset) {
-        return this.bytes().thenApply(bytes -> new String(bytes, charset));
+        final CompletionStage<String> res;
+        if (this.content instanceof ImmutableContent) {
+            res = this.immutable().thenApply(buf -> charset.decode(buf).toString());
+        } else {
+            res = this.bytes().thenApply(bytes -> new String(bytes, charset));
+        }
+        return res;
     }
 
     /**
@@ -72,4 +84,14 @@ public final class PublisherAs {
         return this.string(StandardCharsets.US_ASCII);
     }
 
+    /**
+     * Reads all bytes of {@link ImmutableContent}, they are already in single buffer
+     * and are neither concatenated nor copied.
+     * @return Buffer as CompletionStage
+     */
+    private CompletionStage<ByteBuffer> immutable() {
+        return CompletableFuture.completedFuture((ImmutableContent) this.content)
+            .thenApply(ImmutableContent::buffer);
+    }
+
 }
@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import com.artipie.asto.ListResult;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * One level of directory tree as listing result.
+ * <p>
+ * Reads only entries of the directory itself: regular files are listed as keys and
+ * subdirectories as common prefixes, subdirectories content is not read.
+ * </p>
+ * @since 1.15
+ */
+public final class DirectoryLevel {
+
+    /**
+     * Directory path.
+     */
+    private final Path path;
+
+    /**
+     * Key of directory.
+     */
+    private final Key key;
+
+    /**
+     * Ctor.
+     * @param path Directory path
+     * @param key Key of directory
+     */
+    public DirectoryLevel(final Path path, final Key key) {
+        this.path = path;
+        this.key = key;
+    }
+
+    /**
+     * Read directory entries.
+     * @return Listing result, empty if directory does not exist
+     */
+    public ListResult read() {
+        final ListResult res;
+        if (Files.isDirectory(this.path)) {
+            final Collection<Key> files = new TreeSet<>(Key.CMP_STRING);
+            final Collection<Key> dirs = new TreeSet<>(Key.CMP_STRING);
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.path)) {
+                for (final Path entry : entries) {
+                    final Key child = new Key.From(this.key, entry.getFileName().toString());
+                    if (Files.isDirectory(entry)) {
+                        dirs.add(child);
+                    } else if (Files.isRegularFile(entry)) {
+                        files.add(child);
+                    }
+                }
+            } catch (final IOException iex) {
+                throw new ArtipieIOException(iex);
+            }
+            res = new ListResult.Simple(files, dirs);
+        } else {
+            res = ListResult.EMPTY;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy walk of files in directory tree.
+ * <p>
+ * Iterates over keys of regular files in ascending order of key strings, together with
+ * file attributes read while the directory is walked. Directories are read one by one
+ * when the walk reaches them, so only entries of directories on the current path are held
+ * in memory. Subtrees which contain only keys not greater than start key are not read at all.
+ * Entries removed while the directory is walked are skipped.
+ * </p>
+ * @since 1.15
+ */
+final class DirectoryWalk implements Iterator<Map.Entry<Key, BasicFileAttributes>> {
+
+    /**
+     * Entries of directories on the current path, the deepest one on top.
+     */
+    private final Deque<Iterator<Entry>> stack;
+
+    /**
+     * Start key string, keys not greater than it are skipped.
+     */
+    private final String after;
+
+    /**
+     * Next key with file attributes, if found.
+     */
+    private Map.Entry<Key, BasicFileAttributes> next;
+
+    /**
+     * Ctor.
+     * @param path Path to walk
+     * @param prefix Key of path
+     * @param after Key to start walk after
+     */
+    DirectoryWalk(final Path path, final Key prefix, final Key after) {
+        this.stack = new LinkedList<>();
+        this.after = after.string();
+        this.stack.push(Entry.read(prefix.string(), path).iterator());
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.next == null && !this.stack.isEmpty()) {
+            final Iterator<Entry> top = this.stack.peek();
+            if (top.hasNext()) {
+                final Entry entry = top.next();
+                if (entry.attrs.isDirectory()) {
+                    if (entry.contains(this.after)) {
+                        this.stack.push(entry.children().iterator());
+                    }
+                } else if (entry.key.compareTo(this.after) > 0) {
+                    this.next = new AbstractMap.SimpleImmutableEntry<>(
+                        new Key.From(entry.key), entry.attrs
+                    );
+                }
+            } else {
+                this.stack.pop();
+            }
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<Key, BasicFileAttributes> next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Map.Entry<Key, BasicFileAttributes> res = this.next;
+        this.next = null;
+        return res;
+    }
+
+    /**
+     * Entry of directory.
+     * @since 1.15
+     */
+    private static final class Entry {
+
+        /**
+         * Order of entries, directory name is compared as it's followed by the delimiter,
+         * so that entries order matches the order of key strings.
+         */
+        private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::sortable);
+
+        /**
+         * Key string.
+         */
+        private final String key;
+
+        /**
+         * Entry path.
+         */
+        private final Path path;
+
+        /**
+         * Entry attributes.
+         */
+        private final BasicFileAttributes attrs;
+
+        /**
+         * Ctor.
+         * @param key Key string
+         * @param path Entry path
+         * @param attrs Entry attributes
+         */
+        Entry(final String key, final Path path, final BasicFileAttributes attrs) {
+            this.key = key;
+            this.path = path;
+            this.attrs = attrs;
+        }
+
+        /**
+         * Reads entry attributes.
+         * @param key Key string
+         * @param path Entry path
+         * @return Entry, or nothing if the path does not exist
+         */
+        static List<Entry> read(final String key, final Path path) {
+            List<Entry> res;
+            try {
+                res = Collections.singletonList(
+                    new Entry(key, path, Files.readAttributes(path, BasicFileAttributes.class))
+                );
+            } catch (final NoSuchFileException ex) {
+                res = Collections.emptyList();
+            } catch (final IOException iex) {
+                throw new ArtipieIOException(iex);
+            }
+            return res;
+        }
+
+        /**
+         * Checks whether directory subtree may contain keys greater than the specified one.
+         * @param start Key string
+         * @return True if subtree should be walked
+         */
+        boolean contains(final String start) {
+            final String sub = this.sortable();
+            return sub.compareTo(start) >= 0 || start.startsWith(sub);
+        }
+
+        /**
+         * Reads entries of directory sorted.
+         * @return Sorted entries
+         */
+        List<Entry> children() {
+            final List<Entry> res = new ArrayList<>(0);
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.path)) {
+                for (final Path child : entries) {
+                    res.addAll(Entry.read(this.child(child.getFileName().toString()), child));
+                }
+            } catch (final IOException iex) {
+                throw new ArtipieIOException(iex);
+            }
+            res.sort(Entry.ORDER);
+            return res;
+        }
+
+        /**
+         * Key string of directory child.
+         * @param name Child name
+         * @return Key string
+         */
+        private String child(final String name) {
+            final String res;
+            if (this.key.isEmpty()) {
+                res = name;
+            } else {
+                res = String.join(Key.DELIMITER, this.key, name);
+            }
+            return res;
+        }
+
+        /**
+         * String to compare entry with keys.
+         * @return Key string followed by the delimiter for directories
+         */
+        private String sortable() {
+            final String res;
+            if (this.attrs.isDirectory() && !this.key.isEmpty()) {
+                res = String.join("", this.key, Key.DELIMITER);
+            } else {
+                res = this.key;
+            }
+            return res;
+        }
+    }
+}
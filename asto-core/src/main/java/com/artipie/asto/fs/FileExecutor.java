@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.ArtipieException;
+import com.artipie.asto.factory.StorageConfig;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executor of blocking file system operations for {@link FileStorage}.
+ * <p>
+ * Fixed executor is a pool of daemon threads of specified size, virtual executor starts
+ * a new virtual thread for each task and is available on JDK 21 and later only.
+ * </p>
+ * @since 1.15
+ */
+public final class FileExecutor implements Supplier<ExecutorService> {
+
+    /**
+     * Fixed thread pool type.
+     */
+    public static final String FIXED = "fixed";
+
+    /**
+     * Virtual thread per task type.
+     */
+    public static final String VIRTUAL = "virtual";
+
+    /**
+     * Executor type.
+     */
+    private final String type;
+
+    /**
+     * Amount of threads of fixed pool.
+     */
+    private final int threads;
+
+    /**
+     * Fixed thread pool.
+     * @param threads Amount of threads
+     */
+    public FileExecutor(final int threads) {
+        this(FileExecutor.FIXED, threads);
+    }
+
+    /**
+     * Ctor.
+     * @param type Executor type, {@link #FIXED} or {@link #VIRTUAL}
+     * @param threads Amount of threads of fixed pool
+     */
+    public FileExecutor(final String type, final int threads) {
+        this.type = type;
+        this.threads = threads;
+    }
+
+    @Override
+    public ExecutorService get() {
+        final ExecutorService res;
+        switch (this.type.toLowerCase(Locale.US)) {
+            case FileExecutor.FIXED:
+                res = Executors.newFixedThreadPool(this.threads, new Daemons());
+                break;
+            case FileExecutor.VIRTUAL:
+                res = FileExecutor.virtual();
+                break;
+            default:
+                throw new ArtipieException(
+                    String.format("Unknown file storage executor type '%s'", this.type)
+                );
+        }
+        return res;
+    }
+
+    /**
+     * Executor which starts a new virtual thread for each task.
+     * @return Executor
+     */
+    private static ExecutorService virtual() {
+        final ExecutorService res;
+        try {
+            res = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (final NoSuchMethodException ex) {
+            throw new ArtipieException(
+                String.format(
+                    "Virtual threads are not supported by Java %s",
+                    System.getProperty("java.version")
+                ),
+                ex
+            );
+        } catch (final IllegalAccessException | InvocationTargetException ex) {
+            throw new ArtipieException("Failed to create virtual thread executor", ex);
+        }
+        return res;
+    }
+
+    /**
+     * Executor of file storage from storage config.
+     * <p>
+     * Executor is configured by {@code executor} mapping of storage config:
+     * <pre>
+     * executor:
+     *   type: fixed # or virtual
+     *   threads: 16 # fixed pool size, twice the number of processors by default
+     * </pre>
+     * Nothing is provided if config has no executor.
+     * </p>
+     * @since 1.15
+     */
+    public static final class FromConfig implements Supplier<Optional<ExecutorService>> {
+
+        /**
+         * Storage config.
+         */
+        private final StorageConfig cfg;
+
+        /**
+         * Config mapping key.
+         */
+        private final String key;
+
+        /**
+         * Ctor.
+         * @param cfg Storage config
+         */
+        public FromConfig(final StorageConfig cfg) {
+            this(cfg, "executor");
+        }
+
+        /**
+         * Ctor.
+         * @param cfg Storage config
+         * @param key Config mapping key
+         */
+        public FromConfig(final StorageConfig cfg, final String key) {
+            this.cfg = cfg;
+            this.key = key;
+        }
+
+        @Override
+        public Optional<ExecutorService> get() {
+            final Optional<ExecutorService> res;
+            if (this.cfg.string(this.key) == null) {
+                res = Optional.empty();
+            } else {
+                final StorageConfig exec = this.cfg.config(this.key);
+                final String type = exec.string("type");
+                final String threads = exec.string("threads");
+                final int size;
+                if (threads == null) {
+                    // @checkstyle MethodBodyCommentsCheck (1 line)
+                    // threads mostly wait for disk, so pool is larger than CPUs count
+                    size = Runtime.getRuntime().availableProcessors() * 2;
+                } else {
+                    size = Integer.parseInt(threads);
+                }
+                res = Optional.of(
+                    new FileExecutor(Optional.ofNullable(type).orElse(FileExecutor.FIXED), size)
+                        .get()
+                );
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Factory of daemon threads, so executor does not prevent JVM from exit.
+     * @since 1.15
+     */
+    private static final class Daemons implements ThreadFactory {
+
+        /**
+         * Pool counter.
+         */
+        private static final AtomicInteger POOLS = new AtomicInteger();
+
+        /**
+         * Pool number.
+         */
+        private final int pool;
+
+        /**
+         * Thread counter.
+         */
+        private final AtomicInteger count;
+
+        /**
+         * Ctor.
+         */
+        Daemons() {
+            this.pool = Daemons.POOLS.incrementAndGet();
+            this.count = new AtomicInteger();
+        }
+
+        @Override
+        public Thread newThread(final Runnable task) {
+            final Thread thread = new Thread(
+                task, String.format("asto-fs-%d-%d", this.pool, this.count.incrementAndGet())
+            );
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -5,9 +5,15 @@
 package com.artipie.asto.fs;
 
 import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Metadata for file.
@@ -20,21 +26,75 @@ final class FileMeta implements Meta {
      */
     private final BasicFileAttributes attr;
 
+    /**
+     * Raw metadata stored with the file, e.g. digests of the content.
+     */
+    private final Map<String, String> extra;
+
     /**
      * New metadata.
      * @param attr File attributes
      */
     FileMeta(final BasicFileAttributes attr) {
+        this(attr, Collections.emptyMap());
+    }
+
+    /**
+     * New metadata.
+     * @param attr File attributes
+     * @param extra Raw metadata stored with the file
+     */
+    FileMeta(final BasicFileAttributes attr, final Map<String, String> extra) {
         this.attr = attr;
+        this.extra = extra;
     }
 
     @Override
     public <T> T read(final ReadOperator<T> opr) {
-        final Map<String, String> raw = new HashMap<>();
+        final Map<String, String> raw = new HashMap<>(this.extra);
         Meta.OP_SIZE.put(raw, this.attr.size());
         Meta.OP_ACCESSED_AT.put(raw, this.attr.lastAccessTime().toInstant());
         Meta.OP_CREATED_AT.put(raw, this.attr.creationTime().toInstant());
         Meta.OP_UPDATED_AT.put(raw, this.attr.lastModifiedTime().toInstant());
+        Meta.OP_VERSION.put(raw, FileMeta.version(this.attr));
         return opr.take(raw);
     }
+
+    @Override
+    public long size() {
+        return this.attr.size();
+    }
+
+    @Override
+    public Optional<Instant> updatedAt() {
+        return Optional.of(this.attr.lastModifiedTime().toInstant());
+    }
+
+    @Override
+    public Optional<String> version() {
+        return Optional.of(FileMeta.version(this.attr));
+    }
+
+    @Override
+    public Optional<String> digest(final Digests digest) {
+        return digest.operator().take(this.extra).map(Function.<String>identity());
+    }
+
+    /**
+     * Version of file.
+     * <p>
+     * Storage never modifies files in place, new value is a new file moved over the old one,
+     * so file identity and modification time change with every save.
+     * </p>
+     * @param attrs File attributes
+     * @return Version string
+     */
+    static String version(final BasicFileAttributes attrs) {
+        return String.format(
+            "%x-%x-%s",
+            attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+            attrs.size(),
+            attrs.fileKey()
+        );
+    }
 }
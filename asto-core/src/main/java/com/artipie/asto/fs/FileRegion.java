@@ -0,0 +1,321 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Content of file region.
+ * <p>
+ * Reads region bytes on demand, bytes before the region are not read at all.
+ * Region is read by positional {@link FileChannel} reads into heap chunks.
+ * In-JVM consumers which process bytes at once, like digests, may opt in to read
+ * large regions as read-only memory-mapped windows of the file by {@link #mapped()},
+ * so they read file pages without copying them to the heap. Mapped windows are
+ * unmapped only when they are garbage collected, so they are not used for streaming.
+ * File storage never modifies files in place, so mapped windows stay valid.
+ * </p>
+ * <p>
+ * Consumers which write content to a channel, e.g. network socket, can check
+ * for this type and send the region by {@link #transferTo(WritableByteChannel)},
+ * which lets OS copy file bytes to the channel directly, like sendfile.
+ * </p>
+ * @since 1.15
+ */
+public final class FileRegion implements Content {
+
+    /**
+     * Size of the chunk to read at once.
+     */
+    private static final int CHUNK = 64 * 1024;
+
+    /**
+     * Min size of region to map it into memory.
+     */
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Size of memory-mapped window.
+     */
+    private static final int WINDOW = 4 * 1024 * 1024;
+
+    /**
+     * File path.
+     */
+    private final Path path;
+
+    /**
+     * Region offset.
+     */
+    private final long offset;
+
+    /**
+     * Region length.
+     */
+    private final long length;
+
+    /**
+     * Scheduler of blocking file reads.
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Whether to read large region as memory-mapped windows.
+     */
+    private final boolean map;
+
+    /**
+     * Whether content was consumed, absent if content can be consumed many times.
+     */
+    private final Optional<AtomicBoolean> consumed;
+
+    /**
+     * Ctor.
+     * @param path File path
+     * @param offset Region offset
+     * @param length Region length
+     */
+    public FileRegion(final Path path, final long offset, final long length) {
+        this(path, offset, length, Schedulers.io());
+    }
+
+    /**
+     * Ctor.
+     * @param path File path
+     * @param offset Region offset
+     * @param length Region length
+     * @param scheduler Scheduler of blocking file reads
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public FileRegion(final Path path, final long offset, final long length,
+        final Scheduler scheduler) {
+        this(path, offset, length, scheduler, false, Optional.empty());
+    }
+
+    /**
+     * Primary ctor.
+     * @param path File path
+     * @param offset Region offset
+     * @param length Region length
+     * @param scheduler Scheduler of blocking file reads
+     * @param map Whether to read large region as memory-mapped windows
+     * @param consumed Whether content was consumed, absent if it can be consumed many times
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private FileRegion(final Path path, final long offset, final long length,
+        final Scheduler scheduler, final boolean map, final Optional<AtomicBoolean> consumed) {
+        this.path = path;
+        this.offset = offset;
+        this.length = length;
+        this.scheduler = scheduler;
+        this.map = map;
+        this.consumed = consumed;
+    }
+
+    /**
+     * The same region which can be consumed only once, by subscription
+     * or by transfer, like {@link Content.OneTime}.
+     * @return One time region
+     */
+    public FileRegion oneTime() {
+        return new FileRegion(
+            this.path, this.offset, this.length, this.scheduler, this.map,
+            Optional.of(new AtomicBoolean())
+        );
+    }
+
+    /**
+     * The same region which emits large region as read-only memory-mapped windows
+     * of the file. Windows hold mapped memory until they are garbage collected, so
+     * they are for in-JVM consumers which don't keep the buffers, e.g. digests.
+     * Mapped region shares consumption state with this region.
+     * @return Mapped region
+     */
+    public FileRegion mapped() {
+        return new FileRegion(
+            this.path, this.offset, this.length, this.scheduler, true, this.consumed
+        );
+    }
+
+    /**
+     * File path.
+     * @return Path
+     */
+    public Path path() {
+        return this.path;
+    }
+
+    /**
+     * Region offset in file.
+     * @return Offset
+     */
+    public long offset() {
+        return this.offset;
+    }
+
+    /**
+     * Region length.
+     * @return Length in bytes
+     */
+    public long length() {
+        return this.length;
+    }
+
+    /**
+     * Transfers region bytes to the channel without copying them to the heap,
+     * using {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+     * @param target Target channel
+     * @return Amount of transferred bytes
+     * @throws IOException On read or write error
+     */
+    public long transferTo(final WritableByteChannel target) throws IOException {
+        this.claim();
+        long done = 0;
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            final long end = Math.min(this.offset + this.length, channel.size());
+            while (this.offset + done < end) {
+                final long sent = channel.transferTo(
+                    this.offset + done, end - this.offset - done, target
+                );
+                if (sent <= 0) {
+                    break;
+                }
+                done += sent;
+            }
+        }
+        return done;
+    }
+
+    @Override
+    public Optional<Long> size() {
+        return Optional.of(this.length);
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        Flowable.<ByteBuffer, Cursor>generate(
+            () -> {
+                this.claim();
+                return new Cursor(
+                    FileChannel.open(this.path, StandardOpenOption.READ),
+                    this.offset,
+                    this.offset + this.length,
+                    this.map && this.length >= FileRegion.MAP_THRESHOLD
+                );
+            },
+            (cursor, emitter) -> {
+                cursor.next(emitter);
+                return cursor;
+            },
+            Cursor::close
+        ).subscribeOn(this.scheduler).subscribe(subscriber);
+    }
+
+    /**
+     * Marks one time region as consumed.
+     * @throws ArtipieIOException If one time region was already consumed
+     */
+    private void claim() {
+        if (this.consumed.isPresent() && this.consumed.get().getAndSet(true)) {
+            throw new ArtipieIOException("The content could not be consumed more than once");
+        }
+    }
+
+    /**
+     * Read position in file channel.
+     * @since 1.15
+     */
+    private static final class Cursor {
+
+        /**
+         * File channel.
+         */
+        private final FileChannel channel;
+
+        /**
+         * End position, exclusive.
+         */
+        private final long end;
+
+        /**
+         * Whether to map file windows into memory instead of reading them.
+         */
+        private final boolean map;
+
+        /**
+         * Current position.
+         */
+        private long pos;
+
+        /**
+         * Ctor.
+         * @param channel File channel
+         * @param start Start position
+         * @param end End position, exclusive, clipped by file size
+         * @param map Whether to map file windows into memory
+         * @throws IOException On error
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Cursor(final FileChannel channel, final long start, final long end,
+            final boolean map) throws IOException {
+            this.channel = channel;
+            this.pos = start;
+            this.end = Math.min(end, channel.size());
+            this.map = map;
+        }
+
+        /**
+         * Read next chunk and emit it.
+         * @param emitter Emitter
+         * @throws IOException On read error
+         */
+        void next(final Emitter<ByteBuffer> emitter) throws IOException {
+            if (this.pos < this.end && this.map) {
+                final long size = Math.min(FileRegion.WINDOW, this.end - this.pos);
+                final ByteBuffer buf = this.channel.map(
+                    FileChannel.MapMode.READ_ONLY, this.pos, size
+                );
+                this.pos += size;
+                emitter.onNext(buf);
+            } else if (this.pos < this.end) {
+                final ByteBuffer buf = ByteBuffer.allocate(
+                    (int) Math.min(FileRegion.CHUNK, this.end - this.pos)
+                );
+                final int read = this.channel.read(buf, this.pos);
+                if (read < 0) {
+                    emitter.onComplete();
+                } else {
+                    this.pos += read;
+                    buf.flip();
+                    emitter.onNext(buf);
+                }
+            } else {
+                emitter.onComplete();
+            }
+        }
+
+        /**
+         * Close channel.
+         * @throws IOException On close error
+         */
+        void close() throws IOException {
+            this.channel.close();
+        }
+    }
+}
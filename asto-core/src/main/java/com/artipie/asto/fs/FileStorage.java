@@ -4,38 +4,64 @@
  */
 package com.artipie.asto.fs;
 
-import com.artipie.ArtipieException;
 import com.artipie.asto.ArtipieIOException;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
+import com.artipie.asto.ListResult;
 import com.artipie.asto.Meta;
 import com.artipie.asto.OneTimePublisher;
+import com.artipie.asto.Range;
 import com.artipie.asto.Storage;
 import com.artipie.asto.UnderLockOperation;
 import com.artipie.asto.ValueNotFoundException;
 import com.artipie.asto.ext.CompletableFutureSupport;
+import com.artipie.asto.ext.DigestedContent;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.lock.storage.StorageLock;
 import com.jcabi.log.Logger;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
 import java.io.IOException;
-import java.nio.file.FileSystems;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.cqfn.rio.file.File;
+import org.reactivestreams.Publisher;
 
 /**
  * Simple storage, in files.
@@ -46,11 +72,51 @@ import org.cqfn.rio.file.File;
 @SuppressWarnings("PMD.TooManyMethods")
 public final class FileStorage implements Storage {
 
+    /**
+     * Monitors which guard conditional saves, shared by storages of the same JVM.
+     */
+    private static final Object[] GUARDS = Stream.generate(Object::new).limit(64).toArray();
+
+    /**
+     * Prefix of user extended attributes with raw metadata of the file.
+     */
+    private static final String ATTR_PREFIX = "asto.";
+
+    /**
+     * Default executor of blocking file system operations, shared pool of I/O threads.
+     */
+    static final Executor IO = task -> Schedulers.io().scheduleDirect(task);
+
     /**
      * Where we keep the data.
      */
     private final Path dir;
 
+    /**
+     * Digests to compute on save and to keep with the file.
+     */
+    private final Collection<Digests> digests;
+
+    /**
+     * Executor of blocking file system operations.
+     */
+    private final Executor exec;
+
+    /**
+     * Write options.
+     */
+    private final WriteOptions options;
+
+    /**
+     * Directory syncs shared by concurrent saves.
+     */
+    private final GroupSync syncs;
+
+    /**
+     * Pool of directory walking tasks.
+     */
+    private final ForkJoinPool walks;
+
     /**
      * Ctor.
      * @param path The path to the dir
@@ -68,51 +134,109 @@ public final class FileStorage implements Storage {
      * @param path The path to the dir
      */
     public FileStorage(final Path path) {
+        this(path, Collections.emptySet());
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Storage computes the digests of content while it is saved and keeps them in user
+     * extended attributes of the file, they are available as metadata, e.g.
+     * {@link Meta#OP_SHA256}. Digests are not kept if the file system does not support
+     * user extended attributes.
+     * </p>
+     * @param path The path to the dir
+     * @param digests Digests to compute on save
+     */
+    public FileStorage(final Path path, final Collection<Digests> digests) {
+        this(path, digests, FileStorage.IO);
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Each operation runs blocking file system calls as a single task of the executor,
+     * e.g. dedicated thread pool sized for the disk or virtual threads, see
+     * {@link FileExecutor}.
+     * </p>
+     * @param path The path to the dir
+     * @param exec Executor of blocking file system operations
+     */
+    public FileStorage(final Path path, final Executor exec) {
+        this(path, Collections.emptySet(), exec);
+    }
+
+    /**
+     * Ctor.
+     * @param path The path to the dir
+     * @param digests Digests to compute on save
+     * @param exec Executor of blocking file system operations
+     */
+    public FileStorage(final Path path, final Collection<Digests> digests,
+        final Executor exec) {
+        this(path, digests, exec, WriteOptions.DEFAULT);
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Write options control how saved values are written: content buffers are gathered
+     * into large writes, and values are synced to disk according to durability,
+     * directory syncs of concurrent saves are shared.
+     * </p>
+     * @param path The path to the dir
+     * @param digests Digests to compute on save
+     * @param exec Executor of blocking file system operations
+     * @param options Write options
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public FileStorage(final Path path, final Collection<Digests> digests,
+        final Executor exec, final WriteOptions options) {
+        this(path, digests, exec, options, ParallelWalk.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Keys are listed by parallel walk of directory tree on the pool, see
+     * {@link ParallelWalk}, executor threads don't wait for the walk.
+     * </p>
+     * @param path The path to the dir
+     * @param digests Digests to compute on save
+     * @param exec Executor of blocking file system operations
+     * @param options Write options
+     * @param walks Pool of directory walking tasks
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public FileStorage(final Path path, final Collection<Digests> digests,
+        final Executor exec, final WriteOptions options, final ForkJoinPool walks) {
         this.dir = path;
+        this.digests = digests;
+        this.exec = exec;
+        this.options = options;
+        this.walks = walks;
+        this.syncs = new GroupSync(exec);
     }
 
     @Override
     public CompletableFuture<Boolean> exists(final Key key) {
-        return this.keyPath(key).thenApplyAsync(
+        return this.supply(
+            key,
             path -> Files.exists(path) && !Files.isDirectory(path)
         );
     }
 
     @Override
     public CompletableFuture<Collection<Key>> list(final Key prefix) {
-        return this.keyPath(prefix).thenApplyAsync(
-            path -> {
-                final Collection<Key> keys;
-                if (Files.exists(path)) {
-                    final int dirnamelen;
-                    if (Key.ROOT.string().equals(prefix.string())) {
-                        dirnamelen = path.toString().length() + 1;
-                    } else {
-                        dirnamelen = path.toString().length() - prefix.string().length();
-                    }
-                    try {
-                        keys = Files.walk(path)
-                            .filter(Files::isRegularFile)
-                            .map(Path::toString)
-                            .map(p -> p.substring(dirnamelen))
-                            .map(
-                                s -> s.split(
-                                    FileSystems.getDefault().getSeparator().replace("\\", "\\\\")
-                                )
-                            )
-                            .map(Key.From::new)
-                            .sorted(Comparator.comparing(Key.From::string))
-                            .collect(Collectors.toList());
-                    } catch (final IOException iex) {
-                        throw new ArtipieIOException(iex);
-                    }
-                } else {
-                    keys = Collections.emptyList();
-                }
+        return CompletableFuture.completedFuture(prefix).thenApply(this::path).thenCompose(
+            path -> new ParallelWalk(path, prefix, this.walks).keys()
+        ).<Collection<Key>>thenApply(
+            keys -> {
+                keys.sort(Key.CMP_STRING);
                 Logger.info(
                     this,
-                    "Found %d objects by the prefix \"%s\" in %s by %s: %s",
-                    keys.size(), prefix.string(), this.dir, path, keys
+                    "Found %d objects by the prefix \"%s\" in %s",
+                    keys.size(), prefix.string(), this.dir
                 );
                 return keys;
             }
@@ -120,52 +244,181 @@ public final class FileStorage implements Storage {
     }
 
     @Override
-    public CompletableFuture<Void> save(final Key key, final Content content) {
-        return this.keyPath(key).thenApplyAsync(
-            path ->  {
-                final Path tmp = Paths.get(
-                    this.dir.toString(),
-                    String.format("%s.%s.tmp", key.string(), UUID.randomUUID())
+    public Publisher<Key> list(final Key prefix, final Key after, final int limit) {
+        return this.walk(prefix, after, limit).map(Map.Entry::getKey);
+    }
+
+    @Override
+    public Publisher<Map.Entry<Key, Meta>> listMetadata(
+        final Key prefix, final Key after, final int limit
+    ) {
+        return this.walk(prefix, after, limit).map(
+            entry -> {
+                final Map<String, String> extra;
+                if (this.digests.isEmpty()) {
+                    extra = Collections.emptyMap();
+                } else {
+                    extra = FileStorage.attributes(this.dir.resolve(entry.getKey().string()));
+                }
+                return new AbstractMap.SimpleImmutableEntry<>(
+                    entry.getKey(), new FileMeta(entry.getValue(), extra)
                 );
-                tmp.getParent().toFile().mkdirs();
-                return ImmutablePair.of(path, tmp);
             }
-        ).thenCompose(
-            pair -> {
-                final Path path = pair.getKey();
-                final Path tmp = pair.getValue();
-                return new File(tmp).write(
-                    new OneTimePublisher<>(content),
-                    StandardOpenOption.WRITE,
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.TRUNCATE_EXISTING
-                ).thenCompose(
-                    nothing -> FileStorage.move(tmp, path)
-                ).handleAsync(
-                    (nothing, throwable) -> {
-                        tmp.toFile().delete();
-                        if (throwable == null) {
-                            return null;
-                        } else {
-                            throw new ArtipieIOException(throwable);
+        );
+    }
+
+    @Override
+    public CompletableFuture<ListResult> list(final Key prefix, final String delimiter) {
+        final CompletableFuture<ListResult> res;
+        if (Key.DELIMITER.equals(delimiter)) {
+            res = this.supply(
+                prefix,
+                path -> new DirectoryLevel(path, prefix).read()
+            );
+        } else {
+            res = Storage.super.list(prefix, delimiter);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        return this.write(
+            key,
+            content,
+            (tmp, path) -> {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+                return true;
+            }
+        ).thenApply(saved -> null);
+    }
+
+    /**
+     * Saves the value only if the key has no value yet.
+     * <p>
+     * Written file is linked to the key path, linking fails if the path exists,
+     * so the check and the save are atomic even for concurrent processes.
+     * </p>
+     * @param key The key
+     * @param content Bytes to save
+     * @return True if value was saved, false if the key already has a value.
+     */
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        return this.write(
+            key,
+            content,
+            (tmp, path) -> {
+                synchronized (FileStorage.guard(path)) {
+                    boolean res;
+                    try {
+                        Files.createLink(path, tmp);
+                        res = true;
+                    } catch (final FileAlreadyExistsException ex) {
+                        res = false;
+                    } catch (final UnsupportedOperationException | FileSystemException ex) {
+                        res = !Files.exists(path);
+                        if (res) {
+                            Files.move(tmp, path);
                         }
                     }
-                );
+                    return res;
+                }
+            }
+        );
+    }
+
+    /**
+     * Saves the value only if current version of the value matches.
+     * <p>
+     * Version is derived from file identity, modification time and size. File system
+     * has no atomic compare and rename, so the check and the save are atomic for
+     * operations of this JVM only.
+     * </p>
+     * @param key The key
+     * @param content Bytes to save
+     * @param version Expected version of current value
+     * @return True if value was saved, false if value is absent or has another version.
+     */
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        return this.write(
+            key,
+            content,
+            (tmp, path) -> {
+                synchronized (FileStorage.guard(path)) {
+                    boolean res;
+                    try {
+                        res = FileMeta.version(
+                            Files.readAttributes(path, BasicFileAttributes.class)
+                        ).equals(version);
+                    } catch (final NoSuchFileException ex) {
+                        res = false;
+                    }
+                    if (res) {
+                        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return res;
+                }
             }
         );
     }
 
     @Override
     public CompletableFuture<Void> move(final Key source, final Key destination) {
-        return this.keyPath(source).thenCompose(
-            src -> this.keyPath(destination).thenApply(dst -> ImmutablePair.of(src, dst))
-        ).thenCompose(pair -> FileStorage.move(pair.getKey(), pair.getValue()));
+        return CompletableFuture.supplyAsync(
+            () -> {
+                final Path src = this.path(source);
+                final Path dst = this.path(destination);
+                final List<Path> changed = FileStorage.mkdirs(dst.getParent());
+                try {
+                    Files.move(src, dst, StandardCopyOption.REPLACE_EXISTING);
+                } catch (final IOException iex) {
+                    throw new ArtipieIOException(iex);
+                }
+                changed.add(src);
+                return ImmutablePair.of(dst.getParent(), changed);
+            },
+            this.exec
+        ).thenCompose(pair -> this.durable(pair.getKey(), pair.getValue()));
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        return CompletableFuture.supplyAsync(
+            () -> {
+                final Path src = this.path(source);
+                final Path dst = this.path(destination);
+                if (!Files.isRegularFile(src)) {
+                    throw new ValueNotFoundException(source);
+                }
+                final Path tmp = Paths.get(
+                    this.dir.toString(),
+                    String.format("%s.%s.tmp", destination.string(), UUID.randomUUID())
+                );
+                final List<Path> created = FileStorage.mkdirs(tmp.getParent());
+                try {
+                    FileStorage.link(src, tmp);
+                    created.addAll(FileStorage.mkdirs(dst.getParent()));
+                    Files.move(tmp, dst, StandardCopyOption.REPLACE_EXISTING);
+                } catch (final IOException iex) {
+                    throw new ArtipieIOException(iex);
+                } finally {
+                    tmp.toFile().delete();
+                }
+                return ImmutablePair.of(dst.getParent(), created);
+            },
+            this.exec
+        ).thenCompose(pair -> this.durable(pair.getKey(), pair.getValue()));
     }
 
     @Override
     @SuppressWarnings("PMD.ExceptionAsFlowControl")
     public CompletableFuture<Void> delete(final Key key) {
-        return this.keyPath(key).thenAcceptAsync(
+        return this.run(
+            key,
             path -> {
                 if (Files.exists(path) && !Files.isDirectory(path)) {
                     try {
@@ -181,9 +434,29 @@ public final class FileStorage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> deleteAll(final Key prefix) {
+        return this.run(
+            prefix,
+            path -> {
+                try {
+                    if (Files.isDirectory(path)) {
+                        Files.walkFileTree(path, new Removal(this.dir));
+                    } else {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (final IOException iex) {
+                    throw new ArtipieIOException(iex);
+                }
+                this.deleteEmptyParts(path.getParent());
+            }
+        );
+    }
+
     @Override
     public CompletableFuture<? extends Meta> metadata(final Key key) {
-        return this.keyPath(key).thenApplyAsync(
+        return this.supply(
+            key,
             path -> {
                 final BasicFileAttributes attrs;
                 try {
@@ -193,11 +466,25 @@ public final class FileStorage implements Storage {
                 } catch (final IOException iox) {
                     throw new ArtipieIOException(iox);
                 }
-                return new FileMeta(attrs);
+                final Map<String, String> extra;
+                if (this.digests.isEmpty()) {
+                    extra = Collections.emptyMap();
+                } else {
+                    extra = FileStorage.attributes(path);
+                }
+                return new FileMeta(attrs, extra);
             }
         );
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Value is one time {@link FileRegion} of the whole file, consumers may send it
+     * to a channel by {@link FileRegion#transferTo} without copying it to the heap,
+     * or read it as memory-mapped windows by {@link FileRegion#mapped()}.
+     * </p>
+     */
     @Override
     public CompletableFuture<Content> value(final Key key) {
         final CompletableFuture<Content> res;
@@ -206,18 +493,47 @@ public final class FileStorage implements Storage {
                 new ArtipieIOException("Unable to load from root")
             ).get();
         } else {
-            res = this.metadata(key).thenApply(
-                meta -> meta.read(Meta.OP_SIZE).orElseThrow(
-                    () -> new ArtipieException(
-                        String.format("Size is not available for '%s' key", key.string())
-                    )
-                )
-            ).thenCompose(
-                size -> this.keyPath(key).thenApply(path -> ImmutablePair.of(path, size))
-            ).thenApply(
-                pair -> new Content.OneTime(
-                    new Content.From(pair.getValue(), new File(pair.getKey()).content())
-                )
+            res = this.supply(
+                key,
+                path -> {
+                    final long size;
+                    try {
+                        size = Files.readAttributes(path, BasicFileAttributes.class).size();
+                    } catch (final NoSuchFileException fex) {
+                        throw new ValueNotFoundException(key, fex);
+                    } catch (final IOException iox) {
+                        throw new ArtipieIOException(iox);
+                    }
+                    return new FileRegion(path, 0, size, Schedulers.from(this.exec)).oneTime();
+                }
+            );
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        final CompletableFuture<Content> res;
+        if (Key.ROOT.string().equals(key.string())) {
+            res = new CompletableFutureSupport.Failed<Content>(
+                new ArtipieIOException("Unable to load from root")
+            ).get();
+        } else {
+            res = this.supply(
+                key,
+                path -> {
+                    final long size;
+                    try {
+                        size = Files.size(path);
+                    } catch (final NoSuchFileException fex) {
+                        throw new ValueNotFoundException(key, fex);
+                    } catch (final IOException iox) {
+                        throw new ArtipieIOException(iox);
+                    }
+                    return new FileRegion(
+                        path, range.offset(), range.size(size), Schedulers.from(this.exec)
+                    ).oneTime();
+                }
             );
         }
         return res;
@@ -261,27 +577,261 @@ public final class FileStorage implements Storage {
     }
 
     /**
-     * Moves file from source path to destination.
+     * Writes content to temporary file and then places it to the key path.
      *
-     * @param source Source path.
-     * @param dest Destination path.
-     * @return Completion of moving file.
+     * @param key The key.
+     * @param content Bytes to write.
+     * @param place Placement of temporary file to the key path.
+     * @return Result of placement.
      */
-    private static CompletableFuture<Void> move(final Path source, final Path dest) {
-        return CompletableFuture.supplyAsync(
-            () -> {
-                dest.getParent().toFile().mkdirs();
-                return dest;
+    private CompletableFuture<Boolean> write(
+        final Key key, final Content content, final Placement place
+    ) {
+        final CompletableFuture<Boolean> res;
+        if (Key.ROOT.string().equals(key.string())) {
+            res = new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else {
+            final Collection<Path> created = new ConcurrentLinkedQueue<>();
+            res = this.supply(
+                key,
+                path -> {
+                    final Path tmp = Paths.get(
+                        this.dir.toString(),
+                        String.format("%s.%s.tmp", key.string(), UUID.randomUUID())
+                    );
+                    created.addAll(FileStorage.mkdirs(tmp.getParent()));
+                    return ImmutablePair.of(path, tmp);
+                }
+            ).thenCompose(
+                pair -> {
+                    final Path path = pair.getKey();
+                    final Path tmp = pair.getValue();
+                    final Content body;
+                    final CompletionStage<Map<String, String>> extra;
+                    if (this.digests.isEmpty()) {
+                        body = content;
+                        extra = CompletableFuture.completedFuture(Collections.emptyMap());
+                    } else {
+                        final DigestedContent digested = new DigestedContent(
+                            content, this.digests
+                        );
+                        body = digested;
+                        extra = digested.meta();
+                    }
+                    return this.dump(tmp, new OneTimePublisher<>(body))
+                        .thenCombine(extra, (nothing, raw) -> raw).handleAsync(
+                        (raw, throwable) -> {
+                            try {
+                                if (throwable != null) {
+                                    throw new ArtipieIOException(throwable);
+                                }
+                                FileStorage.attributes(tmp, raw);
+                                created.addAll(FileStorage.mkdirs(path.getParent()));
+                                return place.apply(tmp, path);
+                            } catch (final IOException iex) {
+                                throw new ArtipieIOException(iex);
+                            } finally {
+                                tmp.toFile().delete();
+                            }
+                        },
+                        this.exec
+                    ).thenCompose(
+                        placed -> {
+                            final CompletableFuture<Boolean> synced;
+                            if (placed) {
+                                synced = this.durable(path.getParent(), created)
+                                    .thenApply(nothing -> true);
+                            } else {
+                                synced = CompletableFuture.completedFuture(false);
+                            }
+                            return synced;
+                        }
+                    );
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Makes changes of directory entries durable according to write options.
+     * <p>
+     * With full durability the directory is synced, and so are parents of
+     * created directories and of other changed paths, so new ancestors of the
+     * directory are durable too.
+     * </p>
+     * @param dir Directory with changed entry
+     * @param changed Created directories and other changed paths
+     * @return Completion of syncs
+     */
+    private CompletableFuture<Void> durable(final Path dir, final Collection<Path> changed) {
+        final CompletableFuture<Void> res;
+        if (this.options.durability() == WriteOptions.Durability.FULL) {
+            final Set<Path> dirs = new LinkedHashSet<>();
+            dirs.add(dir);
+            for (final Path path : changed) {
+                dirs.add(path.getParent());
             }
-        ).thenAcceptAsync(
-            dst -> {
+            res = CompletableFuture.allOf(
+                dirs.stream().map(this.syncs::sync).toArray(CompletableFuture[]::new)
+            );
+        } else {
+            res = CompletableFuture.allOf();
+        }
+        return res;
+    }
+
+    /**
+     * Creates directory with missing ancestors.
+     * @param dir Directory
+     * @return Directories created by this call, outermost first
+     */
+    private static List<Path> mkdirs(final Path dir) {
+        final Deque<Path> missing = new LinkedList<>();
+        Path cur = dir;
+        while (cur != null && !Files.isDirectory(cur)) {
+            missing.push(cur);
+            cur = cur.getParent();
+        }
+        final List<Path> created = new ArrayList<>(missing.size());
+        for (final Path path : missing) {
+            if (path.toFile().mkdir()) {
+                created.add(path);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Writes content to the file on the executor, gathering small buffers into
+     * large writes and syncing the file according to write options.
+     * @param path File path
+     * @param content Content
+     * @return Completion of writing
+     */
+    private CompletionStage<Void> dump(final Path path, final Publisher<ByteBuffer> content) {
+        final Scheduler scheduler = Schedulers.from(this.exec);
+        return Completable.using(
+            () -> new GatheringSink(path, this.options),
+            sink -> Flowable.fromPublisher(content)
+                .observeOn(scheduler)
+                .doOnNext(sink::write)
+                .ignoreElements()
+                .andThen(Completable.fromAction(sink::finish)),
+            GatheringSink::close
+        ).subscribeOn(scheduler).to(CompletableInterop.await()).<Void>thenApply(nothing -> null);
+    }
+
+    /**
+     * Reads raw metadata from user extended attributes of the file.
+     * @param path File path
+     * @return Raw metadata, empty if file system does not support extended attributes
+     */
+    private static Map<String, String> attributes(final Path path) {
+        final Map<String, String> res = new HashMap<>();
+        final UserDefinedFileAttributeView view = Files.getFileAttributeView(
+            path, UserDefinedFileAttributeView.class
+        );
+        if (view != null) {
+            try {
+                for (final String name : view.list()) {
+                    if (name.startsWith(FileStorage.ATTR_PREFIX)) {
+                        final ByteBuffer buf = ByteBuffer.allocate(view.size(name));
+                        view.read(name, buf);
+                        buf.flip();
+                        res.put(
+                            name.substring(FileStorage.ATTR_PREFIX.length()),
+                            StandardCharsets.US_ASCII.decode(buf).toString()
+                        );
+                    }
+                }
+            } catch (final IOException ex) {
+                Logger.debug(
+                    FileStorage.class, "Failed to read attributes of %s: %[exception]s", path, ex
+                );
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Writes raw metadata to user extended attributes of the file.
+     * <p>
+     * Metadata is not kept if file system does not support extended attributes,
+     * the file is saved anyway.
+     * </p>
+     * @param path File path
+     * @param raw Raw metadata
+     */
+    private static void attributes(final Path path, final Map<String, String> raw) {
+        if (!raw.isEmpty()) {
+            final UserDefinedFileAttributeView view = Files.getFileAttributeView(
+                path, UserDefinedFileAttributeView.class
+            );
+            if (view == null) {
+                Logger.warn(
+                    FileStorage.class,
+                    "Digests of %s are not kept, user attributes are not supported", path
+                );
+            } else {
                 try {
-                    Files.move(source, dst, StandardCopyOption.REPLACE_EXISTING);
-                } catch (final IOException iex) {
-                    throw new ArtipieIOException(iex);
+                    for (final Map.Entry<String, String> ent : raw.entrySet()) {
+                        view.write(
+                            String.join("", FileStorage.ATTR_PREFIX, ent.getKey()),
+                            StandardCharsets.US_ASCII.encode(ent.getValue())
+                        );
+                    }
+                } catch (final IOException ex) {
+                    Logger.warn(
+                        FileStorage.class,
+                        "Digests of %s are not kept: %[exception]s", path, ex
+                    );
                 }
             }
-        );
+        }
+    }
+
+    /**
+     * Monitor to guard conditional placement of file to the path.
+     * @param path File path
+     * @return Monitor object, the same for the same path
+     */
+    private static Object guard(final Path path) {
+        return FileStorage.GUARDS[
+            Math.floorMod(path.toAbsolutePath().normalize().hashCode(), FileStorage.GUARDS.length)
+        ];
+    }
+
+    /**
+     * Links file to the new path or copies it if file system does not support links.
+     * <p>
+     * Storage never modifies files in place, values are replaced by moving new file
+     * over the old one, so it's safe for linked values to share the same file.
+     * </p>
+     *
+     * @param source Source path.
+     * @param dest Destination path.
+     * @throws IOException On error.
+     */
+    private static void link(final Path source, final Path dest) throws IOException {
+        try {
+            Files.createLink(dest, source);
+        } catch (final UnsupportedOperationException | FileSystemException ex) {
+            try (
+                FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(
+                    dest, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE
+                )
+            ) {
+                final long size = in.size();
+                long pos = 0;
+                while (pos < size) {
+                    pos += in.transferTo(pos, size - pos, out);
+                }
+            }
+        }
     }
 
     /**
@@ -292,20 +842,117 @@ public final class FileStorage implements Storage {
      * </p>
      *
      * @param key Key to validate.
-     * @return Path future
+     * @return Path
      */
-    private CompletableFuture<? extends Path> keyPath(final Key key) {
+    private Path path(final Key key) {
         final Path path = this.dir.resolve(key.string());
-        final CompletableFuture<Path> res = new CompletableFuture<>();
-        if (path.normalize().startsWith(path)) {
-            res.complete(path);
-        } else {
-            res.completeExceptionally(
-                new ArtipieIOException(
-                    String.format("Entry path is out of storage: %s", key)
-                )
+        if (!path.normalize().startsWith(path)) {
+            throw new ArtipieIOException(
+                String.format("Entry path is out of storage: %s", key)
             );
         }
-        return res;
+        return path;
+    }
+
+    /**
+     * Performs blocking operation with key path as a single task of the executor.
+     * @param key Key
+     * @param operation Operation with key path
+     * @param <T> Result type
+     * @return Result of operation
+     */
+    private <T> CompletableFuture<T> supply(final Key key, final Function<Path, T> operation) {
+        return CompletableFuture.supplyAsync(() -> operation.apply(this.path(key)), this.exec);
+    }
+
+    /**
+     * Performs blocking operation with key path as a single task of the executor.
+     * @param key Key
+     * @param operation Operation with key path
+     * @return Completion of operation
+     */
+    private CompletableFuture<Void> run(final Key key, final Consumer<Path> operation) {
+        return CompletableFuture.runAsync(() -> operation.accept(this.path(key)), this.exec);
+    }
+
+    /**
+     * Walks files of keys with the prefix, reading their attributes on the way.
+     * @param prefix Key prefix
+     * @param after Key to list keys after
+     * @param limit Max amount of keys
+     * @return Keys with file attributes
+     */
+    private Flowable<Map.Entry<Key, BasicFileAttributes>> walk(
+        final Key prefix, final Key after, final int limit
+    ) {
+        return Flowable.defer(
+            () -> {
+                final Path path = this.path(prefix);
+                final Iterable<Map.Entry<Key, BasicFileAttributes>> keys;
+                if (Files.exists(path)) {
+                    keys = () -> new DirectoryWalk(path, prefix, after);
+                } else {
+                    keys = Collections.emptyList();
+                }
+                return Flowable.fromIterable(keys);
+            }
+        ).take(limit).subscribeOn(Schedulers.from(this.exec));
+    }
+
+    /**
+     * Placement of written temporary file to the key path.
+     * @since 1.15
+     */
+    @FunctionalInterface
+    private interface Placement {
+
+        /**
+         * Places file.
+         * @param tmp Temporary file
+         * @param path Key path
+         * @return True if file was placed
+         * @throws IOException On error
+         */
+        boolean apply(Path tmp, Path path) throws IOException;
+    }
+
+    /**
+     * File visitor which removes files and then directories after their content,
+     * storage directory itself is kept.
+     * @since 1.15
+     */
+    private static final class Removal extends SimpleFileVisitor<Path> {
+
+        /**
+         * Storage directory.
+         */
+        private final Path root;
+
+        /**
+         * Ctor.
+         * @param root Storage directory
+         */
+        Removal(final Path root) {
+            this.root = root;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs)
+            throws IOException {
+            Files.deleteIfExists(file);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(final Path dir, final IOException exc)
+            throws IOException {
+            if (exc != null) {
+                throw exc;
+            }
+            if (!dir.equals(this.root)) {
+                Files.deleteIfExists(dir);
+            }
+            return FileVisitResult.CONTINUE;
+        }
     }
 }
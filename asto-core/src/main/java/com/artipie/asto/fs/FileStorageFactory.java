@@ -5,13 +5,28 @@
 package com.artipie.asto.fs;
 
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.factory.ArtipieStorageFactory;
 import com.artipie.asto.factory.StorageConfig;
 import com.artipie.asto.factory.StorageFactory;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 
 /**
  * File storage factory.
+ * <p>
+ * Blocking file system operations run on the executor from {@code executor} config,
+ * see {@link FileExecutor.FromConfig}, or on shared pool of I/O threads by default.
+ * Keys are listed by directory walk on the pool of {@code walk-threads} size,
+ * see {@link ParallelWalk.FromConfig}, or on shared pool by default.
+ * Values are written according to write options from config, see
+ * {@link WriteOptions.FromConfig}.
+ * </p>
  *
  * @since 1.13.0
  */
@@ -19,8 +34,15 @@ import java.nio.file.Paths;
 public final class FileStorageFactory implements StorageFactory {
     @Override
     public Storage newStorage(final StorageConfig cfg) {
+        final Path path = Paths.get(new StorageConfig.StrictStorageConfig(cfg).string("path"));
+        final Set<Digests> digests = new Digests.FromConfig(cfg).get();
+        final Optional<ExecutorService> exec = new FileExecutor.FromConfig(cfg).get();
         return new FileStorage(
-            Paths.get(new StorageConfig.StrictStorageConfig(cfg).string("path"))
+            path,
+            digests,
+            exec.<Executor>map(Function.identity()).orElse(FileStorage.IO),
+            new WriteOptions.FromConfig(cfg).get(),
+            new ParallelWalk.FromConfig(cfg).get().orElse(ParallelWalk.SHARED)
         );
     }
 }
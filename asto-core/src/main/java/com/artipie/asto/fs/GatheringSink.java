@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File sink which gathers small buffers into large writes.
+ * <p>
+ * Buffers are kept until their total size reaches the target size and then
+ * written by single gathering write call, buffers of target size and larger
+ * are written at once. Not thread safe, buffers should be passed sequentially.
+ * </p>
+ * @since 1.15
+ */
+final class GatheringSink implements Closeable {
+
+    /**
+     * File channel.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Write options.
+     */
+    private final WriteOptions options;
+
+    /**
+     * Buffers to write.
+     */
+    private final List<ByteBuffer> pending;
+
+    /**
+     * Size of buffers to write.
+     */
+    private long size;
+
+    /**
+     * Opens the file for writing, existing file is truncated.
+     * @param path File path
+     * @param options Write options
+     * @throws IOException On error
+     */
+    GatheringSink(final Path path, final WriteOptions options) throws IOException {
+        this.channel = FileChannel.open(
+            path,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        );
+        this.options = options;
+        this.pending = new ArrayList<>(0);
+    }
+
+    /**
+     * Adds buffer to write.
+     * @param buf Buffer
+     * @throws IOException On write error
+     */
+    void write(final ByteBuffer buf) throws IOException {
+        if (buf.hasRemaining()) {
+            this.pending.add(buf);
+            this.size += buf.remaining();
+            if (this.size >= this.options.gather()) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * Writes remaining buffers and syncs the file according to durability.
+     * @throws IOException On write error
+     */
+    void finish() throws IOException {
+        this.flush();
+        switch (this.options.durability()) {
+            case DATA:
+                this.channel.force(false);
+                break;
+            case FULL:
+                this.channel.force(true);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Writes pending buffers by gathering write.
+     * @throws IOException On write error
+     */
+    private void flush() throws IOException {
+        if (!this.pending.isEmpty()) {
+            final ByteBuffer[] bufs = this.pending.toArray(new ByteBuffer[0]);
+            long left = this.size;
+            while (left > 0) {
+                left -= this.channel.write(bufs);
+            }
+            this.pending.clear();
+            this.size = 0;
+        }
+    }
+}
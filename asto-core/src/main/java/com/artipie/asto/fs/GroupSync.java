@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.asto.ArtipieIOException;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Directory syncs shared by concurrent callers, group commit.
+ * <p>
+ * Sync of directory is scheduled on the executor, callers which request sync of the same
+ * directory before scheduled sync starts wait for it instead of scheduling their own sync.
+ * Sync starts after all of them requested it, so it covers changes they made before.
+ * </p>
+ * @since 1.15
+ */
+final class GroupSync {
+
+    /**
+     * Executor of syncs.
+     */
+    private final Executor exec;
+
+    /**
+     * Scheduled syncs which are not started yet, by directory.
+     */
+    private final ConcurrentMap<Path, CompletableFuture<Void>> scheduled;
+
+    /**
+     * Ctor.
+     * @param exec Executor of syncs
+     */
+    GroupSync(final Executor exec) {
+        this.exec = exec;
+        this.scheduled = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Syncs directory, so entries created or moved before the call are durable.
+     * @param dir Directory
+     * @return Completion of sync
+     */
+    CompletableFuture<Void> sync(final Path dir) {
+        final CompletableFuture<Void> fresh = new CompletableFuture<>();
+        final CompletableFuture<Void> prev = this.scheduled.putIfAbsent(dir, fresh);
+        final CompletableFuture<Void> res;
+        if (prev == null) {
+            this.exec.execute(
+                () -> {
+                    this.scheduled.remove(dir, fresh);
+                    try {
+                        GroupSync.force(dir);
+                        fresh.complete(null);
+                    } catch (final IOException ex) {
+                        fresh.completeExceptionally(new ArtipieIOException(ex));
+                    }
+                }
+            );
+            res = fresh;
+        } else {
+            res = prev;
+        }
+        return res;
+    }
+
+    /**
+     * Syncs directory.
+     * @param dir Directory
+     * @throws IOException On sync error
+     */
+    private static void force(final Path dir) throws IOException {
+        final Optional<FileChannel> opened = GroupSync.open(dir);
+        if (opened.isPresent()) {
+            try (FileChannel channel = opened.get()) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Opens directory for sync.
+     * <p>
+     * Some platforms, e.g. Windows, can't open directory as a channel, their file systems
+     * don't need directory sync, so the failure to open directory is ignored.
+     * </p>
+     * @param dir Directory
+     * @return Directory channel, empty if directory can't be opened
+     */
+    private static Optional<FileChannel> open(final Path dir) {
+        Optional<FileChannel> res;
+        try {
+            res = Optional.of(FileChannel.open(dir, StandardOpenOption.READ));
+        } catch (final IOException ex) {
+            Logger.debug(GroupSync.class, "Directory %s is not synced: %[exception]s", dir, ex);
+            res = Optional.empty();
+        }
+        return res;
+    }
+}
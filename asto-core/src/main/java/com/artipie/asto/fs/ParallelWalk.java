@@ -0,0 +1,267 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.ArtipieException;
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import com.artipie.asto.factory.StorageConfig;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Keys of all files in directory tree, read by parallel walk.
+ * <p>
+ * Subdirectories are read by fork-join tasks in parallel, keys are built from
+ * parent keys and file names without parsing paths. Keys are not ordered.
+ * Symbolic links to files are listed, links to directories are not followed.
+ * Entries removed while the tree is walked are skipped.
+ * </p>
+ * <p>
+ * The walk runs on the pool, the caller thread is not blocked. Tasks block on I/O,
+ * so the pool should be separate from common pool and from executors which are
+ * used for other I/O, see {@link FromConfig}.
+ * </p>
+ * @since 1.15
+ */
+public final class ParallelWalk {
+
+    /**
+     * Default pool of walking tasks, shared by walks which are not given a pool.
+     */
+    static final ForkJoinPool SHARED = new ForkJoinPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors())
+    );
+
+    /**
+     * Path to walk.
+     */
+    private final Path path;
+
+    /**
+     * Key of the path.
+     */
+    private final Key key;
+
+    /**
+     * Pool of walking tasks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Ctor.
+     * @param path Path to walk, directory or file
+     * @param key Key of the path
+     */
+    public ParallelWalk(final Path path, final Key key) {
+        this(path, key, ParallelWalk.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param path Path to walk, directory or file
+     * @param key Key of the path
+     * @param pool Pool of walking tasks
+     */
+    public ParallelWalk(final Path path, final Key key, final ForkJoinPool pool) {
+        this.path = path;
+        this.key = key;
+        this.pool = pool;
+    }
+
+    /**
+     * Keys of files, the key of the path itself if it's a file.
+     * @return Unordered keys, empty if path does not exist
+     */
+    public CompletableFuture<List<Key>> keys() {
+        return CompletableFuture.supplyAsync(this::walk, this.pool);
+    }
+
+    /**
+     * Walks the path in the thread of the pool.
+     * @return Unordered keys, empty if path does not exist
+     */
+    private List<Key> walk() {
+        final List<Key> res;
+        final BasicFileAttributes attrs = ParallelWalk.attributes(this.path);
+        if (attrs == null) {
+            res = new ArrayList<>(0);
+        } else if (attrs.isDirectory()) {
+            res = new Task(this.path, this.key).invoke();
+        } else if (ParallelWalk.file(this.path, attrs)) {
+            res = new ArrayList<>(Collections.singletonList(this.key));
+        } else {
+            res = new ArrayList<>(0);
+        }
+        return res;
+    }
+
+    /**
+     * Reads attributes of the entry, links are not followed.
+     * @param path Entry path
+     * @return Attributes or null if entry does not exist
+     */
+    private static BasicFileAttributes attributes(final Path path) {
+        BasicFileAttributes res;
+        try {
+            res = Files.readAttributes(
+                path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS
+            );
+        } catch (final NoSuchFileException ex) {
+            res = null;
+        } catch (final IOException ex) {
+            throw new ArtipieIOException(ex);
+        }
+        return res;
+    }
+
+    /**
+     * Whether the entry is a file or a link to file.
+     * @param path Entry path
+     * @param attrs Entry attributes, links are not followed
+     * @return True if entry is a file
+     */
+    private static boolean file(final Path path, final BasicFileAttributes attrs) {
+        return attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(path);
+    }
+
+    /**
+     * Pool of walking tasks from storage config.
+     * <p>
+     * Pool size is read from {@code walk-threads} key of storage config, next to
+     * {@code executor} mapping:
+     * <pre>
+     * walk-threads: 8
+     * </pre>
+     * Nothing is provided if config has no pool size.
+     * </p>
+     * @since 1.15
+     */
+    public static final class FromConfig implements Supplier<Optional<ForkJoinPool>> {
+
+        /**
+         * Storage config.
+         */
+        private final StorageConfig cfg;
+
+        /**
+         * Ctor.
+         * @param cfg Storage config
+         */
+        public FromConfig(final StorageConfig cfg) {
+            this.cfg = cfg;
+        }
+
+        @Override
+        public Optional<ForkJoinPool> get() {
+            return Optional.ofNullable(this.cfg.string("walk-threads")).map(
+                threads -> {
+                    final int size;
+                    try {
+                        size = Integer.parseInt(threads);
+                    } catch (final NumberFormatException ex) {
+                        throw new ArtipieException(
+                            String.format("Invalid walk-threads '%s'", threads), ex
+                        );
+                    }
+                    if (size < 1) {
+                        throw new ArtipieException(
+                            String.format("Invalid walk-threads '%s'", threads)
+                        );
+                    }
+                    return new ForkJoinPool(size);
+                }
+            );
+        }
+    }
+
+    /**
+     * Task which lists files of directory and forks tasks for subdirectories.
+     * @since 1.15
+     */
+    private static final class Task extends RecursiveTask<List<Key>> {
+
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Directory.
+         */
+        private final transient Path dir;
+
+        /**
+         * Key of directory.
+         */
+        private final transient Key key;
+
+        /**
+         * Ctor.
+         * @param dir Directory
+         * @param key Key of directory
+         */
+        Task(final Path dir, final Key key) {
+            super();
+            this.dir = dir;
+            this.key = key;
+        }
+
+        @Override
+        protected List<Key> compute() {
+            final List<Key> res = new ArrayList<>(0);
+            final List<Task> subs = new ArrayList<>(0);
+            for (final Path child : Task.entries(this.dir)) {
+                final BasicFileAttributes attrs = ParallelWalk.attributes(child);
+                if (attrs != null) {
+                    final Key sub = new Key.From(this.key, child.getFileName().toString());
+                    if (attrs.isDirectory()) {
+                        final Task task = new Task(child, sub);
+                        task.fork();
+                        subs.add(task);
+                    } else if (ParallelWalk.file(child, attrs)) {
+                        res.add(sub);
+                    }
+                }
+            }
+            for (final Task task : subs) {
+                res.addAll(task.join());
+            }
+            return res;
+        }
+
+        /**
+         * Reads entries of directory.
+         * @param dir Directory
+         * @return Entries, empty if directory does not exist
+         */
+        private static List<Path> entries(final Path dir) {
+            final List<Path> res = new ArrayList<>(0);
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (final Path child : entries) {
+                    res.add(child);
+                }
+            } catch (final NoSuchFileException ex) {
+                res.clear();
+            } catch (final IOException ex) {
+                throw new ArtipieIOException(ex);
+            }
+            return res;
+        }
+    }
+}
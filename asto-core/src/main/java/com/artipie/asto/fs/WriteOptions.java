@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.ArtipieException;
+import com.artipie.asto.factory.StorageConfig;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Options of writing values to files by {@link FileStorage}.
+ * @since 1.15
+ */
+public final class WriteOptions {
+
+    /**
+     * Default options: buffers are gathered into writes of 256KB, no sync.
+     */
+    public static final WriteOptions DEFAULT = new WriteOptions(256 * 1024, Durability.NONE);
+
+    /**
+     * Target size of gathering write.
+     */
+    private final int gather;
+
+    /**
+     * Durability of saved values.
+     */
+    private final Durability durability;
+
+    /**
+     * Ctor.
+     * @param gather Target size of gathering write, small content buffers are
+     *  collected until their size reaches it and then written by one call
+     * @param durability Durability of saved values
+     */
+    public WriteOptions(final int gather, final Durability durability) {
+        this.gather = gather;
+        this.durability = durability;
+    }
+
+    /**
+     * Target size of gathering write.
+     * @return Size in bytes
+     */
+    public int gather() {
+        return this.gather;
+    }
+
+    /**
+     * Durability of saved values.
+     * @return Durability
+     */
+    public Durability durability() {
+        return this.durability;
+    }
+
+    /**
+     * Durability of saved values.
+     * @since 1.15
+     */
+    public enum Durability {
+
+        /**
+         * Values are not synced, they are durable when OS flushes them.
+         */
+        NONE,
+
+        /**
+         * File content is synced before the file is placed, like {@code fdatasync}.
+         */
+        DATA,
+
+        /**
+         * File content and attributes are synced before the file is placed, and
+         * the directory is synced after it, together with parents of directories
+         * created for the file, so the value survives power loss when save completes.
+         * Move and copy sync changed directories the same way. Directory syncs of
+         * concurrent operations are shared.
+         */
+        FULL
+    }
+
+    /**
+     * Write options from storage config.
+     * <p>
+     * Options are read from storage config keys:
+     * <pre>
+     * durability: full   # none, data or full, none by default
+     * gather-size: 262144 # target size of gathering write in bytes
+     * </pre>
+     * </p>
+     * @since 1.15
+     */
+    public static final class FromConfig implements Supplier<WriteOptions> {
+
+        /**
+         * Storage config.
+         */
+        private final StorageConfig cfg;
+
+        /**
+         * Ctor.
+         * @param cfg Storage config
+         */
+        public FromConfig(final StorageConfig cfg) {
+            this.cfg = cfg;
+        }
+
+        @Override
+        public WriteOptions get() {
+            final String durability = this.cfg.string("durability");
+            final String gather = this.cfg.string("gather-size");
+            final Durability dur;
+            if (durability == null) {
+                dur = WriteOptions.DEFAULT.durability();
+            } else {
+                try {
+                    dur = Durability.valueOf(durability.toUpperCase(Locale.US));
+                } catch (final IllegalArgumentException ex) {
+                    throw new ArtipieException(
+                        String.format("Unknown durability '%s'", durability), ex
+                    );
+                }
+            }
+            final int size;
+            if (gather == null) {
+                size = WriteOptions.DEFAULT.gather();
+            } else {
+                size = Integer.parseInt(gather);
+            }
+            return new WriteOptions(size, dur);
+        }
+    }
+}
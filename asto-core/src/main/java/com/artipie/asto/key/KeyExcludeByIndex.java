@@ -6,7 +6,7 @@
 package com.artipie.asto.key;
 
 import com.artipie.asto.Key;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,7 +34,7 @@ public final class KeyExcludeByIndex extends Key.Wrap {
      * @return List of parts
      */
     private static List<String> exclude(final Key key, final int index) {
-        final List<String> parts = new LinkedList<>(key.parts());
+        final List<String> parts = new ArrayList<>(key.parts());
         if (index >= 0 && index < parts.size()) {
             parts.remove(index);
         }
@@ -5,7 +5,7 @@
 package com.artipie.asto.key;
 
 import com.artipie.asto.Key;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -35,7 +35,7 @@ public final class KeyInsert extends Key.Wrap {
      * @return List of parts
      */
     private static List<String> insert(final Key key, final String part, final int index) {
-        final List<String> parts = new LinkedList<>(key.parts());
+        final List<String> parts = new ArrayList<>(key.parts());
         parts.add(index, part);
         return parts;
     }
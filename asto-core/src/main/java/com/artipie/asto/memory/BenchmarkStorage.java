@@ -5,19 +5,17 @@
 package com.artipie.asto.memory;
 
 import com.artipie.asto.ArtipieIOException;
-import com.artipie.asto.Concatenation;
 import com.artipie.asto.Content;
 import com.artipie.asto.FailedCompletionStage;
+import com.artipie.asto.ImmutableContent;
 import com.artipie.asto.Key;
 import com.artipie.asto.Meta;
-import com.artipie.asto.OneTimePublisher;
-import com.artipie.asto.Remaining;
 import com.artipie.asto.Storage;
 import com.artipie.asto.UnderLockOperation;
 import com.artipie.asto.ValueNotFoundException;
 import com.artipie.asto.ext.CompletableFutureSupport;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.lock.storage.StorageLock;
-import hu.akarnokd.rxjava2.interop.SingleInterop;
 import java.util.Collection;
 import java.util.NavigableMap;
 import java.util.Set;
@@ -59,7 +57,7 @@ public final class BenchmarkStorage implements Storage {
     /**
      * Local storage.
      */
-    private final NavigableMap<Key, byte[]> local;
+    private final NavigableMap<Key, MemoryMeta> local;
 
     /**
      * Set which contains deleted keys.
@@ -126,11 +124,8 @@ public final class BenchmarkStorage implements Storage {
                 new ArtipieIOException("Unable to save to root")
             ).get();
         } else {
-            res = new Concatenation(new OneTimePublisher<>(content)).single()
-                .to(SingleInterop.get())
-                .thenApply(Remaining::new)
-                .thenApply(Remaining::bytes)
-                .thenAccept(bytes -> this.local.put(key, bytes))
+            res = new PublisherAs(content).bytes()
+                .thenAccept(bytes -> this.local.put(key, new MemoryMeta(bytes)))
                 .thenAccept(noth -> this.deleted.remove(key))
                 .toCompletableFuture();
         }
@@ -143,8 +138,8 @@ public final class BenchmarkStorage implements Storage {
         if (this.deleted.contains(source)) {
             res = ioErrorCompletion("No value for source key", source);
         } else {
-            final byte[] lcl = this.local.computeIfAbsent(
-                source, key -> this.backend.data.get(key.string())
+            final MemoryMeta lcl = this.local.computeIfAbsent(
+                source, this::stored
             );
             if (lcl == null) {
                 res = ioErrorCompletion("No value for source key", source);
@@ -167,11 +162,9 @@ public final class BenchmarkStorage implements Storage {
             res = notFoundCompletion(key);
         } else {
             if (this.local.containsKey(key)) {
-                res = CompletableFuture.completedFuture((long) this.local.get(key).length);
+                res = CompletableFuture.completedFuture(this.local.get(key).size());
             } else {
-                res = CompletableFuture.completedFuture(
-                    (long) this.backend.data.get(key.string()).length
-                );
+                res = CompletableFuture.completedFuture(this.stored(key).size());
             }
         }
         return res.toCompletableFuture();
@@ -184,8 +177,9 @@ public final class BenchmarkStorage implements Storage {
             res = new FailedCompletionStage<Meta>(new ValueNotFoundException(key))
                 .toCompletableFuture();
         } else {
-            res = new CompletableFuture<>();
-            res.complete(Meta.EMPTY);
+            res = CompletableFuture.completedFuture(
+                this.local.computeIfAbsent(key, this::stored)
+            );
         }
         return res.toCompletableFuture();
     }
@@ -199,8 +193,8 @@ public final class BenchmarkStorage implements Storage {
             if (this.deleted.contains(key)) {
                 res = notFoundCompletion(key);
             } else {
-                final byte[] lcl = this.local.computeIfAbsent(
-                    key, ckey -> this.backend.data.get(ckey.string())
+                final MemoryMeta lcl = this.local.computeIfAbsent(
+                    key, this::stored
                 );
                 if (lcl == null) {
                     res = notFoundCompletion(key);
@@ -209,7 +203,7 @@ public final class BenchmarkStorage implements Storage {
                         res = notFoundCompletion(key);
                     } else {
                         res = CompletableFuture.completedFuture(
-                            new Content.OneTime(new Content.From(lcl))
+                            new ImmutableContent(lcl.bytes()).oneTime()
                         );
                     }
                 }
@@ -251,6 +245,15 @@ public final class BenchmarkStorage implements Storage {
         return this.local.containsKey(key) || this.backend.data.containsKey(key.string());
     }
 
+    /**
+     * Value of backend storage.
+     * @param key Key
+     * @return Value with its metadata, null if backend storage doesn't contain the key
+     */
+    private MemoryMeta stored(final Key key) {
+        return this.backend.data.get(key.string());
+    }
+
     /**
      * Obtains failed completion for not found key.
      * @param key Not found key
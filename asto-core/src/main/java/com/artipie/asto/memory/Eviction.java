@@ -0,0 +1,229 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.memory;
+
+import com.artipie.ArtipieException;
+import com.artipie.asto.factory.StorageConfig;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Eviction policy of capacity bounded storage, it chooses values to remove
+ * when storage is full. Implementations should be thread safe.
+ * @since 1.15
+ */
+public interface Eviction {
+
+    /**
+     * Value was saved or read.
+     * @param key Key string
+     */
+    void touch(String key);
+
+    /**
+     * Value was removed from storage.
+     * @param key Key string
+     */
+    void remove(String key);
+
+    /**
+     * Chooses value to evict and forgets it.
+     * @return Key string of the value, empty if there are no values
+     */
+    Optional<String> victim();
+
+    /**
+     * Least recently used values are evicted first.
+     * @since 1.15
+     */
+    final class Lru implements Eviction {
+
+        /**
+         * Keys in access order.
+         */
+        private final Map<String, Boolean> keys;
+
+        /**
+         * Ctor.
+         */
+        public Lru() {
+            // @checkstyle MagicNumberCheck (1 line)
+            this.keys = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        @Override
+        public void touch(final String key) {
+            synchronized (this.keys) {
+                this.keys.put(key, Boolean.TRUE);
+            }
+        }
+
+        @Override
+        public void remove(final String key) {
+            synchronized (this.keys) {
+                this.keys.remove(key);
+            }
+        }
+
+        @Override
+        public Optional<String> victim() {
+            final Optional<String> res;
+            synchronized (this.keys) {
+                final Iterator<String> iter = this.keys.keySet().iterator();
+                if (iter.hasNext()) {
+                    res = Optional.of(iter.next());
+                    iter.remove();
+                } else {
+                    res = Optional.empty();
+                }
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Least frequently used values are evicted first, least recently used
+     * of them if they were used the same number of times.
+     * @since 1.15
+     */
+    final class Lfu implements Eviction {
+
+        /**
+         * Usages by keys.
+         */
+        private final Map<String, Usage> usages;
+
+        /**
+         * Usages ordered from least valuable.
+         */
+        private final TreeSet<Usage> order;
+
+        /**
+         * Counter of touches, it orders usages with the same count.
+         */
+        private long ticks;
+
+        /**
+         * Ctor.
+         */
+        public Lfu() {
+            this.usages = new HashMap<>();
+            this.order = new TreeSet<>(
+                Comparator.<Usage>comparingLong(usage -> usage.count)
+                    .thenComparingLong(usage -> usage.tick)
+            );
+        }
+
+        @Override
+        public synchronized void touch(final String key) {
+            final Usage prev = this.usages.get(key);
+            final long count;
+            if (prev == null) {
+                count = 1;
+            } else {
+                this.order.remove(prev);
+                count = prev.count + 1;
+            }
+            this.ticks += 1;
+            final Usage next = new Usage(key, count, this.ticks);
+            this.usages.put(key, next);
+            this.order.add(next);
+        }
+
+        @Override
+        public synchronized void remove(final String key) {
+            final Usage usage = this.usages.remove(key);
+            if (usage != null) {
+                this.order.remove(usage);
+            }
+        }
+
+        @Override
+        public synchronized Optional<String> victim() {
+            final Optional<Usage> usage = Optional.ofNullable(this.order.pollFirst());
+            usage.ifPresent(first -> this.usages.remove(first.key));
+            return usage.map(first -> first.key);
+        }
+
+        /**
+         * Usage of value.
+         * @since 1.15
+         */
+        private static final class Usage {
+
+            /**
+             * Key string.
+             */
+            private final String key;
+
+            /**
+             * Number of touches.
+             */
+            private final long count;
+
+            /**
+             * Tick of the last touch.
+             */
+            private final long tick;
+
+            /**
+             * Ctor.
+             * @param key Key string
+             * @param count Number of touches
+             * @param tick Tick of the last touch
+             */
+            Usage(final String key, final long count, final long tick) {
+                this.key = key;
+                this.count = count;
+                this.tick = tick;
+            }
+        }
+    }
+
+    /**
+     * Eviction policy from storage config.
+     * <p>
+     * Policy is read from {@code eviction} key of storage config: {@code lru}
+     * or {@code lfu}, {@code lru} by default.
+     * </p>
+     * @since 1.15
+     */
+    final class FromConfig implements Supplier<Eviction> {
+
+        /**
+         * Storage config.
+         */
+        private final StorageConfig cfg;
+
+        /**
+         * Ctor.
+         * @param cfg Storage config
+         */
+        public FromConfig(final StorageConfig cfg) {
+            this.cfg = cfg;
+        }
+
+        @Override
+        public Eviction get() {
+            final String name = this.cfg.string("eviction");
+            final Eviction res;
+            if (name == null || "lru".equals(name.toLowerCase(Locale.US))) {
+                res = new Lru();
+            } else if ("lfu".equals(name.toLowerCase(Locale.US))) {
+                res = new Lfu();
+            } else {
+                throw new ArtipieException(String.format("Unknown eviction policy '%s'", name));
+            }
+            return res;
+        }
+    }
+}
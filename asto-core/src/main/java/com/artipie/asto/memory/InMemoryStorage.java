@@ -5,31 +5,44 @@
 package com.artipie.asto.memory;
 
 import com.artipie.asto.ArtipieIOException;
-import com.artipie.asto.Concatenation;
 import com.artipie.asto.Content;
+import com.artipie.asto.ImmutableContent;
 import com.artipie.asto.Key;
+import com.artipie.asto.ListResult;
 import com.artipie.asto.Meta;
-import com.artipie.asto.OneTimePublisher;
-import com.artipie.asto.Remaining;
+import com.artipie.asto.Range;
+import com.artipie.asto.RangedContent;
 import com.artipie.asto.Storage;
 import com.artipie.asto.UnderLockOperation;
 import com.artipie.asto.ValueNotFoundException;
 import com.artipie.asto.ext.CompletableFutureSupport;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.lock.storage.StorageLock;
-import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.Function;
+import org.reactivestreams.Publisher;
 
 /**
  * Simple implementation of Storage that holds all data in memory.
+ * <p>
+ * Values are kept in concurrent skip list map, so operations don't block each other.
+ * Operations which don't read content complete in the calling thread and return
+ * completed futures. Listings are weakly consistent: they reflect values changed
+ * concurrently with the listing or not, but never fail because of them.
+ * </p>
  *
  * @since 0.14
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
@@ -38,58 +51,123 @@ import java.util.function.Function;
 public final class InMemoryStorage implements Storage {
 
     /**
-     * Values stored by key strings.
+     * Values with their metadata stored by key strings.
      * It is package private for avoid using sync methods for operations of storage for benchmarks.
      * @checkstyle VisibilityModifierCheck (2 lines)
      */
-    final NavigableMap<String, byte[]> data;
+    final ConcurrentNavigableMap<String, MemoryMeta> data;
+
+    /**
+     * Digests available as metadata.
+     */
+    private final Collection<Digests> digests;
 
     /**
      * Ctor.
      */
     public InMemoryStorage() {
-        this(new TreeMap<>());
+        this(new ConcurrentSkipListMap<>());
     }
 
     /**
      * Ctor.
-     * @param data Content of storage
+     * <p>
+     * Digests of values are available as metadata, e.g. {@link Meta#OP_SHA256}.
+     * They are computed once when the value is saved and kept with its bytes.
+     * </p>
+     * @param digests Digests available as metadata
+     */
+    public InMemoryStorage(final Collection<Digests> digests) {
+        this(new ConcurrentSkipListMap<>(), digests);
+    }
+
+    /**
+     * Ctor.
+     * @param data Content of storage, it is copied
      */
     InMemoryStorage(final NavigableMap<String, byte[]> data) {
-        this.data = data;
+        this(data, Collections.emptySet());
+    }
+
+    /**
+     * Ctor.
+     * @param data Content of storage, it is copied
+     * @param digests Digests available as metadata
+     */
+    InMemoryStorage(final NavigableMap<String, byte[]> data, final Collection<Digests> digests) {
+        this.data = new ConcurrentSkipListMap<>();
+        this.digests = digests;
+        data.forEach((key, bytes) -> this.data.put(key, new MemoryMeta(bytes, digests)));
     }
 
     @Override
     public CompletableFuture<Boolean> exists(final Key key) {
-        return CompletableFuture.supplyAsync(
-            () -> {
-                synchronized (this.data) {
-                    return this.data.containsKey(key.string());
-                }
-            }
-        );
+        return CompletableFuture.completedFuture(this.data.containsKey(key.string()));
     }
 
     @Override
     public CompletableFuture<Collection<Key>> list(final Key root) {
-        return CompletableFuture.supplyAsync(
-            () -> {
-                synchronized (this.data) {
-                    final String prefix = root.string();
-                    final Collection<Key> keys = new LinkedList<>();
-                    for (final String string : this.data.navigableKeySet().tailSet(prefix)) {
-                        if (string.startsWith(prefix)) {
-                            keys.add(new Key.From(string));
-                        } else {
-                            break;
-                        }
-                    }
-                    return keys;
-                }
+        final String prefix = root.string();
+        final Collection<Key> keys = new ArrayList<>(0);
+        for (final String string : this.data.tailMap(prefix).keySet()) {
+            if (string.startsWith(prefix)) {
+                keys.add(new Key.From(string));
+            } else {
+                break;
             }
+        }
+        return CompletableFuture.completedFuture(keys);
+    }
+
+    @Override
+    public Publisher<Key> list(final Key root, final Key after, final int limit) {
+        return this.entries(root, after, limit).map(entry -> new Key.From(entry.getKey()));
+    }
+
+    @Override
+    public Publisher<Map.Entry<Key, Meta>> listMetadata(
+        final Key root, final Key after, final int limit
+    ) {
+        return this.entries(root, after, limit).map(
+            entry -> new AbstractMap.SimpleImmutableEntry<Key, Meta>(
+                new Key.From(entry.getKey()), entry.getValue()
+            )
         );
     }
 
+    @Override
+    public CompletableFuture<ListResult> list(final Key root, final String delimiter) {
+        final String prefix;
+        if (root.string().isEmpty()) {
+            prefix = "";
+        } else {
+            prefix = String.join("", root.string(), delimiter);
+        }
+        final Collection<Key> files = new ArrayList<>(0);
+        final Collection<Key> dirs = new ArrayList<>(0);
+        final NavigableMap<String, MemoryMeta> level;
+        if (prefix.isEmpty()) {
+            level = this.data;
+        } else {
+            level = this.data.subMap(prefix, true, InMemoryStorage.upper(prefix), false);
+        }
+        String next = level.ceilingKey(prefix);
+        while (next != null) {
+            final int pos = next.indexOf(delimiter, prefix.length());
+            if (pos < 0) {
+                files.add(new Key.From(next));
+                next = level.higherKey(next);
+            } else {
+                final String dir = next.substring(0, pos);
+                dirs.add(new Key.From(dir));
+                next = level.ceilingKey(
+                    InMemoryStorage.upper(String.join("", dir, delimiter))
+                );
+            }
+        }
+        return CompletableFuture.completedFuture(new ListResult.Simple(files, dirs));
+    }
+
     @Override
     public CompletableFuture<Void> save(final Key key, final Content content) {
         final CompletableFuture<Void> res;
@@ -98,52 +176,89 @@ public final class InMemoryStorage implements Storage {
                 new ArtipieIOException("Unable to save to root")
             ).get();
         } else {
-            res = new Concatenation(new OneTimePublisher<>(content)).single()
-                .to(SingleInterop.get())
-                .thenApply(Remaining::new)
-                .thenApply(Remaining::bytes)
-                .thenAccept(
-                    bytes -> {
-                        synchronized (this.data) {
-                            this.data.put(key.string(), bytes);
-                        }
-                    }
-                ).toCompletableFuture();
+            res = InMemoryStorage.bytes(content).thenAccept(
+                bytes -> this.data.put(key.string(), new MemoryMeta(bytes, this.digests))
+            ).toCompletableFuture();
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        final CompletableFuture<Boolean> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else {
+            res = InMemoryStorage.bytes(content).thenApply(
+                bytes -> this.data.putIfAbsent(
+                    key.string(), new MemoryMeta(bytes, this.digests)
+                ) == null
+            ).toCompletableFuture();
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        final CompletableFuture<Boolean> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else {
+            res = InMemoryStorage.bytes(content).thenApply(
+                bytes -> this.replace(key.string(), new MemoryMeta(bytes, this.digests), version)
+            ).toCompletableFuture();
         }
         return res;
     }
 
     @Override
     public CompletableFuture<Void> move(final Key source, final Key destination) {
-        return CompletableFuture.runAsync(
-            () -> {
-                synchronized (this.data) {
-                    final String key = source.string();
-                    if (!this.data.containsKey(key)) {
-                        throw new ArtipieIOException(
-                            String.format("No value for source key: %s", source.string())
-                        );
-                    }
-                    this.data.put(destination.string(), this.data.get(key));
-                    this.data.remove(source.string());
-                }
+        final String key = source.string();
+        final MemoryMeta value = this.data.get(key);
+        final CompletableFuture<Void> res;
+        if (value == null) {
+            res = InMemoryStorage.failed(
+                new ArtipieIOException(String.format("No value for source key: %s", key))
+            );
+        } else {
+            this.data.put(destination.string(), value);
+            if (!key.equals(destination.string())) {
+                this.data.remove(key, value);
             }
-        );
+            res = CompletableFuture.completedFuture(null);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        final MemoryMeta value = this.data.get(source.string());
+        final CompletableFuture<Void> res;
+        if (value == null) {
+            res = InMemoryStorage.failed(new ValueNotFoundException(source));
+        } else {
+            this.data.put(destination.string(), value);
+            res = CompletableFuture.completedFuture(null);
+        }
+        return res;
     }
 
     @Override
     public CompletableFuture<? extends Meta> metadata(final Key key) {
-        return CompletableFuture.supplyAsync(
-            () -> {
-                synchronized (this.data) {
-                    if (!this.data.containsKey(key.string())) {
-                        throw new ValueNotFoundException(key);
-                    }
-                    final byte[] content = this.data.get(key.string());
-                    return new MemoryMeta(content.length);
-                }
-            }
-        );
+        final MemoryMeta value = this.data.get(key.string());
+        final CompletableFuture<MemoryMeta> res;
+        if (value == null) {
+            res = InMemoryStorage.failed(new ValueNotFoundException(key));
+        } else {
+            res = CompletableFuture.completedFuture(value);
+        }
+        return res;
     }
 
     @Override
@@ -154,36 +269,61 @@ public final class InMemoryStorage implements Storage {
                 new ArtipieIOException("Unable to load from root")
             ).get();
         } else {
-            res = CompletableFuture.supplyAsync(
-                () -> {
-                    synchronized (this.data) {
-                        final byte[] content = this.data.get(key.string());
-                        if (content == null) {
-                            throw new ValueNotFoundException(key);
-                        }
-                        return new Content.OneTime(new Content.From(content));
-                    }
-                }
-            );
+            final MemoryMeta content = this.data.get(key.string());
+            if (content == null) {
+                res = InMemoryStorage.failed(new ValueNotFoundException(key));
+            } else {
+                res = CompletableFuture.completedFuture(
+                    new ImmutableContent(content.bytes()).oneTime()
+                );
+            }
         }
         return res;
     }
 
     @Override
-    public CompletableFuture<Void> delete(final Key key) {
-        return CompletableFuture.runAsync(
-            () -> {
-                synchronized (this.data) {
-                    final String str = key.string();
-                    if (!this.data.containsKey(str)) {
-                        throw new ArtipieIOException(
-                            String.format("Key does not exist: %s", str)
-                        );
-                    }
-                    this.data.remove(str);
-                }
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        final CompletableFuture<Content> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Content>(
+                new ArtipieIOException("Unable to load from root")
+            ).get();
+        } else {
+            final MemoryMeta content = this.data.get(key.string());
+            if (content == null) {
+                res = InMemoryStorage.failed(new ValueNotFoundException(key));
+            } else {
+                res = CompletableFuture.completedFuture(
+                    new Content.OneTime(new RangedContent(content.bytes(), range))
+                );
             }
-        );
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        final String str = key.string();
+        final CompletableFuture<Void> res;
+        if (this.data.remove(str) == null) {
+            res = InMemoryStorage.failed(
+                new ArtipieIOException(String.format("Key does not exist: %s", str))
+            );
+        } else {
+            res = CompletableFuture.completedFuture(null);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAll(final Key root) {
+        final String prefix = root.string();
+        if (prefix.isEmpty()) {
+            this.data.clear();
+        } else {
+            this.data.subMap(prefix, InMemoryStorage.upper(prefix)).clear();
+        }
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
@@ -195,29 +335,99 @@ public final class InMemoryStorage implements Storage {
     }
 
     /**
-     * Metadata for memory storage.
-     * @since 1.9
+     * Lists values with keys that start with the prefix lazily, in ascending order of keys.
+     * @param root Key prefix
+     * @param after Key to list values after
+     * @param limit Max amount of values
+     * @return Values by key strings
      */
-    private static final class MemoryMeta implements Meta {
-
-        /**
-         * Byte-array length.
-         */
-        private final long length;
-
-        /**
-         * New metadata.
-         * @param length Array length
-         */
-        MemoryMeta(final int length) {
-            this.length = length;
-        }
+    private Flowable<Map.Entry<String, MemoryMeta>> entries(
+        final Key root, final Key after, final int limit
+    ) {
+        final String prefix = root.string();
+        final String start = after.string();
+        return Flowable.<Map.Entry<String, MemoryMeta>, Optional<String>>generate(
+            () -> {
+                final Optional<String> last;
+                if (start.compareTo(prefix) < 0) {
+                    last = Optional.empty();
+                } else {
+                    last = Optional.of(start);
+                }
+                return last;
+            },
+            (last, emitter) -> {
+                final Map.Entry<String, MemoryMeta> next;
+                if (last.isPresent()) {
+                    next = this.data.higherEntry(last.get());
+                } else {
+                    next = this.data.ceilingEntry(prefix);
+                }
+                final Optional<String> res;
+                if (next != null && next.getKey().startsWith(prefix)) {
+                    emitter.onNext(next);
+                    res = Optional.of(next.getKey());
+                } else {
+                    emitter.onComplete();
+                    res = Optional.empty();
+                }
+                return res;
+            }
+        ).take(limit);
+    }
 
-        @Override
-        public <T> T read(final ReadOperator<T> opr) {
-            final Map<String, String> raw = new HashMap<>();
-            Meta.OP_SIZE.put(raw, this.length);
-            return opr.take(Collections.unmodifiableMap(raw));
+    /**
+     * Replaces value if its version matches, retries if value is changed concurrently.
+     * <p>
+     * Values are compared by identity, so concurrent saves of equal bytes are detected too.
+     * </p>
+     * @param key Key string
+     * @param value New value
+     * @param version Expected version of current value
+     * @return True if value was replaced
+     */
+    private boolean replace(final String key, final MemoryMeta value, final String version) {
+        boolean res = false;
+        MemoryMeta current = this.data.get(key);
+        while (current != null && current.version().get().equals(version)) {
+            if (this.data.replace(key, current, value)) {
+                res = true;
+                break;
+            }
+            current = this.data.get(key);
         }
+        return res;
+    }
+
+    /**
+     * Future failed the same way as future of asynchronous task which threw the exception,
+     * so dependent stages see the error wrapped into {@link CompletionException}.
+     * @param err Error
+     * @param <T> Future type
+     * @return Failed future
+     */
+    private static <T> CompletableFuture<T> failed(final RuntimeException err) {
+        return new CompletableFutureSupport.Failed<T>(new CompletionException(err)).get();
+    }
+
+    /**
+     * Reads all bytes of content.
+     * @param content Content
+     * @return Bytes
+     */
+    private static CompletionStage<byte[]> bytes(final Content content) {
+        return new PublisherAs(content).bytes();
+    }
+
+    /**
+     * The least string which is greater than any string with the specified prefix.
+     * @param prefix Prefix, not empty
+     * @return Upper bound of strings with prefix
+     */
+    private static String upper(final String prefix) {
+        final int last = prefix.length() - 1;
+        return String.join(
+            "", prefix.substring(0, last), String.valueOf((char) (prefix.charAt(last) + 1))
+        );
     }
 }
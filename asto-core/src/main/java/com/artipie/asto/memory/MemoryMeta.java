@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.memory;
+
+import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Value stored as byte array together with its metadata.
+ * <p>
+ * Version of the value is a number of the save, unique within the JVM, so saving doesn't
+ * hash the value to version it. Digests are computed only if they are configured. Version,
+ * digests and raw metadata are computed once when the value is saved, so typed accessors
+ * return them as is.
+ * </p>
+ * @since 1.9
+ */
+final class MemoryMeta implements Meta {
+
+    /**
+     * Sequence of saves.
+     */
+    private static final AtomicLong SAVES = new AtomicLong();
+
+    /**
+     * Value bytes.
+     */
+    private final byte[] content;
+
+    /**
+     * Raw metadata.
+     */
+    private final Map<String, String> raw;
+
+    /**
+     * Version of value.
+     */
+    private final Optional<String> ver;
+
+    /**
+     * Hex digests of value by algorithm.
+     */
+    private final Map<Digests, Optional<String>> digests;
+
+    /**
+     * New metadata.
+     * @param content Value bytes
+     */
+    MemoryMeta(final byte[] content) {
+        this(content, Collections.emptySet());
+    }
+
+    /**
+     * New metadata.
+     * @param content Value bytes
+     * @param digests Digests of value to provide
+     */
+    MemoryMeta(final byte[] content, final Collection<Digests> digests) {
+        this.content = content;
+        this.digests = new EnumMap<>(Digests.class);
+        final Map<String, String> meta = new HashMap<>();
+        for (final Digests digest : digests) {
+            final String hex = MemoryMeta.hex(digest, content);
+            this.digests.put(digest, Optional.of(hex));
+            digest.operator().put(meta, hex);
+        }
+        this.ver = Optional.of(MemoryMeta.next());
+        Meta.OP_SIZE.put(meta, (long) content.length);
+        Meta.OP_VERSION.put(meta, this.ver.get());
+        this.raw = Collections.unmodifiableMap(meta);
+    }
+
+    @Override
+    public <T> T read(final ReadOperator<T> opr) {
+        return opr.take(this.raw);
+    }
+
+    @Override
+    public long size() {
+        return this.content.length;
+    }
+
+    @Override
+    public Optional<String> version() {
+        return this.ver;
+    }
+
+    @Override
+    public Optional<String> digest(final Digests digest) {
+        return this.digests.getOrDefault(digest, Optional.empty());
+    }
+
+    /**
+     * Value bytes.
+     * @return Bytes, they must not be modified
+     */
+    byte[] bytes() {
+        return this.content;
+    }
+
+    /**
+     * Version of the next saved value.
+     * @return Version, unique within the JVM
+     */
+    static String next() {
+        return Long.toHexString(MemoryMeta.SAVES.incrementAndGet());
+    }
+
+    /**
+     * Hex digest of value bytes.
+     * @param digest Digest algorithm
+     * @param bytes Value bytes
+     * @return Hex string
+     */
+    private static String hex(final Digests digest, final byte[] bytes) {
+        return Hex.encodeHexString(digest.get().digest(bytes));
+    }
+}
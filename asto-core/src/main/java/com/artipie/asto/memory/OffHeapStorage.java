@@ -0,0 +1,471 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.memory;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Range;
+import com.artipie.asto.Remaining;
+import com.artipie.asto.Storage;
+import com.artipie.asto.UnderLockOperation;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.CompletableFutureSupport;
+import com.artipie.asto.lock.storage.StorageLock;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Storage that holds values in direct memory, out of Java heap, with bounded capacity.
+ * <p>
+ * Values are copied into fixed size blocks of direct buffers allocated by large slabs,
+ * so they don't load garbage collector however many of them are kept. When there are
+ * no free blocks for a new value, values chosen by {@link Eviction} policy are removed.
+ * Value content emits heap copies of the blocks, each copy is made before it's emitted,
+ * so buffers stay valid however long consumers keep them, e.g. in queues of asynchronous
+ * operators. With zero copy, content emits read-only views of the blocks instead: blocks
+ * of the value are not reused until the subscription is completed or cancelled, so
+ * consumers must read each buffer before that and should not keep it after, which holds
+ * for synchronous consumers only.
+ * Content of the value removed before subscription fails with {@link ArtipieIOException}.
+ * </p>
+ * <p>
+ * Values map and eviction policy are updated together under lock of the key stripe,
+ * so each value in the map is known to the policy and its blocks are reclaimed.
+ * </p>
+ * <p>
+ * Operations which don't read content complete in the calling thread and return
+ * completed futures, like in {@link InMemoryStorage}.
+ * </p>
+ * @since 1.15
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class OffHeapStorage implements Storage {
+
+    /**
+     * Default size of block, 16KB.
+     */
+    public static final int BLOCK = 16 * 1024;
+
+    /**
+     * Number of key lock stripes, power of two.
+     */
+    private static final int STRIPES = 256;
+
+    /**
+     * Values by key strings.
+     */
+    private final ConcurrentNavigableMap<String, Slot> data;
+
+    /**
+     * Arena of blocks.
+     */
+    private final SlabArena arena;
+
+    /**
+     * Eviction policy.
+     */
+    private final Eviction eviction;
+
+    /**
+     * Whether content emits views of blocks instead of copies.
+     */
+    private final boolean zerocopy;
+
+    /**
+     * Locks of key stripes.
+     */
+    private final Object[] locks;
+
+    /**
+     * Storage with least recently used values eviction and default block size.
+     * @param capacity Max amount of bytes in values
+     */
+    public OffHeapStorage(final long capacity) {
+        this(capacity, new Eviction.Lru());
+    }
+
+    /**
+     * Storage with default block size.
+     * @param capacity Max amount of bytes in values
+     * @param eviction Eviction policy
+     */
+    public OffHeapStorage(final long capacity, final Eviction eviction) {
+        this(capacity, OffHeapStorage.BLOCK, eviction);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Max amount of bytes in values, rounded down to block size
+     * @param block Size of block, each value takes at least one block if it's not empty
+     * @param eviction Eviction policy
+     */
+    public OffHeapStorage(final long capacity, final int block, final Eviction eviction) {
+        this(capacity, block, eviction, false);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Max amount of bytes in values, rounded down to block size
+     * @param block Size of block, each value takes at least one block if it's not empty
+     * @param eviction Eviction policy
+     * @param zerocopy Whether content emits read-only views of blocks instead of copies,
+     *  consumers must read each buffer before the subscription is completed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public OffHeapStorage(final long capacity, final int block, final Eviction eviction,
+        final boolean zerocopy) {
+        this.data = new ConcurrentSkipListMap<>();
+        this.arena = new SlabArena(capacity, block);
+        this.eviction = eviction;
+        this.zerocopy = zerocopy;
+        this.locks = new Object[OffHeapStorage.STRIPES];
+        for (int idx = 0; idx < OffHeapStorage.STRIPES; idx += 1) {
+            this.locks[idx] = new Object();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(final Key key) {
+        return CompletableFuture.completedFuture(this.data.containsKey(key.string()));
+    }
+
+    @Override
+    public CompletableFuture<Collection<Key>> list(final Key root) {
+        final String prefix = root.string();
+        final Collection<Key> keys = new ArrayList<>(0);
+        for (final String string : this.data.tailMap(prefix).keySet()) {
+            if (string.startsWith(prefix)) {
+                keys.add(new Key.From(string));
+            } else {
+                break;
+            }
+        }
+        return CompletableFuture.completedFuture(keys);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        return this.write(key, content).thenAccept(
+            slot -> {
+                synchronized (this.lock(key.string())) {
+                    OffHeapStorage.release(this.data.put(key.string(), slot));
+                    this.eviction.touch(key.string());
+                }
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        return this.write(key, content).thenApply(
+            slot -> {
+                final boolean res;
+                synchronized (this.lock(key.string())) {
+                    res = this.data.putIfAbsent(key.string(), slot) == null;
+                    if (res) {
+                        this.eviction.touch(key.string());
+                    }
+                }
+                if (!res) {
+                    slot.release();
+                }
+                return res;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        return this.write(key, content).thenApply(
+            slot -> {
+                final boolean res;
+                synchronized (this.lock(key.string())) {
+                    final Slot current = this.data.get(key.string());
+                    res = current != null && current.version().get().equals(version);
+                    if (res) {
+                        this.data.put(key.string(), slot);
+                        current.release();
+                        this.eviction.touch(key.string());
+                    }
+                }
+                if (!res) {
+                    slot.release();
+                }
+                return res;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        final String key = source.string();
+        final Slot slot = this.data.get(key);
+        final CompletableFuture<Void> res;
+        if (this.link(slot, destination.string())) {
+            if (!key.equals(destination.string())) {
+                synchronized (this.lock(key)) {
+                    if (this.data.remove(key, slot)) {
+                        slot.release();
+                        this.eviction.remove(key);
+                    }
+                }
+            }
+            res = CompletableFuture.completedFuture(null);
+        } else {
+            res = OffHeapStorage.failed(
+                new ArtipieIOException(String.format("No value for source key: %s", key))
+            );
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        final CompletableFuture<Void> res;
+        if (this.link(this.data.get(source.string()), destination.string())) {
+            res = CompletableFuture.completedFuture(null);
+        } else {
+            res = OffHeapStorage.failed(new ValueNotFoundException(source));
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<? extends Meta> metadata(final Key key) {
+        final Slot slot = this.data.get(key.string());
+        final CompletableFuture<Slot> res;
+        if (slot == null) {
+            res = OffHeapStorage.failed(new ValueNotFoundException(key));
+        } else {
+            res = CompletableFuture.completedFuture(slot);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        return this.value(key, Range.FULL);
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        final CompletableFuture<Content> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Content>(
+                new ArtipieIOException("Unable to load from root")
+            ).get();
+        } else {
+            final Slot slot = this.data.get(key.string());
+            if (slot == null) {
+                res = OffHeapStorage.failed(new ValueNotFoundException(key));
+            } else {
+                this.eviction.touch(key.string());
+                res = CompletableFuture.completedFuture(
+                    new Content.OneTime(
+                        new Content.From(
+                            range.size(slot.size()),
+                            Flowable.using(
+                                () -> OffHeapStorage.retain(key, slot),
+                                held -> this.buffers(held, range),
+                                Slot::release,
+                                false
+                            )
+                        )
+                    )
+                );
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        final String str = key.string();
+        final Slot slot;
+        synchronized (this.lock(str)) {
+            slot = this.data.remove(str);
+            if (slot != null) {
+                this.eviction.remove(str);
+            }
+        }
+        final CompletableFuture<Void> res;
+        if (slot == null) {
+            res = OffHeapStorage.failed(
+                new ArtipieIOException(String.format("Key does not exist: %s", str))
+            );
+        } else {
+            slot.release();
+            res = CompletableFuture.completedFuture(null);
+        }
+        return res;
+    }
+
+    @Override
+    public <T> CompletionStage<T> exclusively(
+        final Key key,
+        final Function<Storage, CompletionStage<T>> operation
+    ) {
+        return new UnderLockOperation<>(new StorageLock(this, key), operation).perform(this);
+    }
+
+    /**
+     * Amount of bytes in blocks in use, including blocks of values which were
+     * removed but are still read.
+     * @return Amount of bytes
+     */
+    public long used() {
+        return this.arena.used();
+    }
+
+    /**
+     * Writes content into blocks.
+     * @param key Key to save the value to
+     * @param content Content
+     * @return Slot with the value
+     */
+    private CompletableFuture<Slot> write(final Key key, final Content content) {
+        final CompletableFuture<Slot> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Slot>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else if (content.size().orElse(0L) > this.arena.capacity()) {
+            res = new CompletableFutureSupport.Failed<Slot>(
+                new ArtipieIOException(
+                    String.format(
+                        "Value of %d bytes exceeds storage capacity of %d bytes",
+                        content.size().get(), this.arena.capacity()
+                    )
+                )
+            ).get();
+        } else {
+            res = Single.defer(
+                () -> {
+                    final Slot.Writer writer = new Slot.Writer(this.arena, this::evict);
+                    return Flowable.fromPublisher(content)
+                        .doOnNext(writer::write)
+                        .ignoreElements()
+                        .andThen(Single.fromCallable(writer::slot))
+                        .doOnError(err -> writer.discard())
+                        .doOnDispose(writer::discard);
+                }
+            ).to(SingleInterop.get()).toCompletableFuture();
+        }
+        return res;
+    }
+
+    /**
+     * Buffers of value content, views of blocks or their heap copies.
+     * @param slot Value retained for reading
+     * @param range Range of bytes
+     * @return Buffers, copies are made before they are emitted
+     */
+    private Flowable<ByteBuffer> buffers(final Slot slot, final Range range) {
+        final Flowable<ByteBuffer> views = Flowable.fromIterable(slot.views(range));
+        final Flowable<ByteBuffer> res;
+        if (this.zerocopy) {
+            res = views;
+        } else {
+            res = views.map(view -> ByteBuffer.wrap(new Remaining(view).bytes()));
+        }
+        return res;
+    }
+
+    /**
+     * Adds one more key to the value.
+     * @param slot Value, null if there is no value
+     * @param destination Key string to add
+     * @return False if there is no value
+     */
+    private boolean link(final Slot slot, final String destination) {
+        final boolean res = slot != null && slot.retain();
+        if (res) {
+            synchronized (this.lock(destination)) {
+                OffHeapStorage.release(this.data.put(destination, slot));
+                this.eviction.touch(destination);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Evicts one value chosen by eviction policy.
+     * @return False if there is no value to evict
+     */
+    private boolean evict() {
+        final Optional<String> victim = this.eviction.victim();
+        victim.ifPresent(
+            key -> {
+                synchronized (this.lock(key)) {
+                    OffHeapStorage.release(this.data.remove(key));
+                }
+            }
+        );
+        return victim.isPresent();
+    }
+
+    /**
+     * Lock of the key stripe, values map and eviction policy are updated
+     * together under it.
+     * @param key Key string
+     * @return Lock
+     */
+    private Object lock(final String key) {
+        final int hash = key.hashCode();
+        return this.locks[(hash ^ (hash >>> 16)) & (OffHeapStorage.STRIPES - 1)];
+    }
+
+    /**
+     * Takes a reference to the value for reading.
+     * @param key Key of the value
+     * @param slot Value
+     * @return The same value
+     * @throws ArtipieIOException If the value was removed
+     */
+    private static Slot retain(final Key key, final Slot slot) {
+        if (!slot.retain()) {
+            throw new ArtipieIOException(
+                String.format("Value was removed before it was read: %s", key.string())
+            );
+        }
+        return slot;
+    }
+
+    /**
+     * Releases the value removed from storage.
+     * @param slot Value, null if there was no value
+     */
+    private static void release(final Slot slot) {
+        if (slot != null) {
+            slot.release();
+        }
+    }
+
+    /**
+     * Future failed the same way as future of asynchronous task which threw the exception.
+     * @param err Error
+     * @param <T> Future type
+     * @return Failed future
+     */
+    private static <T> CompletableFuture<T> failed(final RuntimeException err) {
+        return new CompletableFutureSupport.Failed<T>(new CompletionException(err)).get();
+    }
+}
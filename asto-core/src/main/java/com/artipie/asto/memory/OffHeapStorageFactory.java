@@ -0,0 +1,43 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.memory;
+
+import com.artipie.asto.Storage;
+import com.artipie.asto.factory.ArtipieStorageFactory;
+import com.artipie.asto.factory.StorageConfig;
+import com.artipie.asto.factory.StorageFactory;
+
+/**
+ * Off-heap memory storage factory.
+ * <p>
+ * Storage is configured by keys:
+ * <pre>
+ * capacity: 1073741824 # max amount of bytes in values, required
+ * eviction: lfu        # lru or lfu, see {@link Eviction.FromConfig}
+ * block-size: 16384    # size of memory block, 16KB by default
+ * zero-copy: true      # emit views of blocks instead of copies, false by default
+ * </pre>
+ * </p>
+ * @since 1.15
+ */
+@ArtipieStorageFactory("off-heap")
+public final class OffHeapStorageFactory implements StorageFactory {
+    @Override
+    public Storage newStorage(final StorageConfig cfg) {
+        final String block = cfg.string("block-size");
+        final int size;
+        if (block == null) {
+            size = OffHeapStorage.BLOCK;
+        } else {
+            size = Integer.parseInt(block);
+        }
+        return new OffHeapStorage(
+            Long.parseLong(new StorageConfig.StrictStorageConfig(cfg).string("capacity")),
+            size,
+            new Eviction.FromConfig(cfg).get(),
+            Boolean.parseBoolean(cfg.string("zero-copy"))
+        );
+    }
+}
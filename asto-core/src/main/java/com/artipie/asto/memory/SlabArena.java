@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.memory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * Arena of direct memory blocks of the same size.
+ * <p>
+ * Memory is allocated by large direct buffers, slabs, when free blocks are over,
+ * and is split into blocks. Slabs are never released, freed blocks are reused, so
+ * arena does not allocate more memory than its capacity. Freed blocks are reused in
+ * the order they were freed, so blocks of removed values are reused as late as possible.
+ * </p>
+ * @since 1.15
+ */
+final class SlabArena {
+
+    /**
+     * Default size of slab, 4MB.
+     */
+    private static final int SLAB = 4 * 1024 * 1024;
+
+    /**
+     * Max amount of bytes in slabs.
+     */
+    private final long capacity;
+
+    /**
+     * Size of block.
+     */
+    private final int block;
+
+    /**
+     * Size of slab, multiple of block size.
+     */
+    private final int slab;
+
+    /**
+     * Free blocks.
+     */
+    private final Deque<ByteBuffer> free;
+
+    /**
+     * Amount of bytes in allocated slabs.
+     */
+    private long allocated;
+
+    /**
+     * Amount of bytes in blocks in use.
+     */
+    private long used;
+
+    /**
+     * Ctor.
+     * @param capacity Max amount of bytes in slabs
+     * @param block Size of block
+     */
+    SlabArena(final long capacity, final int block) {
+        this.capacity = capacity;
+        this.block = block;
+        this.slab = Math.max(block, (int) Math.min(SlabArena.SLAB, capacity) / block * block);
+        this.free = new ArrayDeque<>(0);
+    }
+
+    /**
+     * Max amount of bytes in blocks.
+     * @return Capacity in bytes
+     */
+    long capacity() {
+        return this.capacity / this.block * this.block;
+    }
+
+    /**
+     * Amount of bytes in blocks in use.
+     * @return Amount of bytes
+     */
+    synchronized long used() {
+        return this.used;
+    }
+
+    /**
+     * Takes free block.
+     * @return Cleared block, empty if arena is full
+     */
+    synchronized Optional<ByteBuffer> allocate() {
+        if (this.free.isEmpty()) {
+            this.grow();
+        }
+        final Optional<ByteBuffer> res = Optional.ofNullable(this.free.pollFirst());
+        if (res.isPresent()) {
+            res.get().clear();
+            this.used += this.block;
+        }
+        return res;
+    }
+
+    /**
+     * Returns blocks to arena.
+     * @param blocks Blocks taken from this arena
+     */
+    synchronized void free(final Collection<ByteBuffer> blocks) {
+        for (final ByteBuffer buf : blocks) {
+            this.free.addLast(buf);
+            this.used -= this.block;
+        }
+    }
+
+    /**
+     * Allocates new slab if capacity allows and splits it into free blocks.
+     */
+    private void grow() {
+        final long size = Math.min(this.slab, this.capacity() - this.allocated);
+        if (size > 0) {
+            final ByteBuffer mem = ByteBuffer.allocateDirect((int) size);
+            for (int pos = 0; pos < size; pos += this.block) {
+                mem.limit(pos + this.block).position(pos);
+                this.free.addLast(mem.slice());
+            }
+            this.allocated += size;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.memory;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Range;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Value kept in blocks of slab arena, it is metadata of the value too.
+ * <p>
+ * Slot counts references: storage holds one reference for each key with the value,
+ * readers hold one while they read. Blocks are returned to arena when the last
+ * reference is released.
+ * </p>
+ * @since 1.15
+ */
+final class Slot implements Meta {
+
+    /**
+     * Arena of blocks.
+     */
+    private final SlabArena arena;
+
+    /**
+     * Blocks with value bytes from zero to limit.
+     */
+    private final List<ByteBuffer> blocks;
+
+    /**
+     * Value size.
+     */
+    private final long size;
+
+    /**
+     * Value version, see {@link MemoryMeta#next()}.
+     */
+    private final String version;
+
+    /**
+     * References counter, zero when blocks are returned to arena.
+     */
+    private final AtomicInteger refs;
+
+    /**
+     * Ctor.
+     * @param arena Arena of blocks
+     * @param blocks Blocks with value bytes from zero to limit
+     * @param size Value size
+     * @param version Value version
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Slot(final SlabArena arena, final List<ByteBuffer> blocks, final long size,
+        final String version) {
+        this.arena = arena;
+        this.blocks = blocks;
+        this.size = size;
+        this.version = version;
+        this.refs = new AtomicInteger(1);
+    }
+
+    @Override
+    public <T> T read(final ReadOperator<T> opr) {
+        final Map<String, String> raw = new HashMap<>();
+        Meta.OP_SIZE.put(raw, this.size);
+        Meta.OP_VERSION.put(raw, this.version);
+        return opr.take(Collections.unmodifiableMap(raw));
+    }
+
+    @Override
+    public long size() {
+        return this.size;
+    }
+
+    @Override
+    public Optional<String> version() {
+        return Optional.of(this.version);
+    }
+
+    /**
+     * Takes a reference to the value.
+     * @return True if the value is still alive, false if its blocks were returned to arena
+     */
+    boolean retain() {
+        boolean res = false;
+        int cur = this.refs.get();
+        while (cur > 0) {
+            if (this.refs.compareAndSet(cur, cur + 1)) {
+                res = true;
+                break;
+            }
+            cur = this.refs.get();
+        }
+        return res;
+    }
+
+    /**
+     * Releases a reference, the last one returns blocks to arena.
+     */
+    void release() {
+        if (this.refs.decrementAndGet() == 0) {
+            this.arena.free(this.blocks);
+        }
+    }
+
+    /**
+     * Read-only views of value bytes in range, bytes are not copied.
+     * @param range Range of bytes
+     * @return Views of blocks
+     */
+    List<ByteBuffer> views(final Range range) {
+        final long end = range.end(this.size);
+        final List<ByteBuffer> res = new ArrayList<>(this.blocks.size());
+        long pos = 0;
+        for (final ByteBuffer block : this.blocks) {
+            final long from = Math.max(range.offset(), pos);
+            final long till = Math.min(end, pos + block.limit());
+            if (from < till) {
+                final ByteBuffer view = block.asReadOnlyBuffer();
+                view.limit((int) (till - pos)).position((int) (from - pos));
+                res.add(view.slice());
+            }
+            pos += block.limit();
+        }
+        return res;
+    }
+
+    /**
+     * Writer of value into blocks of arena.
+     * <p>
+     * When arena is full, writer asks storage to evict values until it gets a block.
+     * Not thread safe, buffers should be written sequentially.
+     * </p>
+     * @since 1.15
+     */
+    static final class Writer {
+
+        /**
+         * Arena of blocks.
+         */
+        private final SlabArena arena;
+
+        /**
+         * Evicts one value from storage, returns false if there is nothing to evict.
+         */
+        private final BooleanSupplier evict;
+
+        /**
+         * Written blocks.
+         */
+        private final List<ByteBuffer> blocks;
+
+        /**
+         * Amount of written bytes.
+         */
+        private long size;
+
+        /**
+         * Ctor.
+         * @param arena Arena of blocks
+         * @param evict Evicts one value from storage, returns false if there is nothing to evict
+         */
+        Writer(final SlabArena arena, final BooleanSupplier evict) {
+            this.arena = arena;
+            this.evict = evict;
+            this.blocks = new ArrayList<>(1);
+        }
+
+        /**
+         * Copies bytes of buffer into blocks.
+         * Values are evicted for the blocks only if the value still fits storage capacity.
+         * @param buf Buffer
+         * @throws ArtipieIOException If there is not enough memory for the value
+         */
+        void write(final ByteBuffer buf) {
+            final ByteBuffer src = buf.duplicate();
+            if (this.size + src.remaining() > this.arena.capacity()) {
+                throw new ArtipieIOException(
+                    String.format(
+                        "Value of more than %d bytes exceeds storage capacity of %d bytes",
+                        this.size + src.remaining(), this.arena.capacity()
+                    )
+                );
+            }
+            while (src.hasRemaining()) {
+                final ByteBuffer block = this.block();
+                final int len = Math.min(block.remaining(), src.remaining());
+                final ByteBuffer part = src.duplicate();
+                part.limit(part.position() + len);
+                block.put(part);
+                src.position(src.position() + len);
+                this.size += len;
+            }
+        }
+
+        /**
+         * Completes the value.
+         * @return Slot with the value
+         */
+        Slot slot() {
+            for (final ByteBuffer block : this.blocks) {
+                block.flip();
+            }
+            return new Slot(this.arena, this.blocks, this.size, MemoryMeta.next());
+        }
+
+        /**
+         * Returns written blocks to arena, on error.
+         */
+        void discard() {
+            this.arena.free(this.blocks);
+            this.blocks.clear();
+        }
+
+        /**
+         * Last block if it has space, new block otherwise.
+         * @return Block with remaining space
+         */
+        private ByteBuffer block() {
+            final ByteBuffer res;
+            if (this.blocks.isEmpty() || !this.blocks.get(this.blocks.size() - 1).hasRemaining()) {
+                Optional<ByteBuffer> next = this.arena.allocate();
+                while (!next.isPresent() && this.evict.getAsBoolean()) {
+                    next = this.arena.allocate();
+                }
+                res = next.orElseThrow(
+                    () -> new ArtipieIOException(
+                        String.format(
+                            "Not enough memory for value, %d bytes of %d are in use",
+                            this.arena.used(), this.arena.capacity()
+                        )
+                    )
+                );
+                this.blocks.add(res);
+            } else {
+                res = this.blocks.get(this.blocks.size() - 1);
+            }
+            return res;
+        }
+    }
+}
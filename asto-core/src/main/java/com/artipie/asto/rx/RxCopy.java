@@ -87,10 +87,29 @@ public class RxCopy {
 
     /**
      * Copy key to storage.
+     * <p>
+     * Nothing is transferred if both storages are the same, since every key
+     * would be copied to itself.
+     * </p>
      * @param to The storage to copy to.
      * @return The completion signal.
      */
     public Completable copy(final RxStorage to) {
+        final Completable res;
+        if (RxCopy.same(this.from, to)) {
+            res = Completable.complete();
+        } else {
+            res = this.transfer(to);
+        }
+        return res;
+    }
+
+    /**
+     * Transfer keys values to storage.
+     * @param to The storage to copy to.
+     * @return The completion signal.
+     */
+    private Completable transfer(final RxStorage to) {
         return Completable.concat(
             this.keys.map(Flowable::fromIterable)
                 .orElseGet(() -> this.from.list(Key.ROOT).flattenAsFlowable(ks -> ks))
@@ -104,4 +123,15 @@ public class RxCopy {
                 ).buffer(this.parallelism).map(Completable::merge)
         );
     }
+
+    /**
+     * Checks whether storages are the same.
+     * @param first First storage
+     * @param second Second storage
+     * @return True if storages are the same or wrap the same storage
+     */
+    private static boolean same(final RxStorage first, final RxStorage second) {
+        return first.equals(second)
+            || first instanceof RxStorageWrapper && ((RxStorageWrapper) first).wraps(second);
+    }
 }
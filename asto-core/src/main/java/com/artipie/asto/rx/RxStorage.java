@@ -53,6 +53,17 @@ public interface RxStorage {
      */
     Completable move(Key source, Key destination);
 
+    /**
+     * Copies value from one location to another.
+     *
+     * @param source Source key.
+     * @param destination Destination key.
+     * @return Completion or error signal.
+     */
+    default Completable copy(final Key source, final Key destination) {
+        return this.value(source).flatMapCompletable(content -> this.save(destination, content));
+    }
+
     /**
      * Get value size.
      *
@@ -59,6 +59,23 @@ public final class RxStorageWrapper implements RxStorage {
         );
     }
 
+    @Override
+    public Completable copy(final Key source, final Key destination) {
+        return Completable.defer(
+            () -> CompletableInterop.fromFuture(this.storage.copy(source, destination))
+        );
+    }
+
+    /**
+     * Checks whether this wrapper and other storage wrap the same storage.
+     * @param other Other storage
+     * @return True if both wrap the same storage
+     */
+    boolean wraps(final RxStorage other) {
+        return other instanceof RxStorageWrapper
+            && this.storage.equals(((RxStorageWrapper) other).storage);
+    }
+
     // @checkstyle MissingDeprecatedCheck (5 lines)
     @Override
     @Deprecated
@@ -4,23 +4,19 @@
  */
 package com.artipie.asto.streams;
 
-import com.artipie.asto.ArtipieIOException;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.nio.ByteBuffer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
-import org.cqfn.rio.WriteGreed;
-import org.cqfn.rio.stream.ReactiveOutputStream;
 import org.reactivestreams.Publisher;
 
 /**
  * Process content as input stream.
  * This class allows to treat storage item as input stream and
  * perform some action with this stream (read/uncompress/parse etc).
+ * Content is read by {@link SubscriberInputStream}, which requests
+ * buffers while the action reads the stream.
  * @param <T> Result type
  * @since 1.4
  */
@@ -47,18 +43,11 @@ public final class ContentAsStream<T> {
     public CompletionStage<T> process(final Function<InputStream, T> action) {
         return CompletableFuture.supplyAsync(
             () -> {
-                try (
-                    PipedInputStream in = new PipedInputStream();
-                    PipedOutputStream out = new PipedOutputStream(in)
-                ) {
-                    final CompletionStage<Void> ros =
-                        new ReactiveOutputStream(out).write(this.content, WriteGreed.SYSTEM);
-                    final T result = action.apply(in);
-                    return ros.thenApply(nothing -> result);
-                } catch (final IOException err) {
-                    throw new ArtipieIOException(err);
+                try (SubscriberInputStream in = new SubscriberInputStream()) {
+                    this.content.subscribe(in);
+                    return action.apply(in);
                 }
             }
-        ).thenCompose(Function.identity());
+        );
     }
 }
@@ -5,36 +5,30 @@
 package com.artipie.asto.streams;
 
 import com.artipie.asto.ArtipieIOException;
-import com.artipie.asto.ByteArray;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.CompletableFutureSupport;
 import com.artipie.asto.misc.UncheckedIOConsumer;
-import com.artipie.asto.misc.UncheckedIOSupplier;
-import com.artipie.asto.misc.UncheckedRunnable;
 import io.reactivex.Flowable;
-import io.reactivex.Scheduler;
-import io.reactivex.processors.UnicastProcessor;
 import io.reactivex.schedulers.Schedulers;
-import io.reactivex.subscribers.DefaultSubscriber;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 /**
  * Processes storage value content as optional input stream and
@@ -46,6 +40,16 @@ import org.reactivestreams.Subscriber;
  */
 public final class StorageValuePipeline<R> {
 
+    /**
+     * Executor of actions.
+     * <p>
+     * Action blocks while it reads the value and while the save doesn't take written
+     * chunks, so it runs on its own thread: if it ran on the thread which completed
+     * reading, e.g. the only thread of storage executor, the save could never proceed.
+     * </p>
+     */
+    private static final Executor ACTIONS = task -> Schedulers.io().scheduleDirect(task);
+
     /**
      * Abstract storage.
      */
@@ -135,58 +139,51 @@ public final class StorageValuePipeline<R> {
                     }
                     return stage;
                 }
-            ).thenCompose(
+            ).thenComposeAsync(
                 optional -> {
-                    try (PublishingOutputStream output = new PublishingOutputStream()) {
+                    final PublishingOutputStream output = new PublishingOutputStream();
+                    final CompletionStage<Void> saved = this.asto.save(
+                        this.write, new Content.From(output.publisher())
+                    );
+                    saved.whenComplete((nothing, err) -> output.cancel());
+                    CompletionStage<Void> stage = saved;
+                    try {
                         res.set(action.apply(optional, output));
-                        return this.asto.save(this.write, new Content.From(output.publisher()));
-                    } catch (final IOException err) {
-                        throw new ArtipieIOException(err);
+                        output.close();
+                    // @checkstyle IllegalCatchCheck (1 line)
+                    } catch (final IOException | RuntimeException err) {
+                        output.abort(err);
+                        stage = saved.thenCompose(
+                            nothing -> new CompletableFutureSupport.Failed<Void>(err).get()
+                        );
                     } finally {
                         optional.ifPresent(new UncheckedIOConsumer<>(InputStream::close));
                     }
-                }
+                    return stage;
+                },
+                StorageValuePipeline.ACTIONS
             ).thenApply(nothing -> res.get());
     }
 
     /**
      * Represents {@link Content} as {@link InputStream}.
      * <p/>
-     * This class is a {@link Subscriber}, that subscribes to the {@link Content}.
-     * Subscription actions are performed on a {@link Scheduler} that is passed to the constructor.
-     * Content data are written to the {@code channel}, that {@code channel} be constructed to write
-     * bytes to the {@link PipedOutputStream} connected with {@link PipedInputStream},
-     * the last stream is the resulting {@link InputStream}. When publisher complete,
-     * {@link PipedOutputStream} is closed.
+     * This class is a {@link Subscriber}, that subscribes to the {@link Content} and
+     * passes received buffers to {@link SubscriberInputStream}, which is the resulting
+     * {@link InputStream}. Buffers are requested when the stream is read.
      *
      * @since 1.12
      */
-    static class ContentAsInputStream extends DefaultSubscriber<ByteBuffer> {
+    static class ContentAsInputStream implements Subscriber<ByteBuffer> {
         /**
          * Content.
          */
         private final Content content;
 
         /**
-         * Scheduler to perform subscription actions on.
-         */
-        private final Scheduler scheduler;
-
-        /**
-         * {@code PipedOutputStream} to which bytes are to be written from {@code channel}.
-         */
-        private final PipedOutputStream out;
-
-        /**
-         * {@code PipedInputStream} connected to {@link #out},
-         * it's used as the result {@code InputStream}.
+         * Resulting {@code InputStream}.
          */
-        private final PipedInputStream input;
-
-        /**
-         * {@code Channel} to write bytes from the {@link #content} to {@link #out}.
-         */
-        private final WritableByteChannel channel;
+        private final SubscriberInputStream input;
 
         /**
          * Ctor.
@@ -194,45 +191,28 @@ public final class StorageValuePipeline<R> {
          * @param content Content.
          */
         ContentAsInputStream(final Content content) {
-            this(content, Schedulers.io());
+            this.content = content;
+            this.input = new SubscriberInputStream();
         }
 
-        /**
-         * Ctor.
-         *
-         * @param content Content.
-         * @param scheduler Scheduler to perform subscription actions on.
-         */
-        ContentAsInputStream(final Content content, final Scheduler scheduler) {
-            this.content = content;
-            this.scheduler = scheduler;
-            this.out = new PipedOutputStream();
-            this.input = new UncheckedIOSupplier<>(
-                () -> new PipedInputStream(this.out)
-            ).get();
-            this.channel = Channels.newChannel(this.out);
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            this.input.onSubscribe(subscription);
         }
 
         @Override
         public void onNext(final ByteBuffer buffer) {
-            Objects.requireNonNull(buffer);
-            UncheckedRunnable.newIoRunnable(
-                () -> {
-                    while (buffer.hasRemaining()) {
-                        this.channel.write(buffer);
-                    }
-                }
-            ).run();
+            this.input.onNext(buffer);
         }
 
         @Override
         public void onError(final Throwable err) {
-            UncheckedRunnable.newIoRunnable(this.input::close).run();
+            this.input.onError(err);
         }
 
         @Override
         public void onComplete() {
-            UncheckedRunnable.newIoRunnable(this.out::close).run();
+            this.input.onComplete();
         }
 
         /**
@@ -241,9 +221,7 @@ public final class StorageValuePipeline<R> {
          * @return InputStream.
          */
         InputStream inputStream() {
-            Flowable.fromPublisher(this.content)
-                .subscribeOn(this.scheduler)
-                .subscribe(this);
+            this.content.subscribe(this);
             return this.input;
         }
     }
@@ -251,82 +229,137 @@ public final class StorageValuePipeline<R> {
     /**
      * Transfers {@link OutputStream} to {@code Publisher<ByteBuffer>}.
      * <p/>
-     * Written to {@link OutputStream} bytes are accumulated in the buffer.
-     * Buffer collects bytes during the period of time in ms or until the
-     * number of bytes achieve a defined size. Then the buffer emits bytes
-     * to the resulting publisher.
+     * Written to {@link OutputStream} bytes are copied to the chunk buffer. When the chunk
+     * is full or the stream is closed, it's queued to be emitted to the resulting publisher.
+     * The queue is bounded: if the subscriber doesn't request chunks, writing blocks
+     * until it does or cancels its subscription. Explicit {@link #flush()} does nothing,
+     * chunks are emitted by size only. Resulting publisher can be subscribed only once.
      *
      * @since 1.12
      */
     static class PublishingOutputStream extends OutputStream {
         /**
-         * Default period of time buffer collects bytes before it is emitted to publisher (ms).
+         * Default size of chunk buffer.
          */
-        private static final long DEFAULT_TIMESPAN = 100L;
+        private static final int DEFAULT_BUF_SIZE = 64 * 1024;
 
         /**
-         * Default maximum size of each buffer before it is emitted.
+         * Default maximum amount of queued chunks.
          */
-        private static final int DEFAULT_BUF_SIZE = 4 * 1024;
+        private static final int DEFAULT_LIMIT = 16;
 
         /**
-         * Resulting publisher.
+         * Queued chunk which ends the publisher.
          */
-        private final UnicastProcessor<ByteBuffer> pub;
+        private static final ByteBuffer END = ByteBuffer.allocate(0);
 
         /**
-         * Buffer processor to collect bytes.
+         * Size of chunk buffer.
          */
-        private final UnicastProcessor<Byte> bufproc;
+        private final int size;
+
+        /**
+         * Queue of chunks to emit.
+         */
+        private final BlockingQueue<ByteBuffer> queue;
+
+        /**
+         * Error to end the publisher with.
+         */
+        private final AtomicReference<Throwable> error;
+
+        /**
+         * Whether subscriber cancelled its subscription.
+         */
+        private final AtomicBoolean cancelled;
+
+        /**
+         * Chunk buffer being written, null if no bytes were written after last chunk.
+         */
+        private ByteBuffer chunk;
+
+        /**
+         * Whether stream was closed.
+         */
+        private boolean closed;
 
         /**
          * Ctor.
          */
         PublishingOutputStream() {
             this(
-                PublishingOutputStream.DEFAULT_TIMESPAN,
-                TimeUnit.MILLISECONDS,
-                PublishingOutputStream.DEFAULT_BUF_SIZE
+                PublishingOutputStream.DEFAULT_BUF_SIZE,
+                PublishingOutputStream.DEFAULT_LIMIT
             );
         }
 
         /**
          * Ctor.
          *
-         * @param timespan The period of time buffer collects bytes
-         *  before it is emitted to publisher.
-         * @param unit The unit of time which applies to the timespan argument.
-         * @param count The maximum size of each buffer before it is emitted.
+         * @param size Size of chunk buffer.
+         * @param limit Maximum amount of chunks waiting to be requested by subscriber.
          */
-        @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
-        PublishingOutputStream(
-            final long timespan,
-            final TimeUnit unit,
-            final int count
-        ) {
-            this.pub = UnicastProcessor.create();
-            this.bufproc = UnicastProcessor.create();
-            this.bufproc.buffer(timespan, unit, count)
-                .doOnNext(
-                    list -> this.pub.onNext(
-                        ByteBuffer.wrap(new ByteArray(list).primitiveBytes())
-                    )
-                )
-                .subscribeOn(Schedulers.io())
-                .doOnComplete(this.pub::onComplete)
-                .subscribe();
+        PublishingOutputStream(final int size, final int limit) {
+            this.size = size;
+            this.queue = new ArrayBlockingQueue<>(limit + 1);
+            this.error = new AtomicReference<>();
+            this.cancelled = new AtomicBoolean();
         }
 
         // @checkstyle ParameterNameCheck (5 line)
         @Override
         public void write(final int b) throws IOException {
-            this.bufproc.onNext((byte) b);
+            this.open().put((byte) b);
+            if (!this.chunk.hasRemaining()) {
+                this.emit();
+            }
+        }
+
+        // @checkstyle ParameterNameCheck (5 line)
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            int pos = off;
+            while (pos < off + len) {
+                final ByteBuffer buf = this.open();
+                final int part = Math.min(buf.remaining(), off + len - pos);
+                buf.put(b, pos, part);
+                pos += part;
+                if (!buf.hasRemaining()) {
+                    this.emit();
+                }
+            }
         }
 
         @Override
         public void close() throws IOException {
-            super.close();
-            this.bufproc.onComplete();
+            if (!this.closed) {
+                if (this.chunk != null) {
+                    this.emit();
+                }
+                this.closed = true;
+                this.enqueue(PublishingOutputStream.END);
+            }
+        }
+
+        /**
+         * Closes the stream and ends resulting publisher with error.
+         *
+         * @param err Error
+         */
+        void abort(final Throwable err) {
+            if (!this.closed) {
+                this.error.set(err);
+                this.closed = true;
+                this.chunk = null;
+                try {
+                    this.enqueue(PublishingOutputStream.END);
+                } catch (final IOException ignored) {
+                    this.cancel();
+                }
+            }
         }
 
         /**
@@ -335,7 +368,73 @@ public final class StorageValuePipeline<R> {
          * @return Publisher.
          */
         Publisher<ByteBuffer> publisher() {
-            return this.pub;
+            return Flowable.<ByteBuffer>generate(
+                emitter -> {
+                    final ByteBuffer buf = this.queue.take();
+                    if (buf != PublishingOutputStream.END) {
+                        emitter.onNext(buf);
+                    } else if (this.error.get() == null) {
+                        emitter.onComplete();
+                    } else {
+                        emitter.onError(this.error.get());
+                    }
+                }
+            ).subscribeOn(Schedulers.io()).doOnCancel(this::cancel);
+        }
+
+        /**
+         * Cancels publishing: drops queued chunks and fails further writes.
+         */
+        void cancel() {
+            this.cancelled.set(true);
+            this.queue.clear();
+            this.queue.offer(PublishingOutputStream.END);
+        }
+
+        /**
+         * Chunk buffer with free space.
+         *
+         * @return Chunk buffer
+         * @throws IOException If stream was closed or subscriber cancelled subscription
+         */
+        private ByteBuffer open() throws IOException {
+            if (this.closed) {
+                throw new IOException("Stream is closed");
+            }
+            if (this.chunk == null) {
+                this.chunk = ByteBuffer.allocate(this.size);
+            }
+            return this.chunk;
+        }
+
+        /**
+         * Queues current chunk to emit.
+         *
+         * @throws IOException If subscriber cancelled subscription
+         */
+        private void emit() throws IOException {
+            this.chunk.flip();
+            final ByteBuffer buf = this.chunk;
+            this.chunk = null;
+            this.enqueue(buf);
+        }
+
+        /**
+         * Puts chunk to the queue, waiting for free space.
+         *
+         * @param buf Chunk
+         * @throws IOException If subscriber cancelled subscription or waiting was interrupted
+         */
+        private void enqueue(final ByteBuffer buf) throws IOException {
+            if (this.cancelled.get()) {
+                throw new IOException("Publisher subscription was cancelled");
+            }
+            try {
+                this.queue.put(buf);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
         }
     }
 }
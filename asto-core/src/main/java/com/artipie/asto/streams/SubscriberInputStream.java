@@ -0,0 +1,247 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.streams;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Input stream of bytes received by subscriber.
+ * <p>
+ * Subscribe it to publisher of buffers and read it. The stream requests limited amount
+ * of buffers ahead and requests more while they are read, so no more than this amount
+ * of buffers is kept in memory; reading blocks until next buffer is received. Bytes are
+ * read from received buffers directly, without copying to intermediate buffer and
+ * without any dedicated thread. Closing the stream cancels the subscription.
+ * </p>
+ * @since 1.15
+ */
+public final class SubscriberInputStream extends InputStream implements Subscriber<ByteBuffer> {
+
+    /**
+     * Received buffer which ends the stream.
+     */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    /**
+     * Amount of buffers to request ahead.
+     */
+    private final int prefetch;
+
+    /**
+     * Amount of read buffers to request more buffers after.
+     */
+    private final int limit;
+
+    /**
+     * Subscription.
+     */
+    private final AtomicReference<Subscription> subscription;
+
+    /**
+     * Received buffers, bounded by requested amount.
+     */
+    private final BlockingQueue<ByteBuffer> received;
+
+    /**
+     * Publisher error.
+     */
+    private final AtomicReference<Throwable> error;
+
+    /**
+     * Buffer being read, null if it is not received yet.
+     */
+    private ByteBuffer current;
+
+    /**
+     * Amount of buffers read since last request.
+     */
+    private int consumed;
+
+    /**
+     * Whether the stream was closed.
+     */
+    private boolean closed;
+
+    /**
+     * Ctor with default RxJava prefetch amount.
+     */
+    public SubscriberInputStream() {
+        this(Flowable.bufferSize());
+    }
+
+    /**
+     * Ctor.
+     * @param prefetch Amount of buffers to request ahead
+     */
+    public SubscriberInputStream(final int prefetch) {
+        super();
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+        this.subscription = new AtomicReference<>();
+        this.received = new LinkedBlockingQueue<>();
+        this.error = new AtomicReference<>();
+    }
+
+    @Override
+    public void onSubscribe(final Subscription sub) {
+        Objects.requireNonNull(sub);
+        if (this.subscription.compareAndSet(null, sub)) {
+            sub.request(this.prefetch);
+        } else {
+            sub.cancel();
+        }
+    }
+
+    @Override
+    public void onNext(final ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        this.received.offer(buffer);
+    }
+
+    @Override
+    public void onError(final Throwable err) {
+        Objects.requireNonNull(err);
+        this.error.set(err);
+        this.received.offer(SubscriberInputStream.END);
+    }
+
+    @Override
+    public void onComplete() {
+        this.received.offer(SubscriberInputStream.END);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final ByteBuffer buf = this.buffer();
+        final int res;
+        if (buf == SubscriberInputStream.END) {
+            res = -1;
+        } else {
+            res = buf.get() & 0xFF;
+        }
+        return res;
+    }
+
+    // @checkstyle ParameterNameCheck (5 lines)
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        int res = 0;
+        if (len > 0) {
+            final ByteBuffer buf = this.buffer();
+            if (buf == SubscriberInputStream.END) {
+                res = -1;
+            } else {
+                res = Math.min(len, buf.remaining());
+                buf.get(b, off, res);
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public int available() throws IOException {
+        this.ensureOpen();
+        final int res;
+        if (this.current == null) {
+            res = 0;
+        } else {
+            res = this.current.remaining();
+        }
+        return res;
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.current = null;
+            final Subscription sub = this.subscription.getAndSet(Cancelled.INSTANCE);
+            if (sub != null) {
+                sub.cancel();
+            }
+            this.received.clear();
+        }
+    }
+
+    /**
+     * Buffer with remaining bytes to read, waits for the next buffer if needed.
+     * @return Buffer, or {@link #END} on the end of stream
+     * @throws IOException If stream is closed, publisher failed or waiting was interrupted
+     */
+    private ByteBuffer buffer() throws IOException {
+        this.ensureOpen();
+        while (this.current != SubscriberInputStream.END
+            && (this.current == null || !this.current.hasRemaining())) {
+            try {
+                this.current = this.received.take();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(ex.getMessage());
+            }
+            if (this.current != SubscriberInputStream.END) {
+                this.request();
+            }
+        }
+        if (this.current == SubscriberInputStream.END && this.error.get() != null) {
+            throw new IOException(this.error.get());
+        }
+        return this.current;
+    }
+
+    /**
+     * Counts received buffer and requests more buffers if enough of them were read.
+     */
+    private void request() {
+        this.consumed += 1;
+        if (this.consumed == this.limit) {
+            this.subscription.get().request(this.consumed);
+            this.consumed = 0;
+        }
+    }
+
+    /**
+     * Checks that stream is open.
+     * @throws IOException If stream is closed
+     */
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Subscription of closed stream.
+     * @since 1.15
+     */
+    private enum Cancelled implements Subscription {
+        /**
+         * Subscription instance.
+         */
+        INSTANCE;
+
+        @Override
+        public void request(final long count) {
+            // Stream is closed, nothing to request
+        }
+
+        @Override
+        public void cancel() {
+            // Stream is closed, nothing to cancel
+        }
+    }
+}
@@ -7,15 +7,20 @@ package com.artipie.asto.test;
 import com.artipie.asto.ArtipieIOException;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
+import com.artipie.asto.ListResult;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Range;
 import com.artipie.asto.Storage;
 import com.artipie.asto.SubStorage;
 import com.artipie.asto.ValueNotFoundException;
 import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.ext.PublisherAs;
 import io.reactivex.Flowable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -302,6 +307,188 @@ public abstract class StorageWhiteboxVerification {
         );
     }
 
+    @Test
+    public void saveIfAbsent_shouldSaveAbsentValue() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key key = new Key.From("conditional", "absent");
+                final byte[] data = "absent".getBytes();
+                MatcherAssert.assertThat(
+                    String.format("%s: should save absent value", pair.getKey()),
+                    storage.saveIfAbsent(key, new Content.From(data)).join(),
+                    new IsEqual<>(true)
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: saved value should be loaded", pair.getKey()),
+                    new BlockingStorage(storage).value(key),
+                    new IsEqual<>(data)
+                );
+            }
+        );
+    }
+
+    @Test
+    public void saveIfAbsent_shouldNotOverwriteExistingValue() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key key = new Key.From("conditional", "existing");
+                final byte[] data = "first".getBytes();
+                storage.save(key, new Content.From(data)).join();
+                MatcherAssert.assertThat(
+                    String.format("%s: should not save existing value", pair.getKey()),
+                    storage.saveIfAbsent(key, new Content.From("second".getBytes())).join(),
+                    new IsEqual<>(false)
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: existing value should be kept", pair.getKey()),
+                    new BlockingStorage(storage).value(key),
+                    new IsEqual<>(data)
+                );
+            }
+        );
+    }
+
+    @Test
+    public void saveIfMatch_shouldSaveOnlyMatchingVersion() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key key = new Key.From("conditional", "versioned");
+                storage.save(key, new Content.From("one".getBytes())).join();
+                final String version = storage.metadata(key).join()
+                    .read(Meta.OP_VERSION).get();
+                MatcherAssert.assertThat(
+                    String.format("%s: should save value with matching version", pair.getKey()),
+                    storage.saveIfMatch(key, new Content.From("two".getBytes()), version).join(),
+                    new IsEqual<>(true)
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: should not save value with stale version", pair.getKey()),
+                    storage.saveIfMatch(key, new Content.From("three".getBytes()), version)
+                        .join(),
+                    new IsEqual<>(false)
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: matching value should be loaded", pair.getKey()),
+                    new BlockingStorage(storage).value(key),
+                    new IsEqual<>("two".getBytes())
+                );
+            }
+        );
+    }
+
+    @Test
+    public void saveIfMatch_shouldNotSaveAbsentValue() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key key = new Key.From("conditional", "unknown");
+                MatcherAssert.assertThat(
+                    String.format("%s: should not save absent value", pair.getKey()),
+                    storage.saveIfMatch(key, new Content.From("any".getBytes()), "1").join(),
+                    new IsEqual<>(false)
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: value should not exist", pair.getKey()),
+                    storage.exists(key).join(),
+                    new IsEqual<>(false)
+                );
+            }
+        );
+    }
+
+    @Test
+    @Timeout(1)
+    public void valueRange_shouldLoadRange() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key key = new Key.From("shouldLoadRange");
+                new BlockingStorage(storage).save(key, "0123456789".getBytes());
+                final Content content = storage.value(key, new Range(2, 5)).join();
+                MatcherAssert.assertThat(
+                    String.format("%s: range size", pair.getKey()),
+                    content.size(),
+                    new IsEqual<>(Optional.of(5L))
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: range content", pair.getKey()),
+                    new PublisherAs(content).asciiString().toCompletableFuture().join(),
+                    new IsEqual<>("23456")
+                );
+            }
+        );
+    }
+
+    @Test
+    @Timeout(1)
+    public void valueRange_shouldLoadRangeUpToTheEnd() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key key = new Key.From("shouldLoadRangeUpToTheEnd");
+                new BlockingStorage(storage).save(key, "0123456789".getBytes());
+                MatcherAssert.assertThat(
+                    String.format("%s: open range", pair.getKey()),
+                    new PublisherAs(storage.value(key, new Range(7)).join())
+                        .asciiString().toCompletableFuture().join(),
+                    new IsEqual<>("789")
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: range longer than value", pair.getKey()),
+                    new PublisherAs(storage.value(key, new Range(8, 100)).join())
+                        .asciiString().toCompletableFuture().join(),
+                    new IsEqual<>("89")
+                );
+            }
+        );
+    }
+
+    @Test
+    @Timeout(1)
+    public void valueRange_shouldLoadEmptyRangeAfterTheEnd() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key key = new Key.From("shouldLoadEmptyRangeAfterTheEnd");
+                new BlockingStorage(storage).save(key, "012".getBytes());
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    new PublisherAs(storage.value(key, new Range(3)).join())
+                        .bytes().toCompletableFuture().join(),
+                    new IsEqual<>(new byte[0])
+                );
+            }
+        );
+    }
+
+    @Test
+    @Timeout(1)
+    public void valueRange_shouldFailToLoadRangeOfAbsentValue() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final CompletableFuture<Content> value = storage.value(
+                    new Key.From("shouldFailToLoadRangeOfAbsentValue"), Range.FULL
+                );
+                final Exception exception = Assertions.assertThrows(
+                    CompletionException.class,
+                    value::join
+                );
+                MatcherAssert.assertThat(
+                    String.format(
+                        "%s: storage '%s' should fail",
+                        pair.getKey(), storage.getClass().getName()
+                    ),
+                    exception.getCause(),
+                    new IsInstanceOf(ValueNotFoundException.class)
+                );
+            }
+        );
+    }
+
     @Test
     public void exists_shouldExistForSavedKey() throws Exception {
         this.execute(
@@ -437,6 +624,35 @@ public abstract class StorageWhiteboxVerification {
         );
     }
 
+    @Test
+    public void deleteAll_shouldDeleteNestedTreeAndKeepSiblings() throws Exception {
+        this.execute(
+            pair -> {
+                final Storage storage = pair.getValue();
+                final Key prefix = new Key.From("a", "b");
+                final int count = 25;
+                for (int idx = 0; idx < count; idx += 1) {
+                    storage.save(
+                        new Key.From(prefix, String.valueOf(idx % 3), String.valueOf(idx)),
+                        Content.EMPTY
+                    ).join();
+                }
+                storage.save(new Key.From("a", "c"), Content.EMPTY).join();
+                storage.save(new Key.From("a", "d", "e"), Content.EMPTY).join();
+                final BlockingStorage blocking = new BlockingStorage(storage);
+                blocking.deleteAll(prefix);
+                MatcherAssert.assertThat(
+                    String.format("%s: should delete nested tree", pair.getKey()),
+                    blocking.list(Key.ROOT),
+                    Matchers.containsInAnyOrder(
+                        new Key.From("a", "c"),
+                        new Key.From("a", "d", "e")
+                    )
+                );
+            }
+        );
+    }
+
     @Test
     public void exclusively_shouldFailExclusivelyForSameKey() throws Exception {
         this.execute(
@@ -612,6 +828,199 @@ public abstract class StorageWhiteboxVerification {
         );
     }
 
+    @Test
+    public void listPage_shouldListKeysInOrder() throws Exception {
+        this.execute(
+            pair -> {
+                final byte[] data = "some data!".getBytes();
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                blocking.save(new Key.From("a", "b", "1"), data);
+                blocking.save(new Key.From("a", "b-c"), data);
+                blocking.save(new Key.From("a", "c", "d", "2"), data);
+                blocking.save(new Key.From("a", "e"), data);
+                blocking.save(new Key.From("z"), data);
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    Flowable.fromPublisher(
+                        pair.getValue().list(new Key.From("a"), Key.ROOT, Integer.MAX_VALUE)
+                    ).map(Key::string).toList().blockingGet(),
+                    Matchers.equalTo(Arrays.asList("a/b-c", "a/b/1", "a/c/d/2", "a/e"))
+                );
+            }
+        );
+    }
+
+    @Test
+    public void listPage_shouldListLimitedKeysAfterStartKey() throws Exception {
+        this.execute(
+            pair -> {
+                final byte[] data = "some data!".getBytes();
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                blocking.save(new Key.From("x", "1"), data);
+                blocking.save(new Key.From("x", "2", "3"), data);
+                blocking.save(new Key.From("x", "2", "4"), data);
+                blocking.save(new Key.From("x", "5"), data);
+                blocking.save(new Key.From("x", "6"), data);
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    Flowable.fromPublisher(
+                        pair.getValue().list(new Key.From("x"), new Key.From("x", "2", "3"), 2)
+                    ).map(Key::string).toList().blockingGet(),
+                    Matchers.equalTo(Arrays.asList("x/2/4", "x/5"))
+                );
+            }
+        );
+    }
+
+    @Test
+    public void listPage_shouldListNoKeysWhenEmpty() throws Exception {
+        this.execute(
+            pair -> MatcherAssert.assertThat(
+                pair.getKey(),
+                Flowable.fromPublisher(
+                    pair.getValue().list(new Key.From("a", "b"), Key.ROOT, Integer.MAX_VALUE)
+                ).toList().blockingGet(),
+                Matchers.empty()
+            )
+        );
+    }
+
+    @Test
+    public void listMetadata_shouldListLimitedKeysWithSizes() throws Exception {
+        this.execute(
+            pair -> {
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                blocking.save(new Key.From("m", "1"), "1".getBytes());
+                blocking.save(new Key.From("m", "2", "3"), "23".getBytes());
+                blocking.save(new Key.From("m", "4"), "444".getBytes());
+                blocking.save(new Key.From("m", "5"), "5555".getBytes());
+                blocking.save(new Key.From("n"), "n".getBytes());
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    Flowable.fromPublisher(
+                        pair.getValue().listMetadata(new Key.From("m"), new Key.From("m", "1"), 2)
+                    ).map(
+                        entry -> String.format(
+                            "%s=%d", entry.getKey().string(), entry.getValue().size()
+                        )
+                    ).toList().blockingGet(),
+                    Matchers.equalTo(Arrays.asList("m/2/3=2", "m/4=3"))
+                );
+            }
+        );
+    }
+
+    @Test
+    public void metadata_shouldGetMetadataOfSeveralKeysInOrder() throws Exception {
+        this.execute(
+            pair -> {
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                final Key first = new Key.From("several", "b");
+                final Key second = new Key.From("several", "a", "c");
+                blocking.save(first, "first".getBytes());
+                blocking.save(second, "second".getBytes());
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    pair.getValue().metadata(Arrays.asList(first, second)).join()
+                        .entrySet().stream()
+                        .map(
+                            entry -> String.format(
+                                "%s=%d", entry.getKey().string(), entry.getValue().size()
+                            )
+                        ).collect(Collectors.toList()),
+                    Matchers.equalTo(Arrays.asList("several/b=5", "several/a/c=6"))
+                );
+            }
+        );
+    }
+
+    @Test
+    public void metadata_shouldFailToGetMetadataOfSeveralKeysWithAbsent() throws Exception {
+        this.execute(
+            pair -> {
+                final Key present = new Key.From("several-absent", "present");
+                new BlockingStorage(pair.getValue()).save(present, "data".getBytes());
+                final CompletableFuture<?> metas = pair.getValue().metadata(
+                    Arrays.asList(present, new Key.From("several-absent", "absent"))
+                );
+                final Exception exception = Assertions.assertThrows(
+                    CompletionException.class,
+                    metas::join
+                );
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    exception.getCause(),
+                    new IsInstanceOf(ValueNotFoundException.class)
+                );
+            }
+        );
+    }
+
+    @Test
+    public void listLevel_shouldListFilesAndDirectories() throws Exception {
+        this.execute(
+            pair -> {
+                final byte[] data = "some data!".getBytes();
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                blocking.save(new Key.From("a", "1"), data);
+                blocking.save(new Key.From("a", "b", "2"), data);
+                blocking.save(new Key.From("a", "b", "c", "3"), data);
+                blocking.save(new Key.From("a", "d", "4"), data);
+                blocking.save(new Key.From("a-x"), data);
+                final ListResult res = pair.getValue()
+                    .list(new Key.From("a"), Key.DELIMITER).join();
+                MatcherAssert.assertThat(
+                    String.format("%s: should list files", pair.getKey()),
+                    res.files().stream().map(Key::string).collect(Collectors.toList()),
+                    Matchers.equalTo(Collections.singletonList("a/1"))
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: should list directories", pair.getKey()),
+                    res.directories().stream().map(Key::string).collect(Collectors.toList()),
+                    Matchers.equalTo(Arrays.asList("a/b", "a/d"))
+                );
+            }
+        );
+    }
+
+    @Test
+    public void listLevel_shouldListRootLevel() throws Exception {
+        this.execute(
+            pair -> {
+                final byte[] data = "some data!".getBytes();
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                blocking.save(new Key.From("one", "two", "file.txt"), data);
+                blocking.save(new Key.From("another"), data);
+                final ListResult res = pair.getValue().list(Key.ROOT, Key.DELIMITER).join();
+                MatcherAssert.assertThat(
+                    String.format("%s: should list files", pair.getKey()),
+                    res.files().stream().map(Key::string).collect(Collectors.toList()),
+                    Matchers.equalTo(Collections.singletonList("another"))
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: should list directories", pair.getKey()),
+                    res.directories().stream().map(Key::string).collect(Collectors.toList()),
+                    Matchers.equalTo(Collections.singletonList("one"))
+                );
+            }
+        );
+    }
+
+    @Test
+    public void listLevel_shouldListNothingWhenEmpty() throws Exception {
+        this.execute(
+            pair -> {
+                final ListResult res = pair.getValue()
+                    .list(new Key.From("a", "b"), Key.DELIMITER).join();
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    res.files().isEmpty() && res.directories().isEmpty(),
+                    new IsEqual<>(true)
+                );
+            }
+        );
+    }
+
     @Test
     @Timeout(2)
     public void move_shouldMove() throws Exception {
@@ -670,6 +1079,91 @@ public abstract class StorageWhiteboxVerification {
         );
     }
 
+    @Test
+    @Timeout(2)
+    public void copy_shouldCopy() throws Exception {
+        this.execute(
+            pair -> {
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                final byte[] data = "source".getBytes();
+                final Key source = new Key.From("shouldCopy-source");
+                final Key destination = new Key.From("shouldCopy", "destination");
+                blocking.save(source, data);
+                blocking.copy(source, destination);
+                MatcherAssert.assertThat(
+                    String.format("%s: should copy value", pair.getKey()),
+                    blocking.value(destination),
+                    Matchers.equalTo(data)
+                );
+                MatcherAssert.assertThat(
+                    String.format("%s: should keep source", pair.getKey()),
+                    blocking.value(source),
+                    Matchers.equalTo(data)
+                );
+            }
+        );
+    }
+
+    @Test
+    @Timeout(2)
+    public void copy_shouldCopyWhenDestinationExists() throws Exception {
+        this.execute(
+            pair -> {
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                final byte[] data = "source data".getBytes();
+                final Key source = new Key.From("shouldCopyWhenDestinationExists-source");
+                final Key destination = new Key.From("shouldCopyWhenDestinationExists-destination");
+                blocking.save(source, data);
+                blocking.save(destination, "destination data".getBytes());
+                blocking.copy(source, destination);
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    blocking.value(destination),
+                    Matchers.equalTo(data)
+                );
+            }
+        );
+    }
+
+    @Test
+    @Timeout(2)
+    public void copy_shouldKeepCopyWhenSourceChanges() throws Exception {
+        this.execute(
+            pair -> {
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                final byte[] data = "first".getBytes();
+                final Key source = new Key.From("shouldKeepCopyWhenSourceChanges-source");
+                final Key destination = new Key.From("shouldKeepCopyWhenSourceChanges-copy");
+                blocking.save(source, data);
+                blocking.copy(source, destination);
+                blocking.save(source, "second".getBytes());
+                blocking.delete(source);
+                MatcherAssert.assertThat(
+                    pair.getKey(),
+                    blocking.value(destination),
+                    Matchers.equalTo(data)
+                );
+            }
+        );
+    }
+
+    @Test
+    @Timeout(2)
+    public void copy_shouldFailToCopyAbsentValue() throws Exception {
+        this.execute(
+            pair -> {
+                final BlockingStorage blocking = new BlockingStorage(pair.getValue());
+                final Key source = new Key.From("shouldFailToCopyAbsentValue-source");
+                final Key destination = new Key.From("shouldFailToCopyAbsentValue-destination");
+                Assertions.assertThrows(
+                    RuntimeException.class,
+                    () -> blocking.copy(source, destination),
+                    pair.getKey()
+                );
+            }
+        );
+    }
+
     @Test
     public void size_shouldGetSizeSave() throws Exception {
         this.execute(
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Aggregation}.
+ *
+ * @since 1.15
+ */
+final class AggregationTest {
+
+    @Test
+    void aggregatesContentOfKnownSize() {
+        MatcherAssert.assertThat(
+            new Aggregation(
+                new Content.From(5L, AggregationTest.chunks("he", "ll", "o"))
+            ).bytes().blockingGet(),
+            new IsEqual<>("hello".getBytes())
+        );
+    }
+
+    @Test
+    void aggregatesContentOfUnknownSize() {
+        MatcherAssert.assertThat(
+            new Aggregation(
+                new Content.From(AggregationTest.chunks("wo", "r", "ld"))
+            ).bytes().blockingGet(),
+            new IsEqual<>("world".getBytes())
+        );
+    }
+
+    @Test
+    void aggregatesContentLargerThanDeclared() {
+        MatcherAssert.assertThat(
+            new Aggregation(
+                new Content.From(2L, AggregationTest.chunks("abc", "de"))
+            ).bytes().blockingGet(),
+            new IsEqual<>("abcde".getBytes())
+        );
+    }
+
+    @Test
+    void aggregatesContentSmallerThanDeclared() {
+        MatcherAssert.assertThat(
+            new Aggregation(
+                new Content.From(10L, AggregationTest.chunks("ab", "c"))
+            ).bytes().blockingGet(),
+            new IsEqual<>("abc".getBytes())
+        );
+    }
+
+    @Test
+    void keepsBuffersPositions() {
+        final ByteBuffer buf = ByteBuffer.wrap("xyz".getBytes());
+        new Aggregation(new Content.From(Flowable.just(buf))).bytes().blockingGet();
+        MatcherAssert.assertThat(
+            buf.remaining(),
+            new IsEqual<>(3)
+        );
+    }
+
+    /**
+     * Publisher of chunks.
+     * @param parts Chunks strings
+     * @return Publisher
+     */
+    private static Flowable<ByteBuffer> chunks(final String... parts) {
+        return Flowable.fromArray(parts).map(part -> ByteBuffer.wrap(part.getBytes()));
+    }
+}
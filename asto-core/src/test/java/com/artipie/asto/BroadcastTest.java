@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import com.artipie.asto.ext.ContentDigest;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link Broadcast}.
+ *
+ * @since 1.15
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class BroadcastTest {
+
+    @Test
+    void passesContentToAllConsumersWithSingleSubscription() {
+        final AtomicInteger subscribed = new AtomicInteger();
+        final Broadcast broadcast = new Broadcast(
+            new Content.From(
+                BroadcastTest.chunks("one", "two", "three").doOnSubscribe(
+                    sub -> subscribed.incrementAndGet()
+                )
+            ),
+            2
+        );
+        final CompletableFuture<String> first = new PublisherAs(broadcast.content())
+            .asciiString().toCompletableFuture();
+        final CompletableFuture<byte[]> second = new ContentDigest(
+            broadcast.content(), Digests.SHA256
+        ).bytes().toCompletableFuture();
+        MatcherAssert.assertThat(
+            "First consumer receives all bytes",
+            first.join(),
+            new IsEqual<>("onetwothree")
+        );
+        MatcherAssert.assertThat(
+            "Second consumer receives all bytes",
+            second.join(),
+            new IsEqual<>(DigestUtils.sha256("onetwothree"))
+        );
+        MatcherAssert.assertThat(
+            "Origin is subscribed once",
+            subscribed.get(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void waitsForAllConsumers() {
+        final AtomicInteger subscribed = new AtomicInteger();
+        final Broadcast broadcast = new Broadcast(
+            new Content.From(
+                BroadcastTest.chunks("data").doOnSubscribe(sub -> subscribed.incrementAndGet())
+            ),
+            2
+        );
+        final CompletableFuture<String> first = new PublisherAs(broadcast.content())
+            .asciiString().toCompletableFuture();
+        MatcherAssert.assertThat(
+            "Origin is not subscribed until all consumers subscribe",
+            subscribed.get(),
+            new IsEqual<>(0)
+        );
+        new PublisherAs(broadcast.content()).asciiString().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "First consumer receives bytes after all consumers subscribe",
+            first.join(),
+            new IsEqual<>("data")
+        );
+    }
+
+    @Test
+    void requestsAsSlowestConsumer() {
+        final AtomicLong requested = new AtomicLong();
+        final Broadcast broadcast = new Broadcast(
+            new Content.From(
+                Flowable.range(0, 1000)
+                    .map(num -> ByteBuffer.wrap(new byte[]{num.byteValue()}))
+                    .doOnRequest(requested::addAndGet)
+            ),
+            2
+        );
+        Flowable.fromPublisher(broadcast.content()).subscribe();
+        Flowable.fromPublisher(broadcast.content()).test(3L);
+        MatcherAssert.assertThat(
+            requested.get(),
+            Matchers.lessThanOrEqualTo(Flowable.bufferSize() + 3L)
+        );
+    }
+
+    @Test
+    void failsSubscriptionsAboveConsumers() {
+        final Broadcast broadcast = new Broadcast(new Content.From("x".getBytes()), 1);
+        new PublisherAs(broadcast.content()).bytes().toCompletableFuture().join();
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class,
+            () -> new PublisherAs(broadcast.content()).bytes().toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            err.getCause(),
+            new IsInstanceOf(ArtipieIOException.class)
+        );
+    }
+
+    @Test
+    void replaysFromSpillFile(@TempDir final Path tmp) {
+        final Broadcast broadcast = new Broadcast(
+            new Content.From(BroadcastTest.chunks("spilled", " ", "bytes")),
+            1,
+            tmp.resolve("spill")
+        );
+        final Content replay = broadcast.replay();
+        final CompletableFuture<String> late = new PublisherAs(replay)
+            .asciiString().toCompletableFuture();
+        MatcherAssert.assertThat(
+            "Consumer receives all bytes",
+            new PublisherAs(broadcast.content()).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("spilled bytes")
+        );
+        MatcherAssert.assertThat(
+            "Replay is published after origin completion",
+            late.join(),
+            new IsEqual<>("spilled bytes")
+        );
+        MatcherAssert.assertThat(
+            "Replay can be read again",
+            new PublisherAs(replay).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("spilled bytes")
+        );
+    }
+
+    /**
+     * Publisher of chunks.
+     * @param parts Chunks strings
+     * @return Publisher
+     */
+    private static Flowable<ByteBuffer> chunks(final String... parts) {
+        return Flowable.fromArray(parts)
+            .map(part -> ByteBuffer.wrap(part.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import com.artipie.asto.cache.CachedStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.StorageWhiteboxVerification;
+
+/**
+ * Cached storage verification test.
+ *
+ * @checkstyle ProtectedMethodInFinalClassCheck (500 lines)
+ * @since 1.15
+ */
+@SuppressWarnings("PMD.TestClassWithoutTestCases")
+public final class CachedStorageVerificationTest extends StorageWhiteboxVerification {
+
+    @Override
+    protected Storage newStorage() throws Exception {
+        return new CachedStorage(new InMemoryStorage());
+    }
+}
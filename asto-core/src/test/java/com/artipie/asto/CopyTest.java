@@ -5,8 +5,10 @@
 package com.artipie.asto;
 
 import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.ext.CompletableFutureSupport;
 import com.artipie.asto.memory.InMemoryStorage;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -73,4 +75,25 @@ public class CopyTest {
             Matchers.contains(foo)
         );
     }
+
+    @Test
+    public void copiesWithinSameStorageWithoutReadingValues() {
+        final Storage memory = new InMemoryStorage();
+        final Storage origin = new Storage.Wrap(memory) {
+            @Override
+            public CompletableFuture<Content> value(final Key key) {
+                return new CompletableFutureSupport.Failed<Content>(
+                    new IllegalStateException("Value should not be read")
+                ).get();
+            }
+        };
+        final byte[] data = "data".getBytes();
+        new BlockingStorage(memory).save(new Key.From("one", "a", "b"), data);
+        new Copy(new SubStorage(new Key.From("one"), origin))
+            .copy(new SubStorage(new Key.From("two"), origin)).join();
+        MatcherAssert.assertThat(
+            new BlockingStorage(memory).value(new Key.From("two", "a", "b")),
+            new IsEqual<>(data)
+        );
+    }
 }
@@ -5,7 +5,9 @@
 package com.artipie.asto;
 
 import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.fs.FileStorage;
+import com.artipie.asto.fs.WriteOptions;
 import io.reactivex.Emitter;
 import io.reactivex.Flowable;
 import io.reactivex.functions.Consumer;
@@ -15,7 +17,9 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -24,6 +28,7 @@ import org.hamcrest.Matchers;
 import org.hamcrest.collection.IsEmptyCollection;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -56,6 +61,63 @@ final class FileStorageTest {
         this.storage = new FileStorage(this.tmp);
     }
 
+    @Test
+    void savesManySmallBuffersDurably() throws Exception {
+        final FileStorage durable = new FileStorage(
+            this.tmp,
+            EnumSet.noneOf(Digests.class),
+            Runnable::run,
+            new WriteOptions(16, WriteOptions.Durability.FULL)
+        );
+        final Key key = new Key.From("durable", "value");
+        final byte[] data = new byte[1000];
+        Arrays.fill(data, (byte) 'x');
+        durable.save(
+            key,
+            new Content.From(
+                Flowable.range(0, data.length).map(idx -> ByteBuffer.wrap(new byte[]{'x'}))
+            )
+        ).get();
+        MatcherAssert.assertThat(
+            new BlockingStorage(durable).value(key),
+            new IsEqual<>(data)
+        );
+    }
+
+    @Test
+    void movesAndCopiesDurablyToNewDirectories() throws Exception {
+        final BlockingStorage durable = new BlockingStorage(
+            new FileStorage(
+                this.tmp,
+                EnumSet.noneOf(Digests.class),
+                Runnable::run,
+                new WriteOptions(16, WriteOptions.Durability.FULL)
+            )
+        );
+        final byte[] data = "durable".getBytes(StandardCharsets.UTF_8);
+        final Key source = new Key.From("one", "two", "source");
+        final Key moved = new Key.From("three", "four", "moved");
+        final Key copied = new Key.From("five", "six", "copied");
+        durable.save(source, data);
+        durable.copy(source, copied);
+        durable.move(source, moved);
+        MatcherAssert.assertThat(
+            "Value is not copied",
+            durable.value(copied),
+            new IsEqual<>(data)
+        );
+        MatcherAssert.assertThat(
+            "Value is not moved",
+            durable.value(moved),
+            new IsEqual<>(data)
+        );
+        MatcherAssert.assertThat(
+            "Source is not removed by move",
+            durable.exists(source),
+            new IsEqual<>(false)
+        );
+    }
+
     @Test
     void savesAndLoads() throws Exception {
         final byte[] content = "Hello world!!!".getBytes();
@@ -305,6 +367,35 @@ final class FileStorageTest {
         );
     }
 
+    @Test
+    void keepsDigestsInMetadata() throws Exception {
+        Assumptions.assumeTrue(
+            Files.getFileStore(this.tmp)
+                .supportsFileAttributeView(UserDefinedFileAttributeView.class)
+        );
+        final FileStorage sto = new FileStorage(
+            this.tmp, EnumSet.of(Digests.SHA256, Digests.MD5)
+        );
+        final Key key = new Key.From("digested", "file.txt");
+        sto.save(key, new Content.From("hello".getBytes(StandardCharsets.UTF_8))).join();
+        final Meta meta = sto.metadata(key).join();
+        MatcherAssert.assertThat(
+            "SHA-256 is kept",
+            meta.read(Meta.OP_SHA256).get(),
+            new IsEqual<>("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824")
+        );
+        MatcherAssert.assertThat(
+            "MD5 is kept",
+            meta.read(Meta.OP_MD5).get(),
+            new IsEqual<>("5d41402abc4b2a76b9719d911017c592")
+        );
+        MatcherAssert.assertThat(
+            "SHA-1 is not configured",
+            meta.read(Meta.OP_SHA1).isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
     /**
      * Create a directory.
      * @param parent Directory parent path
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ImmutableContent}.
+ *
+ * @since 1.15
+ */
+final class ImmutableContentTest {
+
+    @Test
+    void publishesBytesManyTimes() {
+        final byte[] bytes = "hello".getBytes();
+        final Content content = new ImmutableContent(bytes);
+        for (int attempt = 0; attempt < 2; attempt += 1) {
+            MatcherAssert.assertThat(
+                new Remaining(Flowable.fromPublisher(content).blockingFirst()).bytes(),
+                new IsEqual<>(bytes)
+            );
+        }
+    }
+
+    @Test
+    void hasSizeOfRemainingBytes() {
+        final ByteBuffer buf = ByteBuffer.wrap("0123456789".getBytes());
+        buf.position(4);
+        MatcherAssert.assertThat(
+            new ImmutableContent(buf).size().get(),
+            new IsEqual<>(6L)
+        );
+    }
+
+    @Test
+    void providesReadOnlyBuffer() {
+        MatcherAssert.assertThat(
+            new ImmutableContent(new byte[]{1, 2}).buffer().isReadOnly(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void publishesNothingForEmptyBytes() {
+        MatcherAssert.assertThat(
+            Flowable.fromPublisher(new ImmutableContent(new byte[0])).count().blockingGet(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void failsToConsumeOneTimeContentTwice() {
+        final Content content = new ImmutableContent("once".getBytes()).oneTime();
+        Flowable.fromPublisher(content).toList().blockingGet();
+        Assertions.assertThrows(
+            ArtipieIOException.class,
+            () -> Flowable.fromPublisher(content).toList().blockingGet()
+        );
+    }
+}
@@ -103,4 +103,46 @@ final class KeyTest {
             new IsEqual<>(-1)
         );
     }
+
+    @Test
+    void resolvesKeyFromTwoKeys() {
+        MatcherAssert.assertThat(
+            new Key.From(new Key.From("a", "b"), new Key.From("c/d")).string(),
+            new IsEqual<>("a/b/c/d")
+        );
+    }
+
+    @Test
+    void resolvesKeyFromRootAndKey() {
+        MatcherAssert.assertThat(
+            new Key.From(Key.ROOT, new Key.From("x")),
+            new IsEqual<>(new Key.From("x"))
+        );
+    }
+
+    @Test
+    void returnsParentsUpToRoot() {
+        final Key key = new Key.From("one/two/three");
+        MatcherAssert.assertThat(
+            key.parent().flatMap(Key::parent).get().string(),
+            new IsEqual<>("one")
+        );
+        MatcherAssert.assertThat(
+            key.parent().flatMap(Key::parent).flatMap(Key::parent).get(),
+            new IsEqual<>(Key.ROOT)
+        );
+    }
+
+    @Test
+    void equalKeysHaveEqualHashCodes() {
+        final Key first = new Key.From("a/b/c");
+        final Key second = new Key.From(new Key.From("a"), "b", "c");
+        MatcherAssert.assertThat(first, new IsEqual<>(second));
+        MatcherAssert.assertThat(first.hashCode(), new IsEqual<>(second.hashCode()));
+    }
+
+    @Test
+    void keyWithDoubleDelimiter() {
+        Assertions.assertThrows(Exception.class, () -> new Key.From("a//b").string());
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ListResult}.
+ *
+ * @since 1.15
+ */
+final class ListResultTest {
+
+    @Test
+    void collapsesKeysToLevel() {
+        final ListResult res = new ListResult.Collapsed(
+            new Key.From("a"),
+            Key.DELIMITER,
+            Arrays.asList(
+                new Key.From("a", "c", "1"), new Key.From("a", "2"),
+                new Key.From("a", "b", "3"), new Key.From("a", "c", "4"),
+                new Key.From("ab", "5")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Files",
+            ListResultTest.strings(res.files()),
+            Matchers.contains("a/2")
+        );
+        MatcherAssert.assertThat(
+            "Directories",
+            ListResultTest.strings(res.directories()),
+            Matchers.contains("a/b", "a/c")
+        );
+    }
+
+    @Test
+    void collapsesByCustomDelimiter() {
+        final ListResult res = new ListResult.Collapsed(
+            Key.ROOT,
+            ".",
+            Arrays.asList(new Key.From("x.y"), new Key.From("x.z.w"), new Key.From("v"))
+        );
+        MatcherAssert.assertThat(
+            "Files",
+            ListResultTest.strings(res.files()),
+            Matchers.contains("v")
+        );
+        MatcherAssert.assertThat(
+            "Directories",
+            ListResultTest.strings(res.directories()),
+            Matchers.contains("x")
+        );
+    }
+
+    /**
+     * Key strings.
+     * @param keys Keys
+     * @return Strings
+     */
+    private static Collection<String> strings(final Collection<Key> keys) {
+        return keys.stream().map(Key::string).collect(Collectors.toList());
+    }
+}
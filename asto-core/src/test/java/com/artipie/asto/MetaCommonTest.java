@@ -4,10 +4,15 @@
  */
 package com.artipie.asto;
 
+import com.artipie.ArtipieException;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.memory.InMemoryStorage;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -32,4 +37,37 @@ final class MetaCommonTest {
         );
     }
 
+    @Test
+    void failsOnUnknownSize() {
+        Assertions.assertThrows(
+            ArtipieException.class,
+            () -> new MetaCommon(Meta.EMPTY).size()
+        );
+    }
+
+    @Test
+    void readsTypedMetadataFromRawByDefault() {
+        final Meta meta = new Meta() {
+            @Override
+            public <T> T read(final ReadOperator<T> opr) {
+                final Map<String, String> raw = new HashMap<>();
+                Meta.OP_SIZE.put(raw, 3L);
+                Meta.OP_VERSION.put(raw, "v1");
+                Meta.OP_SHA256.put(raw, "abc");
+                return opr.take(raw);
+            }
+        };
+        MatcherAssert.assertThat("size", meta.size(), new IsEqual<>(3L));
+        MatcherAssert.assertThat("version", meta.version().get(), new IsEqual<>("v1"));
+        MatcherAssert.assertThat(
+            "digest",
+            meta.digest(Digests.SHA256).get(),
+            new IsEqual<>("abc")
+        );
+        MatcherAssert.assertThat(
+            "no updated time",
+            meta.updatedAt().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
 }
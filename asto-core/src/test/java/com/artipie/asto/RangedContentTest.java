@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto;
+
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link RangedContent}.
+ *
+ * @since 1.15
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class RangedContentTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "0,3,012",
+        "2,3,234",
+        "3,4,3456",
+        "5,1,5",
+        "7,10,789"
+    })
+    void readsRangeFromSeveralBuffers(final long offset, final long length,
+        final String expected) {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new RangedContent(RangedContentTest.chunked(), new Range(offset, length))
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>(expected)
+        );
+    }
+
+    @Test
+    void readsRangeUpToTheEnd() {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new RangedContent(RangedContentTest.chunked(), new Range(4))
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("456789")
+        );
+    }
+
+    @Test
+    void readsNothingAfterTheEnd() {
+        MatcherAssert.assertThat(
+            Flowable.fromPublisher(
+                new RangedContent("abc".getBytes(StandardCharsets.US_ASCII), new Range(3))
+            ).toList().blockingGet().isEmpty(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void clipsSizeByOriginSize() {
+        MatcherAssert.assertThat(
+            new RangedContent("abcdef".getBytes(StandardCharsets.US_ASCII), new Range(4, 10))
+                .size(),
+            new IsEqual<>(Optional.of(2L))
+        );
+    }
+
+    @Test
+    void doesNotChangeOriginBytes() {
+        final byte[] bytes = "xyz".getBytes(StandardCharsets.US_ASCII);
+        MatcherAssert.assertThat(
+            Flowable.fromPublisher(new RangedContent(bytes, new Range(1)))
+                .blockingFirst().isReadOnly(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void stopsReadingOriginAfterRangeEnd() {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new RangedContent(
+                    new Content.From(
+                        Flowable.concat(
+                            Flowable.just(
+                                ByteBuffer.wrap("abc".getBytes(StandardCharsets.US_ASCII))
+                            ),
+                            Flowable.error(new IllegalStateException("Should not be read"))
+                        )
+                    ),
+                    new Range(1, 2)
+                )
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("bc")
+        );
+    }
+
+    /**
+     * Content of several buffers.
+     * @return Content with bytes `0123456789`
+     */
+    private static Content chunked() {
+        return new Content.From(
+            10,
+            Flowable.fromArray("012", "3", "456", "789")
+                .map(str -> ByteBuffer.wrap(str.getBytes(StandardCharsets.US_ASCII)))
+        );
+    }
+}
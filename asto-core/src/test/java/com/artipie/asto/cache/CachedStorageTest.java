@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CachedStorage}.
+ * @since 1.15
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class CachedStorageTest {
+
+    /**
+     * Origin storage.
+     */
+    private Storage origin;
+
+    /**
+     * Cached storage.
+     */
+    private CachedStorage cached;
+
+    @BeforeEach
+    void setUp() {
+        this.origin = new InMemoryStorage();
+        this.cached = new CachedStorage(this.origin, 1024 * 1024, 16, 100);
+    }
+
+    @Test
+    void readsSmallValueFromCache() {
+        final Key key = new Key.From("small");
+        this.origin.save(key, new Content.From("cached".getBytes())).join();
+        CachedStorageTest.read(this.cached, key);
+        this.origin.delete(key).join();
+        MatcherAssert.assertThat(
+            "reads value from cache",
+            CachedStorageTest.read(this.cached, key),
+            new IsEqual<>("cached")
+        );
+        MatcherAssert.assertThat(
+            "counts hit",
+            this.cached.stats().hits(CacheStats.Kind.VALUE),
+            new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void doesNotCacheLargeValue() {
+        final Key key = new Key.From("large");
+        this.origin.save(key, new Content.From("larger than threshold".getBytes())).join();
+        CachedStorageTest.read(this.cached, key);
+        CachedStorageTest.read(this.cached, key);
+        MatcherAssert.assertThat(
+            this.cached.stats().misses(CacheStats.Kind.VALUE),
+            new IsEqual<>(2L)
+        );
+    }
+
+    @Test
+    void invalidatesValueOnSave() {
+        final Key key = new Key.From("saved");
+        this.cached.save(key, new Content.From("one".getBytes())).join();
+        CachedStorageTest.read(this.cached, key);
+        this.cached.save(key, new Content.From("two".getBytes())).join();
+        MatcherAssert.assertThat(
+            CachedStorageTest.read(this.cached, key),
+            new IsEqual<>("two")
+        );
+    }
+
+    @Test
+    void invalidatesMetadataOnMove() {
+        final Key src = new Key.From("src");
+        final Key dst = new Key.From("dst");
+        this.cached.save(src, new Content.From("1".getBytes())).join();
+        this.cached.save(dst, new Content.From("12".getBytes())).join();
+        this.cached.metadata(dst).join();
+        this.cached.move(src, dst).join();
+        MatcherAssert.assertThat(
+            "updates moved metadata",
+            this.cached.metadata(dst).join().size(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "forgets source",
+            this.cached.exists(src).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void cachesAbsenceUntilSave() {
+        final Key key = new Key.From("absent");
+        this.cached.exists(key).join();
+        MatcherAssert.assertThat(
+            "answers absence from cache",
+            this.cached.exists(key).join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "counts hit",
+            this.cached.stats().hits(CacheStats.Kind.EXISTS),
+            new IsEqual<>(1L)
+        );
+        this.cached.save(key, new Content.From("here".getBytes())).join();
+        MatcherAssert.assertThat(
+            "invalidates absence on save",
+            this.cached.exists(key).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void invalidatesPrefixOnDeleteAll() {
+        final Key key = new Key.From("dir", "file");
+        this.cached.save(key, new Content.From("x".getBytes())).join();
+        this.cached.exists(key).join();
+        this.cached.deleteAll(new Key.From("dir")).join();
+        MatcherAssert.assertThat(
+            this.cached.exists(key).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void cachesValueReadConcurrentlyWithWriteOfOtherKey() {
+        final Key key = new Key.From("read");
+        this.origin.save(key, new Content.From("value".getBytes())).join();
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        final CachedStorage storage = new CachedStorage(
+            new Storage.Wrap(this.origin) {
+                @Override
+                public CompletableFuture<Content> value(final Key target) {
+                    return gate.thenCompose(nothing -> super.value(target));
+                }
+            },
+            1024 * 1024, 16, 100
+        );
+        final CompletableFuture<Content> reading = storage.value(key);
+        storage.save(new Key.From("written"), new Content.From("other".getBytes())).join();
+        gate.complete(null);
+        new PublisherAs(reading.join()).asciiString().toCompletableFuture().join();
+        this.origin.delete(key).join();
+        MatcherAssert.assertThat(
+            CachedStorageTest.read(storage, key),
+            new IsEqual<>("value")
+        );
+    }
+
+    @Test
+    void cachesMetadataDetachedFromOrigin() {
+        final Key key = new Key.From("meta");
+        this.origin.save(key, new Content.From("data".getBytes())).join();
+        this.cached.metadata(key).join();
+        final Meta meta = this.cached.metadata(key).join();
+        MatcherAssert.assertThat(
+            "keeps origin metadata",
+            meta,
+            new IsNot<>(new IsSame<>(this.origin.metadata(key).join()))
+        );
+        MatcherAssert.assertThat(
+            "loses version",
+            meta.version(),
+            new IsEqual<>(this.origin.metadata(key).join().version())
+        );
+        MatcherAssert.assertThat(
+            "loses size",
+            meta.read(Meta.OP_SIZE).get(),
+            new IsEqual<>(4L)
+        );
+    }
+
+    /**
+     * Reads value as string.
+     * @param sto Storage
+     * @param key Key
+     * @return Value string
+     */
+    private static String read(final Storage sto, final Key key) {
+        return new PublisherAs(sto.value(key).join()).asciiString().toCompletableFuture().join();
+    }
+}
@@ -6,20 +6,29 @@ package com.artipie.asto.cache;
 
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
+import com.artipie.asto.Remaining;
 import com.artipie.asto.Storage;
 import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
+import io.reactivex.Flowable;
 import java.io.IOException;
 import java.net.ConnectException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.hamcrest.core.IsInstanceOf;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 
 /**
  * Test for {@link FromRemoteCache}.
@@ -119,4 +128,236 @@ final class FromRemoteCacheTest {
         );
     }
 
+    @Test
+    void streamsItemFromRemoteAndCaches() {
+        final byte[] content = "streamed".getBytes();
+        final Key key = new Key.From("streamed");
+        MatcherAssert.assertThat(
+            "Returns content from remote",
+            new PublisherAs(
+                new FromRemoteCache(this.storage, true).load(
+                    key,
+                    () -> CompletableFuture.completedFuture(Optional.of(new Content.From(content))),
+                    CacheControl.Standard.ALWAYS
+                ).toCompletableFuture().join().get()
+            ).bytes().toCompletableFuture().join(),
+            new IsEqual<>(content)
+        );
+        MatcherAssert.assertThat(
+            "Saves content to cache",
+            new PublisherAs(this.storage.value(key).join()).bytes().toCompletableFuture().join(),
+            new IsEqual<>(content)
+        );
+    }
+
+    @Test
+    void streamsFirstBytesBeforeRemoteCompletesAndSkipsCancelledItem() {
+        final Key key = new Key.From("endless");
+        final Content content = new FromRemoteCache(this.storage, true).load(
+            key,
+            () -> CompletableFuture.completedFuture(
+                Optional.of(
+                    new Content.From(
+                        Flowable.just(ByteBuffer.wrap("first".getBytes()))
+                            .concatWith(Flowable.never())
+                    )
+                )
+            ),
+            CacheControl.Standard.ALWAYS
+        ).toCompletableFuture().join().get();
+        MatcherAssert.assertThat(
+            "Returns first bytes",
+            new String(
+                new Remaining(Flowable.fromPublisher(content).firstOrError().blockingGet()).bytes()
+            ),
+            new IsEqual<>("first")
+        );
+        MatcherAssert.assertThat(
+            "Does not save cancelled content",
+            this.storage.exists(key).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void savesStreamedItemWhichCallerDoesNotRead() throws Exception {
+        final Key key = new Key.From("unread");
+        final Content content = new FromRemoteCache(this.storage, true, Duration.ofMillis(50))
+            .load(
+                key,
+                () -> CompletableFuture.completedFuture(
+                    Optional.of(new Content.From("unread".getBytes()))
+                ),
+                CacheControl.Standard.ALWAYS
+            ).toCompletableFuture().join().get();
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (!this.storage.exists(key).join() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        MatcherAssert.assertThat(
+            "Saves item without the caller",
+            this.storage.exists(key).join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Late caller reads saved item",
+            new PublisherAs(content).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("unread")
+        );
+    }
+
+    @Test
+    void doesNotCacheItemIfRemoteStreamFails() {
+        final Key key = new Key.From("broken");
+        final Content content = new FromRemoteCache(this.storage, true).load(
+            key,
+            () -> CompletableFuture.completedFuture(
+                Optional.of(
+                    new Content.From(
+                        Flowable.just(ByteBuffer.wrap("part".getBytes()))
+                            .concatWith(Flowable.error(new IOException("Connection reset")))
+                    )
+                )
+            ),
+            CacheControl.Standard.ALWAYS
+        ).toCompletableFuture().join().get();
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> new PublisherAs(content).bytes().toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            this.storage.exists(key).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void loadsItemFromRemoteOnceForConcurrentRequests() {
+        this.loadsOnce(new FromRemoteCache(this.storage));
+    }
+
+    @Test
+    void streamsItemFromRemoteOnceForConcurrentRequests() {
+        this.loadsOnce(new FromRemoteCache(this.storage, true));
+    }
+
+    @Test
+    void loadsItemWhenConcurrentCallerDoesNotRead() throws Exception {
+        final Key key = new Key.From("ignored");
+        final Cache remotes = new FromRemoteCache(this.storage, true, Duration.ofMillis(50));
+        final Remote remote = () -> CompletableFuture.completedFuture(
+            Optional.of(new Content.From("ignored".getBytes()))
+        );
+        remotes.load(key, remote, CacheControl.Standard.ALWAYS).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                remotes.load(key, remote, CacheControl.Standard.ALWAYS)
+                    .toCompletableFuture().get(5, TimeUnit.SECONDS).get()
+            ).asciiString().toCompletableFuture().get(5, TimeUnit.SECONDS),
+            new IsEqual<>("ignored")
+        );
+    }
+
+    @Test
+    @Timeout(10)
+    void loadsItemOnceMoreWhenConcurrentLoadIsStuck() throws Exception {
+        final Key key = new Key.From("stuck");
+        final Cache remotes = new FromRemoteCache(
+            this.storage, false, Duration.ofSeconds(30), Duration.ofMillis(500)
+        );
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<Optional<? extends Content>> gate = new CompletableFuture<>();
+        final Remote remote = () -> {
+            final CompletableFuture<Optional<? extends Content>> res;
+            if (calls.incrementAndGet() == 1) {
+                res = CompletableFuture.completedFuture(
+                    Optional.of(new Content.From(Flowable.never()))
+                );
+            } else {
+                res = gate;
+            }
+            return res;
+        };
+        remotes.load(key, remote, CacheControl.Standard.ALWAYS);
+        final List<CompletableFuture<Optional<? extends Content>>> loads = new ArrayList<>(3);
+        for (int num = 0; num < 3; num += 1) {
+            loads.add(
+                remotes.load(key, remote, CacheControl.Standard.ALWAYS).toCompletableFuture()
+            );
+        }
+        while (calls.get() < 2) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        TimeUnit.MILLISECONDS.sleep(50);
+        gate.complete(Optional.of(new Content.From("stuck".getBytes())));
+        for (final CompletableFuture<Optional<? extends Content>> load : loads) {
+            MatcherAssert.assertThat(
+                "Every request gets the item",
+                new PublisherAs(load.get(5, TimeUnit.SECONDS).get()).asciiString()
+                    .toCompletableFuture().get(5, TimeUnit.SECONDS),
+                new IsEqual<>("stuck")
+            );
+        }
+        MatcherAssert.assertThat(
+            "Remote is called once more for all waiting requests",
+            calls.get(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void waitsForConcurrentLoadWithoutLimitByDefault() throws Exception {
+        final Key key = new Key.From("slow");
+        final Cache remotes = new FromRemoteCache(this.storage, true, Duration.ofMillis(50));
+        final AtomicInteger calls = new AtomicInteger();
+        final Remote remote = () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(
+                Optional.of(new Content.From(Flowable.never()))
+            );
+        };
+        remotes.load(key, remote, CacheControl.Standard.ALWAYS);
+        final CompletableFuture<Optional<? extends Content>> load =
+            remotes.load(key, remote, CacheControl.Standard.ALWAYS).toCompletableFuture();
+        TimeUnit.MILLISECONDS.sleep(200);
+        MatcherAssert.assertThat(
+            "Request stopped waiting for concurrent load",
+            load.isDone(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Remote is called by waiting request",
+            calls.get(),
+            new IsEqual<>(1)
+        );
+    }
+
+    /**
+     * Checks that concurrent requests of the item load it from remote once.
+     * @param remotes Cache
+     */
+    private void loadsOnce(final Cache remotes) {
+        final Key key = new Key.From("coalesced");
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<Optional<? extends Content>> gate = new CompletableFuture<>();
+        final Remote remote = () -> {
+            calls.incrementAndGet();
+            return gate;
+        };
+        final List<CompletableFuture<Optional<? extends Content>>> loads = new ArrayList<>(5);
+        for (int num = 0; num < 5; num += 1) {
+            loads.add(
+                remotes.load(key, remote, CacheControl.Standard.ALWAYS).toCompletableFuture()
+            );
+        }
+        gate.complete(Optional.of(new Content.From("shared".getBytes())));
+        for (final CompletableFuture<Optional<? extends Content>> load : loads) {
+            MatcherAssert.assertThat(
+                "Every request gets the item",
+                new PublisherAs(load.join().get()).asciiString().toCompletableFuture().join(),
+                new IsEqual<>("shared")
+            );
+        }
+        MatcherAssert.assertThat("Remote is called once", calls.get(), new IsEqual<>(1));
+    }
 }
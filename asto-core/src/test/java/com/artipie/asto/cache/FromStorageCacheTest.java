@@ -8,6 +8,7 @@ import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.asto.test.ContentIs;
 import com.jcabi.log.Logger;
@@ -16,9 +17,10 @@ import hu.akarnokd.rxjava2.interop.SingleInterop;
 import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -118,23 +120,10 @@ final class FromStorageCacheTest {
         final FromStorageCache cache = new FromStorageCache(this.storage);
         final Key key = new Key.From("key4");
         final int count = 100;
-        final CountDownLatch latch = new CountDownLatch(
-            Runtime.getRuntime().availableProcessors() - 1
-        );
         final byte[] data = "data".getBytes();
         final Remote remote =
             () -> CompletableFuture
-                .runAsync(
-                    () -> {
-                        latch.countDown();
-                        try {
-                            latch.await();
-                        } catch (final InterruptedException ex) {
-                            Thread.currentThread().interrupt();
-                            throw new IllegalStateException(ex);
-                        }
-                    })
-                .thenApply(nothing -> ByteBuffer.wrap(data))
+                .supplyAsync(() -> ByteBuffer.wrap(data))
                 .thenApply(Flowable::just)
                 .thenApply(Content.From::new)
                 .thenApply(Optional::of);
@@ -153,4 +142,31 @@ final class FromStorageCacheTest {
             );
         }
     }
+
+    @Test
+    void loadsItemFromRemoteOnceForConcurrentRequests() {
+        final FromStorageCache cache = new FromStorageCache(this.storage);
+        final Key key = new Key.From("coalesced");
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<Optional<? extends Content>> gate = new CompletableFuture<>();
+        final Remote remote = () -> {
+            calls.incrementAndGet();
+            return gate;
+        };
+        final List<CompletableFuture<Optional<? extends Content>>> loads = new ArrayList<>(10);
+        for (int num = 0; num < 10; num += 1) {
+            loads.add(
+                cache.load(key, remote, CacheControl.Standard.ALWAYS).toCompletableFuture()
+            );
+        }
+        gate.complete(Optional.of(new Content.From("shared".getBytes())));
+        for (final CompletableFuture<Optional<? extends Content>> load : loads) {
+            MatcherAssert.assertThat(
+                "Every request gets the item",
+                new PublisherAs(load.join().get()).asciiString().toCompletableFuture().join(),
+                Matchers.equalTo("shared")
+            );
+        }
+        MatcherAssert.assertThat("Remote is called once", calls.get(), Matchers.equalTo(1));
+    }
 }
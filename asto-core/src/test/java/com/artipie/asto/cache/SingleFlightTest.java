@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SingleFlight}.
+ * @since 1.15
+ */
+final class SingleFlightTest {
+
+    @Test
+    void coalescesConcurrentCalls() {
+        final SingleFlight<String, String> flights = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<String> gate = new CompletableFuture<>();
+        final CompletableFuture<String> first = flights.run(
+            "key", () -> gate.thenApply(val -> val + calls.incrementAndGet())
+        );
+        final CompletableFuture<String> second = flights.run(
+            "key", () -> gate.thenApply(val -> val + calls.incrementAndGet())
+        );
+        gate.complete("result-");
+        MatcherAssert.assertThat(
+            "both get result of one call",
+            first.join() + second.join(),
+            new IsEqual<>("result-1result-1")
+        );
+        MatcherAssert.assertThat("releases key", flights.size(), new IsEqual<>(0));
+    }
+
+    @Test
+    void runsAgainAfterCompletion() {
+        final SingleFlight<String, Integer> flights = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        flights.run(
+            "one", () -> CompletableFuture.completedFuture(calls.incrementAndGet())
+        ).join();
+        MatcherAssert.assertThat(
+            flights.run(
+                "one", () -> CompletableFuture.completedFuture(calls.incrementAndGet())
+            ).join(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void doesNotJoinCompletedCallBeforeKeyIsReleased() {
+        final SingleFlight<String, Integer> flights = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<Integer> gate = new CompletableFuture<>();
+        final CompletableFuture<Integer> again = flights.run(
+            "two", () -> gate.thenApply(val -> calls.incrementAndGet())
+        ).thenCompose(
+            val -> flights.run(
+                "two", () -> CompletableFuture.completedFuture(calls.incrementAndGet())
+            )
+        );
+        gate.complete(0);
+        MatcherAssert.assertThat(again.join(), new IsEqual<>(2));
+    }
+
+    @Test
+    void releasesKeyOnFailure() {
+        final SingleFlight<String, Integer> flights = new SingleFlight<>();
+        flights.run(
+            "fail",
+            () -> {
+                throw new IllegalStateException("failed");
+            }
+        ).handle((val, err) -> val).join();
+        MatcherAssert.assertThat(flights.size(), new IsEqual<>(0));
+    }
+}
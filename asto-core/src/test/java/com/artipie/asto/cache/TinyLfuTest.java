@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.cache;
+
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link TinyLfu}.
+ * @since 1.15
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class TinyLfuTest {
+
+    @Test
+    void keepsFrequentEntriesAgainstOneOffEntries() {
+        final TinyLfu<String, String> cache = new TinyLfu<>(100, 100, val -> 1L);
+        int cold = 0;
+        for (int round = 0; round < 20; round += 1) {
+            for (int num = 0; num < 50; num += 1) {
+                TinyLfuTest.request(cache, String.format("hot-%d", num));
+            }
+            for (int num = 0; num < 100; num += 1) {
+                TinyLfuTest.request(cache, String.format("cold-%d", cold));
+                cold += 1;
+            }
+        }
+        int hot = 0;
+        for (int num = 0; num < 50; num += 1) {
+            if (cache.get(String.format("hot-%d", num)).isPresent()) {
+                hot += 1;
+            }
+        }
+        MatcherAssert.assertThat(hot >= 45, new IsEqual<>(true));
+    }
+
+    @Test
+    void boundsTotalWeight() {
+        final TinyLfu<String, byte[]> cache = new TinyLfu<>(1000, 10, bytes -> bytes.length);
+        for (int num = 0; num < 100; num += 1) {
+            final String key = String.valueOf(num);
+            cache.get(key);
+            cache.put(key, new byte[100]);
+        }
+        MatcherAssert.assertThat(cache.weight() <= 1000, new IsEqual<>(true));
+    }
+
+    @Test
+    void keepsMainEntriesWhenAdmissionIsRejected() {
+        final TinyLfu<String, byte[]> cache = new TinyLfu<>(1000, 10, bytes -> bytes.length);
+        cache.put("rare", new byte[490]);
+        for (int num = 0; num < 10; num += 1) {
+            cache.get("popular");
+        }
+        cache.put("popular", new byte[490]);
+        for (int num = 0; num < 3; num += 1) {
+            cache.get("large");
+        }
+        cache.put("large", new byte[600]);
+        MatcherAssert.assertThat(
+            "Rejected entry is admitted",
+            cache.get("large").isPresent(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Main entry is evicted for rejected entry",
+            cache.get("rare").isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void invalidatesEntriesByPredicate() {
+        final TinyLfu<String, String> cache = new TinyLfu<>(100, 100, val -> 1L);
+        cache.put("a/one", "1");
+        cache.put("a/two", "2");
+        cache.put("b/one", "3");
+        cache.invalidate(key -> key.startsWith("a/"));
+        MatcherAssert.assertThat(
+            "removes matching entries",
+            cache.get("a/one"),
+            new IsEqual<>(Optional.empty())
+        );
+        MatcherAssert.assertThat(
+            "keeps other entries",
+            cache.get("b/one"),
+            new IsEqual<>(Optional.of("3"))
+        );
+    }
+
+    /**
+     * Requests entry and puts it if it's absent.
+     * @param cache Cache
+     * @param key Key
+     */
+    private static void request(final TinyLfu<String, String> cache, final String key) {
+        if (!cache.get(key).isPresent()) {
+            cache.put(key, key);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.ext;
+
+import com.artipie.asto.Content;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.commons.codec.binary.Hex;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ContentDigests}.
+ * @since 1.15
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class ContentDigestsTest {
+
+    @Test
+    void calculatesAllDigestsInOnePass() {
+        final Map<Digests, ContentDigests.Value> digests = new ContentDigests(
+            new Content.OneTime(
+                new Content.From("hello".getBytes(StandardCharsets.UTF_8))
+            ),
+            EnumSet.allOf(Digests.class)
+        ).digests().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "MD5 hex",
+            digests.get(Digests.MD5).hex(),
+            new IsEqual<>("5d41402abc4b2a76b9719d911017c592")
+        );
+        MatcherAssert.assertThat(
+            "SHA-1 hex",
+            digests.get(Digests.SHA1).hex(),
+            new IsEqual<>("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d")
+        );
+        MatcherAssert.assertThat(
+            "SHA-256 base64",
+            digests.get(Digests.SHA256).base64(),
+            new IsEqual<>("LPJNul+wow4m6DsqxbninhsWHlwfp0JecwQzYpOLmCQ=")
+        );
+        MatcherAssert.assertThat(
+            "SHA-512 bytes",
+            digests.get(Digests.SHA512).bytes(),
+            new IsEqual<>(Digests.SHA512.get().digest("hello".getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
+    @Test
+    void calculatesLargeBuffersInParallel() {
+        final byte[] data = new byte[1024 * 1024];
+        new Random().nextBytes(data);
+        final ExecutorService exec = Executors.newFixedThreadPool(3);
+        try {
+            final Map<Digests, ContentDigests.Value> digests = new ContentDigests(
+                new Content.From(
+                    Flowable.range(0, 16).map(
+                        part -> ByteBuffer.wrap(data, part * 65_536, 65_536)
+                    )
+                ),
+                EnumSet.allOf(Digests.class),
+                exec,
+                1024
+            ).digests().toCompletableFuture().join();
+            for (final Digests alg : Digests.values()) {
+                MatcherAssert.assertThat(
+                    alg.name(),
+                    digests.get(alg).hex(),
+                    new IsEqual<>(Hex.encodeHexString(alg.get().digest(data)))
+                );
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void doesNotConsumeBuffers() {
+        final ByteBuffer buf = ByteBuffer.wrap("xyz".getBytes(StandardCharsets.UTF_8));
+        new ContentDigests(
+            new Content.From(Flowable.just(buf)), EnumSet.of(Digests.MD5, Digests.SHA1)
+        ).digests().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            buf.remaining(),
+            new IsEqual<>(3)
+        );
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.ext;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Meta;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DigestedContent}.
+ * @since 1.15
+ */
+final class DigestedContentTest {
+
+    @Test
+    void computesDigestsWhileConsumed() {
+        final DigestedContent content = new DigestedContent(
+            new Content.From(
+                Flowable.just("he", "ll", "o").map(
+                    part -> ByteBuffer.wrap(part.getBytes(StandardCharsets.UTF_8))
+                )
+            ),
+            EnumSet.of(Digests.SHA256, Digests.MD5)
+        );
+        MatcherAssert.assertThat(
+            "Content is not changed",
+            new PublisherAs(content).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("hello")
+        );
+        final Map<Digests, String> digests = content.digests().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "SHA-256 is computed",
+            digests.get(Digests.SHA256),
+            new IsEqual<>("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824")
+        );
+        MatcherAssert.assertThat(
+            "MD5 is computed",
+            digests.get(Digests.MD5),
+            new IsEqual<>("5d41402abc4b2a76b9719d911017c592")
+        );
+    }
+
+    @Test
+    void providesDigestsAsMetadata() {
+        final DigestedContent content = new DigestedContent(
+            new Content.From("hello".getBytes(StandardCharsets.UTF_8)),
+            EnumSet.of(Digests.SHA1)
+        );
+        Flowable.fromPublisher(content).blockingSubscribe();
+        MatcherAssert.assertThat(
+            Meta.OP_SHA1.take(content.meta().toCompletableFuture().join()).get(),
+            new IsEqual<>("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d")
+        );
+    }
+
+    @Test
+    void doesNotCompleteDigestsUntilConsumed() {
+        final DigestedContent content = new DigestedContent(
+            new Content.From("data".getBytes(StandardCharsets.UTF_8)),
+            EnumSet.of(Digests.SHA1)
+        );
+        Flowable.fromPublisher(content).take(0).blockingSubscribe();
+        MatcherAssert.assertThat(
+            content.digests().toCompletableFuture().isDone(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void keepsSize() {
+        MatcherAssert.assertThat(
+            new DigestedContent(
+                new Content.From(new byte[]{1, 2, 3}), EnumSet.of(Digests.MD5)
+            ).size(),
+            Matchers.equalTo(Optional.of(3L))
+        );
+    }
+}
@@ -4,6 +4,9 @@
  */
 package com.artipie.asto.ext;
 
+import com.amihaiemil.eoyaml.Yaml;
+import com.artipie.asto.factory.StorageConfig;
+import java.util.EnumSet;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Assertions;
@@ -53,4 +56,29 @@ class DigestsTest {
         );
     }
 
+    @Test
+    void readsDigestsFromConfig() {
+        MatcherAssert.assertThat(
+            new Digests.FromConfig(
+                new StorageConfig.YamlStorageConfig(
+                    Yaml.createYamlMappingBuilder().add(
+                        "digests",
+                        Yaml.createYamlSequenceBuilder().add("sha-256").add("md5").build()
+                    ).build()
+                )
+            ).get(),
+            new IsEqual<>(EnumSet.of(Digests.SHA256, Digests.MD5))
+        );
+    }
+
+    @Test
+    void readsNoDigestsFromConfigWithoutThem() {
+        MatcherAssert.assertThat(
+            new Digests.FromConfig(
+                new StorageConfig.YamlStorageConfig(Yaml.createYamlMappingBuilder().build())
+            ).get(),
+            new IsEqual<>(EnumSet.noneOf(Digests.class))
+        );
+    }
+
 }
@@ -5,9 +5,12 @@
 package com.artipie.asto.ext;
 
 import com.artipie.asto.Content;
+import com.artipie.asto.ImmutableContent;
 import java.nio.charset.StandardCharsets;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsSame;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -44,4 +47,29 @@ class PublisherAsTest {
         );
     }
 
+    @Test
+    void readsBytesOfImmutableContent() {
+        final byte[] buf = "xyz".getBytes();
+        final byte[] res = new PublisherAs(new ImmutableContent(buf)).bytes()
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Bytes are read",
+            res,
+            new IsEqual<>(buf)
+        );
+        MatcherAssert.assertThat(
+            "Backing array is not exposed",
+            res,
+            new IsNot<>(new IsSame<>(buf))
+        );
+    }
+
+    @Test
+    void readsStringOfImmutableContent() {
+        MatcherAssert.assertThat(
+            new PublisherAs(new ImmutableContent("ёж".getBytes(StandardCharsets.UTF_8)))
+                .string(StandardCharsets.UTF_8).toCompletableFuture().join(),
+            new IsEqual<>("ёж")
+        );
+    }
 }
@@ -8,6 +8,7 @@ import com.amihaiemil.eoyaml.Yaml;
 import com.artipie.ArtipieException;
 import com.artipie.asto.etcd.EtcdStorage;
 import com.artipie.asto.fs.FileStorage;
+import com.artipie.asto.memory.OffHeapStorage;
 import com.third.party.factory.first2.TestFirst2StorageFactory;
 import java.util.Collections;
 import org.hamcrest.MatcherAssert;
@@ -38,6 +39,21 @@ public final class StoragesTest {
         );
     }
 
+    @Test
+    void shouldCreateOffHeapStorage() {
+        MatcherAssert.assertThat(
+            new Storages()
+                .newStorage(
+                    "off-heap",
+                    Yaml.createYamlMappingBuilder()
+                        .add("capacity", "1048576")
+                        .add("eviction", "lfu")
+                        .build()
+                ),
+            new IsInstanceOf(OffHeapStorage.class)
+        );
+    }
+
     @Test
     void shouldCreateEtcdStorage() {
         MatcherAssert.assertThat(
@@ -100,7 +116,7 @@ public final class StoragesTest {
                     "com.third.party.factory.first"
                 )
             ).types(),
-            Matchers.containsInAnyOrder("fs", "etcd", "test-first")
+            Matchers.containsInAnyOrder("fs", "etcd", "off-heap", "test-first")
         );
     }
 
@@ -113,7 +129,7 @@ public final class StoragesTest {
                     "com.third.party.factory.first;com.third.party.factory.second"
                 )
             ).types(),
-            Matchers.containsInAnyOrder("fs", "etcd", "test-first", "test-second")
+            Matchers.containsInAnyOrder("fs", "etcd", "off-heap", "test-first", "test-second")
         );
     }
 }
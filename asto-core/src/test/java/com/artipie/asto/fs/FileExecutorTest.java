@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.amihaiemil.eoyaml.Yaml;
+import com.artipie.ArtipieException;
+import com.artipie.asto.Key;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.factory.StorageConfig;
+import io.reactivex.Flowable;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link FileExecutor}.
+ * @since 1.15
+ */
+final class FileExecutorTest {
+
+    @Test
+    void runsTasksOnDaemonThreads() {
+        final ExecutorService exec = new FileExecutor(2).get();
+        try {
+            MatcherAssert.assertThat(
+                CompletableFuture.supplyAsync(
+                    () -> Thread.currentThread().isDaemon(), exec
+                ).join(),
+                new IsEqual<>(true)
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void failsOnUnknownType() {
+        Assertions.assertThrows(
+            ArtipieException.class,
+            () -> new FileExecutor("unknown", 1).get()
+        );
+    }
+
+    @Test
+    void providesNothingWithoutConfig() {
+        MatcherAssert.assertThat(
+            new FileExecutor.FromConfig(
+                new StorageConfig.YamlStorageConfig(
+                    Yaml.createYamlMappingBuilder().add("path", "data").build()
+                )
+            ).get().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void providesConfiguredExecutor() {
+        final ExecutorService exec = new FileExecutor.FromConfig(
+            new StorageConfig.YamlStorageConfig(
+                Yaml.createYamlMappingBuilder().add(
+                    "executor",
+                    Yaml.createYamlMappingBuilder()
+                        .add("type", "fixed")
+                        .add("threads", "1")
+                        .build()
+                ).build()
+            )
+        ).get().get();
+        try {
+            MatcherAssert.assertThat(
+                CompletableFuture.supplyAsync(
+                    () -> Thread.currentThread().getName(), exec
+                ).join(),
+                Matchers.startsWith("asto-fs-")
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void storageRunsOperationAsSingleTask(@TempDir final Path tmp) {
+        final AtomicInteger tasks = new AtomicInteger();
+        final ExecutorService exec = new FileExecutor(1).get();
+        try {
+            final FileStorage storage = new FileStorage(
+                tmp,
+                task -> {
+                    tasks.incrementAndGet();
+                    exec.execute(task);
+                }
+            );
+            final Key key = new Key.From("a", "b");
+            new BlockingStorage(storage).save(key, "data".getBytes());
+            tasks.set(0);
+            storage.value(key).join();
+            MatcherAssert.assertThat(tasks.get(), new IsEqual<>(1));
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void storageListsWithoutExecutor(@TempDir final Path tmp) {
+        final AtomicInteger tasks = new AtomicInteger();
+        final ExecutorService exec = new FileExecutor(1).get();
+        try {
+            final FileStorage storage = new FileStorage(
+                tmp,
+                task -> {
+                    tasks.incrementAndGet();
+                    exec.execute(task);
+                }
+            );
+            new BlockingStorage(storage).save(new Key.From("a", "b"), "data".getBytes());
+            tasks.set(0);
+            storage.list(Key.ROOT).join();
+            MatcherAssert.assertThat(tasks.get(), new IsEqual<>(0));
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void storageReadsValueOnExecutor(@TempDir final Path tmp) {
+        final ExecutorService exec = new FileExecutor(1).get();
+        try {
+            final FileStorage storage = new FileStorage(tmp, exec);
+            final Key key = new Key.From("read");
+            new BlockingStorage(storage).save(key, "data".getBytes());
+            MatcherAssert.assertThat(
+                Flowable.fromPublisher(storage.value(key).join())
+                    .map(buf -> Thread.currentThread().getName())
+                    .blockingFirst(),
+                Matchers.startsWith("asto-fs-")
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+}
@@ -5,11 +5,14 @@
 package com.artipie.asto.fs;
 
 import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
+import java.util.Collections;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -51,4 +54,40 @@ final class FileMetaTest {
             new IsEqual<>(access)
         );
     }
+
+    @Test
+    void readsTypedAttrsWithoutRawMetadata() {
+        final long len = 7;
+        final Instant modified = Instant.ofEpochMilli(5);
+        final BasicFileAttributes attrs = Mockito.mock(BasicFileAttributes.class);
+        Mockito.when(attrs.size()).thenReturn(len);
+        Mockito.when(attrs.lastModifiedTime()).thenReturn(FileTime.from(modified));
+        final Meta meta = new FileMeta(attrs, Collections.singletonMap("sha1", "abc"));
+        MatcherAssert.assertThat("size", meta.size(), new IsEqual<>(len));
+        MatcherAssert.assertThat(
+            "updated at",
+            meta.updatedAt().get(),
+            new IsEqual<>(modified)
+        );
+        MatcherAssert.assertThat(
+            "digest",
+            meta.digest(Digests.SHA1).get(),
+            new IsEqual<>("abc")
+        );
+        Mockito.verify(attrs, Mockito.never()).creationTime();
+    }
+
+    @Test
+    void versionDependsOnFileIdentity() {
+        final BasicFileAttributes first = Mockito.mock(BasicFileAttributes.class);
+        Mockito.when(first.lastModifiedTime()).thenReturn(FileTime.fromMillis(1));
+        Mockito.when(first.fileKey()).thenReturn("inode-1");
+        final BasicFileAttributes second = Mockito.mock(BasicFileAttributes.class);
+        Mockito.when(second.lastModifiedTime()).thenReturn(FileTime.fromMillis(1));
+        Mockito.when(second.fileKey()).thenReturn("inode-2");
+        MatcherAssert.assertThat(
+            FileMeta.version(first),
+            new IsNot<>(new IsEqual<>(FileMeta.version(second)))
+        );
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link FileRegion}.
+ * @since 1.15
+ */
+final class FileRegionTest {
+
+    @Test
+    void readsSmallRegion(@TempDir final Path tmp) throws Exception {
+        final Path file = tmp.resolve("small");
+        Files.write(file, "0123456789".getBytes());
+        MatcherAssert.assertThat(
+            new PublisherAs(new FileRegion(file, 2, 5)).bytes().toCompletableFuture().join(),
+            new IsEqual<>("23456".getBytes())
+        );
+    }
+
+    @Test
+    void readsLargeRegionByHeapChunks(@TempDir final Path tmp) throws Exception {
+        final byte[] data = new byte[9 * 1024 * 1024];
+        new Random().nextBytes(data);
+        final Path file = tmp.resolve("large");
+        Files.write(file, data);
+        final int offset = 123;
+        final FileRegion region = new FileRegion(file, offset, data.length - offset - 1);
+        MatcherAssert.assertThat(
+            "Region is not read",
+            new PublisherAs(region).bytes().toCompletableFuture().join(),
+            new IsEqual<>(Arrays.copyOfRange(data, offset, data.length - 1))
+        );
+        MatcherAssert.assertThat(
+            "Region is mapped into memory",
+            Flowable.fromPublisher(region).map(ByteBuffer::isDirect).distinct().toList()
+                .blockingGet(),
+            Matchers.contains(false)
+        );
+    }
+
+    @Test
+    void readsLargeRegionByMappedWindowsOnRequest(@TempDir final Path tmp) throws Exception {
+        final byte[] data = new byte[9 * 1024 * 1024];
+        new Random().nextBytes(data);
+        final Path file = tmp.resolve("mapped");
+        Files.write(file, data);
+        final int offset = 123;
+        final FileRegion region = new FileRegion(file, offset, data.length - offset - 1)
+            .mapped();
+        MatcherAssert.assertThat(
+            "Region is not read",
+            new PublisherAs(region).bytes().toCompletableFuture().join(),
+            new IsEqual<>(Arrays.copyOfRange(data, offset, data.length - 1))
+        );
+        MatcherAssert.assertThat(
+            "Region is not mapped into memory",
+            Flowable.fromPublisher(region).map(ByteBuffer::isDirect).distinct().toList()
+                .blockingGet(),
+            Matchers.contains(true)
+        );
+    }
+
+    @Test
+    void clipsRegionByFileSize(@TempDir final Path tmp) throws Exception {
+        final byte[] data = new byte[2 * 1024 * 1024];
+        new Random().nextBytes(data);
+        final Path file = tmp.resolve("clipped");
+        Files.write(file, data);
+        MatcherAssert.assertThat(
+            new PublisherAs(new FileRegion(file, 1, data.length)).bytes()
+                .toCompletableFuture().join(),
+            new IsEqual<>(Arrays.copyOfRange(data, 1, data.length))
+        );
+    }
+
+    @Test
+    void transfersRegionToChannel(@TempDir final Path tmp) throws Exception {
+        final Path file = tmp.resolve("transfer");
+        Files.write(file, "hello world".getBytes());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final long sent = new FileRegion(file, 6, 5).transferTo(Channels.newChannel(out));
+        MatcherAssert.assertThat(
+            "transferred bytes",
+            out.toByteArray(),
+            new IsEqual<>("world".getBytes())
+        );
+        MatcherAssert.assertThat("transferred count", sent, new IsEqual<>(5L));
+    }
+
+    @Test
+    void failsToTransferConsumedOneTimeRegion(@TempDir final Path tmp) throws Exception {
+        final Path file = tmp.resolve("once");
+        Files.write(file, "data".getBytes());
+        final FileRegion region = new FileRegion(file, 0, 4).oneTime();
+        new PublisherAs(region).bytes().toCompletableFuture().join();
+        Assertions.assertThrows(
+            ArtipieIOException.class,
+            () -> region.transferTo(Channels.newChannel(new ByteArrayOutputStream()))
+        );
+    }
+}
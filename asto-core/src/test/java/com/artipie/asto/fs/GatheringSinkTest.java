@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link GatheringSink}.
+ * @since 1.15
+ */
+final class GatheringSinkTest {
+
+    @Test
+    void gathersBuffersUntilTargetSize(@TempDir final Path tmp) throws Exception {
+        final Path file = tmp.resolve("gathered");
+        try (GatheringSink sink = new GatheringSink(
+            file, new WriteOptions(4, WriteOptions.Durability.NONE)
+        )) {
+            sink.write(ByteBuffer.wrap("ab".getBytes()));
+            MatcherAssert.assertThat("not written yet", Files.size(file), new IsEqual<>(0L));
+            sink.write(ByteBuffer.wrap("cd".getBytes()));
+            MatcherAssert.assertThat("written by target", Files.size(file), new IsEqual<>(4L));
+            sink.write(ByteBuffer.allocate(0));
+            sink.write(ByteBuffer.wrap("e".getBytes()));
+            sink.finish();
+        }
+        MatcherAssert.assertThat(
+            "all written",
+            new String(Files.readAllBytes(file)),
+            new IsEqual<>("abcde")
+        );
+    }
+
+    @Test
+    void truncatesExistingFile(@TempDir final Path tmp) throws Exception {
+        final Path file = tmp.resolve("existing");
+        Files.write(file, "old content".getBytes());
+        try (GatheringSink sink = new GatheringSink(
+            file, new WriteOptions(1024, WriteOptions.Durability.DATA)
+        )) {
+            sink.write(ByteBuffer.wrap("new".getBytes()));
+            sink.finish();
+        }
+        MatcherAssert.assertThat(
+            new String(Files.readAllBytes(file)),
+            new IsEqual<>("new")
+        );
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link GroupSync}.
+ * @since 1.15
+ */
+final class GroupSyncTest {
+
+    @Test
+    void sharesScheduledSync(@TempDir final Path tmp) {
+        final List<Runnable> tasks = new ArrayList<>(1);
+        final GroupSync syncs = new GroupSync(tasks::add);
+        final CompletableFuture<Void> first = syncs.sync(tmp);
+        final CompletableFuture<Void> second = syncs.sync(tmp);
+        MatcherAssert.assertThat("shared sync", second, new IsSame<>(first));
+        MatcherAssert.assertThat("scheduled syncs", tasks.size(), new IsEqual<>(1));
+        tasks.get(0).run();
+        first.join();
+    }
+
+    @Test
+    void schedulesNewSyncAfterStarted(@TempDir final Path tmp) {
+        final List<Runnable> tasks = new ArrayList<>(2);
+        final GroupSync syncs = new GroupSync(tasks::add);
+        syncs.sync(tmp);
+        tasks.get(0).run();
+        final CompletableFuture<Void> next = syncs.sync(tmp);
+        MatcherAssert.assertThat("scheduled syncs", tasks.size(), new IsEqual<>(2));
+        tasks.get(1).run();
+        next.join();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.fs;
+
+import com.amihaiemil.eoyaml.Yaml;
+import com.artipie.ArtipieException;
+import com.artipie.asto.Key;
+import com.artipie.asto.factory.StorageConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link ParallelWalk}.
+ * @since 1.15
+ */
+final class ParallelWalkTest {
+
+    @Test
+    void listsFilesOfNestedDirectories(@TempDir final Path tmp) throws Exception {
+        Files.createDirectories(tmp.resolve("a/b/c"));
+        Files.createDirectories(tmp.resolve("a/empty"));
+        Files.write(tmp.resolve("a/1"), new byte[0]);
+        Files.write(tmp.resolve("a/b/2"), new byte[0]);
+        Files.write(tmp.resolve("a/b/c/3"), new byte[0]);
+        Files.write(tmp.resolve("z"), new byte[0]);
+        MatcherAssert.assertThat(
+            new ParallelWalk(tmp.resolve("a"), new Key.From("a")).keys().join().stream()
+                .map(Key::string)
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder("a/1", "a/b/2", "a/b/c/3")
+        );
+    }
+
+    @Test
+    void listsFileItself(@TempDir final Path tmp) throws Exception {
+        Files.write(tmp.resolve("file"), new byte[0]);
+        MatcherAssert.assertThat(
+            new ParallelWalk(tmp.resolve("file"), new Key.From("file")).keys().join(),
+            Matchers.contains(new Key.From("file"))
+        );
+    }
+
+    @Test
+    void listsNothingWhenAbsent(@TempDir final Path tmp) {
+        MatcherAssert.assertThat(
+            new ParallelWalk(tmp.resolve("absent"), new Key.From("absent")).keys().join(),
+            Matchers.empty()
+        );
+    }
+
+    @Test
+    void walksOnGivenPool(@TempDir final Path tmp) throws Exception {
+        Files.createDirectories(tmp.resolve("dir/sub"));
+        Files.write(tmp.resolve("dir/sub/file"), new byte[0]);
+        final AtomicInteger threads = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(
+            1,
+            owner -> {
+                threads.incrementAndGet();
+                return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(owner);
+            },
+            null,
+            false
+        );
+        try {
+            MatcherAssert.assertThat(
+                "Keys are not listed",
+                new ParallelWalk(tmp.resolve("dir"), new Key.From("dir"), pool).keys().join(),
+                Matchers.contains(new Key.From("dir", "sub", "file"))
+            );
+            MatcherAssert.assertThat(
+                "Walk does not run on given pool",
+                threads.get(),
+                Matchers.greaterThan(0)
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void failsOnInvalidPoolSize() {
+        Assertions.assertThrows(
+            ArtipieException.class,
+            () -> new ParallelWalk.FromConfig(
+                new StorageConfig.YamlStorageConfig(
+                    Yaml.createYamlMappingBuilder().add("walk-threads", "0").build()
+                )
+            ).get()
+        );
+    }
+}
@@ -6,9 +6,16 @@ package com.artipie.asto.memory;
 
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
+import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsSame;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -48,4 +55,77 @@ class InMemoryStorageTest {
             new IsEqual<>(false)
         );
     }
+
+    @Test
+    void providesDigestsInMetadata() {
+        final InMemoryStorage sto = new InMemoryStorage(EnumSet.of(Digests.SHA1));
+        final Key key = new Key.From("digested");
+        sto.save(key, new Content.From("hello".getBytes(StandardCharsets.UTF_8))).join();
+        MatcherAssert.assertThat(
+            sto.metadata(key).join().read(Meta.OP_SHA1).get(),
+            new IsEqual<>("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d")
+        );
+    }
+
+    @Test
+    void providesMetadataComputedOnSave() {
+        final InMemoryStorage sto = new InMemoryStorage(EnumSet.of(Digests.SHA1));
+        final Key key = new Key.From("described");
+        sto.save(key, new Content.From("hello".getBytes(StandardCharsets.UTF_8))).join();
+        final Meta meta = sto.metadata(key).join();
+        MatcherAssert.assertThat(
+            "Metadata is not kept with value",
+            meta,
+            new IsSame<>(sto.metadata(key).join())
+        );
+        MatcherAssert.assertThat(
+            "Version is not precomputed",
+            meta.version(),
+            new IsSame<>(meta.version())
+        );
+        MatcherAssert.assertThat(
+            "Digest is not precomputed",
+            meta.digest(Digests.SHA1),
+            new IsSame<>(meta.digest(Digests.SHA1))
+        );
+        sto.save(key, new Content.From("hello".getBytes(StandardCharsets.UTF_8))).join();
+        MatcherAssert.assertThat(
+            "Version is not changed on save",
+            sto.metadata(key).join().version(),
+            new IsNot<>(new IsEqual<>(meta.version()))
+        );
+        MatcherAssert.assertThat(
+            "Digest which is not configured is computed",
+            meta.digest(Digests.MD5).isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void completesOperationsInline() {
+        final Key key = new Key.From("inline");
+        this.storage.save(key, new Content.From("data".getBytes(StandardCharsets.UTF_8))).join();
+        MatcherAssert.assertThat(
+            "exists, metadata and value are completed",
+            this.storage.exists(key).isDone()
+                && this.storage.metadata(key).isDone()
+                && this.storage.value(key).isDone(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void savesConcurrently() {
+        final int count = 1000;
+        IntStream.range(0, count).parallel().forEach(
+            num -> this.storage.save(
+                new Key.From("parallel", String.valueOf(num)),
+                new Content.From(new byte[]{(byte) num})
+            ).join()
+        );
+        MatcherAssert.assertThat(
+            this.storage.list(new Key.From("parallel")).join().size(),
+            new IsEqual<>(count)
+        );
+    }
 }
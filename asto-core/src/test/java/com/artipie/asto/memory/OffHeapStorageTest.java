@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.memory;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link OffHeapStorage}.
+ *
+ * @since 1.15
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+final class OffHeapStorageTest {
+
+    @Test
+    void evictsLeastRecentlyUsedValue() {
+        final OffHeapStorage sto = new OffHeapStorage(3072, 1024, new Eviction.Lru());
+        OffHeapStorageTest.fill(sto, "a", "b", "c");
+        sto.value(new Key.From("a")).join();
+        sto.save(new Key.From("d"), new Content.From(new byte[1000])).join();
+        MatcherAssert.assertThat(
+            sto.list(Key.ROOT).join().toString(),
+            new IsEqual<>("[a, c, d]")
+        );
+    }
+
+    @Test
+    void evictsLeastFrequentlyUsedValue() {
+        final OffHeapStorage sto = new OffHeapStorage(3072, 1024, new Eviction.Lfu());
+        OffHeapStorageTest.fill(sto, "a", "b", "c");
+        sto.value(new Key.From("a")).join();
+        sto.value(new Key.From("b")).join();
+        sto.value(new Key.From("a")).join();
+        sto.save(new Key.From("d"), new Content.From(new byte[1000])).join();
+        MatcherAssert.assertThat(
+            sto.list(Key.ROOT).join().toString(),
+            new IsEqual<>("[a, b, d]")
+        );
+    }
+
+    @Test
+    void failsToSaveValueLargerThanCapacity() {
+        final OffHeapStorage sto = new OffHeapStorage(2048, 1024, new Eviction.Lru());
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class,
+            () -> sto.save(
+                new Key.From("large"),
+                new Content.From(Flowable.just(ByteBuffer.wrap(new byte[3000])))
+            ).join()
+        );
+        MatcherAssert.assertThat(
+            "fails with IO error",
+            err.getCause(),
+            new IsInstanceOf(ArtipieIOException.class)
+        );
+        MatcherAssert.assertThat("frees blocks", sto.used(), new IsEqual<>(0L));
+    }
+
+    @Test
+    void failsToSaveValueOfUnknownSizeLargerThanCapacityWithoutEviction() {
+        final OffHeapStorage sto = new OffHeapStorage(3072, 1024, new Eviction.Lru());
+        OffHeapStorageTest.fill(sto, "a", "b");
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> sto.save(
+                new Key.From("large"),
+                new Content.From(
+                    Flowable.just(ByteBuffer.wrap(new byte[1000]), ByteBuffer.wrap(new byte[3000]))
+                )
+            ).join()
+        );
+        MatcherAssert.assertThat(
+            "Values are evicted for value which doesn't fit",
+            sto.list(Key.ROOT).join(),
+            Matchers.containsInAnyOrder(new Key.From("a"), new Key.From("b"))
+        );
+    }
+
+    @Test
+    void readsValueByReadOnlyDirectViewsWithZeroCopy() {
+        final OffHeapStorage sto = new OffHeapStorage(4096, 1024, new Eviction.Lru(), true);
+        final Key key = new Key.From("views");
+        final byte[] data = new byte[2500];
+        data[2499] = 42;
+        sto.save(key, new Content.From(data)).join();
+        final List<ByteBuffer> bufs = Flowable.fromPublisher(sto.value(key).join())
+            .toList().blockingGet();
+        MatcherAssert.assertThat(
+            "views of blocks",
+            bufs.size(),
+            new IsEqual<>(3)
+        );
+        MatcherAssert.assertThat(
+            "read-only direct views",
+            bufs.stream().allMatch(buf -> buf.isDirect() && buf.isReadOnly()),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "last byte",
+            bufs.get(2).get(bufs.get(2).limit() - 1),
+            new IsEqual<>((byte) 42)
+        );
+    }
+
+    @Test
+    void keepsBuffersValidForAsynchronousConsumer() {
+        final OffHeapStorage sto = new OffHeapStorage(64, 16, new Eviction.Lru());
+        final Key key = new Key.From("a");
+        final byte[] data = new byte[64];
+        Arrays.fill(data, (byte) 'a');
+        sto.save(key, new Content.From(data)).join();
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            final CompletableFuture<Void> gate = new CompletableFuture<>();
+            exec.execute(gate::join);
+            final CompletableFuture<byte[]> read = new PublisherAs(
+                new Content.From(
+                    Flowable.fromPublisher(sto.value(key).join())
+                        .observeOn(Schedulers.from(exec))
+                )
+            ).bytes().toCompletableFuture();
+            sto.delete(key).join();
+            final byte[] other = new byte[64];
+            Arrays.fill(other, (byte) 'b');
+            sto.save(new Key.From("b"), new Content.From(other)).join();
+            gate.complete(null);
+            MatcherAssert.assertThat(
+                "reads value overwritten after blocks were released",
+                read.join(),
+                new IsEqual<>(data)
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void keepsBlocksOfRemovedValueWhileItIsRead() {
+        final OffHeapStorage sto = new OffHeapStorage(4096, 1024, new Eviction.Lru());
+        final Key key = new Key.From("read");
+        sto.save(key, new Content.From("hello".getBytes())).join();
+        final Content content = sto.value(key).join();
+        final Flowable<ByteBuffer> reading = Flowable.fromPublisher(content)
+            .doOnNext(buf -> sto.delete(key).join());
+        MatcherAssert.assertThat(
+            "reads removed value",
+            new PublisherAs(new Content.From(reading)).asciiString()
+                .toCompletableFuture().join(),
+            new IsEqual<>("hello")
+        );
+        MatcherAssert.assertThat("frees blocks after read", sto.used(), new IsEqual<>(0L));
+    }
+
+    @Test
+    void failsToReadValueRemovedBeforeSubscription() {
+        final OffHeapStorage sto = new OffHeapStorage(4096, 1024, new Eviction.Lru());
+        final Key key = new Key.From("removed");
+        sto.save(key, new Content.From("data".getBytes())).join();
+        final Content content = sto.value(key).join();
+        sto.delete(key).join();
+        Assertions.assertThrows(
+            ArtipieIOException.class,
+            () -> Flowable.fromPublisher(content).blockingSubscribe()
+        );
+    }
+
+    @Test
+    void sharesBlocksOfCopiedValue() {
+        final OffHeapStorage sto = new OffHeapStorage(4096, 1024, new Eviction.Lru());
+        sto.save(new Key.From("src"), new Content.From(new byte[100])).join();
+        sto.copy(new Key.From("src"), new Key.From("dst")).join();
+        sto.delete(new Key.From("src")).join();
+        MatcherAssert.assertThat(
+            "keeps copied value",
+            sto.used(),
+            new IsEqual<>(1024L)
+        );
+        sto.delete(new Key.From("dst")).join();
+        MatcherAssert.assertThat("frees blocks", sto.used(), new IsEqual<>(0L));
+    }
+
+    /**
+     * Saves values of 1000 bytes.
+     * @param sto Storage
+     * @param keys Keys
+     */
+    private static void fill(final OffHeapStorage sto, final String... keys) {
+        for (final String key : keys) {
+            sto.save(new Key.From(key), new Content.From(new byte[1000])).join();
+        }
+    }
+}
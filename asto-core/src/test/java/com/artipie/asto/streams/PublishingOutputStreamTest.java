@@ -6,16 +6,26 @@ package com.artipie.asto.streams;
 
 import com.artipie.asto.Content;
 import com.artipie.asto.ext.ContentAs;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 /**
  * Tests for {@link StorageValuePipeline.PublishingOutputStream}.
  *
  * @since 1.12
+ * @checkstyle MagicNumberCheck (500 lines)
  */
 public final class PublishingOutputStreamTest {
     @Test
@@ -32,4 +42,59 @@ public final class PublishingOutputStreamTest {
             new IsEqual<>("test data test data 2")
         );
     }
+
+    @Test
+    void publishesChunksOfBufferSize() throws Exception {
+        final StorageValuePipeline.PublishingOutputStream output =
+            new StorageValuePipeline.PublishingOutputStream(4, 8);
+        output.write("0123456789".getBytes(StandardCharsets.US_ASCII));
+        output.write('a');
+        output.close();
+        MatcherAssert.assertThat(
+            Flowable.fromPublisher(output.publisher())
+                .map(ByteBuffer::remaining)
+                .toList().blockingGet(),
+            Matchers.contains(4, 4, 3)
+        );
+    }
+
+    @Test
+    void blocksWritingUntilChunksAreRequested() throws Exception {
+        final StorageValuePipeline.PublishingOutputStream output =
+            new StorageValuePipeline.PublishingOutputStream(2, 1);
+        final CompletableFuture<Void> written = CompletableFuture.runAsync(
+            () -> {
+                try {
+                    output.write(new byte[10]);
+                    output.close();
+                } catch (final IOException err) {
+                    throw new IllegalStateException(err);
+                }
+            }
+        );
+        Assertions.assertThrows(
+            TimeoutException.class,
+            () -> written.get(1, TimeUnit.SECONDS)
+        );
+        MatcherAssert.assertThat(
+            Flowable.fromPublisher(output.publisher())
+                .map(ByteBuffer::remaining)
+                .toList().blockingGet()
+                .stream().collect(Collectors.summingInt(Integer::intValue)),
+            new IsEqual<>(10)
+        );
+        written.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void publishesErrorWhenAborted() throws Exception {
+        final StorageValuePipeline.PublishingOutputStream output =
+            new StorageValuePipeline.PublishingOutputStream();
+        output.write(1);
+        output.abort(new IllegalStateException("boom"));
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> Flowable.fromPublisher(output.publisher()).toList().blockingGet()
+        );
+    }
 }
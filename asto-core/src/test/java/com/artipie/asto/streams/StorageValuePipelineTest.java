@@ -10,20 +10,25 @@ import com.artipie.asto.Key;
 import com.artipie.asto.Splitting;
 import com.artipie.asto.Storage;
 import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.fs.FileStorage;
 import com.artipie.asto.memory.InMemoryStorage;
 import io.reactivex.Flowable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.testcontainers.shaded.org.apache.commons.io.IOUtils;
@@ -224,6 +229,35 @@ class StorageValuePipelineTest {
         );
     }
 
+    @Test
+    void processesLargeItemOnSingleThreadStorage(@TempDir final Path tmp) throws Exception {
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            final Storage storage = new FileStorage(tmp, exec);
+            final Key key = new Key.From("large.bin");
+            final byte[] data = new byte[4 * 1024 * 1024];
+            new Random().nextBytes(data);
+            storage.save(key, new Content.From(data)).join();
+            for (int run = 0; run < 2; run += 1) {
+                new StorageValuePipeline<>(storage, key).process(
+                    (input, out) -> {
+                        try {
+                            IOUtils.copy(input.get(), out);
+                        } catch (final IOException err) {
+                            throw new ArtipieIOException(err);
+                        }
+                    }
+                ).toCompletableFuture().get(1, TimeUnit.MINUTES);
+            }
+            MatcherAssert.assertThat(
+                new BlockingStorage(storage).value(key),
+                new IsEqual<>(data)
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
     /**
      * Storage for tests.
      * <p/>
@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.streams;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SubscriberInputStream}.
+ *
+ * @since 1.15
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class SubscriberInputStreamTest {
+
+    @Test
+    void readsAllBuffers() throws IOException {
+        try (SubscriberInputStream input = new SubscriberInputStream()) {
+            SubscriberInputStreamTest.buffers("he", "", "llo", " world").subscribe(input);
+            MatcherAssert.assertThat(
+                IOUtils.toString(input, StandardCharsets.US_ASCII),
+                new IsEqual<>("hello world")
+            );
+        }
+    }
+
+    @Test
+    void readsBuffersPublishedAsynchronously() throws IOException {
+        try (SubscriberInputStream input = new SubscriberInputStream()) {
+            SubscriberInputStreamTest.buffers("async", " ", "data")
+                .delay(10, TimeUnit.MILLISECONDS)
+                .subscribe(input);
+            MatcherAssert.assertThat(
+                IOUtils.toString(input, StandardCharsets.US_ASCII),
+                new IsEqual<>("async data")
+            );
+        }
+    }
+
+    @Test
+    void requestsLimitedAmountOfBuffers() throws IOException {
+        final AtomicLong requested = new AtomicLong();
+        try (SubscriberInputStream input = new SubscriberInputStream(4)) {
+            Flowable.range(0, 10)
+                .map(num -> ByteBuffer.wrap(new byte[]{num.byteValue()}))
+                .doOnRequest(requested::addAndGet)
+                .subscribe(input);
+            MatcherAssert.assertThat(
+                "Only prefetch amount is requested before reading",
+                requested.get(),
+                new IsEqual<>(4L)
+            );
+            input.read();
+            input.read();
+            MatcherAssert.assertThat(
+                "Nothing more is requested before enough buffers are read",
+                requested.get(),
+                new IsEqual<>(4L)
+            );
+            input.read();
+            MatcherAssert.assertThat(
+                "Read buffers are requested again",
+                requested.get(),
+                new IsEqual<>(7L)
+            );
+            MatcherAssert.assertThat(
+                "All bytes are read",
+                IOUtils.toByteArray(input),
+                new IsEqual<>(new byte[]{3, 4, 5, 6, 7, 8, 9})
+            );
+        }
+    }
+
+    @Test
+    void cancelsSubscriptionOnClose() throws IOException {
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final InputStream input = new SubscriberInputStream(4);
+        Flowable.range(0, 100)
+            .map(num -> ByteBuffer.wrap(new byte[]{num.byteValue()}))
+            .doOnCancel(() -> cancelled.set(true))
+            .subscribe((SubscriberInputStream) input);
+        input.read();
+        input.close();
+        MatcherAssert.assertThat(cancelled.get(), new IsEqual<>(true));
+    }
+
+    @Test
+    void failsWithPublisherError() throws IOException {
+        try (SubscriberInputStream input = new SubscriberInputStream()) {
+            SubscriberInputStreamTest.buffers("x")
+                .concatWith(Flowable.error(new IllegalStateException("boom")))
+                .subscribe(input);
+            input.read();
+            Assertions.assertThrows(IOException.class, input::read);
+        }
+    }
+
+    /**
+     * Publisher of buffers.
+     * @param parts Buffers strings
+     * @return Publisher
+     */
+    private static Flowable<ByteBuffer> buffers(final String... parts) {
+        return Flowable.fromArray(parts)
+            .map(part -> ByteBuffer.wrap(part.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
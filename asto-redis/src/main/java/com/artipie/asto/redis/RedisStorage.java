@@ -5,27 +5,34 @@
 package com.artipie.asto.redis;
 
 import com.artipie.asto.ArtipieIOException;
-import com.artipie.asto.Concatenation;
 import com.artipie.asto.Content;
+import com.artipie.asto.ImmutableContent;
 import com.artipie.asto.Key;
 import com.artipie.asto.Meta;
-import com.artipie.asto.OneTimePublisher;
-import com.artipie.asto.Remaining;
+import com.artipie.asto.Range;
+import com.artipie.asto.RangedContent;
 import com.artipie.asto.Storage;
 import com.artipie.asto.UnderLockOperation;
 import com.artipie.asto.ValueNotFoundException;
 import com.artipie.asto.ext.CompletableFutureSupport;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.lock.storage.StorageLock;
-import hu.akarnokd.rxjava2.interop.SingleInterop;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import org.redisson.api.RMapAsync;
 
 /**
@@ -41,13 +48,33 @@ public final class RedisStorage implements Storage {
      */
     private final RMapAsync<String, byte[]> data;
 
+    /**
+     * Digests available as metadata.
+     */
+    private final Collection<Digests> digests;
+
     /**
      * Ctor.
      *
      * @param data Async interface for Redis.
      */
     public RedisStorage(final RMapAsync<String, byte[]> data) {
+        this(data, Collections.emptySet());
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Digests of values are available as metadata, e.g. {@link Meta#OP_SHA256}.
+     * They are computed once when the value is saved and stored in companion field.
+     * </p>
+     *
+     * @param data Async interface for Redis.
+     * @param digests Digests available as metadata.
+     */
+    public RedisStorage(final RMapAsync<String, byte[]> data, final Collection<Digests> digests) {
         this.data = data;
+        this.digests = digests;
     }
 
     @Override
@@ -63,7 +90,7 @@ public final class RedisStorage implements Storage {
                     final Collection<Key> res = new LinkedList<>();
                     final String prefix = root.string();
                     for (final String string : new TreeSet<>(keys)) {
-                        if (string.startsWith(prefix)) {
+                        if (string.startsWith(prefix) && RedisValue.visible(string)) {
                             res.add(new Key.From(string));
                         }
                     }
@@ -80,20 +107,70 @@ public final class RedisStorage implements Storage {
                 new ArtipieIOException("Unable to save to root")
             ).get();
         } else {
-            res = new Concatenation(new OneTimePublisher<>(content)).single()
-                .to(SingleInterop.get())
-                .thenApply(Remaining::new)
-                .thenApply(Remaining::bytes)
-                .thenCompose(bytes -> this.data.fastPutAsync(key.string(), bytes))
-                .thenRun(
-                    () -> {
-                    }
+            res = RedisStorage.bytes(content)
+                .thenCompose(bytes -> this.data.putAllAsync(this.fields(key.string(), bytes)))
+                .toCompletableFuture();
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        final CompletableFuture<Boolean> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else {
+            res = RedisStorage.bytes(content)
+                .thenCompose(
+                    bytes -> this.data.fastPutIfAbsentAsync(key.string(), bytes).thenCompose(
+                        saved -> this.described(key.string(), bytes, saved)
+                    )
                 )
                 .toCompletableFuture();
         }
         return res;
     }
 
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        final CompletableFuture<Boolean> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Boolean>(
+                new ArtipieIOException("Unable to save to root")
+            ).get();
+        } else {
+            res = RedisStorage.bytes(content).thenCompose(
+                bytes -> this.stored(key.string()).thenCompose(
+                    fields -> {
+                        final byte[] current = fields.get(key.string());
+                        final CompletionStage<Boolean> replaced;
+                        if (current != null
+                            && new RedisMeta(
+                                current,
+                                Optional.ofNullable(
+                                    fields.get(RedisValue.companion(key.string()))
+                                ),
+                                Collections.emptySet()
+                            ).version().filter(version::equals).isPresent()) {
+                            replaced = this.data.replaceAsync(key.string(), current, bytes)
+                                .thenCompose(
+                                    saved -> this.described(key.string(), bytes, saved)
+                                );
+                        } else {
+                            replaced = CompletableFuture.completedFuture(false);
+                        }
+                        return replaced;
+                    }
+                )
+            ).toCompletableFuture();
+        }
+        return res;
+    }
+
     @Override
     public CompletableFuture<Void> move(final Key source, final Key destination) {
         final String src = source.string();
@@ -102,12 +179,9 @@ public final class RedisStorage implements Storage {
                 exists -> {
                     final CompletionStage<Void> res;
                     if (exists) {
-                        res = this.data.getAsync(src)
-                            .thenAccept(
-                                bytes -> this.data.fastPutAsync(destination.string(), bytes)
-                            ).thenAccept(
-                                unused -> this.data.fastRemoveAsync(src)
-                            );
+                        res = this.stored(src).thenCompose(
+                            fields -> this.moved(src, destination.string(), fields)
+                        );
                     } else {
                         res = new CompletableFutureSupport.Failed<Void>(
                             new ArtipieIOException(
@@ -132,7 +206,30 @@ public final class RedisStorage implements Storage {
                 .thenApply(
                     bytes -> {
                         if (bytes != null) {
-                            return (Content) new Content.OneTime(new Content.From(bytes));
+                            return (Content) new ImmutableContent(bytes).oneTime();
+                        }
+                        throw new ValueNotFoundException(key);
+                    }
+                ).toCompletableFuture();
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        final CompletableFuture<Content> res;
+        if (Key.ROOT.equals(key)) {
+            res = new CompletableFutureSupport.Failed<Content>(
+                new ArtipieIOException("Unable to load from root")
+            ).get();
+        } else {
+            res = this.data.getAsync(key.string())
+                .thenApply(
+                    bytes -> {
+                        if (bytes != null) {
+                            return (Content) new Content.OneTime(
+                                new RangedContent(new ImmutableContent(bytes), range)
+                            );
                         }
                         throw new ValueNotFoundException(key);
                     }
@@ -153,7 +250,28 @@ public final class RedisStorage implements Storage {
                         );
                     }
                 }
-            ).toCompletableFuture();
+            ).thenCompose(
+                nothing -> this.data.fastRemoveAsync(RedisValue.companion(str))
+            ).thenAccept(num -> { }).toCompletableFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAll(final Key prefix) {
+        return this.list(prefix).thenCompose(
+            keys -> {
+                final CompletionStage<Void> res;
+                if (keys.isEmpty()) {
+                    res = CompletableFuture.allOf();
+                } else {
+                    res = this.data.fastRemoveAsync(
+                        keys.stream().map(Key::string)
+                            .flatMap(str -> Stream.of(str, RedisValue.companion(str)))
+                            .toArray(String[]::new)
+                    ).thenAccept(num -> { });
+                }
+                return res;
+            }
+        );
     }
 
     @Override
@@ -167,43 +285,181 @@ public final class RedisStorage implements Storage {
 
     @Override
     public CompletableFuture<? extends Meta> metadata(final Key key) {
-        return this.data.getAsync(key.string())
+        return this.stored(key.string())
             .thenApply(
-                bytes -> {
+                fields -> {
+                    final byte[] bytes = fields.get(key.string());
                     if (bytes != null) {
-                        return new RedisMeta(bytes.length);
+                        return new RedisMeta(
+                            bytes,
+                            Optional.ofNullable(fields.get(RedisValue.companion(key.string()))),
+                            this.digests
+                        );
                     }
                     throw new ValueNotFoundException(key);
                 }
             ).toCompletableFuture();
     }
 
+    /**
+     * Reads all bytes of content.
+     *
+     * @param content Content
+     * @return Bytes
+     */
+    private static CompletionStage<byte[]> bytes(final Content content) {
+        return new PublisherAs(content).bytes();
+    }
+
+    /**
+     * Value field and its companion field with metadata.
+     *
+     * @param key Field name of the value
+     * @param bytes Value bytes
+     * @return Fields to put
+     */
+    private Map<String, byte[]> fields(final String key, final byte[] bytes) {
+        final Map<String, byte[]> res = new HashMap<>();
+        res.put(key, bytes);
+        res.put(RedisValue.companion(key), RedisValue.encode(bytes, this.digests));
+        return res;
+    }
+
+    /**
+     * Puts companion field of the value if it was saved.
+     *
+     * @param key Field name of the value
+     * @param bytes Value bytes
+     * @param saved Whether the value was saved
+     * @return Whether the value was saved
+     */
+    private CompletionStage<Boolean> described(final String key, final byte[] bytes,
+        final boolean saved) {
+        final CompletionStage<Boolean> res;
+        if (saved) {
+            res = this.data.fastPutAsync(
+                RedisValue.companion(key), RedisValue.encode(bytes, this.digests)
+            ).thenApply(nothing -> true);
+        } else {
+            res = CompletableFuture.completedFuture(false);
+        }
+        return res;
+    }
+
+    /**
+     * Reads value field and its companion field.
+     *
+     * @param key Field name of the value
+     * @return Fields which exist
+     */
+    private CompletionStage<Map<String, byte[]>> stored(final String key) {
+        return this.data.getAllAsync(
+            new HashSet<>(Arrays.asList(key, RedisValue.companion(key)))
+        );
+    }
+
+    /**
+     * Puts fields of source value to destination and removes source fields.
+     *
+     * @param src Field name of source value
+     * @param dst Field name of destination value
+     * @param fields Source fields
+     * @return Completion of move
+     */
+    private CompletionStage<Void> moved(final String src, final String dst,
+        final Map<String, byte[]> fields) {
+        final Map<String, byte[]> moved = new HashMap<>();
+        moved.put(dst, fields.get(src));
+        final byte[] companion = fields.get(RedisValue.companion(src));
+        final CompletionStage<Void> put;
+        if (companion == null) {
+            put = this.data.putAllAsync(moved).thenCompose(
+                nothing -> this.data.fastRemoveAsync(RedisValue.companion(dst))
+            ).thenAccept(num -> { });
+        } else {
+            moved.put(RedisValue.companion(dst), companion);
+            put = this.data.putAllAsync(moved);
+        }
+        return put.thenCompose(
+            nothing -> this.data.fastRemoveAsync(src, RedisValue.companion(src))
+        ).thenAccept(num -> { });
+    }
+
     /**
      * Metadata for redis storage.
+     * <p>
+     * Version of the value is MD5 hex of its bytes. Version and digests are stored in
+     * companion field when the value is saved, see {@link RedisValue}, version and digests
+     * of values without valid companion are computed from value bytes. Metadata is parsed
+     * once, typed accessors return parsed fields. Conditional save compares and replaces
+     * value bytes atomically.
+     * </p>
      *
      * @since 1.9
      */
     private static final class RedisMeta implements Meta {
 
         /**
-         * Byte-array length.
+         * Raw metadata.
+         */
+        private final Map<String, String> raw;
+
+        /**
+         * Size of value.
          */
         private final long length;
 
+        /**
+         * Version of value.
+         */
+        private final Optional<String> ver;
+
+        /**
+         * Hex digests of value by algorithm.
+         */
+        private final Map<Digests, Optional<String>> digests;
+
         /**
          * New metadata.
          *
-         * @param length Array length
+         * @param bytes Value bytes
+         * @param stored Companion field bytes, empty if there is no companion
+         * @param digests Digests of value to provide
          */
-        RedisMeta(final int length) {
-            this.length = length;
+        RedisMeta(final byte[] bytes, final Optional<byte[]> stored,
+            final Collection<Digests> digests) {
+            final RedisValue value = new RedisValue(bytes, stored);
+            final Map<String, String> meta = new HashMap<>(value.meta());
+            this.digests = new EnumMap<>(Digests.class);
+            for (final Digests digest : digests) {
+                final String hex = digest.operator().take(meta).map(String::valueOf)
+                    .orElseGet(() -> RedisValue.hex(digest, ByteBuffer.wrap(bytes)));
+                digest.operator().put(meta, hex);
+                this.digests.put(digest, Optional.of(hex));
+            }
+            this.raw = Collections.unmodifiableMap(meta);
+            this.length = bytes.length;
+            this.ver = Meta.OP_VERSION.take(meta).map(Function.<String>identity());
         }
 
         @Override
         public <T> T read(final ReadOperator<T> opr) {
-            final Map<String, String> raw = new HashMap<>();
-            Meta.OP_SIZE.put(raw, this.length);
-            return opr.take(Collections.unmodifiableMap(raw));
+            return opr.take(this.raw);
+        }
+
+        @Override
+        public long size() {
+            return this.length;
+        }
+
+        @Override
+        public Optional<String> version() {
+            return this.ver;
+        }
+
+        @Override
+        public Optional<String> digest(final Digests digest) {
+            return this.digests.getOrDefault(digest, Optional.empty());
         }
     }
 }
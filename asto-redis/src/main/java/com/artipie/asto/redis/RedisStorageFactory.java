@@ -6,6 +6,7 @@ package com.artipie.asto.redis;
 
 import com.artipie.asto.ArtipieIOException;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.factory.ArtipieStorageFactory;
 import com.artipie.asto.factory.StorageConfig;
 import com.artipie.asto.factory.StorageFactory;
@@ -39,7 +40,9 @@ public final class RedisStorageFactory implements StorageFactory {
                         .string("config")
                 )
             );
-            return new RedisStorage(redisson.getMap(name));
+            return new RedisStorage(
+                redisson.getMap(name), new Digests.FromConfig(cfg).get()
+            );
         } catch (final IOException err) {
             throw new ArtipieIOException(err);
         }
@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.redis;
+
+import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Value stored in Redis hash field and its metadata stored in companion field.
+ * <p>
+ * Value field keeps raw value bytes, so any reader of the hash reads the value as is.
+ * Metadata, i.e. size, version and digests, is computed once when the value is saved
+ * and is stored in companion field, see {@link #companion(String)}, as lines
+ * {@code name=value} together with CRC32 of value bytes. Companion is used only if its
+ * size and CRC32 match value bytes, so companion which is stale, e.g. because the value
+ * was written without it or concurrently with another companion, is ignored and
+ * metadata is computed from value bytes.
+ * </p>
+ * @since 1.15
+ */
+final class RedisValue {
+
+    /**
+     * Suffix of companion field name, hash keys of storage don't contain zero char.
+     */
+    private static final String COMPANION = "\0meta";
+
+    /**
+     * Name of CRC32 line of companion.
+     */
+    private static final String CRC = "crc32";
+
+    /**
+     * Value bytes.
+     */
+    private final byte[] bytes;
+
+    /**
+     * Companion field bytes, empty if there is no companion.
+     */
+    private final Optional<byte[]> stored;
+
+    /**
+     * Ctor.
+     * @param bytes Value bytes
+     * @param stored Companion field bytes, empty if there is no companion
+     */
+    RedisValue(final byte[] bytes, final Optional<byte[]> stored) {
+        this.bytes = bytes;
+        this.stored = stored;
+    }
+
+    /**
+     * Name of companion field with metadata of the value.
+     * @param key Field name of the value
+     * @return Companion field name
+     */
+    static String companion(final String key) {
+        return String.join("", key, RedisValue.COMPANION);
+    }
+
+    /**
+     * Whether hash field is a value field, not a companion.
+     * @param field Field name
+     * @return True if it is a value field
+     */
+    static boolean visible(final String field) {
+        return field.indexOf('\0') < 0;
+    }
+
+    /**
+     * Companion field bytes with metadata of value.
+     * @param bytes Value bytes
+     * @param digests Digests to store
+     * @return Companion field bytes
+     */
+    static byte[] encode(final byte[] bytes, final Collection<Digests> digests) {
+        final Map<String, String> raw = new HashMap<>();
+        Meta.OP_SIZE.put(raw, (long) bytes.length);
+        Meta.OP_VERSION.put(raw, RedisValue.hex(Digests.MD5, ByteBuffer.wrap(bytes)));
+        for (final Digests digest : digests) {
+            digest.operator().put(raw, RedisValue.hex(digest, ByteBuffer.wrap(bytes)));
+        }
+        raw.put(RedisValue.CRC, RedisValue.crc(bytes));
+        final StringBuilder lines = new StringBuilder(0);
+        raw.forEach((name, val) -> lines.append(name).append('=').append(val).append('\n'));
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Raw metadata of value.
+     * @return Readonly map of metadata
+     */
+    Map<String, String> meta() {
+        return this.stored
+            .map(companion -> RedisValue.parse(new String(companion, StandardCharsets.UTF_8)))
+            .filter(this::matches)
+            .map(
+                raw -> {
+                    final Map<String, String> meta = new HashMap<>(raw);
+                    meta.remove(RedisValue.CRC);
+                    return Collections.unmodifiableMap(meta);
+                }
+            )
+            .orElseGet(
+                () -> {
+                    final Map<String, String> raw = new HashMap<>();
+                    Meta.OP_SIZE.put(raw, (long) this.bytes.length);
+                    Meta.OP_VERSION.put(
+                        raw, RedisValue.hex(Digests.MD5, ByteBuffer.wrap(this.bytes))
+                    );
+                    return Collections.unmodifiableMap(raw);
+                }
+            );
+    }
+
+    /**
+     * Hex digest of value bytes.
+     * @param digest Digest algorithm
+     * @param bytes Value bytes
+     * @return Hex string
+     */
+    static String hex(final Digests digest, final ByteBuffer bytes) {
+        final MessageDigest alg = digest.get();
+        alg.update(bytes.duplicate());
+        return Hex.encodeHexString(alg.digest());
+    }
+
+    /**
+     * Whether companion metadata belongs to value bytes.
+     * @param raw Companion metadata
+     * @return True if size and CRC32 match value bytes
+     */
+    private boolean matches(final Map<String, String> raw) {
+        return String.valueOf(this.bytes.length).equals(raw.get("size"))
+            && RedisValue.crc(this.bytes).equals(raw.get(RedisValue.CRC));
+    }
+
+    /**
+     * CRC32 of bytes.
+     * @param bytes Bytes
+     * @return CRC32 as decimal string
+     */
+    private static String crc(final byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return String.valueOf(crc.getValue());
+    }
+
+    /**
+     * Parses metadata lines.
+     * @param lines Lines {@code name=value}
+     * @return Metadata
+     */
+    private static Map<String, String> parse(final String lines) {
+        final Map<String, String> raw = new HashMap<>();
+        for (final String line : lines.split("\n")) {
+            final int pos = line.indexOf('=');
+            if (pos > 0) {
+                raw.put(line.substring(0, pos), line.substring(pos + 1));
+            }
+        }
+        return raw;
+    }
+}
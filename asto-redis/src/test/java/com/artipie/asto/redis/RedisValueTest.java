@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/asto/LICENSE.txt
+ */
+package com.artipie.asto.redis;
+
+import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link RedisValue}.
+ *
+ * @since 1.15
+ */
+final class RedisValueTest {
+
+    @Test
+    void readsMetadataFromCompanion() {
+        final byte[] bytes = "stored value".getBytes(StandardCharsets.UTF_8);
+        final RedisValue value = new RedisValue(
+            bytes, Optional.of(RedisValue.encode(bytes, EnumSet.of(Digests.SHA256)))
+        );
+        MatcherAssert.assertThat(
+            "Size is not stored",
+            Meta.OP_SIZE.take(value.meta()).get(),
+            new IsEqual<>((long) bytes.length)
+        );
+        MatcherAssert.assertThat(
+            "Version is not stored",
+            Meta.OP_VERSION.take(value.meta()).get(),
+            new IsEqual<>(RedisValue.hex(Digests.MD5, ByteBuffer.wrap(bytes)))
+        );
+        MatcherAssert.assertThat(
+            "Digest is not stored",
+            Meta.OP_SHA256.take(value.meta()).get(),
+            new IsEqual<>(RedisValue.hex(Digests.SHA256, ByteBuffer.wrap(bytes)))
+        );
+    }
+
+    @Test
+    void ignoresCompanionOfOtherValue() {
+        final byte[] bytes = "new value".getBytes(StandardCharsets.UTF_8);
+        final RedisValue value = new RedisValue(
+            bytes,
+            Optional.of(
+                RedisValue.encode(
+                    "old value".getBytes(StandardCharsets.UTF_8), EnumSet.of(Digests.SHA256)
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Version is not computed",
+            Meta.OP_VERSION.take(value.meta()).get(),
+            new IsEqual<>(RedisValue.hex(Digests.MD5, ByteBuffer.wrap(bytes)))
+        );
+        MatcherAssert.assertThat(
+            "Stale digest is read",
+            Meta.OP_SHA256.take(value.meta()).isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void computesMetadataWithoutCompanion() {
+        final byte[] bytes = "legacy value".getBytes(StandardCharsets.UTF_8);
+        MatcherAssert.assertThat(
+            new RedisValue(bytes, Optional.empty()).meta(),
+            new IsEqual<>(
+                new RedisValue(
+                    bytes, Optional.of(RedisValue.encode(bytes, Collections.emptySet()))
+                ).meta()
+            )
+        );
+    }
+}
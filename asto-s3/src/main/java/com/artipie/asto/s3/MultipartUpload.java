@@ -7,12 +7,14 @@ package com.artipie.asto.s3;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Splitting;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
 import hu.akarnokd.rxjava2.interop.SingleInterop;
 import io.reactivex.Flowable;
 import io.reactivex.Observable;
 import java.nio.ByteBuffer;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -23,8 +25,10 @@ import org.reactivestreams.Publisher;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
 import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
 import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
@@ -42,6 +46,16 @@ final class MultipartUpload {
      */
     private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
 
+    /**
+     * Part size to copy existing object by parts.
+     */
+    private static final long COPY_PART_SIZE = 1024L * 1024 * 1024;
+
+    /**
+     * Max amount of parts being copied at the same time.
+     */
+    private static final int COPY_PARALLELISM = 8;
+
     /**
      * Bucket.
      */
@@ -108,12 +122,63 @@ final class MultipartUpload {
             .thenCompose(Function.identity());
     }
 
+    /**
+     * Copies existing object of the same bucket by parts in parallel.
+     *
+     * @param source Key of object to copy.
+     * @param size Size of object to copy.
+     * @return Completion stage which is completed when responses received from S3 for all parts.
+     */
+    public CompletionStage<Void> copy(final Key source, final long size) {
+        return this.copy(source, size, Optional.empty());
+    }
+
+    /**
+     * Copies existing object of the same bucket by parts in parallel,
+     * if it has expected ETag.
+     *
+     * @param source Key of object to copy.
+     * @param size Size of object to copy.
+     * @param etag Expected ETag of object to copy, S3 rejects parts of another object.
+     * @return Completion stage which is completed when responses received from S3 for all parts.
+     */
+    public CompletionStage<Void> copy(final Key source, final long size,
+        final Optional<String> etag) {
+        return Flowable.rangeLong(
+            0, (size + MultipartUpload.COPY_PART_SIZE - 1) / MultipartUpload.COPY_PART_SIZE
+        ).flatMapCompletable(
+            idx -> {
+                final int pnum = (int) (idx + 1);
+                final long first = idx * MultipartUpload.COPY_PART_SIZE;
+                final long last = Math.min(first + MultipartUpload.COPY_PART_SIZE, size) - 1;
+                return CompletableInterop.fromFuture(
+                    this.bucket.uploadPartCopy(
+                        UploadPartCopyRequest.builder()
+                            .sourceKey(source.string())
+                            .destinationKey(this.key.string())
+                            .uploadId(this.id)
+                            .partNumber(pnum)
+                            .copySourceRange(String.format("bytes=%d-%d", first, last))
+                            .copySourceIfMatch(etag.orElse(null))
+                            .build()
+                    ).thenAccept(
+                        response -> this.parts.add(
+                            new UploadedPart(pnum, response.copyPartResult().eTag())
+                        )
+                    )
+                );
+            },
+            false,
+            MultipartUpload.COPY_PARALLELISM
+        ).to(CompletableInterop.await()).thenApply(ignored -> (Void) null);
+    }
+
     /**
      * Completes the upload.
      *
-     * @return Completion stage which is completed when success response received from S3.
+     * @return ETag of created object, when success response received from S3.
      */
-    public CompletionStage<Void> complete() {
+    public CompletionStage<String> complete() {
         return this.bucket.completeMultipartUpload(
             CompleteMultipartUploadRequest.builder()
                 .key(this.key.string())
@@ -129,7 +194,7 @@ final class MultipartUpload {
                         ).build()
                 )
                 .build()
-        ).thenApply(ignored -> null);
+        ).thenApply(CompleteMultipartUploadResponse::eTag);
     }
 
     /**
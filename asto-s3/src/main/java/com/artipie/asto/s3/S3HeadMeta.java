@@ -5,12 +5,24 @@
 package com.artipie.asto.s3;
 
 import com.artipie.asto.Meta;
+import com.artipie.asto.ext.Digests;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.commons.codec.binary.Hex;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 
 /**
  * Metadata from S3 object.
+ * <p>
+ * Digests kept by storage in user metadata of the object are available
+ * by digest operators, e.g. {@link Meta#OP_SHA256}. SHA-256 and SHA-1 are read from
+ * S3 checksums of the object too, if the object was uploaded with them and head request
+ * asked for them.
+ * </p>
  * @since 0.1
  */
 final class S3HeadMeta implements Meta {
@@ -31,10 +43,80 @@ final class S3HeadMeta implements Meta {
     @Override
     public <T> T read(final ReadOperator<T> opr) {
         final Map<String, String> raw = new HashMap<>();
+        for (final Digests digest : Digests.values()) {
+            this.digest(digest).ifPresent(hex -> digest.operator().put(raw, hex));
+        }
         Meta.OP_SIZE.put(raw, this.rsp.contentLength());
-        // @checkstyle MethodBodyCommentsCheck (1 line)
-        // ETag is a quoted MD5 of blob content according to S3 docs
-        Meta.OP_MD5.put(raw, this.rsp.eTag().replaceAll("\"", ""));
+        Meta.OP_VERSION.put(raw, this.rsp.eTag());
+        if (this.rsp.lastModified() != null) {
+            Meta.OP_UPDATED_AT.put(raw, this.rsp.lastModified());
+        }
         return opr.take(raw);
     }
+
+    @Override
+    public long size() {
+        return this.rsp.contentLength();
+    }
+
+    @Override
+    public Optional<Instant> updatedAt() {
+        return Optional.ofNullable(this.rsp.lastModified());
+    }
+
+    @Override
+    public Optional<String> version() {
+        return Optional.of(this.rsp.eTag());
+    }
+
+    @Override
+    public Optional<String> digest(final Digests digest) {
+        Optional<String> res = Optional.empty();
+        if (this.rsp.hasMetadata()) {
+            res = digest.operator().take(this.rsp.metadata()).map(Function.<String>identity());
+        }
+        if (!res.isPresent() && digest == Digests.SHA256) {
+            res = S3HeadMeta.hex(this.rsp.checksumSHA256());
+        }
+        if (!res.isPresent() && digest == Digests.SHA1) {
+            res = S3HeadMeta.hex(this.rsp.checksumSHA1());
+        }
+        if (!res.isPresent() && digest == Digests.MD5) {
+            // @checkstyle MethodBodyCommentsCheck (2 lines)
+            // ETag is a quoted MD5 of blob content according to S3 docs,
+            // except objects uploaded by multipart upload, their ETags have parts count suffix
+            final String etag = this.rsp.eTag().replace("\"", "");
+            if (etag.indexOf('-') < 0) {
+                res = Optional.of(etag);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * User metadata of the object with its digests, e.g. to keep them in a copy.
+     * @return User metadata
+     */
+    Map<String, String> user() {
+        final Map<String, String> res = new HashMap<>(this.rsp.metadata());
+        for (final Digests digest : Digests.values()) {
+            this.digest(digest).ifPresent(hex -> digest.operator().put(res, hex));
+        }
+        return res;
+    }
+
+    /**
+     * Hex digest from S3 checksum of the object.
+     * <p>
+     * Checksums of objects uploaded by multipart upload are checksums of parts checksums
+     * with parts count suffix, they are not digests of the object.
+     * </p>
+     * @param checksum Base64 checksum, null if there is no checksum
+     * @return Hex digest, empty if there is no checksum of whole object
+     */
+    static Optional<String> hex(final String checksum) {
+        return Optional.ofNullable(checksum)
+            .filter(sum -> sum.indexOf('-') < 0)
+            .map(sum -> Hex.encodeHexString(Base64.getDecoder().decode(sum)));
+    }
 }
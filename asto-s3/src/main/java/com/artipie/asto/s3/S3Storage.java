@@ -8,32 +8,59 @@ import com.artipie.asto.ArtipieIOException;
 import com.artipie.asto.Content;
 import com.artipie.asto.FailedCompletionStage;
 import com.artipie.asto.Key;
+import com.artipie.asto.ListResult;
 import com.artipie.asto.Meta;
+import com.artipie.asto.Range;
 import com.artipie.asto.Storage;
 import com.artipie.asto.UnderLockOperation;
 import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.DigestedContent;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.lock.storage.StorageLock;
+import com.jcabi.log.Logger;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
 import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.async.SdkPublisher;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
 import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
-import software.amazon.awssdk.services.s3.model.ListObjectsRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.MetadataDirective;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 /**
@@ -55,6 +82,36 @@ public final class S3Storage implements Storage {
      */
     private static final long MIN_MULTIPART = 10 * 1024 * 1024;
 
+    /**
+     * Max size of object S3 copies by single request.
+     */
+    private static final long MAX_COPY = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * Max amount of keys S3 lists or deletes by one request.
+     */
+    private static final int PAGE = 1000;
+
+    /**
+     * Status of response to range which starts after the end of the object.
+     */
+    private static final int UNSATISFIABLE = 416;
+
+    /**
+     * Status of response to conditional request with failed precondition.
+     */
+    private static final int PRECONDITION_FAILED = 412;
+
+    /**
+     * Status of response to conditional request conflicting with concurrent one.
+     */
+    private static final int CONFLICT = 409;
+
+    /**
+     * Maximum number of batch delete requests in flight.
+     */
+    private static final int DELETE_PARALLELISM = 4;
+
     /**
      * S3 client.
      */
@@ -70,6 +127,11 @@ public final class S3Storage implements Storage {
      */
     private final boolean multipart;
 
+    /**
+     * Digests to compute on save and to keep in object metadata.
+     */
+    private final Collection<Digests> digests;
+
     /**
      * Ctor.
      *
@@ -90,9 +152,39 @@ public final class S3Storage implements Storage {
      *  <code>false</code> otherwise.
      */
     public S3Storage(final S3AsyncClient client, final String bucket, final boolean multipart) {
+        this(client, bucket, multipart, Collections.emptySet());
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * Storage computes the digests of content while it is uploaded and keeps them in user
+     * metadata of the object, they are available as metadata, e.g. {@link Meta#OP_SHA256}.
+     * S3 accepts user metadata before the body only. Content of unknown size is buffered
+     * before the upload, so its digests are sent with the upload. Otherwise SHA-256, or
+     * SHA-1 if SHA-256 is not configured, is sent in the trailer of single put request as
+     * S3 checksum of the object and is read from it. Metadata with other digests, and with
+     * digests of objects uploaded by multipart upload, which have checksums of parts only,
+     * is replaced after the upload by copying uploaded object to itself if it was not changed
+     * since the upload, objects larger than 5GB are copied by multipart copy. The copy
+     * costs another server-side request, and until it completes the saved value is visible
+     * without digests: metadata read concurrently with the save may have no digests.
+     * </p>
+     *
+     * @param client S3 client.
+     * @param bucket Bucket name.
+     * @param multipart Multipart allowed flag.
+     * @param digests Digests to compute on save.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public S3Storage(
+        final S3AsyncClient client, final String bucket, final boolean multipart,
+        final Collection<Digests> digests
+    ) {
         this.client = client;
         this.bucket = bucket;
         this.multipart = multipart;
+        this.digests = digests;
     }
 
     @Override
@@ -120,24 +212,66 @@ public final class S3Storage implements Storage {
 
     @Override
     public CompletableFuture<Collection<Key>> list(final Key prefix) {
-        return this.client.listObjects(
-            ListObjectsRequest.builder()
+        return Flowable.fromPublisher(this.list(prefix, Key.ROOT, Integer.MAX_VALUE))
+            .<Collection<Key>>collect(ArrayList::new, Collection::add)
+            .to(SingleInterop.get())
+            .toCompletableFuture();
+    }
+
+    @Override
+    public Publisher<Key> list(final Key prefix, final Key after, final int limit) {
+        return this.objects(prefix, after, limit).map(S3Object::key).map(Key.From::new);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Metadata is built from the listing, without request per key. Listing has no user
+     * metadata of objects, so only MD5 digest is available, if it is the ETag of the object.
+     * </p>
+     */
+    @Override
+    public Publisher<Map.Entry<Key, Meta>> listMetadata(
+        final Key prefix, final Key after, final int limit
+    ) {
+        return this.objects(prefix, after, limit).map(
+            obj -> new AbstractMap.SimpleImmutableEntry<>(
+                new Key.From(obj.key()),
+                new S3HeadMeta(
+                    HeadObjectResponse.builder()
+                        .contentLength(obj.size())
+                        .eTag(obj.eTag())
+                        .lastModified(obj.lastModified())
+                        .build()
+                )
+            )
+        );
+    }
+
+    @Override
+    public CompletableFuture<ListResult> list(final Key prefix, final String delimiter) {
+        final String root;
+        if (prefix.string().isEmpty()) {
+            root = "";
+        } else {
+            root = String.join("", prefix.string(), delimiter);
+        }
+        return this.level(
+            ListObjectsV2Request.builder()
                 .bucket(this.bucket)
-                .prefix(prefix.string())
-                .build()
-        ).thenApply(
-            response -> response.contents()
-                .stream()
-                .map(S3Object::key)
-                .map(Key.From::new)
-                .collect(Collectors.toList())
+                .prefix(root)
+                .delimiter(delimiter)
+                .build(),
+            new TreeSet<>(Key.CMP_STRING),
+            new TreeSet<>(Key.CMP_STRING)
         );
     }
 
     @Override
     public CompletableFuture<Void> save(final Key key, final Content content) {
         final CompletionStage<Content> result;
-        final Content onetime = new Content.OneTime(content);
+        final DigestedContent digested = new DigestedContent(content, this.digests);
+        final Content onetime = new Content.OneTime(digested);
         if (this.multipart) {
             result = new EstimatedContentCompliment(onetime, S3Storage.MIN_MULTIPART)
                 .estimate();
@@ -146,6 +280,7 @@ public final class S3Storage implements Storage {
         }
         return result.thenCompose(
             estimated -> {
+                final Map<String, String> meta = S3Storage.known(digested);
                 final CompletionStage<Void> res;
                 if (
                     this.multipart
@@ -154,25 +289,95 @@ public final class S3Storage implements Storage {
                         .filter(x -> x > S3Storage.MIN_MULTIPART)
                         .isPresent()
                 ) {
-                    res = this.putMultipart(key, estimated);
+                    res = this.putMultipart(key, estimated, meta).thenCompose(
+                        etag -> this.describe(key, etag, digested, meta, estimated.size())
+                    );
                 } else {
-                    res = this.put(key, estimated);
+                    res = this.put(key, estimated, meta).thenCompose(
+                        response -> this.describe(
+                            key, response.eTag(), digested,
+                            S3Storage.uploaded(meta, response), estimated.size()
+                        )
+                    );
                 }
                 return res;
             }
         ).toCompletableFuture();
     }
 
+    /**
+     * Saves the value only if the key has no value yet.
+     * <p>
+     * Value is uploaded by single put request with `If-None-Match: *` header,
+     * S3 rejects it atomically if the object exists. Object existence is checked before
+     * the upload too, so the body is not transferred if the value exists, and S3 compatible
+     * servers without conditional writes support still reject most of conflicting saves.
+     * </p>
+     *
+     * @param key The key
+     * @param content Bytes to save
+     * @return True if value was saved, false if the key already has a value.
+     */
     @Override
-    public CompletableFuture<Void> move(final Key source, final Key destination) {
-        return this.client.copyObject(
-            CopyObjectRequest.builder()
-                .sourceBucket(this.bucket)
-                .sourceKey(source.string())
-                .destinationBucket(this.bucket)
-                .destinationKey(destination.string())
-                .build()
+    public CompletableFuture<Boolean> saveIfAbsent(final Key key, final Content content) {
+        return this.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Boolean> res;
+                if (exists) {
+                    res = CompletableFuture.completedFuture(false);
+                } else {
+                    res = this.put(key, content, "If-None-Match", "*");
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Saves the value only if current version of the value matches.
+     * <p>
+     * Version is the ETag of the object, value is uploaded by single put request
+     * with `If-Match` header, S3 rejects it atomically if the object has another ETag.
+     * Like {@link #saveIfAbsent(Key, Content)}, ETag is checked before the upload too.
+     * </p>
+     *
+     * @param key The key
+     * @param content Bytes to save
+     * @param version Expected version of current value
+     * @return True if value was saved, false if value is absent or has another version.
+     */
+    @Override
+    public CompletableFuture<Boolean> saveIfMatch(
+        final Key key, final Content content, final String version
+    ) {
+        return this.metadata(key).handle(
+            (meta, throwable) -> {
+                final boolean res;
+                if (throwable == null) {
+                    res = meta.version().map(version::equals).orElse(false);
+                } else if (throwable.getCause() instanceof ValueNotFoundException) {
+                    res = false;
+                } else {
+                    throw new ArtipieIOException(throwable);
+                }
+                return res;
+            }
         ).thenCompose(
+            matches -> {
+                final CompletionStage<Boolean> res;
+                if (matches) {
+                    res = this.put(key, content, "If-Match", version);
+                } else {
+                    res = CompletableFuture.completedFuture(false);
+                }
+                return res;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        return this.copy(source, destination).thenCompose(
             copied -> this.client.deleteObject(
                 DeleteObjectRequest.builder()
                     .bucket(this.bucket)
@@ -184,19 +389,35 @@ public final class S3Storage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        return this.head(source).thenCompose(
+            meta -> {
+                final long size = meta.size();
+                final CompletableFuture<Void> res;
+                if (size > S3Storage.MAX_COPY) {
+                    res = this.multipart(
+                        destination, meta.user(), upload -> upload.copy(source, size)
+                    )
+                        .thenApply(etag -> null);
+                } else {
+                    res = this.client.copyObject(
+                        CopyObjectRequest.builder()
+                            .sourceBucket(this.bucket)
+                            .sourceKey(source.string())
+                            .destinationBucket(this.bucket)
+                            .destinationKey(destination.string())
+                            .build()
+                    ).thenCompose(copied -> CompletableFuture.allOf());
+                }
+                return res;
+            }
+        );
+    }
+
     @Override
     public CompletableFuture<? extends Meta> metadata(final Key key) {
-        return this.client.headObject(
-            HeadObjectRequest.builder()
-                .bucket(this.bucket)
-                .key(key.string())
-                .build()
-        ).thenApply(S3HeadMeta::new).handle(
-            new InternalExceptionHandle<>(
-                NoSuchKeyException.class,
-                cause -> new ValueNotFoundException(key, cause)
-            )
-        ).thenCompose(Function.identity());
+        return this.head(key);
     }
 
     @Override
@@ -220,6 +441,36 @@ public final class S3Storage implements Storage {
             .thenApply(Content.OneTime::new);
     }
 
+    @Override
+    public CompletableFuture<Content> value(final Key key, final Range range) {
+        final CompletableFuture<Content> promise = new CompletableFuture<>();
+        this.client.getObject(
+            GetObjectRequest.builder()
+                .bucket(this.bucket)
+                .key(key.string())
+                .range(String.format("bytes=%s", range))
+                .build(),
+            new ResponseAdapter(promise)
+        );
+        return promise
+            .handle(
+                (content, throwable) -> {
+                    final CompletionStage<Content> res;
+                    if (throwable != null && S3Storage.status(throwable, S3Storage.UNSATISFIABLE)) {
+                        res = CompletableFuture.completedFuture(Content.EMPTY);
+                    } else {
+                        res = new InternalExceptionHandle<Content>(
+                            NoSuchKeyException.class,
+                            cause -> new ValueNotFoundException(key, cause)
+                        ).apply(content, throwable);
+                    }
+                    return res;
+                }
+            )
+            .thenCompose(Function.identity())
+            .thenApply(Content.OneTime::new);
+    }
+
     @Override
     public CompletableFuture<Void> delete(final Key key) {
         return this.exists(key).thenCompose(
@@ -244,6 +495,20 @@ public final class S3Storage implements Storage {
         );
     }
 
+    @Override
+    public CompletableFuture<Void> deleteAll(final Key prefix) {
+        return Flowable.fromPublisher(this.list(prefix, Key.ROOT, Integer.MAX_VALUE))
+            .buffer(S3Storage.PAGE)
+            .flatMapCompletable(
+                keys -> CompletableInterop.fromFuture(this.deleteObjects(keys)),
+                false,
+                S3Storage.DELETE_PARALLELISM
+            )
+            .to(CompletableInterop.await())
+            .<Void>thenApply(ignored -> null)
+            .toCompletableFuture();
+    }
+
     @Override
     public <T> CompletionStage<T> exclusively(
         final Key key,
@@ -253,20 +518,278 @@ public final class S3Storage implements Storage {
     }
 
     /**
-     * Uploads content using put request.
+     * Deletes batch of objects with single request.
+     *
+     * @param keys Keys of objects, no more than 1000.
+     * @return Completion of deletion.
+     */
+    private CompletableFuture<Void> deleteObjects(final Collection<Key> keys) {
+        final List<ObjectIdentifier> objects = new ArrayList<>(keys.size());
+        for (final Key key : keys) {
+            objects.add(ObjectIdentifier.builder().key(key.string()).build());
+        }
+        return this.client.deleteObjects(
+            DeleteObjectsRequest.builder()
+                .bucket(this.bucket)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build()
+        ).thenAccept(
+            response -> {
+                if (response.hasErrors() && !response.errors().isEmpty()) {
+                    throw new ArtipieIOException(
+                        String.format(
+                            "Failed to delete %d objects, first: %s",
+                            response.errors().size(),
+                            response.errors().get(0)
+                        )
+                    );
+                }
+            }
+        );
+    }
+
+    /**
+     * Lists objects with keys that start with this prefix, page by page.
+     * @param prefix The prefix
+     * @param after Key to list objects after
+     * @param limit Max amount of objects
+     * @return Listed objects
+     */
+    private Flowable<S3Object> objects(final Key prefix, final Key after, final int limit) {
+        final ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+            .bucket(this.bucket)
+            .prefix(prefix.string());
+        if (!Key.ROOT.equals(after)) {
+            request.startAfter(after.string());
+        }
+        return this.page(request.build(), limit);
+    }
+
+    /**
+     * Lists page of objects, then the next one if listing is truncated.
+     * Each page is requested on subscription.
+     *
+     * @param request Listing request.
+     * @param limit Max amount of objects to list.
+     * @return Objects.
+     */
+    private Flowable<S3Object> page(final ListObjectsV2Request request, final int limit) {
+        return Single.defer(
+            () -> SingleInterop.fromFuture(
+                this.client.listObjectsV2(
+                    request.toBuilder().maxKeys(Math.min(limit, S3Storage.PAGE)).build()
+                )
+            )
+        ).flatMapPublisher(
+            response -> {
+                final List<S3Object> objects = response.contents();
+                Flowable<S3Object> keys = Flowable.fromIterable(objects);
+                if (Boolean.TRUE.equals(response.isTruncated()) && objects.size() < limit) {
+                    keys = keys.concatWith(
+                        Flowable.defer(
+                            () -> this.page(
+                                request.toBuilder()
+                                    .continuationToken(response.nextContinuationToken())
+                                    .build(),
+                                limit - objects.size()
+                            )
+                        )
+                    );
+                }
+                return keys;
+            }
+        );
+    }
+
+    /**
+     * Lists keys and common prefixes of one level, page by page.
+     *
+     * @param request Listing request.
+     * @param files Keys listed so far.
+     * @param dirs Common prefixes listed so far.
+     * @return Listing result.
+     */
+    private CompletableFuture<ListResult> level(final ListObjectsV2Request request,
+        final Collection<Key> files, final Collection<Key> dirs) {
+        return this.client.listObjectsV2(request).thenCompose(
+            response -> {
+                for (final S3Object obj : response.contents()) {
+                    files.add(new Key.From(obj.key()));
+                }
+                for (final CommonPrefix common : response.commonPrefixes()) {
+                    final String str = common.prefix();
+                    dirs.add(
+                        new Key.From(str.substring(0, str.length() - request.delimiter().length()))
+                    );
+                }
+                final CompletableFuture<ListResult> res;
+                if (Boolean.TRUE.equals(response.isTruncated())) {
+                    res = this.level(
+                        request.toBuilder()
+                            .continuationToken(response.nextContinuationToken())
+                            .build(),
+                        files,
+                        dirs
+                    );
+                } else {
+                    res = CompletableFuture.completedFuture(new ListResult.Simple(files, dirs));
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Metadata of the object from head request.
      *
      * @param key Object key.
-     * @param content Object content to be uploaded.
-     * @return Completion stage which is completed when response received from S3.
+     * @return Metadata, failed with {@link ValueNotFoundException} if there is no object.
      */
-    private CompletableFuture<Void> put(final Key key, final Content content) {
-        return this.client.putObject(
-            PutObjectRequest.builder()
+    private CompletableFuture<S3HeadMeta> head(final Key key) {
+        return this.client.headObject(
+
+            HeadObjectRequest.builder()
                 .bucket(this.bucket)
                 .key(key.string())
-                .build(),
-            new ContentBody(content)
-        ).thenApply(ignored -> null);
+                .checksumMode(ChecksumMode.ENABLED)
+                .build()
+        ).thenApply(S3HeadMeta::new).handle(
+            new InternalExceptionHandle<>(
+                NoSuchKeyException.class,
+                cause -> new ValueNotFoundException(key, cause)
+            )
+        ).thenCompose(Function.identity());
+    }
+
+
+    /**
+     * Uploads content using put request.
+     *
+     * @param key Object key.
+     * @param content Object content to be uploaded.
+     * @param meta User metadata of the object.
+     * @return Response of S3, when it is received.
+     */
+    private CompletableFuture<PutObjectResponse> put(final Key key, final Content content,
+        final Map<String, String> meta) {
+        final PutObjectRequest.Builder request = PutObjectRequest.builder()
+            .bucket(this.bucket)
+            .key(key.string())
+            .metadata(meta);
+        this.checksum(meta).ifPresent(request::checksumAlgorithm);
+        return this.client.putObject(request.build(), new ContentBody(content));
+    }
+
+    /**
+     * Uploads content using put request with precondition header.
+     *
+     * @param key Object key.
+     * @param content Object content to be uploaded.
+     * @param header Precondition header name.
+     * @param value Precondition header value.
+     * @return True if object was uploaded, false if precondition failed.
+     */
+    private CompletableFuture<Boolean> put(
+        final Key key, final Content content, final String header, final String value
+    ) {
+        final DigestedContent digested = new DigestedContent(content, this.digests);
+        final AtomicReference<Map<String, String>> meta = new AtomicReference<>();
+        final AtomicReference<Optional<Long>> size = new AtomicReference<>();
+        return new EstimatedContentCompliment(new Content.OneTime(digested)).estimate()
+            .thenCompose(
+                estimated -> {
+                    meta.set(S3Storage.known(digested));
+                    size.set(estimated.size());
+                    final PutObjectRequest.Builder request = PutObjectRequest.builder()
+                        .bucket(this.bucket)
+                        .key(key.string())
+                        .metadata(meta.get())
+                        .overrideConfiguration(conf -> conf.putHeader(header, value));
+                    this.checksum(meta.get()).ifPresent(request::checksumAlgorithm);
+                    return this.client.putObject(request.build(), new ContentBody(estimated));
+                }
+            ).handle(
+                (response, throwable) -> {
+                    final CompletionStage<Boolean> res;
+                    if (throwable == null) {
+                        res = this.describe(
+                            key, response.eTag(), digested,
+                            S3Storage.uploaded(meta.get(), response), size.get()
+                        ).thenApply(described -> true);
+                    } else if (S3Storage.status(throwable, S3Storage.PRECONDITION_FAILED)
+                        || S3Storage.status(throwable, S3Storage.CONFLICT)) {
+                        res = CompletableFuture.completedFuture(false);
+                    } else {
+                        throw new ArtipieIOException(throwable);
+                    }
+                    return res;
+                }
+            ).thenCompose(Function.identity()).toCompletableFuture();
+    }
+
+    /**
+     * Keeps digests of uploaded content in user metadata of the object,
+     * if they were not uploaded with it as user metadata or as S3 checksum.
+     * <p>
+     * Object is copied to itself with replaced metadata if its ETag still matches uploaded
+     * one, so digests are never attached to concurrently saved value. Objects which S3
+     * doesn't copy by single request are copied by parts, each part is copied only if the
+     * ETag matches. Digests are optional, the value is saved even if they are not kept.
+     * </p>
+     *
+     * @param key Object key.
+     * @param etag ETag of uploaded object.
+     * @param digested Uploaded content.
+     * @param uploaded Digests uploaded with the object.
+     * @param size Size of uploaded object, empty if unknown.
+     * @return Completion stage which is completed when digests are kept or skipped.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Void> describe(
+        final Key key, final String etag, final DigestedContent digested,
+        final Map<String, String> uploaded, final Optional<Long> size
+    ) {
+        final Map<String, String> meta = S3Storage.known(digested);
+        final CompletionStage<Void> res;
+        if (meta.isEmpty() || uploaded.entrySet().containsAll(meta.entrySet())) {
+            res = CompletableFuture.allOf();
+        } else {
+            res = size.<CompletionStage<Long>>map(CompletableFuture::completedFuture).orElseGet(
+                () -> this.metadata(key).thenApply(Meta::size)
+            ).thenCompose(
+                length -> {
+                    final CompletionStage<Void> copied;
+                    if (length > S3Storage.MAX_COPY) {
+                        copied = this.multipart(
+                            key, meta, upload -> upload.copy(key, length, Optional.of(etag))
+                        ).thenApply(ignored -> null);
+                    } else {
+                        copied = this.client.copyObject(
+                            CopyObjectRequest.builder()
+                                .sourceBucket(this.bucket)
+                                .sourceKey(key.string())
+                                .destinationBucket(this.bucket)
+                                .destinationKey(key.string())
+                                .copySourceIfMatch(etag)
+                                .metadataDirective(MetadataDirective.REPLACE)
+                                .metadata(meta)
+                                .build()
+                        ).thenApply(ignored -> null);
+                    }
+                    return copied;
+                }
+            ).handle(
+                (copied, throwable) -> {
+                    if (throwable != null) {
+                        Logger.warn(
+                            this, "Digests of %s are not kept: %[exception]s", key, throwable
+                        );
+                    }
+                    return null;
+                }
+            );
+        }
+        return res;
     }
 
     /**
@@ -274,13 +797,33 @@ public final class S3Storage implements Storage {
      *
      * @param key The key of value to be saved.
      * @param updated The estimated content.
+     * @param meta User metadata of the object.
      * @return The future.
      */
-    private CompletableFuture<Void> putMultipart(final Key key, final Content updated) {
+    private CompletableFuture<String> putMultipart(final Key key, final Content updated,
+        final Map<String, String> meta) {
+        return this.multipart(key, meta, upload -> upload.upload(updated));
+    }
+
+    /**
+     * Creates object by multipart upload.
+     * Upload is completed if all parts are uploaded and aborted otherwise.
+     *
+     * @param key The key of value to be saved.
+     * @param meta User metadata of the object.
+     * @param parts Uploads parts.
+     * @return ETag of the object, when upload is completed.
+     */
+    private CompletableFuture<String> multipart(
+        final Key key,
+        final Map<String, String> meta,
+        final Function<MultipartUpload, CompletionStage<Void>> parts
+    ) {
         return this.client.createMultipartUpload(
             CreateMultipartUploadRequest.builder()
                 .bucket(this.bucket)
                 .key(key.string())
+                .metadata(meta)
                 .build()
         ).thenApply(
             created -> new MultipartUpload(
@@ -289,13 +832,13 @@ public final class S3Storage implements Storage {
                 created.uploadId()
             )
         ).thenCompose(
-            upload -> upload.upload(updated).handle(
+            upload -> parts.apply(upload).handle(
                 (ignored, throwable) -> {
-                    final CompletionStage<Void> finished;
+                    final CompletionStage<String> finished;
                     if (throwable == null) {
                         finished = upload.complete();
                     } else {
-                        final CompletableFuture<Void> promise =
+                        final CompletableFuture<String> promise =
                             new CompletableFuture<>();
                         finished = promise;
                         upload.abort().whenComplete(
@@ -310,6 +853,70 @@ public final class S3Storage implements Storage {
         );
     }
 
+    /**
+     * Digests of content as user metadata, if content was consumed completely.
+     *
+     * @param digested Content
+     * @return User metadata, empty if digests are not known yet
+     */
+    private static Map<String, String> known(final DigestedContent digested) {
+        return digested.meta().toCompletableFuture().getNow(Collections.emptyMap());
+    }
+
+    /**
+     * Algorithm of S3 checksum to upload with the object.
+     *
+     * @param uploaded User metadata uploaded with the object
+     * @return SHA-256 or SHA-1 if it is configured and is not uploaded as user metadata
+     */
+    private Optional<ChecksumAlgorithm> checksum(final Map<String, String> uploaded) {
+        final Optional<ChecksumAlgorithm> res;
+        if (this.digests.contains(Digests.SHA256)
+            && !Meta.OP_SHA256.take(uploaded).isPresent()) {
+            res = Optional.of(ChecksumAlgorithm.SHA256);
+        } else if (this.digests.contains(Digests.SHA1)
+            && !Meta.OP_SHA1.take(uploaded).isPresent()) {
+            res = Optional.of(ChecksumAlgorithm.SHA1);
+        } else {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Digests uploaded with the object: user metadata and S3 checksums of the object.
+     *
+     * @param meta User metadata uploaded with the object
+     * @param response Put response of S3
+     * @return Digests as user metadata
+     */
+    private static Map<String, String> uploaded(final Map<String, String> meta,
+        final PutObjectResponse response) {
+        final Map<String, String> res = new HashMap<>(meta);
+        S3HeadMeta.hex(response.checksumSHA256())
+            .ifPresent(hex -> Meta.OP_SHA256.put(res, hex));
+        S3HeadMeta.hex(response.checksumSHA1())
+            .ifPresent(hex -> Meta.OP_SHA1.put(res, hex));
+        return res;
+    }
+
+    /**
+     * Checks that error is caused by S3 response with the status code.
+     *
+     * @param throwable Error
+     * @param code Status code
+     * @return True if S3 responded with the status
+     */
+    private static boolean status(final Throwable throwable, final int code) {
+        boolean res = false;
+        Throwable cause = throwable;
+        while (cause != null && !res) {
+            res = cause instanceof S3Exception && ((S3Exception) cause).statusCode() == code;
+            cause = cause.getCause();
+        }
+        return res;
+    }
+
     /**
      * {@link AsyncRequestBody} created from {@link Content}.
      *
@@ -5,6 +5,7 @@
 package com.artipie.asto.s3;
 
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.Digests;
 import com.artipie.asto.factory.ArtipieStorageFactory;
 import com.artipie.asto.factory.StorageConfig;
 import com.artipie.asto.factory.StorageFactory;
@@ -28,7 +29,8 @@ public final class S3StorageFactory implements StorageFactory {
             S3StorageFactory.s3Client(cfg),
             new StorageConfig.StrictStorageConfig(cfg)
                 .string("bucket"),
-            !"false".equals(cfg.string("multipart"))
+            !"false".equals(cfg.string("multipart")),
+            new Digests.FromConfig(cfg).get()
         );
     }
 
@@ -5,6 +5,7 @@
 package com.artipie.asto.s3;
 
 import com.artipie.asto.Meta;
+import java.util.Collections;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Test;
@@ -43,4 +44,60 @@ final class S3HeadMetaTest {
             new IsEqual<>(hash)
         );
     }
+
+    @Test
+    void readsNoHashOfMultipartUpload() {
+        MatcherAssert.assertThat(
+            new S3HeadMeta(
+                HeadObjectResponse.builder()
+                    .contentLength(0L)
+                    .eTag("\"abc-2\"")
+                    .build()
+            ).read(Meta.OP_MD5).isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void readsDigestsFromUserMetadata() {
+        final String hash = "def";
+        MatcherAssert.assertThat(
+            new S3HeadMeta(
+                HeadObjectResponse.builder()
+                    .contentLength(0L)
+                    .eTag("abc-2")
+                    .metadata(Collections.singletonMap("sha256", hash))
+                    .build()
+            ).read(Meta.OP_SHA256).get(),
+            new IsEqual<>(hash)
+        );
+    }
+
+    @Test
+    void readsDigestFromChecksum() {
+        MatcherAssert.assertThat(
+            new S3HeadMeta(
+                HeadObjectResponse.builder()
+                    .contentLength(5L)
+                    .eTag("abc-2")
+                    .checksumSHA1("qvTGHdzF6KLavt4PO0gs2a6pQ00=")
+                    .build()
+            ).read(Meta.OP_SHA1).get(),
+            new IsEqual<>("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d")
+        );
+    }
+
+    @Test
+    void readsNoDigestFromChecksumOfParts() {
+        MatcherAssert.assertThat(
+            new S3HeadMeta(
+                HeadObjectResponse.builder()
+                    .contentLength(0L)
+                    .eTag("abc-2")
+                    .checksumSHA256("LPJNul+wow4m6DsqxbninhsWHlwfp0JecwQzYpOLmCQ=-2")
+                    .build()
+            ).read(Meta.OP_SHA256).isPresent(),
+            new IsEqual<>(false)
+        );
+    }
 }
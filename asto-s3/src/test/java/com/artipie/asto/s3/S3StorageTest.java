@@ -14,16 +14,26 @@ import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Meta;
 import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.ext.Digests;
 import com.google.common.io.ByteStreams;
 import io.reactivex.Flowable;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.lang.reflect.Proxy;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -35,10 +45,16 @@ import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.reactivestreams.Publisher;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
 /**
  * Tests for {@link S3Storage}.
@@ -242,6 +258,160 @@ class S3StorageTest {
         );
     }
 
+    /**
+     * Checks metadata only, S3 mock truncates object copied to itself.
+     */
+    @Test
+    void keepsDigestsInMetadata() {
+        final Key key = new Key.From("digested/data");
+        this.storage(EnumSet.of(Digests.SHA256)).save(
+            key, new Content.From("hello".getBytes(StandardCharsets.UTF_8))
+        ).join();
+        MatcherAssert.assertThat(
+            this.storage().metadata(key).join().read(Meta.OP_SHA256).get(),
+            new IsEqual<>("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824")
+        );
+    }
+
+    /**
+     * Content of unknown size is buffered before upload, its digests are uploaded with it,
+     * so the object is not copied to itself and is not truncated by S3 mock.
+     * @param client S3 client
+     * @throws Exception If fails
+     */
+    @Test
+    void uploadsDigestsOfContentOfUnknownSize(final AmazonS3 client) throws Exception {
+        final byte[] data = "hello".getBytes(StandardCharsets.UTF_8);
+        final String key = "digested/unknown";
+        this.storage(EnumSet.of(Digests.SHA256)).save(
+            new Key.From(key), new Content.From(Flowable.just(ByteBuffer.wrap(data)))
+        ).join();
+        MatcherAssert.assertThat(
+            "Digest is not kept",
+            this.storage().metadata(new Key.From(key)).join().read(Meta.OP_SHA256).get(),
+            new IsEqual<>("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824")
+        );
+        MatcherAssert.assertThat(
+            "Value is not kept",
+            this.download(client, key),
+            new IsEqual<>(data)
+        );
+    }
+
+    @Test
+    void requestsPageOnSubscription() {
+        final AtomicInteger requests = new AtomicInteger();
+        final S3AsyncClient origin = this.client();
+        final S3AsyncClient counting = (S3AsyncClient) Proxy.newProxyInstance(
+            S3AsyncClient.class.getClassLoader(),
+            new Class<?>[]{S3AsyncClient.class},
+            (proxy, method, args) -> {
+                if ("listObjectsV2".equals(method.getName())) {
+                    requests.incrementAndGet();
+                }
+                return method.invoke(origin, args);
+            }
+        );
+        final S3Storage storage = new S3Storage(counting, this.bucket, true);
+        storage.save(new Key.From("paged"), new Content.From("data".getBytes())).join();
+        final Publisher<Key> keys = storage.list(Key.ROOT, Key.ROOT, 10);
+        MatcherAssert.assertThat(
+            "Page is requested before subscription",
+            requests.get(),
+            new IsEqual<>(0)
+        );
+        Flowable.fromPublisher(keys).toList().blockingGet();
+        MatcherAssert.assertThat(
+            "Keys are not listed on resubscription",
+            Flowable.fromPublisher(keys).toList().blockingGet().size(),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "Page is not requested on each subscription",
+            requests.get(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void uploadsDigestAsChecksumWithoutCopy() {
+        final List<Object> checksums = new ArrayList<>(1);
+        final AtomicInteger copies = new AtomicInteger();
+        final S3AsyncClient origin = this.client();
+        final S3AsyncClient checksummed = (S3AsyncClient) Proxy.newProxyInstance(
+            S3AsyncClient.class.getClassLoader(),
+            new Class<?>[]{S3AsyncClient.class},
+            (proxy, method, args) -> {
+                final Object res;
+                if ("putObject".equals(method.getName())) {
+                    checksums.add(((PutObjectRequest) args[0]).checksumAlgorithm());
+                    res = ((CompletableFuture<?>) method.invoke(origin, args)).thenApply(
+                        rsp -> ((PutObjectResponse) rsp).toBuilder()
+                            .checksumSHA256("LPJNul+wow4m6DsqxbninhsWHlwfp0JecwQzYpOLmCQ=")
+                            .build()
+                    );
+                } else {
+                    if ("copyObject".equals(method.getName())) {
+                        copies.incrementAndGet();
+                    }
+                    res = method.invoke(origin, args);
+                }
+                return res;
+            }
+        );
+        new S3Storage(checksummed, this.bucket, true, EnumSet.of(Digests.SHA256)).save(
+            new Key.From("checksummed"),
+            new Content.From("hello".getBytes(StandardCharsets.UTF_8))
+        ).join();
+        MatcherAssert.assertThat(
+            "Digest is not uploaded as checksum",
+            checksums,
+            Matchers.contains(ChecksumAlgorithm.SHA256)
+        );
+        MatcherAssert.assertThat(
+            "Object is copied to keep digest which S3 keeps as checksum",
+            copies.get(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void keepsMetadataOnMultipartCopy() {
+        final List<Map<String, String>> created = new ArrayList<>(1);
+        final S3AsyncClient origin = this.client();
+        final S3AsyncClient large = (S3AsyncClient) Proxy.newProxyInstance(
+            S3AsyncClient.class.getClassLoader(),
+            new Class<?>[]{S3AsyncClient.class},
+            (proxy, method, args) -> {
+                final Object res;
+                if ("headObject".equals(method.getName())) {
+                    res = CompletableFuture.completedFuture(
+                        HeadObjectResponse.builder()
+                            .contentLength(6L * 1024 * 1024 * 1024)
+                            .eTag("\"abc-2\"")
+                            .metadata(Collections.singletonMap("sha256", "def"))
+                            .build()
+                    );
+                } else if ("createMultipartUpload".equals(method.getName())) {
+                    created.add(((CreateMultipartUploadRequest) args[0]).metadata());
+                    final CompletableFuture<Object> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(new IllegalStateException("Not uploaded"));
+                    res = failed;
+                } else {
+                    res = method.invoke(origin, args);
+                }
+                return res;
+            }
+        );
+        new S3Storage(large, this.bucket, true).copy(new Key.From("large"), new Key.From("copy"))
+            .handle((copied, throwable) -> copied)
+            .join();
+        MatcherAssert.assertThat(
+            created,
+            Matchers.contains(Matchers.hasEntry("sha256", "def"))
+        );
+    }
+
     private byte[] download(final AmazonS3 client, final String key) throws IOException {
         try (S3Object s3Object = client.getObject(this.bucket, key)) {
             return ByteStreams.toByteArray(s3Object.getObjectContent());
@@ -249,7 +419,15 @@ class S3StorageTest {
     }
 
     private S3Storage storage() {
-        final S3AsyncClient client = S3AsyncClient.builder()
+        return this.storage(Collections.emptySet());
+    }
+
+    private S3Storage storage(final Collection<Digests> digests) {
+        return new S3Storage(this.client(), this.bucket, true, digests);
+    }
+
+    private S3AsyncClient client() {
+        return S3AsyncClient.builder()
             .region(Region.of("us-east-1"))
             .credentialsProvider(
                 StaticCredentialsProvider.create(AwsBasicCredentials.create("foo", "bar"))
@@ -258,6 +436,5 @@ class S3StorageTest {
                 URI.create(String.format("http://localhost:%d", MOCK.getHttpPort()))
             )
             .build();
-        return new S3Storage(client, this.bucket);
     }
 }
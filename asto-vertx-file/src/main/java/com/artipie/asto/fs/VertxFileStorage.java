@@ -7,6 +7,7 @@ package com.artipie.asto.fs;
 import com.artipie.asto.ArtipieIOException;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
+import com.artipie.asto.ListResult;
 import com.artipie.asto.Meta;
 import com.artipie.asto.Storage;
 import com.artipie.asto.UnderLockOperation;
@@ -23,19 +24,16 @@ import io.vertx.core.file.CopyOptions;
 import io.vertx.reactivex.RxHelper;
 import io.vertx.reactivex.core.Vertx;
 import java.io.IOException;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Simple storage, in files.
@@ -79,45 +77,32 @@ public final class VertxFileStorage implements Storage {
 
     @Override
     public CompletableFuture<Collection<Key>> list(final Key prefix) {
-        return Single.fromCallable(
-            () -> {
-                final Path path = this.path(prefix);
-                final Collection<Key> keys;
-                if (Files.exists(path)) {
-                    final int dirnamelen;
-                    if (Key.ROOT.equals(prefix)) {
-                        dirnamelen = path.toString().length() + 1;
-                    } else {
-                        dirnamelen = path.toString().length() - prefix.string().length();
-                    }
-                    try {
-                        keys = Files.walk(path)
-                            .filter(Files::isRegularFile)
-                            .map(Path::toString)
-                            .map(p -> p.substring(dirnamelen))
-                            .map(
-                                s -> s.split(
-                                    FileSystems.getDefault().getSeparator().replace("\\", "\\\\")
-                                )
-                            )
-                            .map(Key.From::new)
-                            .sorted(Comparator.comparing(Key.From::string))
-                            .collect(Collectors.toList());
-                    } catch (final IOException iex) {
-                        throw new ArtipieIOException(iex);
-                    }
-                } else {
-                    keys = Collections.emptyList();
-                }
+        return CompletableFuture.completedFuture(prefix).thenApply(this::path).thenCompose(
+            path -> new ParallelWalk(path, prefix).keys()
+        ).<Collection<Key>>thenApply(
+            keys -> {
+                keys.sort(Key.CMP_STRING);
                 Logger.info(
                     this,
-                    "Found %d objects by the prefix \"%s\" in %s by %s: %s",
-                    keys.size(), prefix.string(), this.dir, path, keys
+                    "Found %d objects by the prefix \"%s\" in %s",
+                    keys.size(), prefix.string(), this.dir
                 );
                 return keys;
-            })
-            .subscribeOn(RxHelper.blockingScheduler(this.vertx.getDelegate()))
-            .to(SingleInterop.get()).toCompletableFuture();
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<ListResult> list(final Key prefix, final String delimiter) {
+        final CompletableFuture<ListResult> res;
+        if (Key.DELIMITER.equals(delimiter)) {
+            res = Single.fromCallable(() -> new DirectoryLevel(this.path(prefix), prefix).read())
+                .subscribeOn(RxHelper.blockingScheduler(this.vertx.getDelegate()))
+                .to(SingleInterop.get()).toCompletableFuture();
+        } else {
+            res = Storage.super.list(prefix, delimiter);
+        }
+        return res;
     }
 
     @Override
@@ -173,6 +158,23 @@ public final class VertxFileStorage implements Storage {
             .toCompletableFuture();
     }
 
+    @Override
+    public CompletableFuture<Void> copy(final Key source, final Key destination) {
+        return Single.fromCallable(
+            () -> {
+                final Path dest = this.path(destination);
+                dest.getParent().toFile().mkdirs();
+                return dest;
+            })
+            .subscribeOn(RxHelper.blockingScheduler(this.vertx.getDelegate()))
+            .flatMapCompletable(
+                dest -> new VertxRxFile(this.path(source), this.vertx).copy(dest)
+            )
+            .to(CompletableInterop.await())
+            .<Void>thenApply(file -> null)
+            .toCompletableFuture();
+    }
+
     @Override
     public CompletableFuture<Void> delete(final Key key) {
         return new VertxRxFile(this.path(key), this.vertx)
@@ -220,7 +222,20 @@ public final class VertxFileStorage implements Storage {
 
     @Override
     public CompletableFuture<? extends Meta> metadata(final Key key) {
-        return CompletableFuture.completedFuture(Meta.EMPTY);
+        return Single.fromCallable(
+            () -> {
+                try {
+                    return new FileMeta(
+                        Files.readAttributes(this.path(key), BasicFileAttributes.class)
+                    );
+                } catch (final NoSuchFileException fex) {
+                    throw new ValueNotFoundException(key, fex);
+                } catch (final IOException iex) {
+                    throw new ArtipieIOException(iex);
+                }
+            }
+        ).subscribeOn(RxHelper.blockingScheduler(this.vertx.getDelegate()))
+            .to(SingleInterop.get()).toCompletableFuture();
     }
 
     /**
@@ -132,6 +132,20 @@ public class VertxRxFile {
         );
     }
 
+    /**
+     * Copy file to new location.
+     *
+     * @param target Target path the file is copied to.
+     * @return Completion or error signal
+     */
+    public Completable copy(final Path target) {
+        return this.vertx.fileSystem().rxCopy(
+            this.file.toString(),
+            target.toString(),
+            new CopyOptions().setReplaceExisting(true)
+        );
+    }
+
     /**
      * Delete file.
      *